@@ -0,0 +1,28 @@
+package net.thucydides.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks and writes the results as JSON, so that runs can be compared over time.
+ * Takes the usual JMH command line options: for example, pass a regular expression to only run
+ * some of the benchmarks, or -rff to write the results somewhere other than benchmark-results.json.
+ */
+public class BenchmarkRunner {
+
+    private static final String DEFAULT_RESULTS_FILE = "benchmark-results.json";
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+        Options options = new OptionsBuilder().parent(commandLineOptions)
+                                              .resultFormat(commandLineOptions.getResultFormat().orElse(ResultFormatType.JSON))
+                                              .result(commandLineOptions.getResult().orElse(DEFAULT_RESULTS_FILE))
+                                              .build();
+        new Runner(options).run();
+    }
+}
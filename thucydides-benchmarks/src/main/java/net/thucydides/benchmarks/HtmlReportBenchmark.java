@@ -0,0 +1,78 @@
+package net.thucydides.benchmarks;
+
+import net.thucydides.core.ThucydidesSystemProperty;
+import net.thucydides.core.guice.Injectors;
+import net.thucydides.core.issues.IssueTracking;
+import net.thucydides.core.model.TestOutcome;
+import net.thucydides.core.reports.TestOutcomes;
+import net.thucydides.core.reports.html.HtmlAcceptanceTestReporter;
+import net.thucydides.core.reports.html.HtmlAggregateStoryReporter;
+import net.thucydides.core.requirements.RequirementsService;
+import net.thucydides.core.util.EnvironmentVariables;
+import net.thucydides.core.util.MockEnvironmentVariables;
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendering the FreeMarker report pages: the full set of aggregate pages, and the page for each test outcome.
+ * Incremental reporting is disabled, so every page is rendered on every invocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class HtmlReportBenchmark {
+
+    @Param({"100", "500"})
+    public int testCount;
+
+    @Param({"20"})
+    public int tagCardinality;
+
+    private TestOutcomes outcomes;
+    private File outputDirectory;
+    private EnvironmentVariables environmentVariables;
+
+    @Setup(Level.Trial)
+    public void generateOutcomes() throws IOException {
+        outcomes = TestOutcomes.of(SyntheticOutcomes.withTests(testCount)
+                                                    .withDistinctTags(tagCardinality)
+                                                    .generate());
+        outputDirectory = Files.createTempDirectory("benchmark-reports").toFile();
+        environmentVariables = new MockEnvironmentVariables();
+        environmentVariables.setProperty(ThucydidesSystemProperty.THUCYDIDES_REPORT_INCREMENTAL.getPropertyName(), "false");
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteReports() {
+        FileUtils.deleteQuietly(outputDirectory);
+    }
+
+    @Benchmark
+    public void renderAggregateReports() throws IOException {
+        HtmlAggregateStoryReporter reporter = new HtmlAggregateStoryReporter("benchmark", "",
+                                                                             Injectors.getInjector().getInstance(IssueTracking.class),
+                                                                             Injectors.getInjector().getInstance(RequirementsService.class),
+                                                                             environmentVariables);
+        reporter.setOutputDirectory(outputDirectory);
+        reporter.generateReportsForTestResultsIn(outcomes);
+    }
+
+    @Benchmark
+    public void renderTestOutcomeReports(Blackhole blackhole) throws IOException {
+        HtmlAcceptanceTestReporter reporter = new HtmlAcceptanceTestReporter(environmentVariables,
+                                                                             Injectors.getInjector().getInstance(IssueTracking.class));
+        reporter.setOutputDirectory(outputDirectory);
+        for (TestOutcome outcome : outcomes.getOutcomes()) {
+            blackhole.consume(reporter.generateReportFor(outcome, outcomes));
+        }
+    }
+}
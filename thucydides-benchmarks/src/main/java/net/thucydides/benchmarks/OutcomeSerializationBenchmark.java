@@ -0,0 +1,98 @@
+package net.thucydides.benchmarks;
+
+import net.thucydides.core.model.TestOutcome;
+import net.thucydides.core.reports.AcceptanceTestReporter;
+import net.thucydides.core.reports.OutcomeFormat;
+import net.thucydides.core.reports.TestOutcomeLoader;
+import net.thucydides.core.reports.TestOutcomes;
+import net.thucydides.core.reports.binary.BinaryTestOutcomeReporter;
+import net.thucydides.core.reports.json.JSONTestOutcomeReporter;
+import net.thucydides.core.reports.xml.XMLTestOutcomeReporter;
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * How long it takes to save and load a directory of test outcomes in each of the stored outcome formats.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class OutcomeSerializationBenchmark {
+
+    @Param({"JSON", "XML", "BINARY"})
+    public String format;
+
+    @Param({"200"})
+    public int testCount;
+
+    @Param({"1", "3"})
+    public int stepDepth;
+
+    @Param({"0", "20"})
+    public int dataTableRows;
+
+    private TestOutcomes outcomes;
+    private File sourceDirectory;
+    private File outputDirectory;
+    private AcceptanceTestReporter reporter;
+
+    @Setup(Level.Trial)
+    public void generateOutcomes() throws IOException {
+        outcomes = TestOutcomes.of(SyntheticOutcomes.withTests(testCount)
+                                                    .withStepDepth(stepDepth)
+                                                    .withDataTableRows(dataTableRows)
+                                                    .generate());
+        sourceDirectory = Files.createTempDirectory("benchmark-outcomes").toFile();
+        outputDirectory = Files.createTempDirectory("benchmark-output").toFile();
+
+        AcceptanceTestReporter sourceReporter = reporterFor(outcomeFormat(), sourceDirectory);
+        for (TestOutcome outcome : outcomes.getOutcomes()) {
+            sourceReporter.generateReportFor(outcome, outcomes);
+        }
+        reporter = reporterFor(outcomeFormat(), outputDirectory);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteOutcomes() {
+        FileUtils.deleteQuietly(sourceDirectory);
+        FileUtils.deleteQuietly(outputDirectory);
+    }
+
+    @Benchmark
+    public List<TestOutcome> loadOutcomes() throws IOException {
+        return new TestOutcomeLoader().forFormat(outcomeFormat()).loadFrom(sourceDirectory);
+    }
+
+    @Benchmark
+    public void saveOutcomes(Blackhole blackhole) throws IOException {
+        for (TestOutcome outcome : outcomes.getOutcomes()) {
+            blackhole.consume(reporter.generateReportFor(outcome, outcomes));
+        }
+    }
+
+    private OutcomeFormat outcomeFormat() {
+        return OutcomeFormat.valueOf(format);
+    }
+
+    static AcceptanceTestReporter reporterFor(OutcomeFormat format, File directory) {
+        AcceptanceTestReporter reporter;
+        switch (format) {
+            case XML: reporter = new XMLTestOutcomeReporter(); break;
+            case JSON: reporter = new JSONTestOutcomeReporter(); break;
+            case BINARY: reporter = new BinaryTestOutcomeReporter(); break;
+            default: throw new IllegalArgumentException("Unsupported outcome format: " + format);
+        }
+        reporter.setOutputDirectory(directory);
+        return reporter;
+    }
+}
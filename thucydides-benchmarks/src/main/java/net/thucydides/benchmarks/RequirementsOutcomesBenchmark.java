@@ -0,0 +1,68 @@
+package net.thucydides.benchmarks;
+
+import com.google.common.collect.ImmutableList;
+import net.thucydides.core.guice.Injectors;
+import net.thucydides.core.issues.IssueTracking;
+import net.thucydides.core.model.TestOutcome;
+import net.thucydides.core.reports.TestOutcomes;
+import net.thucydides.core.requirements.RequirementsTagProvider;
+import net.thucydides.core.requirements.model.Requirement;
+import net.thucydides.core.requirements.reports.RequirementOutcome;
+import net.thucydides.core.requirements.reports.RequirementsOutcomes;
+import net.thucydides.core.util.MockEnvironmentVariables;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Matching test outcomes to a tree of capabilities and features, and working out the requirement counts
+ * shown on the requirements pages.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class RequirementsOutcomesBenchmark {
+
+    @Param({"500"})
+    public int testCount;
+
+    @Param({"5", "20"})
+    public int capabilityCount;
+
+    @Param({"4"})
+    public int featuresPerCapability;
+
+    private List<TestOutcome> outcomes;
+    private List<Requirement> requirements;
+    private IssueTracking issueTracking;
+
+    @Setup(Level.Trial)
+    public void generateOutcomes() {
+        SyntheticOutcomes syntheticOutcomes = SyntheticOutcomes.withTests(testCount)
+                                                               .withRequirements(capabilityCount, featuresPerCapability);
+        outcomes = syntheticOutcomes.generate();
+        requirements = syntheticOutcomes.requirements();
+        issueTracking = Injectors.getInjector().getInstance(IssueTracking.class);
+    }
+
+    @Benchmark
+    public void buildRequirementsOutcomes(Blackhole blackhole) {
+        RequirementsOutcomes requirementsOutcomes = new RequirementsOutcomes(requirements,
+                                                                             TestOutcomes.of(outcomes),
+                                                                             issueTracking,
+                                                                             new MockEnvironmentVariables(),
+                                                                             ImmutableList.<RequirementsTagProvider>of());
+        blackhole.consume(requirementsOutcomes.getFlattenedRequirementCount());
+        for (RequirementOutcome requirementOutcome : requirementsOutcomes.getRequirementOutcomes()) {
+            blackhole.consume(requirementOutcome.getTestCount());
+            blackhole.consume(requirementOutcome.isComplete());
+            blackhole.consume(requirementOutcome.getRequirementsWithoutTestsCount());
+        }
+        blackhole.consume(requirementsOutcomes.requirementsOfType("feature").getRequirementCount());
+    }
+}
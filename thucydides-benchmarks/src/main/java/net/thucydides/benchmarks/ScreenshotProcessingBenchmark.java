@@ -0,0 +1,165 @@
+package net.thucydides.benchmarks;
+
+import com.google.common.collect.Lists;
+import net.thucydides.core.ThucydidesSystemProperty;
+import net.thucydides.core.screenshots.MultithreadScreenshotProcessor;
+import net.thucydides.core.screenshots.QueuedScreenshot;
+import net.thucydides.core.screenshots.ScreenshotEncoding;
+import net.thucydides.core.screenshots.ScreenshotProcessor;
+import net.thucydides.core.screenshots.SingleThreadScreenshotProcessor;
+import net.thucydides.core.util.EnvironmentVariables;
+import net.thucydides.core.util.MockEnvironmentVariables;
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.*;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moving (and optionally resizing and re-encoding) a batch of screenshots through the screenshot processor,
+ * as happens at the end of each test. Screenshots are either queued as files or as the bytes returned by the driver,
+ * and are stored as PNG (as returned, or recompressed), as JPEG, or as PNG with thumbnails.
+ * A fresh copy of the screenshots is made before each invocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ScreenshotProcessingBenchmark {
+
+    private static final int SCREENSHOT_WIDTH = 1280;
+    private static final int SCREENSHOT_HEIGHT = 1024;
+
+    @Param({"20"})
+    public int screenshotCount;
+
+    @Param({"0", "800"})
+    public int resizedWidth;
+
+    @Param({"single", "pooled"})
+    public String processor;
+
+    @Param({"file", "memory"})
+    public String source;
+
+    @Param({"png", "png-z1", "png-z9", "jpeg-q85", "png-thumbnails"})
+    public String encoding;
+
+    private File workingDirectory;
+    private File templateScreenshot;
+    private byte[] templateScreenshotData;
+    private String extension;
+    private ScreenshotProcessor screenshotProcessor;
+    private List<QueuedScreenshot> queuedScreenshots;
+
+    @Setup(Level.Trial)
+    public void createScreenshot() throws IOException {
+        workingDirectory = Files.createTempDirectory("benchmark-screenshots").toFile();
+        templateScreenshot = new File(workingDirectory, "template.png");
+        ImageIO.write(sampleScreenshot(), "png", templateScreenshot);
+        templateScreenshotData = FileUtils.readFileToByteArray(templateScreenshot);
+
+        EnvironmentVariables environmentVariables = new MockEnvironmentVariables();
+        environmentVariables.setProperty(ThucydidesSystemProperty.THUCYDIDES_RESIZED_IMAGE_WIDTH.getPropertyName(),
+                                         Integer.toString(resizedWidth));
+        useEncoding(environmentVariables);
+        extension = new ScreenshotEncoding(environmentVariables).getExtension();
+        screenshotProcessor = ("single".equals(processor)) ? new SingleThreadScreenshotProcessor(environmentVariables)
+                                                           : new MultithreadScreenshotProcessor(environmentVariables);
+    }
+
+    private void useEncoding(EnvironmentVariables environmentVariables) {
+        switch (encoding) {
+            case "png":
+                break;
+            case "png-z1":
+                setProperty(environmentVariables, ThucydidesSystemProperty.THUCYDIDES_SCREENSHOT_PNG_COMPRESSION, "1");
+                break;
+            case "png-z9":
+                setProperty(environmentVariables, ThucydidesSystemProperty.THUCYDIDES_SCREENSHOT_PNG_COMPRESSION, "9");
+                break;
+            case "jpeg-q85":
+                setProperty(environmentVariables, ThucydidesSystemProperty.THUCYDIDES_SCREENSHOT_FORMAT, "jpeg");
+                setProperty(environmentVariables, ThucydidesSystemProperty.THUCYDIDES_SCREENSHOT_JPEG_QUALITY, "85");
+                break;
+            case "png-thumbnails":
+                setProperty(environmentVariables, ThucydidesSystemProperty.THUCYDIDES_SCREENSHOT_THUMBNAIL_WIDTH, "200");
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown screenshot encoding: " + encoding);
+        }
+    }
+
+    private void setProperty(EnvironmentVariables environmentVariables, ThucydidesSystemProperty property, String value) {
+        environmentVariables.setProperty(property.getPropertyName(), value);
+    }
+
+    private BufferedImage sampleScreenshot() {
+        BufferedImage image = new BufferedImage(SCREENSHOT_WIDTH, SCREENSHOT_HEIGHT, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(Color.WHITE);
+        graphics.fillRect(0, 0, SCREENSHOT_WIDTH, SCREENSHOT_HEIGHT);
+        Random random = new Random(42);
+        for (int block = 0; block < 200; block++) {
+            graphics.setColor(new Color(random.nextInt(0xFFFFFF)));
+            graphics.fillRect(random.nextInt(SCREENSHOT_WIDTH), random.nextInt(SCREENSHOT_HEIGHT), 120, 20);
+        }
+        graphics.dispose();
+        return image;
+    }
+
+    @Setup(Level.Invocation)
+    public void copyScreenshots() throws IOException {
+        File sourceDirectory = new File(workingDirectory, "source");
+        File destinationDirectory = new File(workingDirectory, "destination");
+        FileUtils.deleteQuietly(destinationDirectory);
+        destinationDirectory.mkdirs();
+        queuedScreenshots = Lists.newArrayList();
+        for (int i = 0; i < screenshotCount; i++) {
+            File destinationFile = new File(destinationDirectory, "screenshot-" + i + "." + extension);
+            if ("memory".equals(source)) {
+                queuedScreenshots.add(new QueuedScreenshot(templateScreenshotData, destinationFile));
+            } else {
+                File sourceFile = new File(sourceDirectory, "screenshot-" + i + ".png");
+                FileUtils.copyFile(templateScreenshot, sourceFile);
+                queuedScreenshots.add(new QueuedScreenshot(sourceFile, destinationFile));
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteScreenshots() {
+        screenshotProcessor.terminate();
+        FileUtils.deleteQuietly(workingDirectory);
+    }
+
+    @Benchmark
+    public void processScreenshots() throws InterruptedException {
+        for (QueuedScreenshot screenshot : queuedScreenshots) {
+            screenshotProcessor.queueScreenshot(screenshot);
+        }
+        screenshotProcessor.waitUntilDone();
+        waitForDestinationFiles();
+    }
+
+    /**
+     * The single-threaded processor may report that it is done while it is still writing the last file.
+     */
+    private void waitForDestinationFiles() throws InterruptedException {
+        for (QueuedScreenshot screenshot : queuedScreenshots) {
+            while (!screenshot.getDestinationFile().exists()
+                   || (!screenshot.isInMemory() && screenshot.getSourceFile().exists())) {
+                Thread.sleep(1);
+            }
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package net.thucydides.benchmarks;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import net.thucydides.core.model.DataTable;
+import net.thucydides.core.model.Story;
+import net.thucydides.core.model.TestOutcome;
+import net.thucydides.core.model.TestResult;
+import net.thucydides.core.model.TestStep;
+import net.thucydides.core.model.TestTag;
+import net.thucydides.core.requirements.model.Requirement;
+import net.thucydides.core.screenshots.ScreenshotAndHtmlSource;
+import org.joda.time.DateTime;
+
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Generates realistic-looking test outcomes for the benchmarks.
+ * The outcomes are generated from a fixed random seed, so every benchmark run works on the same data.
+ * Each test belongs to one of the generated features, which are grouped into capabilities, so the same
+ * outcomes can be used to build requirements outcomes.
+ */
+public class SyntheticOutcomes {
+
+    private static final long SEED = 42;
+    private static final DateTime START_TIME = new DateTime(2014, 1, 1, 9, 0, 0, 0);
+
+    private static final TestResult[] STEP_RESULTS = {
+            TestResult.SUCCESS, TestResult.SUCCESS, TestResult.SUCCESS, TestResult.SUCCESS, TestResult.SUCCESS,
+            TestResult.SUCCESS, TestResult.FAILURE, TestResult.ERROR, TestResult.PENDING, TestResult.IGNORED
+    };
+
+    private final int testCount;
+    private int stepDepth = 2;
+    private int stepsPerGroup = 4;
+    private int tagCardinality = 20;
+    private int dataTableRows = 0;
+    private int capabilityCount = 5;
+    private int featuresPerCapability = 4;
+
+    private SyntheticOutcomes(int testCount) {
+        this.testCount = testCount;
+    }
+
+    public static SyntheticOutcomes withTests(int testCount) {
+        return new SyntheticOutcomes(testCount);
+    }
+
+    /**
+     * @param stepDepth how many levels of nested steps each test has. A depth of 1 means a flat list of steps.
+     */
+    public SyntheticOutcomes withStepDepth(int stepDepth) {
+        this.stepDepth = stepDepth;
+        return this;
+    }
+
+    public SyntheticOutcomes withStepsPerGroup(int stepsPerGroup) {
+        this.stepsPerGroup = stepsPerGroup;
+        return this;
+    }
+
+    /**
+     * @param tagCardinality how many distinct tags are shared between the tests, in addition to the requirement tags.
+     */
+    public SyntheticOutcomes withDistinctTags(int tagCardinality) {
+        this.tagCardinality = tagCardinality;
+        return this;
+    }
+
+    /**
+     * @param dataTableRows how many rows of example data each test has. Tests are not data-driven if this is 0.
+     */
+    public SyntheticOutcomes withDataTableRows(int dataTableRows) {
+        this.dataTableRows = dataTableRows;
+        return this;
+    }
+
+    public SyntheticOutcomes withRequirements(int capabilityCount, int featuresPerCapability) {
+        this.capabilityCount = capabilityCount;
+        this.featuresPerCapability = featuresPerCapability;
+        return this;
+    }
+
+    public List<TestOutcome> generate() {
+        Random random = new Random(SEED);
+        List<TestOutcome> outcomes = Lists.newArrayListWithCapacity(testCount);
+        for (int testNumber = 0; testNumber < testCount; testNumber++) {
+            outcomes.add(generateOutcome(testNumber, random));
+        }
+        return outcomes;
+    }
+
+    /**
+     * @return the capabilities and features that the generated tests are tagged with.
+     */
+    public List<Requirement> requirements() {
+        List<Requirement> capabilities = Lists.newArrayList();
+        for (int capability = 0; capability < capabilityCount; capability++) {
+            List<Requirement> features = Lists.newArrayList();
+            for (int feature = 0; feature < featuresPerCapability; feature++) {
+                features.add(Requirement.named(featureName(feature)).withType("feature")
+                                        .withNarrative("In order to benchmark the reports")
+                                        .withParent(capabilityName(capability)));
+            }
+            capabilities.add(Requirement.named(capabilityName(capability)).withType("capability")
+                                        .withNarrative("In order to benchmark the reports")
+                                        .withChildren(features));
+        }
+        return capabilities;
+    }
+
+    private TestOutcome generateOutcome(int testNumber, Random random) {
+        int capability = testNumber % capabilityCount;
+        int feature = (testNumber / capabilityCount) % featuresPerCapability;
+        Story story = Story.withId("benchmark.Feature" + capability + "_" + feature, featureName(feature));
+
+        TestOutcome outcome = TestOutcome.forTestInStory("test_number_" + testNumber, story);
+        outcome.setTitle("Test number " + testNumber);
+        outcome.setStartTime(START_TIME.plusSeconds(testNumber));
+        outcome.setTags(tagsFor(testNumber, capability, feature, random));
+
+        int stepNumber = 0;
+        for (int step = 0; step < stepsPerGroup; step++) {
+            outcome.recordStep(generateStep(testNumber, stepNumber++, 1, random));
+        }
+        if (dataTableRows > 0) {
+            outcome.useExamplesFrom(dataTableFor(testNumber));
+        }
+        outcome.setDuration(100 + random.nextInt(5000));
+        return outcome;
+    }
+
+    private Set<TestTag> tagsFor(int testNumber, int capability, int feature, Random random) {
+        Set<TestTag> tags = Sets.newHashSet();
+        tags.add(TestTag.withName(capabilityName(capability)).andType("capability"));
+        tags.add(TestTag.withName(capabilityName(capability) + "/" + featureName(feature)).andType("feature"));
+        if (tagCardinality > 0) {
+            tags.add(TestTag.withName("tag " + random.nextInt(tagCardinality)).andType("tag"));
+            tags.add(TestTag.withName("component " + (testNumber % tagCardinality)).andType("component"));
+        }
+        return tags;
+    }
+
+    private TestStep generateStep(int testNumber, int stepNumber, int depth, Random random) {
+        TestStep step = new TestStep(START_TIME.plusSeconds(testNumber), "Step " + stepNumber + " at level " + depth
+                                                                         + " of a benchmark test");
+        if (depth < stepDepth) {
+            for (int child = 0; child < stepsPerGroup; child++) {
+                step.addChildStep(generateStep(testNumber, child, depth + 1, random));
+            }
+        } else {
+            step.setResult(STEP_RESULTS[random.nextInt(STEP_RESULTS.length)]);
+            step.setDuration(random.nextInt(500));
+            step.addScreenshot(new ScreenshotAndHtmlSource("screenshot-" + testNumber + "-" + stepNumber + ".png",
+                                                           "screenshot-" + testNumber + "-" + stepNumber + ".html"));
+        }
+        return step;
+    }
+
+    private DataTable dataTableFor(int testNumber) {
+        List<List<Object>> rows = Lists.newArrayList();
+        for (int row = 0; row < dataTableRows; row++) {
+            rows.add(Lists.<Object>newArrayList("user" + row, "password" + testNumber, row));
+        }
+        return DataTable.withHeaders(Lists.newArrayList("username", "password", "attempts")).andRows(rows).build();
+    }
+
+    private String capabilityName(int capability) {
+        return "Capability " + capability;
+    }
+
+    private String featureName(int feature) {
+        return "Feature " + feature;
+    }
+}
@@ -0,0 +1,85 @@
+package net.thucydides.benchmarks;
+
+import net.thucydides.core.model.TestOutcome;
+import net.thucydides.core.model.TestResult;
+import net.thucydides.core.model.TestTag;
+import net.thucydides.core.model.TestType;
+import net.thucydides.core.reports.TestOutcomes;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Slicing and counting a set of test outcomes, as the aggregate report templates do for every page.
+ * A new TestOutcomes instance is created for each invocation, so values cached by one invocation
+ * are not reused by the next.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class TestOutcomesBenchmark {
+
+    @Param({"100", "1000"})
+    public int testCount;
+
+    @Param({"2"})
+    public int stepDepth;
+
+    @Param({"20", "200"})
+    public int tagCardinality;
+
+    private List<TestOutcome> outcomes;
+    private List<TestTag> tags;
+
+    @Setup(Level.Trial)
+    public void generateOutcomes() {
+        outcomes = SyntheticOutcomes.withTests(testCount)
+                                    .withStepDepth(stepDepth)
+                                    .withDistinctTags(tagCardinality)
+                                    .generate();
+        tags = TestOutcomes.of(outcomes).getTags();
+    }
+
+    @Benchmark
+    public void sliceByTag(Blackhole blackhole) {
+        TestOutcomes testOutcomes = TestOutcomes.of(outcomes);
+        for (TestTag tag : tags) {
+            blackhole.consume(testOutcomes.withTag(tag).getTotal());
+        }
+    }
+
+    @Benchmark
+    public void sliceByTagType(Blackhole blackhole) {
+        TestOutcomes testOutcomes = TestOutcomes.of(outcomes);
+        for (String tagType : testOutcomes.getTagTypes()) {
+            blackhole.consume(testOutcomes.withTagType(tagType).getTagNames());
+        }
+    }
+
+    @Benchmark
+    public void sliceByResult(Blackhole blackhole) {
+        TestOutcomes testOutcomes = TestOutcomes.of(outcomes);
+        blackhole.consume(testOutcomes.getPassingTests().getTotal());
+        blackhole.consume(testOutcomes.getFailingTests().getTotal());
+        blackhole.consume(testOutcomes.getErrorTests().getTotal());
+        blackhole.consume(testOutcomes.getPendingTests().getTotal());
+    }
+
+    @Benchmark
+    public void countResults(Blackhole blackhole) {
+        TestOutcomes testOutcomes = TestOutcomes.of(outcomes);
+        blackhole.consume(testOutcomes.getResult());
+        blackhole.consume(testOutcomes.getStepCount());
+        blackhole.consume(testOutcomes.getDuration());
+        for (TestResult result : TestResult.values()) {
+            blackhole.consume(testOutcomes.getTotalTests().withResult(result));
+            blackhole.consume(testOutcomes.count(TestType.AUTOMATED).withResult(result));
+            blackhole.consume(testOutcomes.getPercentSteps().withResult(result));
+        }
+    }
+}
@@ -557,8 +557,8 @@ public enum ThucydidesSystemProperty {
     THUCYDIDES_STORE_HTML_SOURCE,
 
     /**
-     * If set to true, a copy of the original screenshot will be kept when screenshots are scaled for the reports.
-     * False by default to conserve disk space.
+     * No longer used: screenshots are sized once, when they are taken (see thucydides.resized.image.width),
+     * and are no longer rescaled when the reports are generated.
      */
     THUCYDIDES_KEEP_UNSCALED_SCREENSHOTS,
 
@@ -587,6 +587,7 @@ public enum ThucydidesSystemProperty {
     /**
      * What format should test results be generated in.
      * By default, this is "json,xml".
+     * Use "binary" for the compact binary format, which is the quickest to load in the aggregate reports.
      */
     OUTPUT_FORMATS,
 
@@ -657,7 +658,139 @@ public enum ThucydidesSystemProperty {
      * Keep the Thucydides session data between tests.
      * Normally, the session data is cleared between tests.
      */
-    THUCYDIDES_MAINTAIN_SESSION;
+    THUCYDIDES_MAINTAIN_SESSION,
+
+    /**
+     * How many threads should be used to generate the aggregate report pages, and the reports for each test outcome.
+     * Defaults to the number of available processors. Set to 1 to generate the reports one after another.
+     */
+    THUCYDIDES_REPORT_THREADS,
+
+    /**
+     * Only regenerate the aggregate report pages whose test outcomes have changed since the last run.
+     * Defaults to false. Pages that are not regenerated keep the timestamp of the run that produced them.
+     * Only the top-level template of each page is taken into account, so changes to the templates it includes
+     * will not be picked up until the report directory is cleaned.
+     */
+    THUCYDIDES_REPORT_INCREMENTAL,
+
+    /**
+     * How many threads should be used to read the test outcome files when generating aggregate reports.
+     * Defaults to the number of available processors.
+     */
+    THUCYDIDES_REPORT_LOADER_THREADS,
+
+    /**
+     * How many threads should be used to move and resize the screenshots taken during the tests.
+     * Defaults to the number of available processors.
+     */
+    THUCYDIDES_SCREENSHOT_PROCESSOR_THREADS,
+
+    /**
+     * How many screenshots can be waiting to be processed before the test threads have to wait for them.
+     * Defaults to 100.
+     */
+    THUCYDIDES_SCREENSHOT_QUEUE_SIZE,
+
+    /**
+     * If set, optional screenshots that look at least this similar (as a percentage) to the previous screenshot
+     * are not stored: the previous screenshot is used instead. For example, 97 will ignore a blinking cursor or a spinner.
+     * Screenshots are compared using a perceptual hash of the image, so this costs an extra image decoding per screenshot.
+     * Not set by default, in which case only screenshots with identical contents are merged.
+     */
+    THUCYDIDES_SCREENSHOT_SIMILARITY_THRESHOLD,
+
+    /**
+     * If set to true, optional screenshots are skipped when taking them would slow the tests down:
+     * when the screenshot queue is full, when a step is very short, or when screenshots take too long compared to the steps.
+     * Screenshots of failing steps are always taken, and the number of skipped screenshots is logged after each test.
+     * False by default.
+     */
+    THUCYDIDES_ADAPTIVE_SCREENSHOTS,
+
+    /**
+     * With adaptive screenshots, steps that take less time than this (in milliseconds) get no screenshot at the end of the step.
+     * Defaults to 500.
+     */
+    THUCYDIDES_ADAPTIVE_SCREENSHOTS_MINIMUM_STEP_DURATION,
+
+    /**
+     * With adaptive screenshots, the highest proportion of a step's time (as a percentage) that taking a screenshot may add
+     * to the step. Defaults to 50.
+     */
+    THUCYDIDES_ADAPTIVE_SCREENSHOTS_MAXIMUM_OVERHEAD,
+
+    /**
+     * The image format used to store screenshots: "png" (the default) or "jpeg".
+     * JPEG screenshots are typically several times smaller than PNG screenshots.
+     */
+    THUCYDIDES_SCREENSHOT_FORMAT,
+
+    /**
+     * The quality (from 0 to 100) of screenshots stored in JPEG format. Defaults to 85.
+     */
+    THUCYDIDES_SCREENSHOT_JPEG_QUALITY,
+
+    /**
+     * If set, PNG screenshots are recompressed at this deflate level (from 0, no compression, to 9, the smallest files)
+     * before they are stored. By default, screenshots are stored as returned by the driver.
+     */
+    THUCYDIDES_SCREENSHOT_PNG_COMPRESSION,
+
+    /**
+     * If set, a thumbnail of this width is stored along with each screenshot, and used in the test reports
+     * wherever the screenshots are only displayed as icons.
+     */
+    THUCYDIDES_SCREENSHOT_THUMBNAIL_WIDTH,
+
+    /**
+     * The maximum disk space that stored screenshots and page sources can take up in the output directory
+     * and the report directory together, in bytes or with a k, m or g suffix (e.g. "500m"). Screenshots linked into
+     * both directories are only counted once. When the aggregate reports are generated, screenshots are
+     * deleted from both directories until they fit: screenshots of passing tests first, then those of the oldest test runs.
+     * The reports show a placeholder for screenshots that have been deleted. Not set by default.
+     */
+    THUCYDIDES_SCREENSHOT_STORAGE_BUDGET,
+
+    /**
+     * If set to true, browsers are not closed when a test class has finished with them, but reset and kept
+     * for the next test class that needs the same type of browser. False by default.
+     * The reset only clears the cookies and web storage of the page that is open when the test class finishes:
+     * data kept by other sites, and the browser cache and history, carry over to the next test class.
+     */
+    THUCYDIDES_DRIVER_POOL,
+
+    /**
+     * How many test classes a pooled browser can be used for before it is closed. Defaults to 50.
+     */
+    THUCYDIDES_DRIVER_POOL_MAX_REUSE,
+
+    /**
+     * How long (in seconds) a pooled browser can be left unused before it is closed. Defaults to 300.
+     */
+    THUCYDIDES_DRIVER_POOL_IDLE_TIMEOUT,
+
+    /**
+     * How many browsers of the same type can be started at the same time. By default there is no limit.
+     * The limit for a particular type of browser can be set with thucydides.driver.launch.permits.&lt;driver&gt;,
+     * e.g. thucydides.driver.launch.permits.firefox.
+     */
+    THUCYDIDES_DRIVER_LAUNCH_PERMITS,
+
+    /**
+     * Start the browser needed by a test class in the background as soon as the test runner is created,
+     * so that it is ready when the tests need it. Defaults to false.
+     */
+    THUCYDIDES_DRIVER_PREWARM,
+
+    /**
+     * Reuse the element found for a page object field until the browser navigates to another page, an action
+     * (click, typing, submit or clear) is performed on the element, or the element goes stale, rather than looking
+     * it up again for every call. Defaults to false.
+     * Pages that change without navigating (e.g. through Javascript) can leave a field pointing to an element
+     * that no longer matches its selector, so only enable this for page objects whose elements stay the same.
+     */
+    THUCYDIDES_ELEMENT_CACHE;
 
     private String propertyName;
     public static final int DEFAULT_HEIGHT = 700;
@@ -0,0 +1,77 @@
+package net.thucydides.core.annotations.locators;
+
+import com.google.common.collect.ImmutableSet;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.internal.Locatable;
+import org.openqa.selenium.internal.WrapsElement;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Set;
+
+/**
+ * Sends web element calls to the element cached by a locator.
+ * Actions such as clicks wait for the cached element to be usable first, and the element is looked up again
+ * after each action.
+ * If the cached element has gone stale, it is looked up again and the call is retried once.
+ */
+class CachedElementHandler implements InvocationHandler {
+
+    private static final Set<String> ACTIONS = ImmutableSet.of("click", "sendKeys", "submit", "clear");
+
+    private final SmartAjaxElementLocator locator;
+
+    private CachedElementHandler(SmartAjaxElementLocator locator) {
+        this.locator = locator;
+    }
+
+    static WebElement proxyFor(SmartAjaxElementLocator locator) {
+        return (WebElement) Proxy.newProxyInstance(CachedElementHandler.class.getClassLoader(),
+                new Class[]{WebElement.class, WrapsElement.class, Locatable.class},
+                new CachedElementHandler(locator));
+    }
+
+    public Object invoke(Object object, Method method, Object[] objects) throws Throwable {
+        if ("getWrappedElement".equals(method.getName())) {
+            return locator.currentCachedElement();
+        }
+        try {
+            return invokeOnCachedElement(method, objects);
+        } finally {
+            if (isAction(method)) {
+                locator.forgetCachedElement();
+            }
+        }
+    }
+
+    private Object invokeOnCachedElement(Method method, Object[] objects) throws Throwable {
+        try {
+            return method.invoke(elementFor(method), objects);
+        } catch (InvocationTargetException e) {
+            if (!(e.getCause() instanceof StaleElementReferenceException)) {
+                throw e.getCause();
+            }
+        }
+        locator.forgetCachedElement();
+        try {
+            return method.invoke(elementFor(method), objects);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Actions can change the page without navigating to another one (following a link, submitting a form or
+     * re-rendering part of the page), so the element is looked up again after each action.
+     */
+    private boolean isAction(Method method) {
+        return ACTIONS.contains(method.getName());
+    }
+
+    private WebElement elementFor(Method method) {
+        return isAction(method) ? locator.usableCachedElement() : locator.currentCachedElement();
+    }
+}
@@ -0,0 +1,46 @@
+package net.thucydides.core.annotations.locators;
+
+import org.openqa.selenium.By;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * How to find the element for an annotated page object field.
+ * The field annotations are only read once for each field, and the resulting locator is shared by all the page
+ * objects (and all the threads) that use the field.
+ */
+public class FieldLocator {
+
+    private static final ConcurrentMap<Field, FieldLocator> FIELD_LOCATORS = new ConcurrentHashMap<>();
+
+    private final By by;
+    private final boolean lookupCached;
+
+    private FieldLocator(By by, boolean lookupCached) {
+        this.by = by;
+        this.lookupCached = lookupCached;
+    }
+
+    public static FieldLocator forField(Field field) {
+        FieldLocator fieldLocator = FIELD_LOCATORS.get(field);
+        if (fieldLocator == null) {
+            SmartAnnotations annotations = new SmartAnnotations(field);
+            FIELD_LOCATORS.putIfAbsent(field, new FieldLocator(annotations.buildBy(), annotations.isLookupCached()));
+            fieldLocator = FIELD_LOCATORS.get(field);
+        }
+        return fieldLocator;
+    }
+
+    public By getBy() {
+        return by;
+    }
+
+    /**
+     * Should the element be looked up only once (if the field has a @CacheLookup annotation)?
+     */
+    public boolean isLookupCached() {
+        return lookupCached;
+    }
+}
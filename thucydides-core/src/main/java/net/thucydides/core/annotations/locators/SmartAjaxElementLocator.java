@@ -2,8 +2,10 @@ package net.thucydides.core.annotations.locators;
 
 import com.google.common.collect.Lists;
 import net.thucydides.core.steps.StepEventBus;
+import net.thucydides.core.webdriver.WebDriverFacade;
 import org.openqa.selenium.By;
 import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.StaleElementReferenceException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.ui.Clock;
@@ -17,9 +19,23 @@ public class SmartAjaxElementLocator extends SmartElementLocator {
 	protected final int timeOutInSeconds;
 	private final Clock clock;
 
-	private final Field field;
 	private final WebDriver driver;
 
+	private WebElement cachedElement;
+	private long cachedElementNavigationCount;
+	private WebElement cachedElementProxy;
+
+	/**
+	 * Greater than zero while the current thread is checking the current state of an element
+	 * (such as with isCurrentlyVisible()), so that elements are looked up without waiting for them to appear.
+	 */
+	private static final ThreadLocal<Integer> IMMEDIATE_LOOKUPS = new ThreadLocal<Integer>() {
+		@Override
+		protected Integer initialValue() {
+			return 0;
+		}
+	};
+
 	/**
 	 * Main constructor.
 	 *
@@ -36,7 +52,6 @@ public class SmartAjaxElementLocator extends SmartElementLocator {
 		super(driver, field);
 		this.timeOutInSeconds = timeOutInSeconds;
 		this.clock = clock;
-		this.field = field;
 		this.driver = driver;
 	}
 
@@ -50,22 +65,92 @@ public class SmartAjaxElementLocator extends SmartElementLocator {
 	}
 
 	private boolean shouldFindElementImmediately() {
-		return aPreviousStepHasFailed() || (calledFromAQuickMethod());
+		return aPreviousStepHasFailed() || lookingUpImmediately();
 	}
 
-	private boolean calledFromAQuickMethod() {
-        for (StackTraceElement elt : Thread.currentThread().getStackTrace()) {
-            //if (QUICK_METHODS.contains(elt.getMethodName())
-            if (elt.getMethodName().contains("Currently")) {
-                return true;
-            }
-        }
-        return false;
-    }
+	/**
+	 * Look up elements in the current thread without waiting for them to appear, until endImmediateLookups() is called.
+	 * Calls can be nested, but each call must be matched by a call to endImmediateLookups().
+	 */
+	public static void startImmediateLookups() {
+		IMMEDIATE_LOOKUPS.set(IMMEDIATE_LOOKUPS.get() + 1);
+	}
+
+	public static void endImmediateLookups() {
+		IMMEDIATE_LOOKUPS.set(Math.max(0, IMMEDIATE_LOOKUPS.get() - 1));
+	}
+
+	public static boolean lookingUpImmediately() {
+		return IMMEDIATE_LOOKUPS.get() > 0;
+	}
+
+	/**
+	 * Find the element, reusing the element found by a previous call until the browser navigates to another page.
+	 * The returned element looks the element up again by itself if it goes stale.
+	 */
+	public WebElement findCachedElement() {
+		currentCachedElement();
+		if (cachedElementProxy == null) {
+			cachedElementProxy = CachedElementHandler.proxyFor(this);
+		}
+		return cachedElementProxy;
+	}
+
+	/**
+	 * The next call to findCachedElement() will look the element up again.
+	 */
+	public void forgetCachedElement() {
+		cachedElement = null;
+	}
 
+	/**
+	 * Elements found without waiting for them to be usable are not cached, so that a later lookup still waits for them.
+	 */
+	WebElement currentCachedElement() {
+		long navigationCount = navigationCount();
+		if ((cachedElement != null) && (cachedElementNavigationCount == navigationCount)) {
+			return cachedElement;
+		}
+		if (shouldFindElementImmediately()) {
+			return findElementImmediately();
+		}
+		cachedElement = ajaxFindElement();
+		cachedElementNavigationCount = navigationCount;
+		return cachedElement;
+	}
+
+	/**
+	 * The cached element may have been hidden since it was found, so actions wait for it to be usable again,
+	 * as they would if the element was looked up again.
+	 */
+	WebElement usableCachedElement() {
+		WebElement element = currentCachedElement();
+		if (shouldFindElementImmediately()) {
+			return element;
+		}
+		try {
+			if (isElementUsable(element)) {
+				return element;
+			}
+		} catch (StaleElementReferenceException elementHasGone) {
+			// Look the element up again below
+		}
+		forgetCachedElement();
+		return currentCachedElement();
+	}
+
+	private long navigationCount() {
+		if (driver instanceof WebDriverFacade) {
+			return ((WebDriverFacade) driver).getNavigationCount();
+		}
+		return 0;
+	}
+
+	/**
+	 * Find the element without waiting for it to appear.
+	 */
 	public WebElement findElementImmediately() {
-		SmartAnnotations annotations = new SmartAnnotations(field);
-		By by = annotations.buildBy();
+		By by = getBy();
 		WebElement element = driver.findElement(by);
 		if (element == null) {
 			throw new NoSuchElementException("No such element found for criteria " + by.toString());
@@ -223,8 +308,6 @@ public class SmartAjaxElementLocator extends SmartElementLocator {
 
     @Override
     public String toString() {
-        SmartAnnotations annotations = new SmartAnnotations(field);
-        By by = annotations.buildBy();
-        return by.toString();
+        return getBy().toString();
     }
 }
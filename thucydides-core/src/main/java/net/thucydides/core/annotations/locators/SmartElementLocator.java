@@ -20,9 +20,13 @@ public class SmartElementLocator implements ElementLocator {
 
 	public SmartElementLocator(SearchContext searchContext, Field field) {
 		this.searchContext = searchContext;
-	    SmartAnnotations annotations = new SmartAnnotations(field);
-	    shouldCache = annotations.isLookupCached();
-	    by = annotations.buildBy();
+	    FieldLocator fieldLocator = FieldLocator.forField(field);
+	    shouldCache = fieldLocator.isLookupCached();
+	    by = fieldLocator.getBy();
+	}
+
+	protected By getBy() {
+		return by;
 	}
 
 	/**
@@ -28,6 +28,7 @@ package net.thucydides.core.images;
 
  *  -------------------------------------------------------------------------------
  */
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
@@ -47,6 +48,10 @@ public class SimpleImageInfo {
 		}
 	}
 
+	public SimpleImageInfo(final byte[] imageData) throws IOException {
+		processStream(new ByteArrayInputStream(imageData));
+	}
+
 	private void processStream(final InputStream is) throws IOException {
 		int c1 = is.read();
 		int c2 = is.read();
@@ -3,16 +3,13 @@ package net.thucydides.core.model;
 import net.thucydides.core.reports.TestOutcomeCounter;
 import net.thucydides.core.reports.TestOutcomes;
 
-import static ch.lambdaj.Lambda.on;
-import static ch.lambdaj.Lambda.sum;
-
 public class OutcomeCounter extends TestOutcomeCounter {
 
     private final TestOutcomes outcomes;
 
     public OutcomeCounter(TestType testType, TestOutcomes outcomes) {
         super(testType);
-        this.outcomes = outcomes.ofType(testType);
+        this.outcomes = outcomes;
     }
 
     public int withResult(String expectedResult) {
@@ -20,15 +17,15 @@ public class OutcomeCounter extends TestOutcomeCounter {
     }
 
     public int withResult(TestResult expectedResult) {
-        return sum(outcomes.getOutcomes(), on(TestOutcome.class).countResults(expectedResult));
+        return outcomes.getSummary().countTestsOfTypeWithResult(testType, expectedResult);
     }
 
     public int getTotal() {
-        return outcomes.getTotal();
+        return outcomes.getSummary().getTotalTestsOfType(testType);
     }
 
     public int withIndeterminateResult() {
-        return outcomes.getTotal() - withResult(TestResult.SUCCESS)
+        return getTotal() - withResult(TestResult.SUCCESS)
                 - withResult(TestResult.FAILURE)
                 - withResult(TestResult.ERROR);
     }
@@ -38,6 +35,6 @@ public class OutcomeCounter extends TestOutcomeCounter {
     }
 
     public int withAnyResult() {
-        return outcomes.getTotal();
+        return getTotal();
     }
 }
\ No newline at end of file
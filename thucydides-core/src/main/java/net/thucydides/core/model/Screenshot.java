@@ -9,16 +9,37 @@ public class Screenshot {
     private final String filename;
     private final String description;
     private final int width;
+    private final int height;
     private final FailureCause error;
+    private final boolean evicted;
 
     public Screenshot(final String filename,
                       final String description,
                       final int width,
                       final FailureCause error) {
+        this(filename, description, width, 0, error);
+    }
+
+    public Screenshot(final String filename,
+                      final String description,
+                      final int width,
+                      final int height,
+                      final FailureCause error) {
+        this(filename, description, width, height, error, false);
+    }
+
+    public Screenshot(final String filename,
+                      final String description,
+                      final int width,
+                      final int height,
+                      final FailureCause error,
+                      final boolean evicted) {
         this.filename = filename;
         this.description = description;
         this.width = width;
+        this.height = height;
         this.error = error;
+        this.evicted = evicted;
     }
 
     public Screenshot(final String filename,
@@ -55,6 +76,20 @@ public class Screenshot {
         return width;
     }
 
+    /**
+     * @return the height of the screenshot, as recorded when it was taken, or 0 if it is not known.
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * @return true if the screenshot file has been deleted to save disk space.
+     */
+    public boolean isEvicted() {
+        return evicted;
+    }
+
     public HtmlFormattedInfo getHtml() {
         return new HtmlFormattedInfo(description);
     }
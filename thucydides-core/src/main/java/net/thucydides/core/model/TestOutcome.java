@@ -104,6 +104,17 @@ public class TestOutcome {
 
     private Set<TestTag> tags;
 
+    /**
+     * Incremented whenever tags or issues are actually added to this test outcome,
+     * so that tag indexes can tell whether they are out of date.
+     */
+    private transient volatile long tagChangeCount;
+
+    /**
+     * The overall result and step lists derived from the test steps, calculated when they are first needed.
+     */
+    private transient StepSummary stepSummary;
+
     /**
      * When did this test start.
      */
@@ -149,6 +160,16 @@ public class TestOutcome {
      */
     private String sessionId;
 
+    /**
+     * How long (in milliseconds) the test's browser took to start.
+     */
+    private long browserStartupTime;
+
+    /**
+     * How many optional screenshots were skipped to keep the overhead of taking screenshots down.
+     */
+    private int skippedScreenshotCount;
+
     private LinkGenerator linkGenerator;
 
     /**
@@ -277,7 +298,9 @@ public class TestOutcome {
                           final TestResult annotatedResult,
                           final DataTable dataTable,
                           final Optional<String> qualifier,
-                          final boolean manualTest) {
+                          final boolean manualTest,
+                          final long browserStartupTime,
+                          final int skippedScreenshotCount) {
         this.startTime = startTime;
         this.duration = duration;
         this.title = title;
@@ -300,6 +323,8 @@ public class TestOutcome {
         this.issueTracking = Injectors.getInjector().getInstance(IssueTracking.class);
         this.linkGenerator = Injectors.getInjector().getInstance(LinkGenerator.class);
         this.manual = manualTest;
+        this.browserStartupTime = browserStartupTime;
+        this.skippedScreenshotCount = skippedScreenshotCount;
     }
 
     private List<String> removeDuplicates(List<String> issues) {
@@ -343,7 +368,9 @@ public class TestOutcome {
                     this.annotatedResult,
                     this.dataTable,
                     Optional.fromNullable(qualifier),
-                    this.manual);
+                    this.manual,
+                    this.browserStartupTime,
+                    this.skippedScreenshotCount);
         } else {
             return this;
         }
@@ -367,7 +394,9 @@ public class TestOutcome {
                 this.annotatedResult,
                 this.dataTable,
                 this.qualifier,
-                this.manual);
+                this.manual,
+                this.browserStartupTime,
+                this.skippedScreenshotCount);
     }
 
     public TestOutcome withTags(Set<TestTag> tags) {
@@ -388,7 +417,9 @@ public class TestOutcome {
                 this.annotatedResult,
                 this.dataTable,
                 this.qualifier,
-                this.manual);
+                this.manual,
+                this.browserStartupTime,
+                this.skippedScreenshotCount);
     }
 
     public TestOutcome withMethodName(String methodName) {
@@ -410,7 +441,9 @@ public class TestOutcome {
                     this.annotatedResult,
                     this.dataTable,
                     this.qualifier,
-                    this.manual);
+                    this.manual,
+                    this.browserStartupTime,
+                    this.skippedScreenshotCount);
         } else {
             return this;
         }
@@ -641,7 +674,7 @@ public class TestOutcome {
      * @return A list of top-level test steps for this test.
      */
     public List<TestStep> getTestSteps() {
-        return ImmutableList.copyOf(testSteps);
+        return stepSummary().getTestSteps();
     }
 
     public boolean hasScreenshots() {
@@ -675,6 +708,14 @@ public class TestOutcome {
     private Converter<ScreenshotAndHtmlSource, Screenshot> toScreenshotsFor(final TestStep currentStep) {
         return new Converter<ScreenshotAndHtmlSource, Screenshot>() {
             public Screenshot convert(ScreenshotAndHtmlSource from) {
+                if (from.hasDimensions() || from.isEvicted()) {
+                    return new Screenshot(from.getScreenshotFile().getName(),
+                            currentStep.getDescription(),
+                            from.hasDimensions() ? from.getWidth() : ThucydidesSystemProperty.DEFAULT_WIDTH,
+                            from.getHeight(),
+                            currentStep.getException(),
+                            from.isEvicted());
+                }
                 return new Screenshot(from.getScreenshotFile().getName(),
                         currentStep.getDescription(),
                         widthOf(from.getScreenshotFile()),
@@ -702,26 +743,11 @@ public class TestOutcome {
     }
 
     public List<TestStep> getFlattenedTestSteps() {
-        List<TestStep> flattenedTestSteps = new ArrayList<TestStep>();
-        for (TestStep step : getTestSteps()) {
-            flattenedTestSteps.add(step);
-            if (step.isAGroup()) {
-                flattenedTestSteps.addAll(step.getFlattenedSteps());
-            }
-        }
-        return ImmutableList.copyOf(flattenedTestSteps);
+        return stepSummary().getFlattenedTestSteps();
     }
 
     public List<TestStep> getLeafTestSteps() {
-        List<TestStep> leafTestSteps = new ArrayList<TestStep>();
-        for (TestStep step : getTestSteps()) {
-            if (step.isAGroup()) {
-                leafTestSteps.addAll(step.getLeafTestSteps());
-            } else {
-                leafTestSteps.add(step);
-            }
-        }
-        return ImmutableList.copyOf(leafTestSteps);
+        return stepSummary().getLeafTestSteps();
     }
 
     /**
@@ -737,6 +763,10 @@ public class TestOutcome {
         if (annotatedResult != null) {
             return annotatedResult;
         }
+        return stepSummary().getResult();
+    }
+
+    private TestResult getResultFromStepsOrFailureClass() {
         if (testFailureClassname != null) {
             try {
                 return new FailureAnalysis().resultFor(Class.forName(testFailureClassname));
@@ -748,6 +778,29 @@ public class TestOutcome {
         return testResults.getOverallResult();
     }
 
+    /**
+     * The derived values are recalculated if this outcome or any of its test steps has changed since they were last
+     * calculated.
+     * Test outcomes loaded for reporting are not modified, so these values are only calculated once.
+     */
+    private StepSummary stepSummary() {
+        StepSummary summary = stepSummary;
+        if (summary == null || summary.isOutOfDate()) {
+            List<TestStep> steps = ImmutableList.copyOf(testSteps);
+            for (TestStep step : steps) {
+                step.linkChildren();
+            }
+            long stepChangeCount = StepSummary.modificationCountOf(steps);
+            summary = new StepSummary(stepChangeCount, steps, getResultFromStepsOrFailureClass());
+            stepSummary = summary;
+        }
+        return summary;
+    }
+
+    private void stepsChanged() {
+        stepSummary = null;
+    }
+
     public TestOutcome recordSteps(final List<TestStep> steps) {
         for(TestStep step : steps) {
             recordStep(step);
@@ -765,6 +818,7 @@ public class TestOutcome {
         if (inGroup()) {
             getCurrentStepGroup().addChildStep(step);
             renumberTestSteps();
+            stepsChanged();
         } else {
             addStep(step);
         }
@@ -774,11 +828,13 @@ public class TestOutcome {
     private void addStep(TestStep step) {
         testSteps.add(step);
         renumberTestSteps();
+        stepsChanged();
     }
 
     private void addSteps(List<TestStep> steps) {
         testSteps.addAll(steps);
         renumberTestSteps();
+        stepsChanged();
     }
 
     private void renumberTestSteps() {
@@ -913,6 +969,7 @@ public class TestOutcome {
             this.testFailureClassname = "";
             this.testFailureMessage = "";
         }
+        stepsChanged();
     }
 
     public void setTestFailureCause(FailureCause testFailureCause) {
@@ -921,6 +978,7 @@ public class TestOutcome {
 
     public void setTestFailureClassname(String testFailureClassname) {
         this.testFailureClassname = testFailureClassname;
+        stepsChanged();
     }
 
     public FailureCause getTestFailureCause() {
@@ -1063,7 +1121,10 @@ public class TestOutcome {
 
 
     public void addIssues(List<String> issues) {
-        additionalIssues.addAll(issues);
+        if (!issues.isEmpty()) {
+            additionalIssues.addAll(issues);
+            tagsChanged();
+        }
     }
 
     private List<String> readIssues() {
@@ -1083,6 +1144,7 @@ public class TestOutcome {
     public void isRelatedToIssue(String issue) {
         if (!issues().contains(issue)) {
             issues().add(issue);
+            tagsChanged();
         }
     }
 
@@ -1097,13 +1159,23 @@ public class TestOutcome {
         } else {
             TestStep lastStep = lastStepIn(testStepList);
             if (lastStep.hasChildren()) {
-                addFailingStepAsSibling(lastStep.children(), testFailureCause);
+                addFailingStepToGroup(lastStep, testFailureCause);
             } else {
                 testStepList.add(failingStep(testFailureCause));
+                stepsChanged();
             }
         }
     }
 
+    private void addFailingStepToGroup(TestStep group, Throwable testFailureCause) {
+        TestStep lastChild = lastStepIn(group.children());
+        if (lastChild.hasChildren()) {
+            addFailingStepToGroup(lastChild, testFailureCause);
+        } else {
+            group.addChildStep(failingStep(testFailureCause));
+        }
+    }
+
     private TestStep failingStep(Throwable testFailureCause) {
         TestStep failingStep = new TestStep("Failure");
         failingStep.failedWith(testFailureCause);
@@ -1144,13 +1216,28 @@ public class TestOutcome {
 
     public void setTags(Set<TestTag> tags) {
         this.tags = Sets.newHashSet(tags);
+        tagsChanged();
     }
 
 
     public void addTags(List<TestTag> tags) {
         Set<TestTag> updatedTags = Sets.newHashSet(getTags());
-        updatedTags.addAll(tags);
-        this.tags = ImmutableSet.copyOf(updatedTags);
+        if (updatedTags.addAll(tags)) {
+            this.tags = ImmutableSet.copyOf(updatedTags);
+            tagsChanged();
+        }
+    }
+
+    private void tagsChanged() {
+        tagChangeCount++;
+    }
+
+    /**
+     * Changes each time tags or issues are added to this test outcome, so that indexes of the tags can tell when they
+     * are out of date.
+     */
+    public long tagChangeCount() {
+        return tagChangeCount;
     }
 
     public List<String> getIssueKeys() {
@@ -1356,19 +1443,19 @@ public class TestOutcome {
     }
 
     public Integer getSuccessCount() {
-        return count(successfulSteps()).in(getLeafTestSteps());
+        return stepSummary().countLeafStepsWithResult(SUCCESS);
     }
 
     public Integer getFailureCount() {
-        return count(failingSteps()).in(getLeafTestSteps());
+        return stepSummary().countLeafStepsWithResult(FAILURE);
     }
 
     public Integer getErrorCount() {
-        return count(errorSteps()).in(getLeafTestSteps());
+        return stepSummary().countLeafStepsWithResult(ERROR);
     }
 
     public Integer getIgnoredCount() {
-        return count(ignoredSteps()).in(getLeafTestSteps());
+        return stepSummary().countLeafStepsWithResult(IGNORED);
     }
 
     public Integer getSkippedOrIgnoredCount() {
@@ -1376,12 +1463,11 @@ public class TestOutcome {
     }
 
     public Integer getSkippedCount() {
-        return count(skippedSteps()).in(getLeafTestSteps());
+        return stepSummary().countLeafStepsWithResult(SKIPPED);
     }
 
     public Integer getPendingCount() {
-        List<TestStep> allTestSteps = getLeafTestSteps();
-        return select(allTestSteps, having(on(TestStep.class).isPending())).size();
+        return stepSummary().countLeafStepsWithResult(PENDING);
     }
 
     public Boolean isSuccess() {
@@ -1448,6 +1534,115 @@ public class TestOutcome {
         this.sessionId = sessionId;
     }
 
+    /**
+     * The time taken to start the browser is kept separately from the test duration.
+     * Browsers that are pre-warmed start in the background, so the test only waits for the part of this time
+     * that was not over by the time the test needed its browser.
+     */
+    public long getBrowserStartupTime() {
+        return browserStartupTime;
+    }
+
+    public void setBrowserStartupTime(long browserStartupTime) {
+        this.browserStartupTime = browserStartupTime;
+    }
+
+    public void recordBrowserStartupTime(long startupTime) {
+        this.browserStartupTime += startupTime;
+    }
+
+    /**
+     * Adaptive screenshots skip optional screenshots when taking them would slow the test down too much,
+     * so the number of skipped screenshots is recorded to explain screenshots missing from the reports.
+     */
+    public int getSkippedScreenshotCount() {
+        return skippedScreenshotCount;
+    }
+
+    public void setSkippedScreenshotCount(int skippedScreenshotCount) {
+        this.skippedScreenshotCount = skippedScreenshotCount;
+    }
+
+    /**
+     * The values derived from the test steps at a given point in time.
+     * Instances are immutable, so they can be shared between report generation threads.
+     */
+    private static class StepSummary {
+        private final long stepChangeCount;
+        private final TestResult result;
+        private final List<TestStep> testSteps;
+        private final List<TestStep> flattenedTestSteps;
+        private final List<TestStep> leafTestSteps;
+        private final Map<TestResult, Integer> leafStepResultCounts;
+
+        StepSummary(long stepChangeCount, List<TestStep> steps, TestResult result) {
+            this.stepChangeCount = stepChangeCount;
+            this.result = result;
+            this.testSteps = ImmutableList.copyOf(steps);
+
+            ImmutableList.Builder<TestStep> flattenedTestSteps = ImmutableList.builder();
+            ImmutableList.Builder<TestStep> leafTestSteps = ImmutableList.builder();
+            for (TestStep step : testSteps) {
+                flattenedTestSteps.add(step);
+                if (step.isAGroup()) {
+                    flattenedTestSteps.addAll(step.getFlattenedSteps());
+                    leafTestSteps.addAll(step.getLeafTestSteps());
+                } else {
+                    leafTestSteps.add(step);
+                }
+            }
+            this.flattenedTestSteps = flattenedTestSteps.build();
+            this.leafTestSteps = leafTestSteps.build();
+            this.leafStepResultCounts = countResultsOf(this.leafTestSteps);
+        }
+
+        private static Map<TestResult, Integer> countResultsOf(List<TestStep> steps) {
+            Map<TestResult, Integer> resultCounts = new EnumMap<>(TestResult.class);
+            for (TestStep step : steps) {
+                TestResult stepResult = step.getResult();
+                Integer count = resultCounts.get(stepResult);
+                resultCounts.put(stepResult, (count == null) ? 1 : count + 1);
+            }
+            return resultCounts;
+        }
+
+        boolean isOutOfDate() {
+            return stepChangeCount != modificationCountOf(testSteps);
+        }
+
+        /**
+         * Step modification counts only ever go up, so the total changes whenever any of the steps change.
+         */
+        static long modificationCountOf(List<TestStep> steps) {
+            long modificationCount = 0;
+            for (TestStep step : steps) {
+                modificationCount += step.modificationCount();
+            }
+            return modificationCount;
+        }
+
+        TestResult getResult() {
+            return result;
+        }
+
+        List<TestStep> getTestSteps() {
+            return testSteps;
+        }
+
+        List<TestStep> getFlattenedTestSteps() {
+            return flattenedTestSteps;
+        }
+
+        List<TestStep> getLeafTestSteps() {
+            return leafTestSteps;
+        }
+
+        int countLeafStepsWithResult(TestResult expectedResult) {
+            Integer count = leafStepResultCounts.get(expectedResult);
+            return (count == null) ? 0 : count;
+        }
+    }
+
     StepCountBuilder count(StepFilter filter) {
         return new StepCountBuilder(filter);
     }
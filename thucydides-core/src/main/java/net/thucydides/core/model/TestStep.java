@@ -38,6 +38,17 @@ public class TestStep {
 
     private List<TestStep> children = new ArrayList<>();
 
+    /**
+     * The group step this step belongs to, if any, so that the changes to this step are counted by its parents too.
+     */
+    private transient TestStep parent;
+
+    /**
+     * Incremented whenever the result or the structure of this step or of one of its children changes,
+     * so that test outcomes can tell whether the values they have derived from their steps are still valid.
+     */
+    private transient volatile long modificationCount;
+
     public TestStep() {
         startTime = now().getMillis();
     }
@@ -184,6 +195,7 @@ public class TestStep {
      */
     public void setResult(final TestResult result) {
         this.result = result;
+        stepChanged();
     }
 
     public TestResult getResult() {
@@ -288,6 +300,11 @@ public class TestStep {
         return exception;
     }
 
+    public void setException(FailureCause exception) {
+        this.exception = exception;
+        stepChanged();
+    }
+
     public List<? extends TestStep> getFlattenedSteps() {
         List<TestStep> flattenedSteps = new ArrayList<>();
         for(TestStep child : getChildren()) {
@@ -304,7 +321,9 @@ public class TestStep {
     }
 
     public TestStep addChildStep(final TestStep step) {
+        step.parent = this;
         children.add(step);
+        stepChanged();
         return this;
     }
 
@@ -340,6 +359,27 @@ public class TestStep {
         }
     }
 
+    long modificationCount() {
+        return modificationCount;
+    }
+
+    private void stepChanged() {
+        for (TestStep step = this; step != null; step = step.parent) {
+            step.modificationCount++;
+        }
+    }
+
+    /**
+     * Steps that were not added through addChildStep() (e.g. when they are loaded from a report) do not know
+     * their parent yet.
+     */
+    void linkChildren() {
+        for (TestStep child : children) {
+            child.parent = this;
+            child.linkChildren();
+        }
+    }
+
     public long getStartTime() {
         return startTime;
     }
@@ -352,6 +392,11 @@ public class TestStep {
         screenshots.remove(index);
     }
 
+    public void replaceScreenshot(int index, ScreenshotAndHtmlSource screenshotAndHtmlSource) {
+        screenshots.set(index, screenshotAndHtmlSource);
+        stepChanged();
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -773,6 +773,20 @@ public abstract class PageObject {
         return element(webElement).hasFocus();
     }
 
+    /**
+     * Take a screenshot showing only the given element, rather than the whole browser window.
+     */
+    public void takeScreenshotOf(final WebElement webElement) {
+        StepEventBus.getEventBus().takeScreenshotOf(webElement);
+    }
+
+    /**
+     * Take a screenshot showing only the element that currently has the focus.
+     */
+    public void takeScreenshotOfFocusedElement() {
+        takeScreenshotOf(getDriver().switchTo().activeElement());
+    }
+
     public void blurActiveElement() {
         getJavascriptExecutorFacade().executeScript("document.activeElement.blur();");
     }
@@ -5,6 +5,7 @@ import com.google.common.base.Optional;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 import net.thucydides.core.ThucydidesSystemProperty;
+import net.thucydides.core.annotations.locators.SmartAjaxElementLocator;
 import net.thucydides.core.guice.Injectors;
 import net.thucydides.core.pages.jquery.JQueryEnabledPage;
 import net.thucydides.core.steps.StepEventBus;
@@ -97,9 +98,39 @@ public class WebElementFacadeImpl implements WebElementFacade {
     	if (locator == null) {
     		return null;
     	}
+    	if (usesTheElementCache()) {
+    		return ((SmartAjaxElementLocator) locator).findCachedElement();
+    	}
     	return locator.findElement();
     };
 
+    /**
+     * If thucydides.element.cache is set to true, elements found through a page object field are reused
+     * until the browser navigates to another page, an action is performed on the element, or the element goes stale.
+     */
+    private boolean usesTheElementCache() {
+        return (locator instanceof SmartAjaxElementLocator)
+                && environmentVariables.getPropertyAsBoolean(ThucydidesSystemProperty.THUCYDIDES_ELEMENT_CACHE, false);
+    }
+
+    private void forgetCachedElement() {
+        if (usesTheElementCache()) {
+            ((SmartAjaxElementLocator) locator).forgetCachedElement();
+        }
+    }
+
+    /**
+     * Elements are looked up without waiting for them to appear while the current state of an element is checked
+     * (e.g. in isCurrentlyVisible()), whether they come from a locator or from a page object field.
+     */
+    private void startImmediateLookups() {
+        SmartAjaxElementLocator.startImmediateLookups();
+    }
+
+    private void endImmediateLookups() {
+        SmartAjaxElementLocator.endImmediateLookups();
+    }
+
     protected JavascriptExecutorFacade getJavascriptExecutorFacade() {
         return javascriptExecutorFacade;
     }
@@ -202,7 +233,15 @@ public class WebElementFacadeImpl implements WebElementFacade {
 	public boolean isVisible() {
 
         try {
-            return (getElement() != null) && (getElement().isDisplayed());
+            if (foundElementIsDisplayed()) {
+                return true;
+            }
+            if (usesTheElementCache() && !SmartAjaxElementLocator.lookingUpImmediately()) {
+                // The cached element has been hidden since it was found, so wait a bit for it to appear again
+                forgetCachedElement();
+                return foundElementIsDisplayed();
+            }
+            return false;
         } catch (ElementNotVisibleException e) {
             return false;
         } catch (NoSuchElementException e) {
@@ -228,26 +267,38 @@ public class WebElementFacadeImpl implements WebElementFacade {
         return this;
     }
 
+    private boolean foundElementIsDisplayed() {
+        WebElement element = getElement();
+        return (element != null) && (element.isDisplayed());
+    }
+
     /**
      * Is this web element present and visible on the screen
      * This method will not throw an exception if the element is not on the screen at all.
-     * The method will fail immediately if the element is not visible on the screen.
-     * There is a little black magic going on here - the web element class will detect if it is being called
-     * by a method called "isCurrently*" and, if so, fail immediately without waiting as it would normally do.
+     * The method will fail immediately if the element is not visible on the screen,
+     * without waiting for it to appear as it would normally do.
      */
     @Override
 	public boolean isCurrentlyVisible() {
-        return isVisible();
+        startImmediateLookups();
+        try {
+            return isVisible();
+        } finally {
+            endImmediateLookups();
+        }
     }
 
     @Override
 	public boolean isCurrentlyEnabled() {
+        startImmediateLookups();
         try {
             return getElement().isEnabled();
         } catch (NoSuchElementException e) {
             return false;
         } catch (StaleElementReferenceException se) {
             return false;
+        } finally {
+            endImmediateLookups();
         }
     }
 
@@ -2,6 +2,7 @@ package net.thucydides.core.reports;
 
 import net.thucydides.core.guice.Injectors;
 import net.thucydides.core.requirements.RequirementsService;
+import net.thucydides.core.screenshots.ScreenshotEncoding;
 import net.thucydides.core.util.EnvironmentVariables;
 
 import static net.thucydides.core.ThucydidesSystemProperty.*;
@@ -21,6 +22,7 @@ public class ReportOptions {
     final private String projectName;
     final private RequirementsService requirementsService;
     final private boolean displayPiechart;
+    final private boolean showScreenshotThumbnails;
 
     public ReportOptions(EnvironmentVariables environmentVariables) {
         showStepDetails = Boolean.valueOf(THUCYDIDES_REPORTS_SHOW_STEP_DETAILS.from(environmentVariables, "false"));
@@ -31,6 +33,7 @@ public class ReportOptions {
         showTagMenus = Boolean.valueOf(THUCYDIDES_REPORT_SHOW_TAG_MENUS.from(environmentVariables, "false"));
         showRelatedTags = Boolean.valueOf(SHOW_RELATED_TAGS.from(environmentVariables, "true"));
         displayPiechart = Boolean.valueOf(SHOW_PIE_CHARTS.from(environmentVariables, "true"));
+        showScreenshotThumbnails = new ScreenshotEncoding(environmentVariables).producesThumbnails();
         projectName = THUCYDIDES_PROJECT_NAME.from(environmentVariables,"");
         requirementsService = Injectors.getInjector().getInstance(RequirementsService.class);
     }
@@ -70,4 +73,8 @@ public class ReportOptions {
     public boolean isDisplayPiechart() {
         return displayPiechart;
     }
+
+    public boolean isShowScreenshotThumbnails() {
+        return showScreenshotThumbnails;
+    }
 }
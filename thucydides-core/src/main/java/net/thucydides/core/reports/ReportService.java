@@ -1,8 +1,11 @@
 package net.thucydides.core.reports;
 
-import com.google.common.util.concurrent.*;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import net.thucydides.core.ThucydidesSystemProperty;
 import net.thucydides.core.guice.Injectors;
 import net.thucydides.core.model.TestOutcome;
+import net.thucydides.core.reports.html.ReportExecutor;
+import net.thucydides.core.reports.html.ReportingTask;
 import net.thucydides.core.util.EnvironmentVariables;
 import net.thucydides.core.webdriver.Configuration;
 import org.slf4j.Logger;
@@ -12,10 +15,10 @@ import javax.inject.Inject;
 import java.io.File;
 import java.io.IOException;
 import java.util.*;
-import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Executors;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Generates different Thucydides reports in a given output directory.
@@ -35,6 +38,10 @@ public class ReportService {
 
     private final static Logger LOGGER = LoggerFactory.getLogger(ReportService.class);
 
+    private static final int IDLE_THREAD_TIMEOUT_IN_SECONDS = 30;
+
+    private static ExecutorService sharedExecutorService;
+
     @Inject
     public ReportService(final Configuration configuration) {
         this(configuration.getOutputDirectory(), getDefaultReporters());
@@ -88,70 +95,69 @@ public class ReportService {
 
     public void generateReportsFor(final List<TestOutcome> testOutcomeResults) {
         final TestOutcomes allTestOutcomes = TestOutcomes.of(testOutcomeResults);
+        long t0 = System.currentTimeMillis();
+        List<ReportingTask> reportingTasks = new ArrayList<>();
         for (final AcceptanceTestReporter reporter : getSubscribedReporters()) {
-            generateReportsFor(reporter, allTestOutcomes);
+            LOGGER.info("Generating reports using: " + reporter);
+            reporter.setOutputDirectory(outputDirectory);
+            for (TestOutcome outcome : allTestOutcomes.getOutcomes()) {
+                reportingTasks.add(new TestOutcomeReportingTask(reporter, outcome, allTestOutcomes));
+            }
         }
-
+        getReportExecutor().generateReports(reportingTasks);
+        LOGGER.info("Reports generated in: " + (System.currentTimeMillis() - t0));
     }
 
-    private void generateReportsFor(final AcceptanceTestReporter reporter, final TestOutcomes testOutcomes) {
-        LOGGER.info("Generating reports using: " + reporter);
-        long t0 = System.currentTimeMillis();
+    private ReportExecutor getReportExecutor() {
+        return new ReportExecutor(getSharedExecutorService(), reportThreadCount());
+    }
 
-        ListeningExecutorService executorService = MoreExecutors.listeningDecorator(Executors.newFixedThreadPool(8));
-
-        List<? extends TestOutcome> outcomes = testOutcomes.getOutcomes();
-        final AtomicInteger remainingReportCount = new AtomicInteger(outcomes.size());
-        for (final TestOutcome outcome : outcomes) {
-            final ListenableFuture<TestOutcome> future = executorService.submit(new Callable<TestOutcome>() {
-                @Override
-                public TestOutcome call() throws Exception {
-                    return outcome;
-                }
-            });
-            future.addListener(new Runnable() {
-                @Override
-                public void run() {
-                    generateQueuedReport(future, testOutcomes, reporter);
-                }
-            }, MoreExecutors.sameThreadExecutor());
-
-            Futures.addCallback(future, new FutureCallback<TestOutcome>() {
-                @Override
-                public void onSuccess(TestOutcome result) {
-                    remainingReportCount.decrementAndGet();
-                    LOGGER.info("Report generated for " + result.getCompleteName());
-                }
-
-                @Override
-                public void onFailure(Throwable t) {
-                    LOGGER.info("Report generated failed " + t.getMessage());
-                }
-            });
+    /**
+     * Report generation for every test class in this JVM shares the same pool of daemon threads,
+     * sized when it is first used. Idle threads are released, so the pool costs nothing between test classes.
+     */
+    private static synchronized ExecutorService getSharedExecutorService() {
+        if (sharedExecutorService == null) {
+            int threadCount = reportThreadCount();
+            ThreadPoolExecutor executorService = new ThreadPoolExecutor(threadCount, threadCount,
+                    IDLE_THREAD_TIMEOUT_IN_SECONDS, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<Runnable>(),
+                    new ThreadFactoryBuilder().setNameFormat("thucydides-reporter-%d").setDaemon(true).build());
+            executorService.allowCoreThreadTimeOut(true);
+            sharedExecutorService = executorService;
         }
-        waitForReportGenerationToFinish(remainingReportCount);
-        LOGGER.info("Reports generated in: " + (System.currentTimeMillis() - t0));
+        return sharedExecutorService;
+    }
 
+    private static int reportThreadCount() {
+        EnvironmentVariables environmentVariables = Injectors.getInjector().getProvider(EnvironmentVariables.class).get();
+        int threadCount = environmentVariables.getPropertyAsInteger(ThucydidesSystemProperty.THUCYDIDES_REPORT_THREADS,
+                                                                    Runtime.getRuntime().availableProcessors());
+        return Math.max(1, threadCount);
     }
 
-    private void generateQueuedReport(ListenableFuture<TestOutcome> future, TestOutcomes testOutcomes, AcceptanceTestReporter reporter) {
-        try {
-            final TestOutcome outcome = future.get();
-            LOGGER.info("Processing test outcome " + outcome.getCompleteName());
-            generateReportFor(outcome, testOutcomes, reporter);
-        } catch (InterruptedException e) {
-            throw new RuntimeException("Report generation failure", e);
-        } catch (ExecutionException e) {
-            throw new RuntimeException("Report generation failure", e);
+    private class TestOutcomeReportingTask implements ReportingTask {
+        private final AcceptanceTestReporter reporter;
+        private final TestOutcome testOutcome;
+        private final TestOutcomes allTestOutcomes;
+
+        private TestOutcomeReportingTask(AcceptanceTestReporter reporter,
+                                         TestOutcome testOutcome,
+                                         TestOutcomes allTestOutcomes) {
+            this.reporter = reporter;
+            this.testOutcome = testOutcome;
+            this.allTestOutcomes = allTestOutcomes;
         }
-    }
 
-    private void waitForReportGenerationToFinish(AtomicInteger reportCount) {
-        while (reportCount.get() > 0) {
-            try {
-                Thread.sleep(50);
-            } catch (InterruptedException e) {
-            }
+        @Override
+        public void generateReports() throws IOException {
+            LOGGER.info(reporter + ": Generating report for test outcome: " + testOutcome.getCompleteName());
+            reporter.generateReportFor(testOutcome, allTestOutcomes);
+        }
+
+        @Override
+        public String toString() {
+            return reporter + " report for " + testOutcome.getCompleteName();
         }
     }
 
@@ -183,17 +189,4 @@ public class ReportService {
         return reporters;
     }
 
-    private void generateReportFor(final TestOutcome testOutcome,
-                                   final TestOutcomes allTestOutcomes,
-                                   final AcceptanceTestReporter reporter) {
-        try {
-            LOGGER.info(reporter + ": Generating report for test outcome: " + testOutcome.getCompleteName());
-            reporter.setOutputDirectory(outputDirectory);
-            reporter.generateReportFor(testOutcome, allTestOutcomes);
-        } catch (IOException e) {
-            throw new ReportGenerationFailedError(
-                    "Failed to generate reports using " + reporter, e);
-        }
-    }
-
 }
@@ -1,11 +1,12 @@
 package net.thucydides.core.reports;
 
 import com.google.common.base.Optional;
+import net.thucydides.core.model.TestOutcome;
 import net.thucydides.core.model.TestResult;
-import net.thucydides.core.model.TestType;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Iterator;
 
 /**
  * Created by john on 22/09/2014.
@@ -19,24 +20,24 @@ public class ResultChecker {
     }
 
     public void checkTestResults() {
-        Optional<TestOutcomes> outcomes = loadOutcomes();
-        if (outcomes.isPresent()) {
-            checkTestResultsIn(outcomes.get());
+        Optional<ResultTally> results = loadResults();
+        if (results.isPresent()) {
+            checkTestResultsIn(results.get());
         } else {
             handleMissingTestResults();
         }
     }
 
-    private void checkTestResultsIn(TestOutcomes testOutcomes) {
-        switch (testOutcomes.getResult()) {
-            case ERROR: throw new TestOutcomesError(testOutcomeSummary(testOutcomes));
-            case FAILURE: throw new TestOutcomesFailures(testOutcomeSummary(testOutcomes));
+    private void checkTestResultsIn(ResultTally results) {
+        switch (results.getResult()) {
+            case ERROR: throw new TestOutcomesError(testOutcomeSummary(results));
+            case FAILURE: throw new TestOutcomesFailures(testOutcomeSummary(results));
         }
     }
 
-    private String testOutcomeSummary(TestOutcomes testOutcomes) {
-        int errors = testOutcomes.count(TestType.ANY).withResult(TestResult.ERROR);
-        int failures = testOutcomes.count(TestType.ANY).withResult(TestResult.FAILURE);
+    private String testOutcomeSummary(ResultTally results) {
+        int errors = results.getErrorCount();
+        int failures = results.getFailureCount();
         String errorText = (errors > 0) ? "ERROR COUNT: " + errors : "";
         String failureText = (failures > 0) ? "FAILURE COUNT: " + failures : "";
         return "THUCYDIDES TEST FAILURES: " + errorText + " " + failureText;
@@ -46,16 +47,71 @@ public class ResultChecker {
 
     }
 
-    private Optional<TestOutcomes> loadOutcomes() {
-        TestOutcomes outcomes = null;
+    private Optional<ResultTally> loadResults() {
+        ResultTally results = null;
         try {
-            outcomes = TestOutcomeLoader.loadTestOutcomes().inFormat(OutcomeFormat.JSON).from(outputDirectory);
-            if (outcomes.getTotal() == 0) {
-                outcomes = TestOutcomeLoader.loadTestOutcomes().inFormat(OutcomeFormat.XML).from(outputDirectory);
+            results = ResultTally.of(TestOutcomeLoader.loadTestOutcomes().inFormat(OutcomeFormat.JSON).iteratorFor(outputDirectory));
+            if (results.getTotal() == 0) {
+                results = ResultTally.of(TestOutcomeLoader.loadTestOutcomes().inFormat(OutcomeFormat.XML).iteratorFor(outputDirectory));
+            }
+            if (results.getTotal() == 0) {
+                results = ResultTally.of(TestOutcomeLoader.loadTestOutcomes().inFormat(OutcomeFormat.BINARY).iteratorFor(outputDirectory));
             }
         } catch (IOException e) {
             e.printStackTrace();
         }
-        return Optional.of(outcomes);
+        return Optional.fromNullable(results);
+    }
+
+    /**
+     * The test outcomes are tallied as they are read, so the full set of outcomes never needs to be held in memory.
+     */
+    private static class ResultTally {
+        private int total;
+        private int errorCount;
+        private int failureCount;
+        private boolean containsErrors;
+        private boolean containsFailures;
+
+        static ResultTally of(Iterator<TestOutcome> outcomes) {
+            ResultTally results = new ResultTally();
+            while (outcomes.hasNext()) {
+                results.add(outcomes.next());
+            }
+            return results;
+        }
+
+        private void add(TestOutcome outcome) {
+            total++;
+            errorCount += outcome.countResults(TestResult.ERROR);
+            failureCount += outcome.countResults(TestResult.FAILURE);
+            containsErrors = containsErrors || (outcome.getResult() == TestResult.ERROR);
+            containsFailures = containsFailures || (outcome.getResult() == TestResult.FAILURE);
+        }
+
+        public int getTotal() {
+            return total;
+        }
+
+        public int getErrorCount() {
+            return errorCount;
+        }
+
+        public int getFailureCount() {
+            return failureCount;
+        }
+
+        /**
+         * Only errors and failures matter here: errors take precedence over failures, as in TestResultList.
+         */
+        public TestResult getResult() {
+            if (containsErrors) {
+                return TestResult.ERROR;
+            }
+            if (containsFailures) {
+                return TestResult.FAILURE;
+            }
+            return TestResult.SUCCESS;
+        }
     }
 }
@@ -1,24 +1,47 @@
 package net.thucydides.core.reports;
 
+import com.google.common.base.Optional;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Ordering;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.inject.Inject;
+import net.thucydides.core.ThucydidesSystemProperty;
 import net.thucydides.core.guice.Injectors;
 import net.thucydides.core.model.TestOutcome;
+import net.thucydides.core.reports.binary.BinaryTestOutcomeReporter;
 import net.thucydides.core.reports.json.JSONTestOutcomeReporter;
 import net.thucydides.core.reports.xml.XMLTestOutcomeReporter;
 import net.thucydides.core.util.EnvironmentVariables;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.FilenameFilter;
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Loads test outcomes from a given directory, and reports on their contents.
  * This class is used for aggregate reporting.
+ * Outcome files are read on a bounded pool of threads (see thucydides.report.loader.threads).
+ * A file that cannot be read is logged and skipped, so one corrupt file does not stop the others from being loaded.
  */
 public class TestOutcomeLoader {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(TestOutcomeLoader.class);
+
+    /**
+     * How many files the outcome iterator reads ahead of the consumer, per loader thread.
+     */
+    private static final int FILES_READ_AHEAD_PER_THREAD = 4;
+
     private final EnvironmentVariables environmentVariables;
     private final FormatConfiguration formatConfiguration;
 
@@ -49,18 +72,29 @@ public class TestOutcomeLoader {
      * @throws java.io.IOException Thrown if the specified directory was invalid.
      */
     public List<TestOutcome> loadFrom(final File reportDirectory) throws IOException {
-
-        final AcceptanceTestLoader testOutcomeReporter = getOutcomeReporter();
-        List<File> reportFiles = getAllOutcomeFilesFrom(reportDirectory);
-
-        final List<TestOutcome> testOutcomes = Collections.synchronizedList(new ArrayList<TestOutcome>());
-        for(File reportFile : reportFiles) {
-            testOutcomes.addAll(testOutcomeReporter.loadReportFrom(reportFile).asSet());
-        }
+        List<TestOutcome> testOutcomes = Lists.newArrayList(iteratorFor(reportDirectory));
         Collections.sort(testOutcomes, byTitle());
         return ImmutableList.copyOf(testOutcomes);
     }
 
+    /**
+     * Read the test outcomes in a given directory one at a time, without keeping them all in memory.
+     * Outcomes are returned in the order of their file names, rather than by title.
+     * A few files are read ahead of the consumer on the loader threads, so the consumer rarely waits.
+     *
+     * @param reportDirectory An existing directory that contains the test outcomes in XML or JSON format.
+     * @throws java.io.IOException Thrown if the specified directory was invalid.
+     */
+    public Iterator<TestOutcome> iteratorFor(final File reportDirectory) throws IOException {
+        return new TestOutcomeIterator(getAllOutcomeFilesFrom(reportDirectory), getOutcomeReporter(), getThreadCount());
+    }
+
+    protected int getThreadCount() {
+        int threadCount = environmentVariables.getPropertyAsInteger(ThucydidesSystemProperty.THUCYDIDES_REPORT_LOADER_THREADS,
+                                                                    Runtime.getRuntime().availableProcessors());
+        return Math.max(1, threadCount);
+    }
+
     private Comparator<? super TestOutcome> byTitle() {
         return new Comparator<TestOutcome>() {
             @Override
@@ -75,7 +109,7 @@ public class TestOutcomeLoader {
         if (matchingFiles == null) {
             throw new IOException("Could not find directory " + reportsDirectory);
         }
-        return ImmutableList.copyOf(matchingFiles);
+        return Ordering.natural().sortedCopy(Arrays.asList(matchingFiles));
     }
 
     public static TestOutcomeLoaderBuilder loadTestOutcomes() {
@@ -95,6 +129,11 @@ public class TestOutcomeLoader {
             return TestOutcomes.of(loader.loadFrom(reportsDirectory));
         }
 
+        public Iterator<TestOutcome> iteratorFor(final File reportsDirectory) throws IOException {
+            TestOutcomeLoader loader = new TestOutcomeLoader().forFormat(format);
+            return loader.iteratorFor(reportsDirectory);
+        }
+
     }
 
     public static TestOutcomes testOutcomesIn(final File reportsDirectory) throws IOException {
@@ -106,9 +145,101 @@ public class TestOutcomeLoader {
         switch (formatConfiguration.getPreferredFormat()) {
             case XML: return new XMLTestOutcomeReporter();
             case JSON: return new JSONTestOutcomeReporter();
+            case BINARY: return new BinaryTestOutcomeReporter();
             default: throw new IllegalArgumentException("Unsupported report format: " + formatConfiguration.getPreferredFormat());
         }
     }
+    /**
+     * Reads outcome files in the background, a bounded number of files ahead of the consumer,
+     * and returns the outcomes in file order.
+     * The loader threads are released once the last file has been read, or after a short idle period
+     * if the consumer stops iterating early.
+     */
+    private static class TestOutcomeIterator implements Iterator<TestOutcome> {
+
+        private final Iterator<File> reportFiles;
+        private final AcceptanceTestLoader testOutcomeReporter;
+        private final ThreadPoolExecutor executorService;
+        private final int maximumFilesReadAhead;
+        private final Deque<OutcomeFile> filesBeingRead = new ArrayDeque<>();
+        private TestOutcome nextOutcome;
+
+        private TestOutcomeIterator(List<File> reportFiles, AcceptanceTestLoader testOutcomeReporter, int threadCount) {
+            this.reportFiles = reportFiles.iterator();
+            this.testOutcomeReporter = testOutcomeReporter;
+            this.maximumFilesReadAhead = threadCount * FILES_READ_AHEAD_PER_THREAD;
+            this.executorService = new ThreadPoolExecutor(threadCount, threadCount,
+                                                          1, TimeUnit.SECONDS,
+                                                          new LinkedBlockingQueue<Runnable>(),
+                                                          new ThreadFactoryBuilder().setNameFormat("thucydides-outcome-loader-%d")
+                                                                                    .setDaemon(true).build());
+            this.executorService.allowCoreThreadTimeOut(true);
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (nextOutcome == null) {
+                readAhead();
+                if (filesBeingRead.isEmpty()) {
+                    executorService.shutdown();
+                    return false;
+                }
+                nextOutcome = filesBeingRead.removeFirst().getTestOutcome().orNull();
+            }
+            return true;
+        }
+
+        @Override
+        public TestOutcome next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            TestOutcome outcome = nextOutcome;
+            nextOutcome = null;
+            return outcome;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        private void readAhead() {
+            while (filesBeingRead.size() < maximumFilesReadAhead && reportFiles.hasNext()) {
+                final File reportFile = reportFiles.next();
+                Future<Optional<TestOutcome>> outcome = executorService.submit(new Callable<Optional<TestOutcome>>() {
+                    @Override
+                    public Optional<TestOutcome> call() throws Exception {
+                        return testOutcomeReporter.loadReportFrom(reportFile);
+                    }
+                });
+                filesBeingRead.addLast(new OutcomeFile(reportFile, outcome));
+            }
+        }
+    }
+
+    private static class OutcomeFile {
+        private final File reportFile;
+        private final Future<Optional<TestOutcome>> testOutcome;
+
+        private OutcomeFile(File reportFile, Future<Optional<TestOutcome>> testOutcome) {
+            this.reportFile = reportFile;
+            this.testOutcome = testOutcome;
+        }
+
+        public Optional<TestOutcome> getTestOutcome() {
+            try {
+                return testOutcome.get();
+            } catch (ExecutionException e) {
+                LOGGER.error("Could not load the test outcome in " + reportFile, e.getCause());
+                return Optional.absent();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while loading the test outcome in " + reportFile, e);
+            }
+        }
+    }
+
     private class SerializedOutcomeFilenameFilter implements FilenameFilter {
         public boolean accept(final File file, final String filename) {
             return filename.toLowerCase(Locale.getDefault()).endsWith(formatConfiguration.getPreferredFormat().getExtension());
@@ -0,0 +1,123 @@
+package net.thucydides.core.reports;
+
+import net.thucydides.core.model.TestOutcome;
+import net.thucydides.core.model.TestResult;
+import net.thucydides.core.model.TestType;
+
+import java.util.List;
+
+/**
+ * The test and step counts for a set of test outcomes, worked out in a single pass over the outcomes.
+ * The report templates ask for these counts many times for each page, so TestOutcomes builds the summary
+ * once and serves its counters from it rather than going through every outcome again for each count.
+ * Instances are immutable, so they can be shared between report generation threads.
+ */
+public class TestOutcomeSummary {
+
+    private static final int RESULT_COUNT = TestResult.values().length;
+    private static final int TEST_TYPE_COUNT = TestType.values().length;
+
+    private final int[][] testCounts = new int[TEST_TYPE_COUNT][RESULT_COUNT];
+    private final int[][] stepCounts = new int[TEST_TYPE_COUNT][RESULT_COUNT];
+    private final int[][] testCountsForOutcomesOfType = new int[TEST_TYPE_COUNT][RESULT_COUNT];
+    private final int[] totalTestsOfType = new int[TEST_TYPE_COUNT];
+    private final int stepCount;
+    private final int implementedTestCount;
+    private final long duration;
+    private final boolean hasDataDrivenTests;
+    private final int totalDataRows;
+
+    private TestOutcomeSummary(List<? extends TestOutcome> outcomes) {
+        int stepCount = 0;
+        int implementedTestCount = 0;
+        long duration = 0;
+        boolean hasDataDrivenTests = false;
+        int totalDataRows = 0;
+        for (TestOutcome outcome : outcomes) {
+            stepCount += outcome.getNestedStepCount();
+            implementedTestCount += outcome.getImplementedTestCount();
+            duration += outcome.getDuration();
+            if (outcome.isDataDriven()) {
+                hasDataDrivenTests = true;
+                totalDataRows += outcome.getDataTable().getSize();
+            }
+            countResultsOf(outcome);
+        }
+        this.stepCount = stepCount;
+        this.implementedTestCount = implementedTestCount;
+        this.duration = duration;
+        this.hasDataDrivenTests = hasDataDrivenTests;
+        this.totalDataRows = totalDataRows;
+    }
+
+    private void countResultsOf(TestOutcome outcome) {
+        for (TestType testType : TestType.values()) {
+            boolean outcomeIsOfThisType = outcome.typeCompatibleWith(testType);
+            if (outcomeIsOfThisType) {
+                totalTestsOfType[testType.ordinal()] += outcome.getTestCount();
+            }
+            for (TestResult testResult : TestResult.values()) {
+                testCounts[testType.ordinal()][testResult.ordinal()] += outcome.countResults(testResult, testType);
+                stepCounts[testType.ordinal()][testResult.ordinal()]
+                        += outcome.countNestedStepsWithResult(testResult, testType);
+                if (outcomeIsOfThisType) {
+                    testCountsForOutcomesOfType[testType.ordinal()][testResult.ordinal()]
+                            += outcome.countResults(testResult);
+                }
+            }
+        }
+    }
+
+    public static TestOutcomeSummary of(List<? extends TestOutcome> outcomes) {
+        return new TestOutcomeSummary(outcomes);
+    }
+
+    /**
+     * @return the number of tests (including data-driven test rows) with a given result, as counted by TestOutcome.countResults()
+     */
+    public int countTestsWithResult(TestResult expectedResult, TestType testType) {
+        return testCounts[testType.ordinal()][expectedResult.ordinal()];
+    }
+
+    /**
+     * @return the number of tests with a given result, only counting the test outcomes of the specified type
+     */
+    public int countTestsOfTypeWithResult(TestType testType, TestResult expectedResult) {
+        return testCountsForOutcomesOfType[testType.ordinal()][expectedResult.ordinal()];
+    }
+
+    /**
+     * @return the number of tests (including data-driven test rows) in the test outcomes of the specified type
+     */
+    public int getTotalTestsOfType(TestType testType) {
+        return totalTestsOfType[testType.ordinal()];
+    }
+
+    public int countStepsWithResult(TestResult expectedResult, TestType testType) {
+        return stepCounts[testType.ordinal()][expectedResult.ordinal()];
+    }
+
+    public int getTotalTests() {
+        return getTotalTestsOfType(TestType.ANY);
+    }
+
+    public int getStepCount() {
+        return stepCount;
+    }
+
+    public int getImplementedTestCount() {
+        return implementedTestCount;
+    }
+
+    public long getDuration() {
+        return duration;
+    }
+
+    public boolean hasDataDrivenTests() {
+        return hasDataDrivenTests;
+    }
+
+    public int getTotalDataRows() {
+        return totalDataRows;
+    }
+}
@@ -0,0 +1,157 @@
+package net.thucydides.core.reports;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import net.thucydides.core.model.TestOutcome;
+import net.thucydides.core.model.TestTag;
+
+import java.util.BitSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An inverted index of the tags and issues in a list of test outcomes.
+ * Outcomes are identified by their position in the indexed list, so a subset of the outcomes is just a bit set,
+ * and filtering a subset by tag is a bit set intersection rather than a scan of every outcome.
+ * The index is built once for a root set of test outcomes, and shared by every subset derived from it.
+ */
+class TestOutcomeTagIndex {
+
+    private final List<? extends TestOutcome> outcomes;
+    private final Map<TestOutcome, Integer> positions = new IdentityHashMap<>();
+    private final List<Set<TestTag>> tagsByPosition;
+    private final long tagChangeCount;
+    private final Map<TestTag, BitSet> outcomesByTag = Maps.newHashMap();
+    private final Map<String, BitSet> outcomesByTagName = Maps.newHashMap();
+    private final Map<String, BitSet> outcomesByTagType = Maps.newHashMap();
+    private final Map<String, BitSet> outcomesByIssue = Maps.newHashMap();
+
+    private static final BitSet NO_OUTCOMES = new BitSet();
+
+    TestOutcomeTagIndex(List<? extends TestOutcome> outcomes) {
+        this.outcomes = ImmutableList.copyOf(outcomes);
+        ImmutableList.Builder<Set<TestTag>> tags = ImmutableList.builder();
+        this.tagChangeCount = tagChangeCountOf(this.outcomes);
+        for (int position = 0; position < this.outcomes.size(); position++) {
+            TestOutcome outcome = this.outcomes.get(position);
+            if (!positions.containsKey(outcome)) {
+                positions.put(outcome, position);
+            }
+            Set<TestTag> outcomeTags = outcome.getTags();
+            tags.add(outcomeTags);
+            for (TestTag tag : outcomeTags) {
+                index(outcomesByTag, tag, position);
+                index(outcomesByTagName, tag.getName().toLowerCase(), position);
+                index(outcomesByTagType, tag.getType(), position);
+            }
+            for (String issue : outcome.getIssues()) {
+                index(outcomesByIssue, issue, position);
+            }
+        }
+        this.tagsByPosition = tags.build();
+    }
+
+    private <K> void index(Map<K, BitSet> index, K key, int position) {
+        BitSet matchingOutcomes = index.get(key);
+        if (matchingOutcomes == null) {
+            matchingOutcomes = new BitSet(outcomes.size());
+            index.put(key, matchingOutcomes);
+        }
+        matchingOutcomes.set(position);
+    }
+
+    /**
+     * Tags and issues can be added to test outcomes after they have been indexed (e.g. release versions),
+     * in which case the index needs to be rebuilt.
+     */
+    boolean isUpToDate() {
+        return tagChangeCountOf(outcomes) == tagChangeCount;
+    }
+
+    /**
+     * Tag change counts only ever go up, so the total changes whenever tags are added to any of the outcomes.
+     */
+    private static long tagChangeCountOf(List<? extends TestOutcome> outcomes) {
+        long tagChangeCount = 0;
+        for (TestOutcome outcome : outcomes) {
+            tagChangeCount += outcome.tagChangeCount();
+        }
+        return tagChangeCount;
+    }
+
+    /**
+     * @return the positions of every outcome in the index.
+     */
+    BitSet allOutcomes() {
+        BitSet allOutcomes = new BitSet(outcomes.size());
+        allOutcomes.set(0, outcomes.size());
+        return allOutcomes;
+    }
+
+    /**
+     * Find the positions of a list of outcomes in this index.
+     * This only works if every outcome in the list appears once in the index, in the same order:
+     * otherwise the list cannot be represented as a subset of the index.
+     */
+    Optional<BitSet> positionsOf(List<? extends TestOutcome> subset) {
+        BitSet subsetPositions = new BitSet(outcomes.size());
+        int previousPosition = -1;
+        for (TestOutcome outcome : subset) {
+            Integer position = positions.get(outcome);
+            if (position == null || position <= previousPosition) {
+                return Optional.absent();
+            }
+            subsetPositions.set(position);
+            previousPosition = position;
+        }
+        return Optional.of(subsetPositions);
+    }
+
+    BitSet withTag(BitSet subset, TestTag tag) {
+        BitSet matchingOutcomes = copyOf(outcomesByTag.get(tag));
+        if (tag.getType().equalsIgnoreCase("issue")) {
+            matchingOutcomes.or(copyOf(outcomesByIssue.get(tag.getName())));
+        }
+        matchingOutcomes.and(subset);
+        return matchingOutcomes;
+    }
+
+    BitSet withTagName(BitSet subset, String tagName) {
+        return intersection(subset, outcomesByTagName.get(tagName.toLowerCase()));
+    }
+
+    BitSet withTagType(BitSet subset, String tagType) {
+        return intersection(subset, outcomesByTagType.get(tagType));
+    }
+
+    List<TestOutcome> outcomesIn(BitSet subset) {
+        ImmutableList.Builder<TestOutcome> subsetOutcomes = ImmutableList.builder();
+        for (int position = subset.nextSetBit(0); position >= 0; position = subset.nextSetBit(position + 1)) {
+            subsetOutcomes.add(outcomes.get(position));
+        }
+        return subsetOutcomes.build();
+    }
+
+    Set<TestTag> tagsIn(BitSet subset) {
+        Set<TestTag> tags = Sets.newHashSet();
+        for (int position = subset.nextSetBit(0); position >= 0; position = subset.nextSetBit(position + 1)) {
+            tags.addAll(tagsByPosition.get(position));
+        }
+        return ImmutableSet.copyOf(tags);
+    }
+
+    private BitSet intersection(BitSet subset, BitSet indexedOutcomes) {
+        BitSet matchingOutcomes = copyOf(indexedOutcomes);
+        matchingOutcomes.and(subset);
+        return matchingOutcomes;
+    }
+
+    private BitSet copyOf(BitSet indexedOutcomes) {
+        return (indexedOutcomes == null) ? (BitSet) NO_OUTCOMES.clone() : (BitSet) indexedOutcomes.clone();
+    }
+}
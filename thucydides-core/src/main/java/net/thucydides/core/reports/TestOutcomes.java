@@ -18,6 +18,7 @@ import org.hamcrest.Matcher;
 import org.joda.time.DateTime;
 
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
@@ -56,6 +57,18 @@ public class TestOutcomes {
      */
     private static final Integer DEFAULT_ESTIMATED_TOTAL_STEPS = 3;
 
+    /**
+     * The tag index used to filter these outcomes, and the positions of these outcomes in that index.
+     * Built lazily, and shared with the root outcomes where possible.
+     * A stale index is simply replaced, so threads never wait for each other to use it.
+     */
+    private volatile IndexedOutcomes indexedOutcomes;
+
+    /**
+     * The test and step counts for these outcomes, worked out the first time they are needed.
+     */
+    private volatile TestOutcomeSummary summary;
+
     @Inject
     protected TestOutcomes(List<? extends TestOutcome> outcomes,
                            double estimatedAverageStepCount,
@@ -81,6 +94,15 @@ public class TestOutcomes {
         this(outcomes, estimatedAverageStepCount, "");
     }
 
+    private TestOutcomes(IndexedOutcomes indexedOutcomes,
+                         double estimatedAverageStepCount,
+                         String label,
+                         TestOutcomes rootOutcomes,
+                         EnvironmentVariables environmentVariables) {
+        this(indexedOutcomes.getOutcomes(), estimatedAverageStepCount, label, rootOutcomes, environmentVariables);
+        this.indexedOutcomes = indexedOutcomes;
+    }
+
     public TestOutcomes withLabel(String label) {
         return new TestOutcomes(this.outcomes, this.estimatedAverageStepCount, label);
     }
@@ -118,17 +140,13 @@ public class TestOutcomes {
      */
     public List<String> getTagTypes() {
         Set<String> tagTypes = Sets.newHashSet();
-        for (TestOutcome outcome : outcomes) {
-            addTagTypesFrom(outcome, tagTypes);
-        }
+        addTagTypesFrom(getTagSet(), tagTypes);
         return sort(ImmutableList.copyOf(tagTypes), on(String.class));
     }
 
     public List<String> getFirstClassTagTypes() {
         Set<String> tagTypes = Sets.newHashSet();
-        for (TestOutcome outcome : outcomes) {
-            addTagTypesFrom(outcome, tagTypes);
-        }
+        addTagTypesFrom(getTagSet(), tagTypes);
         tagTypes.remove("version");
         tagTypes.removeAll(getRequirementTagTypes());
         return sort(ImmutableList.copyOf(tagTypes), on(String.class));
@@ -151,27 +169,19 @@ public class TestOutcomes {
      */
     public List<String> getTagNames() {
         Set<String> tags = Sets.newHashSet();
-        for (TestOutcome outcome : outcomes) {
-            addTagNamesFrom(outcome, tags);
-        }
+        addTagNamesFrom(getTagSet(), tags);
         return sort(ImmutableList.copyOf(tags), on(String.class));
     }
 
-    private void addTagNamesFrom(TestOutcome outcome, Set<String> tags) {
-        for (TestTag tag : outcome.getTags()) {
-            String normalizedForm = tag.getName().toLowerCase();
-            if (!tags.contains(normalizedForm)) {
-                tags.add(normalizedForm);
-            }
+    private void addTagNamesFrom(Set<TestTag> outcomeTags, Set<String> tags) {
+        for (TestTag tag : outcomeTags) {
+            tags.add(tag.getName().toLowerCase());
         }
     }
 
-    private void addTagTypesFrom(TestOutcome outcome, Set<String> tags) {
-        for (TestTag tag : outcome.getTags()) {
-            String normalizedForm = tag.getType().toLowerCase();
-            if (!tags.contains(normalizedForm)) {
-                tags.add(normalizedForm);
-            }
+    private void addTagTypesFrom(Set<TestTag> outcomeTags, Set<String> tags) {
+        for (TestTag tag : outcomeTags) {
+            tags.add(tag.getType().toLowerCase());
         }
     }
 
@@ -179,11 +189,11 @@ public class TestOutcomes {
      * @return The list of all the different tags in these test outcomes
      */
     public List<TestTag> getTags() {
-        Set<TestTag> tags = Sets.newHashSet();
-        for (TestOutcome outcome : outcomes) {
-            tags.addAll(outcome.getTags());
-        }
-        return ImmutableList.copyOf(tags);
+        return ImmutableList.copyOf(getTagSet());
+    }
+
+    private Set<TestTag> getTagSet() {
+        return indexedOutcomes().getTags();
     }
 
     /**
@@ -265,7 +275,7 @@ public class TestOutcomes {
     }
 
     public boolean containsTag(TestTag testTag) {
-        return getTags().contains(testTag);
+        return getTagSet().contains(testTag);
     }
 
     public DateTime getStartTime() {
@@ -321,7 +331,12 @@ public class TestOutcomes {
      * @return A new set of test outcomes for this tag type
      */
     public TestOutcomes withTagType(String tagType) {
-        return TestOutcomes.of(filter(havingTagType(tagType), outcomes)).withLabel(tagType).withRootOutcomes(this.getRootOutcomes());
+        IndexedOutcomes outcomesWithTagType = indexedOutcomes().withTagType(tagType);
+        return subsetOf(outcomesWithTagType, tagType);
+    }
+
+    private TestOutcomes subsetOf(IndexedOutcomes subset, String label) {
+        return new TestOutcomes(subset, estimatedAverageStepCount, label, getRootOutcomes(), environmentVariables);
     }
 
     private TestOutcomes withRootOutcomes(TestOutcomes rootOutcomes) {
@@ -335,12 +350,11 @@ public class TestOutcomes {
      * @return A new set of test outcomes for this tag name
      */
     public TestOutcomes withTag(String tagName) {
-        return TestOutcomes.of(filter(havingTagName(tagName), outcomes)).withLabel(tagName).withRootOutcomes(getRootOutcomes());
+        return subsetOf(indexedOutcomes().withTagName(tagName), tagName);
     }
 
     public TestOutcomes withTag(TestTag tag) {
-        List<? extends TestOutcome> matchingTags = matchingOutcomes(outcomes, tag);
-        return TestOutcomes.of(matchingTags).withLabel(tag.getName()).withRootOutcomes(getRootOutcomes());
+        return subsetOf(indexedOutcomes().withTag(tag), tag.getName());
     }
 
     public TestOutcomes withTags(List<TestTag> tags) {
@@ -368,6 +382,64 @@ public class TestOutcomes {
         return tag.getType().equalsIgnoreCase("issue");
     }
 
+    private IndexedOutcomes indexedOutcomes() {
+        IndexedOutcomes currentIndexedOutcomes = indexedOutcomes;
+        if ((currentIndexedOutcomes == null) || (!currentIndexedOutcomes.getIndex().isUpToDate())) {
+            currentIndexedOutcomes = indexedOutcomesFromRootOrNewIndex();
+            indexedOutcomes = currentIndexedOutcomes;
+        }
+        return currentIndexedOutcomes;
+    }
+
+    private IndexedOutcomes indexedOutcomesFromRootOrNewIndex() {
+        if (rootOutcomes.isPresent() && rootOutcomes.get() != this) {
+            TestOutcomeTagIndex rootIndex = rootOutcomes.get().indexedOutcomes().getIndex();
+            Optional<BitSet> positionsInRootIndex = rootIndex.positionsOf(outcomes);
+            if (positionsInRootIndex.isPresent()) {
+                return new IndexedOutcomes(rootIndex, positionsInRootIndex.get());
+            }
+        }
+        TestOutcomeTagIndex index = new TestOutcomeTagIndex(outcomes);
+        return new IndexedOutcomes(index, index.allOutcomes());
+    }
+
+    /**
+     * A subset of the outcomes in a tag index.
+     */
+    private static class IndexedOutcomes {
+        private final TestOutcomeTagIndex index;
+        private final BitSet positions;
+
+        private IndexedOutcomes(TestOutcomeTagIndex index, BitSet positions) {
+            this.index = index;
+            this.positions = positions;
+        }
+
+        public TestOutcomeTagIndex getIndex() {
+            return index;
+        }
+
+        public List<TestOutcome> getOutcomes() {
+            return index.outcomesIn(positions);
+        }
+
+        public Set<TestTag> getTags() {
+            return index.tagsIn(positions);
+        }
+
+        public IndexedOutcomes withTag(TestTag tag) {
+            return new IndexedOutcomes(index, index.withTag(positions, tag));
+        }
+
+        public IndexedOutcomes withTagName(String tagName) {
+            return new IndexedOutcomes(index, index.withTagName(positions, tagName));
+        }
+
+        public IndexedOutcomes withTagType(String tagType) {
+            return new IndexedOutcomes(index, index.withTagType(positions, tagType));
+        }
+    }
+
     /**
      * Return a copy of the current test outcomes, with test run history and statistics.
      *
@@ -462,11 +534,7 @@ public class TestOutcomes {
      * @return The total duration of all of the tests in this set in milliseconds.
      */
     public Long getDuration() {
-        Long total = 0L;
-        for (TestOutcome outcome : outcomes) {
-            total += outcome.getDuration();
-        }
-        return total;
+        return getSummary().getDuration();
     }
 
     /**
@@ -480,7 +548,7 @@ public class TestOutcomes {
      * @return The total number of test runs in this set (including rows in data-driven tests).
      */
     public int getTotal() {
-        return sum(outcomes, on(TestOutcome.class).getTestCount());
+        return getSummary().getTotalTests();
     }
 
     /**
@@ -503,29 +571,37 @@ public class TestOutcomes {
     }
 
     private List<TestResult> getCurrentTestResults() {
-        return convert(outcomes, toTestResults());
-    }
-
-    private Converter<? extends TestOutcome, TestResult> toTestResults() {
-        return new Converter<TestOutcome, TestResult>() {
-            public TestResult convert(final TestOutcome step) {
-                return step.getResult();
-            }
-        };
+        List<TestResult> results = Lists.newArrayListWithCapacity(outcomes.size());
+        for (TestOutcome outcome : outcomes) {
+            results.add(outcome.getResult());
+        }
+        return results;
     }
 
     /**
      * @return The total number of nested steps in these test outcomes.
      */
     public int getStepCount() {
-        return sum(extract(outcomes, on(TestOutcome.class).getNestedStepCount())).intValue();
+        return getSummary().getStepCount();
     }
 
     /**
      * @param testType 'manual' or 'automated' (this is a string because it is mainly called from the freemarker templates
      */
     public int successCount(String testType) {
-        return sum(outcomes, on(TestOutcome.class).countResults(SUCCESS, TestType.valueOf(testType.toUpperCase())));
+        return countTestsWithResult(SUCCESS, TestType.valueOf(testType.toUpperCase()));
+    }
+
+    /**
+     * @return The test and step counts for these test outcomes, used by the counters and the report templates.
+     */
+    public TestOutcomeSummary getSummary() {
+        TestOutcomeSummary currentSummary = summary;
+        if (currentSummary == null) {
+            currentSummary = TestOutcomeSummary.of(outcomes);
+            summary = currentSummary;
+        }
+        return currentSummary;
     }
 
 
@@ -644,7 +720,7 @@ public class TestOutcomes {
     }
 
     private int countStepsWithResult(TestResult expectedResult, TestType testType) {
-        int stepCount = sum(outcomes, on(TestOutcome.class).countNestedStepsWithResult(expectedResult, testType));
+        int stepCount = getSummary().countStepsWithResult(expectedResult, testType);
         if ((stepCount == 0) && aMatchingTestExists(expectedResult, testType)) {
             return (int) Math.round(getAverageTestSize());
         }
@@ -656,7 +732,7 @@ public class TestOutcomes {
     }
 
     protected int countTestsWithResult(TestResult expectedResult, TestType testType) {
-        return sum(outcomes, on(TestOutcome.class).countResults(expectedResult, testType));
+        return getSummary().countTestsWithResult(expectedResult, testType);
     }
 
     private Integer getEstimatedTotalStepCount() {
@@ -697,20 +773,19 @@ public class TestOutcomes {
     }
 
     public int getTestCount() {
-        return sum(outcomes, on(TestOutcome.class).getTestCount());
+        return getSummary().getTotalTests();
     }
 
     private int totalImplementedTests() {
-        return sum(outcomes, on(TestOutcome.class).getImplementedTestCount());
+        return getSummary().getImplementedTestCount();
     }
 
     public boolean hasDataDrivenTests() {
-        return !filter(having(on(TestOutcome.class).isDataDriven(), is(true)), outcomes).isEmpty();
+        return getSummary().hasDataDrivenTests();
     }
 
     public int getTotalDataRows() {
-        List<? extends TestOutcome> datadrivenTestOutcomes = filter(having(on(TestOutcome.class).isDataDriven(), is(true)), outcomes);
-        return sum(datadrivenTestOutcomes, on(TestOutcome.class).getDataTable().getSize());
+        return getSummary().getTotalDataRows();
     }
 
     public TestOutcomeMatcher findMatchingTags() {
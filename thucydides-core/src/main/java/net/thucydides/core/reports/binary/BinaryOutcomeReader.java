@@ -0,0 +1,268 @@
+package net.thucydides.core.reports.binary;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import net.thucydides.core.model.DataSetDescriptor;
+import net.thucydides.core.model.DataTable;
+import net.thucydides.core.model.DataTableRow;
+import net.thucydides.core.model.FailureCause;
+import net.thucydides.core.model.Story;
+import net.thucydides.core.model.TestOutcome;
+import net.thucydides.core.model.TestResult;
+import net.thucydides.core.model.TestStep;
+import net.thucydides.core.model.TestTag;
+import net.thucydides.core.model.features.ApplicationFeature;
+import net.thucydides.core.screenshots.ScreenshotAndHtmlSource;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Set;
+
+import static net.thucydides.core.reports.binary.BinaryOutcomeWriter.FORMAT_VERSION;
+import static net.thucydides.core.reports.binary.BinaryOutcomeWriter.MAGIC;
+import static net.thucydides.core.reports.binary.BinaryOutcomeWriter.NULL_STRING;
+
+/**
+ * Reads a test outcome written by the BinaryOutcomeWriter.
+ * Fields are read back in the order they were written, so the two classes need to be kept in step:
+ * any change to the layout of the file needs a new format version.
+ */
+class BinaryOutcomeReader {
+
+    private final DataInputStream input;
+    private String[] strings;
+
+    BinaryOutcomeReader(InputStream inputStream) {
+        this.input = new DataInputStream(inputStream);
+    }
+
+    public TestOutcome read() throws IOException {
+        readHeader();
+        readStringTable();
+        return readOutcome();
+    }
+
+    private void readHeader() throws IOException {
+        if (input.readInt() != MAGIC) {
+            throw new IOException("Not a binary test outcome file");
+        }
+        int version = readVarInt();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported binary test outcome format version: " + version);
+        }
+    }
+
+    private void readStringTable() throws IOException {
+        int size = readVarInt();
+        strings = new String[size + 1];
+        for (int i = 1; i <= size; i++) {
+            byte[] bytes = new byte[readVarInt()];
+            input.readFully(bytes);
+            strings[i] = new String(bytes, Charsets.UTF_8);
+        }
+    }
+
+    /**
+     * The qualifier and issues are applied first, as withQualifier() and withIssues() return a copy of the outcome
+     * that does not carry over the project, session id or timestamps.
+     */
+    private TestOutcome readOutcome() throws IOException {
+        TestOutcome outcome = new TestOutcome(readString());
+        outcome = outcome.withQualifier(readString());
+        outcome = outcome.withIssues(readStrings());
+        outcome.setTitle(readString());
+        outcome.setDescription(readString());
+        outcome.setBackgroundDescription(readString());
+        outcome.forProject(readString());
+        outcome.setSessionId(readString());
+        if (input.readBoolean()) {
+            outcome = outcome.asManualTest();
+        }
+        DateTime startTime = readDateTime();
+        if (startTime != null) {
+            outcome.setStartTime(startTime);
+        } else {
+            outcome.clearStartTime();
+        }
+        outcome.setTestRunTimestamp(readDateTime());
+        outcome.setDuration(readVarLong());
+        outcome.setUserStory(readStory());
+        outcome.setTags(readTags());
+        outcome.addVersions(readStrings());
+        outcome.setTestFailureCause(readFailureCause());
+        outcome.setTestFailureClassname(readString());
+        outcome.setTestFailureMessage(readString());
+        int stepCount = readVarInt();
+        for (int i = 0; i < stepCount; i++) {
+            outcome.recordStep(readStep());
+        }
+        DataTable dataTable = readDataTable();
+        if (dataTable != null) {
+            outcome.useExamplesFrom(dataTable);
+        }
+        TestResult annotatedResult = readEnum(TestResult.class);
+        if (annotatedResult != null) {
+            outcome.setAnnotatedResult(annotatedResult);
+        }
+        outcome.setBrowserStartupTime(readVarLong());
+        outcome.setSkippedScreenshotCount(readVarInt());
+        return outcome;
+    }
+
+    private Story readStory() throws IOException {
+        if (!input.readBoolean()) {
+            return null;
+        }
+        String id = readString();
+        String storyName = readString();
+        String storyClassName = readString();
+        String path = readString();
+        String narrative = readString();
+        Story.RequirementType type = readEnum(Story.RequirementType.class);
+        ApplicationFeature feature = null;
+        if (input.readBoolean()) {
+            feature = new ApplicationFeature(readString(), readString());
+        }
+        return new Story(id, storyName, storyClassName, path, feature, narrative, type);
+    }
+
+    private Set<TestTag> readTags() throws IOException {
+        int tagCount = readVarInt();
+        Set<TestTag> tags = Sets.newHashSetWithExpectedSize(tagCount);
+        for (int i = 0; i < tagCount; i++) {
+            String name = readString();
+            tags.add(TestTag.withName(name).andType(readString()));
+        }
+        return tags;
+    }
+
+    private TestStep readStep() throws IOException {
+        String description = readString();
+        TestStep step = new TestStep(new DateTime(readVarLong()), description);
+        step.setDuration(readVarLong());
+        step.setResult(readEnum(TestResult.class));
+        step.setException(readFailureCause());
+        int screenshotCount = readVarInt();
+        for (int i = 0; i < screenshotCount; i++) {
+            String screenshotName = readString();
+            String sourcecodeName = readString();
+            int width = readVarInt();
+            int height = readVarInt();
+            step.addScreenshot(new ScreenshotAndHtmlSource(screenshotName, sourcecodeName, width, height,
+                                                           input.readBoolean()));
+        }
+        int childCount = readVarInt();
+        for (int i = 0; i < childCount; i++) {
+            step.addChildStep(readStep());
+        }
+        return step;
+    }
+
+    private FailureCause readFailureCause() throws IOException {
+        if (!input.readBoolean()) {
+            return null;
+        }
+        String errorType = readString();
+        String message = readString();
+        StackTraceElement[] stackTrace = null;
+        int stackTraceSize = readVarInt();
+        if (stackTraceSize > 0) {
+            stackTrace = new StackTraceElement[stackTraceSize - 1];
+            for (int i = 0; i < stackTrace.length; i++) {
+                String className = readString();
+                String methodName = readString();
+                String fileName = readString();
+                stackTrace[i] = new StackTraceElement(className, methodName, fileName, unZigZag(readVarInt()));
+            }
+        }
+        return new FailureCause(errorType, message, stackTrace);
+    }
+
+    private DataTable readDataTable() throws IOException {
+        if (!input.readBoolean()) {
+            return null;
+        }
+        List<String> headers = readStrings();
+        int rowCount = readVarInt();
+        List<DataTableRow> rows = Lists.newArrayListWithCapacity(rowCount);
+        for (int i = 0; i < rowCount; i++) {
+            TestResult result = readEnum(TestResult.class);
+            rows.add(new DataTableRow(readStrings(), result));
+        }
+        int descriptorCount = readVarInt();
+        List<DataSetDescriptor> descriptors = Lists.newArrayListWithCapacity(descriptorCount);
+        for (int i = 0; i < descriptorCount; i++) {
+            int startRow = readVarInt();
+            int descriptorRowCount = readVarInt();
+            String name = readString();
+            descriptors.add(new DataSetDescriptor(startRow, descriptorRowCount, name, readString()));
+        }
+        return DataTable.withHeaders(headers).andRowData(rows).andDescriptors(descriptors).build();
+    }
+
+    private DateTime readDateTime() throws IOException {
+        if (!input.readBoolean()) {
+            return null;
+        }
+        long millis = readVarLong();
+        return new DateTime(millis, DateTimeZone.forID(readString()));
+    }
+
+    private List<String> readStrings() throws IOException {
+        int size = readVarInt();
+        List<String> values = Lists.newArrayListWithCapacity(size);
+        for (int i = 0; i < size; i++) {
+            values.add(readString());
+        }
+        return values;
+    }
+
+    private <T extends Enum<T>> T readEnum(Class<T> enumType) throws IOException {
+        String name = readString();
+        return (name == null) ? null : Enum.valueOf(enumType, name);
+    }
+
+    private String readString() throws IOException {
+        int index = readVarInt();
+        if (index == NULL_STRING) {
+            return null;
+        }
+        if (index >= strings.length) {
+            throw new IOException("Invalid string table reference: " + index);
+        }
+        return strings[index];
+    }
+
+    private int readVarInt() throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte b = input.readByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed variable-length integer");
+    }
+
+    private long readVarLong() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = input.readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed variable-length integer");
+    }
+
+    private static int unZigZag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
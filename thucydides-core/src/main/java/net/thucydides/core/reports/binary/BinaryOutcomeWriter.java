@@ -0,0 +1,238 @@
+package net.thucydides.core.reports.binary;
+
+import com.google.common.base.Charsets;
+import com.google.common.base.Optional;
+import com.google.common.collect.Maps;
+import net.thucydides.core.model.DataSetDescriptor;
+import net.thucydides.core.model.DataTable;
+import net.thucydides.core.model.DataTableRow;
+import net.thucydides.core.model.FailureCause;
+import net.thucydides.core.model.Story;
+import net.thucydides.core.model.TestOutcome;
+import net.thucydides.core.model.TestStep;
+import net.thucydides.core.model.TestTag;
+import net.thucydides.core.model.features.ApplicationFeature;
+import net.thucydides.core.screenshots.ScreenshotAndHtmlSource;
+import org.joda.time.DateTime;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes a test outcome in the compact binary outcome format.
+ * A file starts with a magic number and a format version, followed by a table of every distinct string
+ * in the outcome, and then the outcome itself, in which strings are written as indexes into the table.
+ * Tag names, step descriptions and screenshot names are repeated many times in a typical outcome,
+ * so each of them is only stored once. Numbers and counts are written as variable-length integers.
+ */
+class BinaryOutcomeWriter {
+
+    static final int MAGIC = 0x54484F43;
+    static final int FORMAT_VERSION = 1;
+
+    /**
+     * Index 0 in the string table is reserved for null values.
+     */
+    static final int NULL_STRING = 0;
+
+    private final Map<String, Integer> stringTable = Maps.newLinkedHashMap();
+    private final ByteArrayOutputStream bodyBytes = new ByteArrayOutputStream(4096);
+    private final DataOutputStream body = new DataOutputStream(bodyBytes);
+
+    public void write(TestOutcome testOutcome, OutputStream outputStream) throws IOException {
+        writeOutcome(testOutcome);
+
+        DataOutputStream output = new DataOutputStream(outputStream);
+        output.writeInt(MAGIC);
+        writeVarInt(output, FORMAT_VERSION);
+        writeVarInt(output, stringTable.size());
+        for (String value : stringTable.keySet()) {
+            byte[] bytes = value.getBytes(Charsets.UTF_8);
+            writeVarInt(output, bytes.length);
+            output.write(bytes);
+        }
+        bodyBytes.writeTo(output);
+        output.flush();
+    }
+
+    private void writeOutcome(TestOutcome outcome) throws IOException {
+        writeString(outcome.getMethodName());
+        writeString(qualifierOf(outcome));
+        writeStrings(outcome.getIssues());
+        writeString(outcome.getTitle());
+        writeString(outcome.getDescription());
+        writeString(outcome.getBackgroundDescription());
+        writeString(outcome.getProject());
+        writeString(outcome.getSessionId());
+        body.writeBoolean(outcome.isManual());
+        writeDateTime(outcome.getStartTime());
+        writeDateTime(outcome.getTestRunTimestamp());
+        writeVarLong(outcome.getDuration());
+        writeStory(outcome.getUserStory());
+        writeTags(outcome.getTags());
+        writeStrings(outcome.getVersions());
+        writeFailureCause(outcome.getTestFailureCause());
+        writeString(outcome.getTestFailureClassname());
+        writeString(outcome.getTestFailureMessage());
+        writeVarInt(outcome.getTestSteps().size());
+        for (TestStep step : outcome.getTestSteps()) {
+            writeStep(step);
+        }
+        writeDataTable(outcome.isDataDriven() ? outcome.getDataTable() : null);
+        writeEnum(outcome.getAnnotatedResult());
+        writeVarLong(outcome.getBrowserStartupTime());
+        writeVarInt(outcome.getSkippedScreenshotCount());
+    }
+
+    private String qualifierOf(TestOutcome outcome) {
+        Optional<String> qualifier = outcome.getQualifier();
+        return ((qualifier != null) && (qualifier.isPresent())) ? qualifier.get() : null;
+    }
+
+    private void writeStory(Story story) throws IOException {
+        body.writeBoolean(story != null);
+        if (story != null) {
+            writeString(story.getId());
+            writeString(story.getName());
+            writeString(story.getStoryClassName());
+            writeString(story.getPath());
+            writeString(story.getNarrative());
+            writeEnum(story.getType());
+            ApplicationFeature feature = story.getFeature();
+            body.writeBoolean(feature != null);
+            if (feature != null) {
+                writeString(feature.getId());
+                writeString(feature.getName());
+            }
+        }
+    }
+
+    private void writeTags(Collection<TestTag> tags) throws IOException {
+        writeVarInt(tags.size());
+        for (TestTag tag : tags) {
+            writeString(tag.getName());
+            writeString(tag.getType());
+        }
+    }
+
+    private void writeStep(TestStep step) throws IOException {
+        writeString(step.getDescription());
+        writeVarLong(step.getStartTime());
+        writeVarLong(step.getDuration());
+        writeEnum(step.getResult());
+        writeFailureCause(step.getException());
+        writeVarInt(step.getScreenshots().size());
+        for (ScreenshotAndHtmlSource screenshot : step.getScreenshots()) {
+            writeString(screenshot.getScreenshotName());
+            writeString(screenshot.getHtmlSourceName());
+            writeVarInt(screenshot.getWidth());
+            writeVarInt(screenshot.getHeight());
+            body.writeBoolean(screenshot.isEvicted());
+        }
+        writeVarInt(step.getChildren().size());
+        for (TestStep child : step.getChildren()) {
+            writeStep(child);
+        }
+    }
+
+    private void writeFailureCause(FailureCause cause) throws IOException {
+        body.writeBoolean(cause != null);
+        if (cause != null) {
+            writeString(cause.getErrorType());
+            writeString(cause.getMessage());
+            StackTraceElement[] stackTrace = cause.getStackTrace();
+            writeVarInt(stackTrace == null ? 0 : stackTrace.length + 1);
+            if (stackTrace != null) {
+                for (StackTraceElement element : stackTrace) {
+                    writeString(element.getClassName());
+                    writeString(element.getMethodName());
+                    writeString(element.getFileName());
+                    writeVarInt(zigZag(element.getLineNumber()));
+                }
+            }
+        }
+    }
+
+    private void writeDataTable(DataTable dataTable) throws IOException {
+        body.writeBoolean(dataTable != null);
+        if (dataTable != null) {
+            writeStrings(dataTable.getHeaders());
+            writeVarInt(dataTable.getRows().size());
+            for (DataTableRow row : dataTable.getRows()) {
+                writeEnum(row.getResult());
+                writeStrings(row.getStringValues());
+            }
+            writeVarInt(dataTable.getDataSetDescriptors().size());
+            for (DataSetDescriptor descriptor : dataTable.getDataSetDescriptors()) {
+                writeVarInt(descriptor.getStartRow());
+                writeVarInt(descriptor.getRowCount());
+                writeString(descriptor.getName());
+                writeString(descriptor.getDescription());
+            }
+        }
+    }
+
+    private void writeDateTime(DateTime dateTime) throws IOException {
+        body.writeBoolean(dateTime != null);
+        if (dateTime != null) {
+            writeVarLong(dateTime.getMillis());
+            writeString(dateTime.getZone().getID());
+        }
+    }
+
+    private void writeStrings(List<String> values) throws IOException {
+        writeVarInt(values.size());
+        for (String value : values) {
+            writeString(value);
+        }
+    }
+
+    /**
+     * Enum values are stored by name rather than by ordinal, so that adding new values does not break existing files.
+     */
+    private void writeEnum(Enum<?> value) throws IOException {
+        writeString(value == null ? null : value.name());
+    }
+
+    private void writeString(String value) throws IOException {
+        writeVarInt(value == null ? NULL_STRING : indexOf(value));
+    }
+
+    private int indexOf(String value) {
+        Integer index = stringTable.get(value);
+        if (index == null) {
+            index = stringTable.size() + 1;
+            stringTable.put(value, index);
+        }
+        return index;
+    }
+
+    private void writeVarInt(int value) throws IOException {
+        writeVarInt(body, value);
+    }
+
+    private void writeVarLong(long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            body.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        body.writeByte((int) value);
+    }
+
+    private static void writeVarInt(DataOutputStream output, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            output.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        output.writeByte(value);
+    }
+
+    private static int zigZag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+}
@@ -1,11 +1,9 @@
 package net.thucydides.core.reports.html;
 
-import ch.lambdaj.function.convert.Converter;
 import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Predicate;
 import net.thucydides.core.guice.Injectors;
-import net.thucydides.core.images.ResizableImage;
 import net.thucydides.core.issues.IssueTracking;
 import net.thucydides.core.model.Screenshot;
 import net.thucydides.core.model.TestOutcome;
@@ -15,7 +13,6 @@ import net.thucydides.core.reports.AcceptanceTestReporter;
 import net.thucydides.core.reports.OutcomeFormat;
 import net.thucydides.core.reports.ReportOptions;
 import net.thucydides.core.reports.TestOutcomes;
-import net.thucydides.core.reports.html.screenshots.ScreenshotFormatter;
 import net.thucydides.core.requirements.RequirementsService;
 import net.thucydides.core.util.EnvironmentVariables;
 import net.thucydides.core.util.Inflector;
@@ -29,9 +26,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-import static ch.lambdaj.Lambda.convert;
 import static com.google.common.collect.Iterables.any;
-import static net.thucydides.core.ThucydidesSystemProperty.THUCYDIDES_KEEP_UNSCALED_SCREENSHOTS;
 import static net.thucydides.core.model.ReportType.HTML;
 
 /**
@@ -42,7 +37,6 @@ public class HtmlAcceptanceTestReporter extends HtmlReporter implements Acceptan
 
     private static final String DEFAULT_ACCEPTANCE_TEST_REPORT = "freemarker/default.ftl";
     private static final String DEFAULT_ACCEPTANCE_TEST_SCREENSHOT = "freemarker/screenshots.ftl";
-    private static final int MAXIMUM_SCREENSHOT_WIDTH = 1000;
 
     private static final Logger LOGGER = LoggerFactory.getLogger(HtmlAcceptanceTestReporter.class);
 
@@ -91,13 +85,12 @@ public class HtmlAcceptanceTestReporter extends HtmlReporter implements Acceptan
         addFormattersToContext(context);
         addTimestamp(testOutcome, context);
 
-        String htmlContents = mergeTemplate(DEFAULT_ACCEPTANCE_TEST_REPORT).usingContext(context);
         copyResourcesToOutputDirectory();
 
         String reportFilename = reportFor(storedTestOutcome);
         LOGGER.info("GENERATING HTML REPORT FOR " + storedTestOutcome.getCompleteName() + (qualifier != null? "/" + qualifier : "") + " => " + reportFilename);
 
-        return writeReportToOutputDirectory(reportFilename, htmlContents);
+        return writeReportToOutputDirectory(reportFilename, mergeTemplate(DEFAULT_ACCEPTANCE_TEST_REPORT), context);
     }
 
     private boolean containsScreenshots(TestOutcome testOutcome) {
@@ -140,7 +133,7 @@ public class HtmlAcceptanceTestReporter extends HtmlReporter implements Acceptan
 
         Preconditions.checkNotNull(getOutputDirectory());
 
-        List<Screenshot> screenshots = expandScreenshots(testOutcome.getScreenshots());
+        List<Screenshot> screenshots = testOutcome.getScreenshots();
 
         String screenshotReport = testOutcome.getReportName() + "_screenshots.html";
 
@@ -149,62 +142,10 @@ public class HtmlAcceptanceTestReporter extends HtmlReporter implements Acceptan
         addFormattersToContext(context);
         context.put("screenshots", screenshots);
         context.put("narrativeView", testOutcome.getReportName());
-        String htmlContents = mergeTemplate(DEFAULT_ACCEPTANCE_TEST_SCREENSHOT).usingContext(context);
-        writeReportToOutputDirectory(screenshotReport, htmlContents);
+        writeReportToOutputDirectory(screenshotReport, mergeTemplate(DEFAULT_ACCEPTANCE_TEST_SCREENSHOT), context);
 
     }
 
-    private List<Screenshot> expandScreenshots(List<Screenshot> screenshots) throws IOException {
-        return convert(screenshots, new ExpandedScreenshotConverter(maxScreenshotHeightIn(screenshots)));
-    }
-
-    private class ExpandedScreenshotConverter implements Converter<Screenshot, Screenshot> {
-        private final int maxHeight;
-
-        public ExpandedScreenshotConverter(int maxHeight) {
-            this.maxHeight = maxHeight;
-        }
-
-        public Screenshot convert(Screenshot screenshot) {
-            try {
-                return ScreenshotFormatter.forScreenshot(screenshot)
-                                          .inDirectory(getOutputDirectory())
-                                          .keepOriginals(shouldKeepOriginalScreenshots())
-                                          .expandToHeight(maxHeight);
-            } catch (IOException e) {
-                LOGGER.warn("Failed to write scaled screenshot for {}: {}", screenshot, e);
-                return screenshot;
-            }
-        }
-    }
-
-    private boolean shouldKeepOriginalScreenshots() {
-        return getEnvironmentVariables().getPropertyAsBoolean(THUCYDIDES_KEEP_UNSCALED_SCREENSHOTS, false);
-    }
-
-    private int maxScreenshotHeightIn(List<Screenshot> screenshots) throws IOException {
-        int maxHeight = 0;
-        for (Screenshot screenshot : screenshots) {
-            File screenshotFile = new File(getOutputDirectory(),screenshot.getFilename());
-            if (screenshotFile.exists()) {
-                maxHeight = maxHeightOf(maxHeight, screenshotFile);
-            }
-        }
-        return maxHeight;
-    }
-
-    private int maxHeightOf(int maxHeight, File screenshotFile) throws IOException {
-        int height = ResizableImage.loadFrom(screenshotFile).getHeight();
-        int width = ResizableImage.loadFrom(screenshotFile).getWitdh();
-        if (width > MAXIMUM_SCREENSHOT_WIDTH) {
-            height = (int) ((height * 1.0) * (MAXIMUM_SCREENSHOT_WIDTH * 1.0 / width));
-        }
-        if (height > maxHeight) {
-            maxHeight = height;
-        }
-        return maxHeight;
-    }
-
     private String reportFor(final TestOutcome testOutcome) {
         return testOutcome.withQualifier(qualifier).getReportName(HTML);
     }
@@ -1,17 +1,22 @@
 package net.thucydides.core.reports.html;
 
 import com.beust.jcommander.internal.Lists;
+import com.google.common.collect.ImmutableList;
 import net.thucydides.core.ThucydidesSystemProperties;
 import net.thucydides.core.ThucydidesSystemProperty;
 import net.thucydides.core.guice.Injectors;
 import net.thucydides.core.issues.IssueTracking;
 import net.thucydides.core.model.NumericalFormatter;
 import net.thucydides.core.model.Release;
+import net.thucydides.core.model.TestOutcome;
 import net.thucydides.core.model.TestResult;
 import net.thucydides.core.model.TestTag;
 import net.thucydides.core.releases.ReleaseManager;
 import net.thucydides.core.reports.*;
+import net.thucydides.core.reports.binary.BinaryTestOutcomeReporter;
 import net.thucydides.core.reports.csv.CSVReporter;
+import net.thucydides.core.reports.json.JSONTestOutcomeReporter;
+import net.thucydides.core.reports.xml.XMLTestOutcomeReporter;
 import net.thucydides.core.requirements.RequirementsProviderService;
 import net.thucydides.core.requirements.RequirementsService;
 import net.thucydides.core.requirements.model.Requirement;
@@ -19,19 +24,23 @@ import net.thucydides.core.requirements.model.RequirementsConfiguration;
 import net.thucydides.core.requirements.reports.RequirementOutcome;
 import net.thucydides.core.requirements.reports.RequirementsOutcomes;
 import net.thucydides.core.requirements.reports.RequirmentsOutcomeFactory;
+import net.thucydides.core.screenshots.ScreenshotStorageBudget;
 import net.thucydides.core.util.EnvironmentVariables;
 import net.thucydides.core.util.Inflector;
 import net.thucydides.core.util.VersionProvider;
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.*;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Generates an aggregate acceptance test report in HTML form.
@@ -60,6 +69,10 @@ public class HtmlAggregateStoryReporter extends HtmlReporter implements UserStor
     private final RequirementsConfiguration requirementsConfiguration;
     private final EnvironmentVariables environmentVariables;
     private FormatConfiguration formatConfiguration;
+    private ReportExecutor reportExecutor;
+    private ReportManifest reportManifest;
+    private String sharedInputs = "";
+    private final Map<String, String> templateFingerprints = new ConcurrentHashMap<>();
 
     public HtmlAggregateStoryReporter(final String projectName) {
         this(projectName, "");
@@ -96,6 +109,7 @@ public class HtmlAggregateStoryReporter extends HtmlReporter implements UserStor
         this.requirementsConfiguration = new RequirementsConfiguration(getEnvironmentVariables());
         this.environmentVariables = environmentVariables;
         this.formatConfiguration = new FormatConfiguration(environmentVariables);
+        this.reportExecutor = new ReportExecutor(environmentVariables);
     }
 
     public OutcomeFormat getFormat() {
@@ -117,24 +131,72 @@ public class HtmlAggregateStoryReporter extends HtmlReporter implements UserStor
 
     public TestOutcomes generateReportsForTestResultsFrom(final File sourceDirectory) throws IOException {
         TestOutcomes allTestOutcomes = loadTestOutcomesFrom(sourceDirectory);
+        List<TestOutcome> outcomesWithEvictedScreenshots = enforceScreenshotStorageBudgetOn(sourceDirectory, allTestOutcomes);
         copyScreenshotsFrom(sourceDirectory);
+        regenerateTestOutcomeReportsFor(outcomesWithEvictedScreenshots, sourceDirectory);
         generateReportsForTestResultsIn(allTestOutcomes);
         return allTestOutcomes;
     }
 
+    private List<TestOutcome> enforceScreenshotStorageBudgetOn(File sourceDirectory, TestOutcomes testOutcomes) {
+        ScreenshotStorageBudget storageBudget = new ScreenshotStorageBudget(environmentVariables);
+        if (hasSeparateOutputDirectory(sourceDirectory)) {
+            storageBudget.enforceOn(sourceDirectory, getOutputDirectory(), testOutcomes.getOutcomes());
+        } else {
+            storageBudget.enforceOn(sourceDirectory, testOutcomes.getOutcomes());
+        }
+        return storageBudget.getUpdatedOutcomes();
+    }
+
+    /**
+     * The stored test outcomes and the report of each test are written while the tests run, so they are written again
+     * when screenshots have been evicted, to record the evicted screenshots and show a placeholder in their place.
+     */
+    private void regenerateTestOutcomeReportsFor(List<TestOutcome> testOutcomes, File sourceDirectory) {
+        if (testOutcomes.isEmpty()) {
+            return;
+        }
+        new ReportService(sourceDirectory, testOutcomeReporters()).generateReportsFor(testOutcomes);
+        if (hasSeparateOutputDirectory(sourceDirectory)) {
+            new ReportService(getOutputDirectory(), testOutcomeReporters()).generateReportsFor(testOutcomes);
+        }
+    }
+
+    private List<AcceptanceTestReporter> testOutcomeReporters() {
+        List<AcceptanceTestReporter> reporters = Lists.newArrayList();
+        for (OutcomeFormat format : formatConfiguration.getFormats()) {
+            switch (format) {
+                case XML: reporters.add(new XMLTestOutcomeReporter()); break;
+                case JSON: reporters.add(new JSONTestOutcomeReporter()); break;
+                case BINARY: reporters.add(new BinaryTestOutcomeReporter()); break;
+                case HTML: reporters.add(new HtmlAcceptanceTestReporter(environmentVariables, issueTracking)); break;
+            }
+        }
+        return reporters;
+    }
+
+    private boolean hasSeparateOutputDirectory(File sourceDirectory) {
+        return (getOutputDirectory() != null) && (getOutputDirectory() != sourceDirectory);
+    }
+
     private void copyScreenshotsFrom(File sourceDirectory) {
-        if ((getOutputDirectory() != null) && (getOutputDirectory() != sourceDirectory)) {
+        if (hasSeparateOutputDirectory(sourceDirectory)) {
             CopyOption[] options = new CopyOption[]{ StandardCopyOption.COPY_ATTRIBUTES };
 
             Path targetPath = Paths.get(getOutputDirectory().toURI());
             Path sourcePath = Paths.get(sourceDirectory.toURI());
             try {
-
+                Files.createDirectories(targetPath);
+                boolean canLinkFiles = onSameFileStore(sourcePath, targetPath);
                 DirectoryStream<Path> directoryContents = Files.newDirectoryStream(sourcePath);
                 for(Path sourceFile : directoryContents) {
                     Path destinationFile = targetPath.resolve(sourceFile.getFileName());
                     if (Files.notExists(destinationFile)) {
-                        Files.copy(sourceFile, destinationFile, options);
+                        if (canLinkFiles && ScreenshotStorageBudget.isStoredScreenshotOrPageSource(sourceFile.getFileName().toString())) {
+                            linkOrCopy(sourceFile, destinationFile, options);
+                        } else {
+                            Files.copy(sourceFile, destinationFile, options);
+                        }
                     }
                 }
             } catch (IOException e) {
@@ -143,95 +205,198 @@ public class HtmlAggregateStoryReporter extends HtmlReporter implements UserStor
         }
     }
 
+    private boolean onSameFileStore(Path sourcePath, Path targetPath) {
+        try {
+            return Files.getFileStore(sourcePath).equals(Files.getFileStore(targetPath));
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Screenshots and page sources never change once they are written, so the report can share them with the
+     * source directory rather than holding a second copy.
+     */
+    private void linkOrCopy(Path sourceFile, Path destinationFile, CopyOption[] options) throws IOException {
+        try {
+            Files.createLink(destinationFile, sourceFile);
+        } catch (IOException | UnsupportedOperationException | SecurityException linksNotSupported) {
+            Files.copy(sourceFile, destinationFile, options);
+        }
+    }
+
     public void generateReportsForTestResultsIn(TestOutcomes testOutcomes) throws IOException {
         RequirementsOutcomes requirementsOutcomes = requirementsFactory.buildRequirementsOutcomesFrom(testOutcomes.withRequirementsTags());
 
         copyResourcesToOutputDirectory();
         copyTestResultsToOutputDirectory();
 
-        generateAggregateReportFor(testOutcomes);
-        generateTagReportsFor(testOutcomes);
-        generateTagTypeReportsFor(testOutcomes);
+        reportManifest = reportManifestFor(getOutputDirectory());
+        sharedInputs = sharedInputsFor(testOutcomes);
+
+        List<ReportingTask> reportingTasks = Lists.newArrayList();
+        reportingTasks.addAll(aggregateReportTasksFor(testOutcomes));
+        reportingTasks.addAll(tagReportTasksFor(testOutcomes));
+        reportingTasks.addAll(tagTypeReportTasksFor(testOutcomes));
         for (String name : testOutcomes.getTagNames()) {
-            generateTagTypeReportsFor(testOutcomes.withTag(name), new ReportNameProvider(name));
+            reportingTasks.addAll(tagTypeReportTasksFor(testOutcomes.withTag(name), new ReportNameProvider(name)));
         }
-        generateRequirementTypeReports(requirementsOutcomes);
-        generateResultReportsFor(testOutcomes);
+        reportingTasks.addAll(requirementTypeReportTasksFor(requirementsOutcomes));
+        reportingTasks.addAll(resultReportTasksFor(testOutcomes));
 //        generateHistoryReportFor(testOutcomes);
 //        generateCoverageReportsFor(testOutcomes);
 
-        generateRequirementsReportsFor(requirementsOutcomes);
+        reportingTasks.addAll(requirementsReportTasksFor(requirementsOutcomes));
+
+        reportingTasks.addAll(releasesReportTasksFor(testOutcomes, requirementsOutcomes));
+
+        generateReports(reportingTasks);
+
+        if (isIncremental()) {
+            reportManifest.deleteObsoleteReports();
+            reportManifest.save();
+        }
+    }
+
+    private boolean isIncremental() {
+        return environmentVariables.getPropertyAsBoolean(ThucydidesSystemProperty.THUCYDIDES_REPORT_INCREMENTAL, false);
+    }
 
-        generateReleasesReportFor(testOutcomes, requirementsOutcomes);
+    /**
+     * The manifest from the previous run is removed straight away: it is only written back once every report
+     * has been generated, so a failed run will lead to a full regeneration next time.
+     */
+    private ReportManifest reportManifestFor(File outputDirectory) {
+        ReportManifest previousManifest = ReportManifest.loadFrom(outputDirectory);
+        previousManifest.invalidate();
+        return isIncremental() ? previousManifest : ReportManifest.empty(outputDirectory);
+    }
+
+    private ReportManifest getReportManifest() {
+        if (reportManifest == null) {
+            reportManifest = ReportManifest.empty(getOutputDirectory());
+        }
+        return reportManifest;
+    }
+
+    /**
+     * Inputs that appear on every page, such as the menu and the report configuration.
+     */
+    private String sharedInputsFor(TestOutcomes testOutcomes) {
+        ReportFingerprint fingerprint = new ReportFingerprint()
+                .with(new VersionProvider(environmentVariables).getVersion())
+                .with(projectName)
+                .with(relativeLink)
+                .with(requirementsService.getRequirementTypes())
+                .with(testOutcomes.getFirstClassTagTypes());
+        for (ThucydidesSystemProperty property : ThucydidesSystemProperty.values()) {
+            fingerprint.with(property.from(environmentVariables)).with(property.from(getEnvironmentVariables()));
+        }
+        return fingerprint.getValue();
+    }
+
+    private String templateFingerprintFor(String template) throws IOException {
+        String templateFingerprint = templateFingerprints.get(template);
+        if (templateFingerprint == null) {
+            try (InputStream templateSource = getClass().getResourceAsStream("/" + template)) {
+                byte[] templateContents = (templateSource == null) ? new byte[]{} : IOUtils.toByteArray(templateSource);
+                templateFingerprint = new ReportFingerprint().with(templateContents).getValue();
+            }
+            templateFingerprints.put(template, templateFingerprint);
+        }
+        return templateFingerprint;
+    }
 
+    private void generateReports(List<ReportingTask> reportingTasks) {
+        LOGGER.info("Generating {} reports using {} threads", reportingTasks.size(), reportExecutor.getThreadCount());
+        reportExecutor.generateReports(reportingTasks);
     }
 
-    private void generateRequirementTypeReports(RequirementsOutcomes requirementsOutcomes) throws IOException {
+    private List<ReportingTask> requirementTypeReportTasksFor(RequirementsOutcomes requirementsOutcomes) {
+        List<ReportingTask> reportingTasks = Lists.newArrayList();
         List<String> requirementTypes = requirementsOutcomes.getTypes();
         for (String requirementType : requirementTypes) {
-            generateRequirementTypeReportFor(requirementType,
+            reportingTasks.add(requirementTypeReportFor(requirementType,
                     requirementsOutcomes.requirementsOfType(requirementType),
-                    new ReportNameProvider());
+                    new ReportNameProvider()));
         }
+        return reportingTasks;
     }
 
-    private void generateRequirementTypeReportFor(String requirementType,
-                                                  RequirementsOutcomes requirementsOutcomes,
-                                                  ReportNameProvider reporter) throws IOException {
+    private ReportingTask requirementTypeReportFor(String requirementType,
+                                                   RequirementsOutcomes requirementsOutcomes,
+                                                   ReportNameProvider reporter) {
         Map<String, Object> context = buildContext(requirementsOutcomes.getTestOutcomes(), getReportNameProvider());
         context.put("report", ReportProperties.forAggregateResultsReport());
         context.put("requirementType", requirementType);
         context.put("requirements", requirementsOutcomes);
 
         String reportName = reporter.forRequirementType(requirementType);
-        generateReportPage(context, REQUIREMENT_TYPE_TEMPLATE_PATH, reportName);
+        return reportPage(context, REQUIREMENT_TYPE_TEMPLATE_PATH, reportName);
 
     }
 
-    private void generateCSVReportFor(TestOutcomes testOutcomes, String reportName) throws IOException {
-        CSVReporter csvReporter = new CSVReporter(getOutputDirectory(), getEnvironmentVariables());
-        csvReporter.generateReportFor(testOutcomes, reportName);
+    private ReportingTask csvReportFor(TestOutcomes testOutcomes, String reportName) {
+        return new CSVReportTask(testOutcomes, reportName);
     }
 
     List<Requirement> reportTally = Lists.newArrayList();
 
     public void generateRequirementsReportsFor(RequirementsOutcomes requirementsOutcomes) throws IOException {
+        generateReports(requirementsReportTasksFor(requirementsOutcomes));
+    }
+
+    private List<ReportingTask> requirementsReportTasksFor(final RequirementsOutcomes requirementsOutcomes) {
+        List<ReportingTask> reportingTasks = Lists.newArrayList();
 
         htmlRequirementsReporter.setOutputDirectory(getOutputDirectory());
-        htmlRequirementsReporter.generateReportFor(requirementsOutcomes);
+        reportingTasks.add(new ReportingTask() {
+            @Override
+            public void generateReports() throws IOException {
+                htmlRequirementsReporter.generateReportFor(requirementsOutcomes);
+            }
+
+            @Override
+            public String toString() {
+                return "requirements report";
+            }
+        });
 
 //        htmlProgressReporter.setOutputDirectory(getOutputDirectory());
 //        htmlProgressReporter.generateReportFor(requirementsOutcomes);
 
         clearReportTally();
-        generateRequirementsReportsForChildRequirements(requirementsOutcomes);
+        addRequirementsReportsForChildRequirements(requirementsOutcomes, reportingTasks);
+        return reportingTasks;
     }
 
     private void clearReportTally() {
         reportTally.clear();
     }
 
-    private void generateRequirementsReportsForChildRequirements(RequirementsOutcomes requirementsOutcomes) throws IOException {
+    private void addRequirementsReportsForChildRequirements(RequirementsOutcomes requirementsOutcomes,
+                                                            List<ReportingTask> reportingTasks) {
         List<RequirementOutcome> requirementOutcomes = requirementsOutcomes.getRequirementOutcomes();
         for (RequirementOutcome outcome : requirementOutcomes) {
             Requirement requirement = outcome.getRequirement();
             if (!reportTally.contains(requirement)) {
                 TestOutcomes testOutcomesForThisRequirement = outcome.getTestOutcomes().withTag(requirement.asTag());
                 RequirementsOutcomes requirementOutcomesForThisRequirement = requirementsFactory.buildRequirementsOutcomesFrom(requirement, testOutcomesForThisRequirement);
-                generateNestedRequirementsReportsFor(requirement, requirementOutcomesForThisRequirement);
+                addNestedRequirementsReportsFor(requirement, requirementOutcomesForThisRequirement, reportingTasks);
             }
         }
     }
 
-    private void generateNestedRequirementsReportsFor(Requirement parentRequirement, RequirementsOutcomes requirementsOutcomes) throws IOException {
-        htmlRequirementsReporter.setOutputDirectory(getOutputDirectory());
+    private void addNestedRequirementsReportsFor(Requirement parentRequirement,
+                                                 RequirementsOutcomes requirementsOutcomes,
+                                                 List<ReportingTask> reportingTasks) {
         String reportName = reportNameProvider.forRequirement(parentRequirement);
         if (!reportTally.contains(parentRequirement)) {
             reportTally.add(parentRequirement);
-            htmlRequirementsReporter.generateReportFor(requirementsOutcomes, requirementsOutcomes.getTestOutcomes(), reportName);
+            reportingTasks.add(new RequirementsReportTask(requirementsOutcomes, reportName));
         }
 
-        generateRequirementsReportsForChildRequirements(requirementsOutcomes);
+        addRequirementsReportsForChildRequirements(requirementsOutcomes, reportingTasks);
 
     }
 
@@ -239,15 +404,15 @@ public class HtmlAggregateStoryReporter extends HtmlReporter implements UserStor
         return TestOutcomeLoader.loadTestOutcomes().inFormat(getFormat()).from(sourceDirectory).withHistory().withRequirementsTags();
     }
 
-    private void generateAggregateReportFor(TestOutcomes testOutcomes) throws IOException {
+    private List<ReportingTask> aggregateReportTasksFor(TestOutcomes testOutcomes) {
 
         ReportNameProvider defaultNameProvider = new ReportNameProvider();
         Map<String, Object> context = buildContext(testOutcomes, defaultNameProvider, true);
         context.put("report", ReportProperties.forAggregateResultsReport());
         context.put("csvReport", "results.csv");
 
-        generateReportPage(context, TEST_OUTCOME_TEMPLATE_PATH, "index.html");
-        generateCSVReportFor(testOutcomes, "results.csv");
+        return ImmutableList.of(reportPage(testOutcomes, context, TEST_OUTCOME_TEMPLATE_PATH, "index.html"),
+                                csvReportFor(testOutcomes, "results.csv"));
     }
 
     private ReleaseManager releaseManager;
@@ -269,8 +434,9 @@ public class HtmlAggregateStoryReporter extends HtmlReporter implements UserStor
         return defaultNameProvider;
     }
 
-    private void generateReleasesReportFor(TestOutcomes testOutcomes,
-                                           RequirementsOutcomes requirementsOutcomes) throws IOException {
+    private List<ReportingTask> releasesReportTasksFor(TestOutcomes testOutcomes,
+                                                      RequirementsOutcomes requirementsOutcomes) {
+        List<ReportingTask> reportingTasks = Lists.newArrayList();
         Map<String, Object> context = buildContext(testOutcomes, getReportNameProvider());
         context.put("report", ReportProperties.forAggregateResultsReport());
         List<Release> releases = getReleaseManager().getReleasesFrom(testOutcomes);
@@ -281,13 +447,15 @@ public class HtmlAggregateStoryReporter extends HtmlReporter implements UserStor
             context.put("releaseData", releaseData);
             context.put("requirements", requirementsOutcomes);
 
-            generateReportPage(context, RELEASES_TEMPLATE_PATH, "releases.html");
-            generateReleaseDetailsReportsFor(testOutcomes, requirementsOutcomes);
+            reportingTasks.add(reportPage(context, RELEASES_TEMPLATE_PATH, "releases.html"));
+            reportingTasks.addAll(releaseDetailsReportTasksFor(testOutcomes, requirementsOutcomes));
         }
+        return reportingTasks;
     }
 
-    private void generateReleaseDetailsReportsFor(TestOutcomes testOutcomes,
-                                                  RequirementsOutcomes requirementsOutcomes) throws IOException {
+    private List<ReportingTask> releaseDetailsReportTasksFor(TestOutcomes testOutcomes,
+                                                             RequirementsOutcomes requirementsOutcomes) {
+        List<ReportingTask> reportingTasks = Lists.newArrayList();
         List<Release> allReleases = getReleaseManager().getFlattenedReleasesFrom(testOutcomes);
         List<String> requirementsTypes = getRequirementTypes();
         String topLevelRequirementType = requirementsTypes.get(0);
@@ -319,35 +487,40 @@ public class HtmlAggregateStoryReporter extends HtmlReporter implements UserStor
 
             // capability | features | total automated tests | %automated pass | total manual | % manual
             String reportName = getReportNameProvider().forRelease(release);
-            generateReportPage(context, RELEASE_TEMPLATE_PATH, reportName);
+            reportingTasks.add(reportPage(context, RELEASE_TEMPLATE_PATH, reportName));
         }
+        return reportingTasks;
     }
 
-    private void generateTagReportsFor(TestOutcomes testOutcomes) throws IOException {
-
+    private List<ReportingTask> tagReportTasksFor(TestOutcomes testOutcomes) {
+        List<ReportingTask> reportingTasks = Lists.newArrayList();
         for (TestTag tag : testOutcomes.getTags()) {
-            generateTagReport(testOutcomes, reportNameProvider, tag);
-            generateAssociatedTagReportsForTag(testOutcomes.withTag(tag), tag.getName());
+            reportingTasks.addAll(tagReport(testOutcomes, reportNameProvider, tag));
+            reportingTasks.addAll(associatedTagReportTasksForTag(testOutcomes.withTag(tag), tag.getName()));
         }
+        return reportingTasks;
     }
 
-    private void generateTagTypeReportsFor(TestOutcomes testOutcomes) throws IOException {
-        generateTagTypeReportsFor(testOutcomes, reportNameProvider);
+    private List<ReportingTask> tagTypeReportTasksFor(TestOutcomes testOutcomes) {
+        return tagTypeReportTasksFor(testOutcomes, reportNameProvider);
     }
 
-    private void generateTagTypeReportsFor(TestOutcomes testOutcomes, ReportNameProvider reportNameProvider) throws IOException {
-
+    private List<ReportingTask> tagTypeReportTasksFor(TestOutcomes testOutcomes, ReportNameProvider reportNameProvider) {
+        List<ReportingTask> reportingTasks = Lists.newArrayList();
         for (String tagType : testOutcomes.getTagTypes()) {
-            generateTagTypeReport(testOutcomes, reportNameProvider, tagType);
+            reportingTasks.addAll(tagTypeReport(testOutcomes, reportNameProvider, tagType));
         }
+        return reportingTasks;
     }
 
-    private void generateResultReportsFor(TestOutcomes testOutcomes) throws IOException {
-        generateResultReports(testOutcomes, reportNameProvider);
+    private List<ReportingTask> resultReportTasksFor(TestOutcomes testOutcomes) {
+        List<ReportingTask> reportingTasks = Lists.newArrayList();
+        reportingTasks.addAll(resultReports(testOutcomes, reportNameProvider));
 
         for (TestTag tag : testOutcomes.getTags()) {
-            generateResultReports(testOutcomes.withTag(tag), new ReportNameProvider(tag.getName()), tag);
+            reportingTasks.addAll(resultReports(testOutcomes.withTag(tag), new ReportNameProvider(tag.getName()), tag));
         }
+        return reportingTasks;
     }
 
 //    private void generateCoverageReportsFor(TestOutcomes testOutcomes) throws IOException {
@@ -356,32 +529,34 @@ public class HtmlAggregateStoryReporter extends HtmlReporter implements UserStor
 //            generateCoverageData(testOutcomes, tagType);
 //        }
 //    }
-    private void generateResultReports(TestOutcomes testOutcomes, ReportNameProvider reportName) throws IOException {
-        generateResultReports(testOutcomes,reportName, TestTag.EMPTY_TAG);
+    private List<ReportingTask> resultReports(TestOutcomes testOutcomes, ReportNameProvider reportName) {
+        return resultReports(testOutcomes,reportName, TestTag.EMPTY_TAG);
     }
 
-    private void generateResultReports(TestOutcomes testOutcomesForThisTag, ReportNameProvider reportName, TestTag tag) throws IOException {
+    private List<ReportingTask> resultReports(TestOutcomes testOutcomesForThisTag, ReportNameProvider reportName, TestTag tag) {
+        List<ReportingTask> reportingTasks = Lists.newArrayList();
         if (testOutcomesForThisTag.getTotalTests().withResult(TestResult.SUCCESS) > 0) {
-            generateResultReport(testOutcomesForThisTag.getPassingTests(), reportName, tag, "success");
+            reportingTasks.addAll(resultReport(testOutcomesForThisTag.getPassingTests(), reportName, tag, "success"));
         }
         if (testOutcomesForThisTag.getTotalTests().withResult(TestResult.PENDING) > 0) {
-            generateResultReport(testOutcomesForThisTag.getPendingTests(), reportName, tag, "pending");
+            reportingTasks.addAll(resultReport(testOutcomesForThisTag.getPendingTests(), reportName, tag, "pending"));
         }
         if (testOutcomesForThisTag.getTotalTests().withResult(TestResult.FAILURE) > 0) {
-            generateResultReport(testOutcomesForThisTag.getFailingTests(), reportName, tag, "failure");
+            reportingTasks.addAll(resultReport(testOutcomesForThisTag.getFailingTests(), reportName, tag, "failure"));
         }
         if (testOutcomesForThisTag.getTotalTests().withResult(TestResult.ERROR) > 0) {
-            generateResultReport(testOutcomesForThisTag.getErrorTests(), reportName, tag, "error");
+            reportingTasks.addAll(resultReport(testOutcomesForThisTag.getErrorTests(), reportName, tag, "error"));
         }
         if (testOutcomesForThisTag.getTotalTests().withResult(TestResult.IGNORED) > 0) {
-            generateResultReport(testOutcomesForThisTag.havingResult(TestResult.IGNORED), reportName, tag, "ignored");
+            reportingTasks.addAll(resultReport(testOutcomesForThisTag.havingResult(TestResult.IGNORED), reportName, tag, "ignored"));
         }
         if (testOutcomesForThisTag.getTotalTests().withResult(TestResult.SKIPPED) > 0) {
-            generateResultReport(testOutcomesForThisTag.havingResult(TestResult.SKIPPED), reportName, tag, "skipped");
+            reportingTasks.addAll(resultReport(testOutcomesForThisTag.havingResult(TestResult.SKIPPED), reportName, tag, "skipped"));
         }
+        return reportingTasks;
     }
 
-    private void generateResultReport(TestOutcomes testOutcomes, ReportNameProvider reportName, TestTag tag, String testResult) throws IOException {
+    private List<ReportingTask> resultReport(TestOutcomes testOutcomes, ReportNameProvider reportName, TestTag tag, String testResult) {
         Map<String, Object> context = buildContext(testOutcomes, reportName);
         context.put("report", ReportProperties.forTestResultsReport());
         context.put("currentTagType", tag.getType());
@@ -390,11 +565,11 @@ public class HtmlAggregateStoryReporter extends HtmlReporter implements UserStor
         String csvReport = reportName.forCSVFiles().forTestResult(testResult);
         context.put("csvReport", csvReport);
         String report = reportName.withPrefix(tag).forTestResult(testResult);
-        generateReportPage(context, TEST_OUTCOME_TEMPLATE_PATH, report);
-        generateCSVReportFor(testOutcomes, csvReport);
+        return ImmutableList.of(reportPage(testOutcomes, context, TEST_OUTCOME_TEMPLATE_PATH, report),
+                                csvReportFor(testOutcomes, csvReport));
     }
 
-    private void generateTagReport(TestOutcomes testOutcomes, ReportNameProvider reportName, TestTag tag) throws IOException {
+    private List<ReportingTask> tagReport(TestOutcomes testOutcomes, ReportNameProvider reportName, TestTag tag) {
         TestOutcomes testOutcomesForTag = testOutcomes.withTag(tag);
         Map<String, Object> context = buildContext(testOutcomesForTag, reportName);
         context.put("report", ReportProperties.forTagResultsReport());
@@ -405,12 +580,12 @@ public class HtmlAggregateStoryReporter extends HtmlReporter implements UserStor
         context.put("csvReport", csvReport);
 
         String report = reportName.forTag(tag);
-        generateReportPage(context, TEST_OUTCOME_TEMPLATE_PATH, report);
-        generateCSVReportFor(testOutcomesForTag, csvReport);
+        return ImmutableList.of(reportPage(testOutcomesForTag, context, TEST_OUTCOME_TEMPLATE_PATH, report),
+                                csvReportFor(testOutcomesForTag, csvReport));
     }
 
 
-    private void generateTagTypeReport(TestOutcomes testOutcomes, ReportNameProvider reportName, String tagType) throws IOException {
+    private List<ReportingTask> tagTypeReport(TestOutcomes testOutcomes, ReportNameProvider reportName, String tagType) {
 
         TestOutcomes testOutcomesForTagType = testOutcomes.withTagType(tagType);
 
@@ -422,15 +597,17 @@ public class HtmlAggregateStoryReporter extends HtmlReporter implements UserStor
         context.put("csvReport", csvReport);
 
         String report = reportName.forTagType(tagType);
-        generateReportPage(context, TAGTYPE_TEMPLATE_PATH, report);
-        generateCSVReportFor(testOutcomesForTagType, csvReport);
+        return ImmutableList.of(reportPage(testOutcomesForTagType, context, TAGTYPE_TEMPLATE_PATH, report),
+                                csvReportFor(testOutcomesForTagType, csvReport));
     }
 
-    private void generateAssociatedTagReportsForTag(TestOutcomes testOutcomes, String sourceTag) throws IOException {
+    private List<ReportingTask> associatedTagReportTasksForTag(TestOutcomes testOutcomes, String sourceTag) {
+        List<ReportingTask> reportingTasks = Lists.newArrayList();
         ReportNameProvider reportName = new ReportNameProvider(sourceTag);
         for (TestTag tag : testOutcomes.getTags()) {
-            generateTagReport(testOutcomes, reportName, tag);
+            reportingTasks.addAll(tagReport(testOutcomes, reportName, tag));
         }
+        return reportingTasks;
     }
 
     private Map<String, Object> buildContext(TestOutcomes testOutcomesForTagType,
@@ -468,11 +645,117 @@ public class HtmlAggregateStoryReporter extends HtmlReporter implements UserStor
         return context;
     }
 
-    private void generateReportPage(final Map<String, Object> context,
-                                    final String template,
-                                    final String outputFile) throws IOException {
-        String htmlContents = mergeTemplate(template).usingContext(context);
-        writeReportToOutputDirectory(outputFile, htmlContents);
+    /**
+     * A page that depends on more than the test outcomes it displays, and so is always regenerated.
+     */
+    private ReportingTask reportPage(final Map<String, Object> context,
+                                     final String template,
+                                     final String outputFile) {
+        return new ReportPageTask(null, context, template, outputFile);
+    }
+
+    /**
+     * A page that only needs to be regenerated if the test outcomes it displays have changed.
+     */
+    private ReportingTask reportPage(final TestOutcomes inputs,
+                                     final Map<String, Object> context,
+                                     final String template,
+                                     final String outputFile) {
+        return new ReportPageTask(inputs, context, template, outputFile);
+    }
+
+    /**
+     * Merges a template with a prepared context. The context is built up front, so that the merge itself
+     * only reads from the shared test outcomes and can safely run alongside other pages.
+     */
+    private class ReportPageTask implements ReportingTask {
+        private final TestOutcomes inputs;
+        private final Map<String, Object> context;
+        private final String template;
+        private final String outputFile;
+
+        private ReportPageTask(TestOutcomes inputs, Map<String, Object> context, String template, String outputFile) {
+            this.inputs = inputs;
+            this.context = context;
+            this.template = template;
+            this.outputFile = outputFile;
+        }
+
+        @Override
+        public void generateReports() throws IOException {
+            if (inputs == null) {
+                generatePage();
+                getReportManifest().record(outputFile);
+                return;
+            }
+            String fingerprint = ReportFingerprint.forReport(outputFile)
+                                                  .with(sharedInputs)
+                                                  .with(templateFingerprintFor(template))
+                                                  .with(inputs)
+                                                  .getValue();
+            if (!getReportManifest().isUpToDate(outputFile, fingerprint)) {
+                generatePage();
+            }
+            getReportManifest().record(outputFile, fingerprint);
+        }
+
+        private void generatePage() throws IOException {
+            writeReportToOutputDirectory(outputFile, mergeTemplate(template), context);
+        }
+
+        @Override
+        public String toString() {
+            return outputFile;
+        }
+    }
+
+    private class CSVReportTask implements ReportingTask {
+        private final TestOutcomes testOutcomes;
+        private final String reportName;
+
+        private CSVReportTask(TestOutcomes testOutcomes, String reportName) {
+            this.testOutcomes = testOutcomes;
+            this.reportName = reportName;
+        }
+
+        @Override
+        public void generateReports() throws IOException {
+            String fingerprint = ReportFingerprint.forReport(reportName)
+                                                  .with(sharedInputs)
+                                                  .with(testOutcomes)
+                                                  .getValue();
+            if (!getReportManifest().isUpToDate(reportName, fingerprint)) {
+                CSVReporter csvReporter = new CSVReporter(getOutputDirectory(), getEnvironmentVariables());
+                csvReporter.generateReportFor(testOutcomes, reportName);
+            }
+            getReportManifest().record(reportName, fingerprint);
+        }
+
+        @Override
+        public String toString() {
+            return reportName;
+        }
+    }
+
+    private class RequirementsReportTask implements ReportingTask {
+        private final RequirementsOutcomes requirementsOutcomes;
+        private final String reportName;
+
+        private RequirementsReportTask(RequirementsOutcomes requirementsOutcomes, String reportName) {
+            this.requirementsOutcomes = requirementsOutcomes;
+            this.reportName = reportName;
+        }
+
+        @Override
+        public void generateReports() throws IOException {
+            htmlRequirementsReporter.generateReportFor(requirementsOutcomes, requirementsOutcomes.getTestOutcomes(), reportName);
+            getReportManifest().record(reportName);
+        }
+
+        @Override
+        public String toString() {
+            return reportName;
+        }
     }
 
     protected ThucydidesSystemProperties getSystemProperties() {
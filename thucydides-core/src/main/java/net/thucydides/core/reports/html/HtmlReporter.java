@@ -11,11 +11,18 @@ import net.thucydides.core.util.EnvironmentVariables;
 import org.apache.commons.io.FileUtils;
 import org.joda.time.DateTime;
 
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileFilter;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
 import java.io.StringWriter;
+import java.io.Writer;
 import java.nio.charset.Charset;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.Map;
 
 /**
@@ -64,7 +71,7 @@ public abstract class HtmlReporter extends ThucydidesReporter {
 
     private boolean alreadyCopied = false;
 
-    protected void copyResourcesToOutputDirectory() throws IOException {
+    protected synchronized void copyResourcesToOutputDirectory() throws IOException {
         if (!alreadyCopied) {
             alreadyCopied = true;
             updateResourceDirectoryFromSystemPropertyIfDefined();
@@ -119,6 +126,39 @@ public abstract class HtmlReporter extends ThucydidesReporter {
         return report;
     }
 
+    /**
+     * Merge a template straight into a report file in the output directory, without building the page in memory.
+     * The report is written to a temporary file and then moved into place, so a complete report is never replaced
+     * by a partly written one.
+     */
+    protected File writeReportToOutputDirectory(final String reportFilename,
+                                                final Merger merger,
+                                                final Map<String, Object> context) throws IOException {
+        File report = new File(getOutputDirectory(), reportFilename);
+        File reportDirectory = report.getAbsoluteFile().getParentFile();
+        reportDirectory.mkdirs();
+        File temporaryReport = File.createTempFile(report.getName(), ".tmp", reportDirectory);
+        try {
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(temporaryReport),
+                                                                          Charset.forName("UTF-8")))) {
+                merger.usingContext(context, writer);
+            }
+            moveIntoPlace(temporaryReport, report);
+        } finally {
+            Files.deleteIfExists(temporaryReport.toPath());
+        }
+        return report;
+    }
+
+    private void moveIntoPlace(File temporaryReport, File report) throws IOException {
+        try {
+            Files.move(temporaryReport.toPath(), report.toPath(),
+                       StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporaryReport.toPath(), report.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
     protected String timestampFrom(TestOutcomes rootOutcomes) {
         return timestampFrom(currentTime());
     }
@@ -147,11 +187,15 @@ public abstract class HtmlReporter extends ThucydidesReporter {
         }
 
         public String usingContext(final Map<String, Object> context) {
+            StringWriter sw = new StringWriter();
+            usingContext(context, sw);
+            return sw.toString();
+        }
+
+        public void usingContext(final Map<String, Object> context, final Writer writer) {
             try {
                 ReportTemplate template = getTemplateManager().getTemplateFrom(templateFile);
-                StringWriter sw = new StringWriter();
-                template.merge(context, sw);
-                return sw.toString();
+                template.merge(context, writer);
             } catch (Exception e) {
                 throw new RuntimeException("Failed to merge template: " + e.getMessage(), e);
             }
@@ -0,0 +1,164 @@
+package net.thucydides.core.reports.html;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import net.thucydides.core.ThucydidesSystemProperty;
+import net.thucydides.core.reports.ReportGenerationFailedError;
+import net.thucydides.core.util.EnvironmentVariables;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs a set of independent reporting tasks on a bounded pool of threads.
+ * A failing task does not stop the other reports from being generated: failures are collected,
+ * and reported together once every task has finished.
+ * The pool is created for each set of tasks, unless a shared executor service is provided.
+ */
+public class ReportExecutor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReportExecutor.class);
+
+    private final int threadCount;
+    private final Optional<ExecutorService> sharedExecutorService;
+
+    public ReportExecutor(final EnvironmentVariables environmentVariables) {
+        this(environmentVariables.getPropertyAsInteger(ThucydidesSystemProperty.THUCYDIDES_REPORT_THREADS,
+                                                       Runtime.getRuntime().availableProcessors()));
+    }
+
+    public ReportExecutor(final int threadCount) {
+        this.threadCount = Math.max(1, threadCount);
+        this.sharedExecutorService = Optional.absent();
+    }
+
+    /**
+     * Run the tasks on an existing executor service, which is left running once the tasks are done.
+     */
+    public ReportExecutor(final ExecutorService sharedExecutorService, final int threadCount) {
+        this.threadCount = Math.max(1, threadCount);
+        this.sharedExecutorService = Optional.of(sharedExecutorService);
+    }
+
+    public int getThreadCount() {
+        return threadCount;
+    }
+
+    public void generateReports(final List<? extends ReportingTask> reportingTasks) {
+        long t0 = System.currentTimeMillis();
+        List<ReportingFailure> failures;
+        if (threadCount == 1 || reportingTasks.size() <= 1) {
+            failures = runSequentially(reportingTasks);
+        } else {
+            failures = runInParallel(reportingTasks);
+        }
+        LOGGER.debug(reportingTasks.size() + " reporting tasks run in " + (System.currentTimeMillis() - t0)
+                     + " ms using " + threadCount + " threads");
+        reportAnyFailuresIn(failures, reportingTasks.size());
+    }
+
+    private List<ReportingFailure> runSequentially(final List<? extends ReportingTask> reportingTasks) {
+        List<ReportingFailure> failures = Lists.newArrayList();
+        for (ReportingTask task : reportingTasks) {
+            try {
+                task.generateReports();
+            } catch (Exception e) {
+                failures.add(new ReportingFailure(task, e));
+            }
+        }
+        return failures;
+    }
+
+    private List<ReportingFailure> runInParallel(final List<? extends ReportingTask> reportingTasks) {
+        ExecutorService executorService = sharedExecutorService.isPresent() ? sharedExecutorService.get()
+                                                                            : newThreadPoolFor(reportingTasks);
+        List<ReportingFailure> failures = Lists.newArrayList();
+        List<Future<Void>> results = Lists.newArrayList();
+        try {
+            for (ReportingTask task : reportingTasks) {
+                results.add(executorService.submit(callableFor(task)));
+            }
+            for (int i = 0; i < results.size(); i++) {
+                try {
+                    results.get(i).get();
+                } catch (ExecutionException e) {
+                    failures.add(new ReportingFailure(reportingTasks.get(i), e.getCause()));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ReportGenerationFailedError("Report generation was interrupted", e);
+        } finally {
+            if (sharedExecutorService.isPresent()) {
+                cancelUnfinished(results);
+            } else {
+                executorService.shutdownNow();
+            }
+        }
+        return failures;
+    }
+
+    private void cancelUnfinished(final List<Future<Void>> results) {
+        for (Future<Void> result : results) {
+            result.cancel(true);
+        }
+    }
+
+    private ExecutorService newThreadPoolFor(final List<? extends ReportingTask> reportingTasks) {
+        int poolSize = Math.min(threadCount, reportingTasks.size());
+        return Executors.newFixedThreadPool(poolSize,
+                new ThreadFactoryBuilder().setNameFormat("thucydides-report-%d").setDaemon(true).build());
+    }
+
+    private Callable<Void> callableFor(final ReportingTask task) {
+        return new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                task.generateReports();
+                return null;
+            }
+        };
+    }
+
+    private void reportAnyFailuresIn(final List<ReportingFailure> failures, final int taskCount) {
+        if (failures.isEmpty()) {
+            return;
+        }
+        for (ReportingFailure failure : failures) {
+            LOGGER.error("Failed to generate report " + failure.getTask(), failure.getCause());
+        }
+        throw new ReportGenerationFailedError(failures.size() + " of " + taskCount + " reports could not be generated: "
+                                              + failures,
+                                              failures.get(0).getCause());
+    }
+
+    private static class ReportingFailure {
+        private final ReportingTask task;
+        private final Throwable cause;
+
+        private ReportingFailure(ReportingTask task, Throwable cause) {
+            this.task = task;
+            this.cause = cause;
+        }
+
+        public ReportingTask getTask() {
+            return task;
+        }
+
+        public Throwable getCause() {
+            return cause;
+        }
+
+        @Override
+        public String toString() {
+            return task + " (" + cause.getMessage() + ")";
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package net.thucydides.core.reports.html;
+
+import com.google.common.base.Charsets;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import net.thucydides.core.model.TestOutcome;
+import net.thucydides.core.model.TestTag;
+import net.thucydides.core.reports.TestOutcomes;
+
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * A hash of the inputs used to generate a report, used to tell whether the report needs to be generated again.
+ * Test outcomes are identified by the fields that appear in the aggregate reports, including the start time,
+ * so an outcome that has been run again will always have a different fingerprint.
+ */
+public class ReportFingerprint {
+
+    private final Hasher hasher = Hashing.sha1().newHasher();
+    private String value;
+
+    public static ReportFingerprint forReport(String reportName) {
+        return new ReportFingerprint().with(reportName);
+    }
+
+    public ReportFingerprint with(Object value) {
+        hasher.putString(String.valueOf(value), Charsets.UTF_8).putChar('\u0000');
+        return this;
+    }
+
+    public ReportFingerprint with(byte[] value) {
+        hasher.putBytes(value).putChar('\u0000');
+        return this;
+    }
+
+    public ReportFingerprint with(TestOutcomes testOutcomes) {
+        with(testOutcomes.getOutcomes().size());
+        for (TestOutcome outcome : testOutcomes.getOutcomes()) {
+            withOutcome(outcome);
+        }
+        return this;
+    }
+
+    private void withOutcome(TestOutcome outcome) {
+        with(outcome.getReportName()).with(outcome.getTitle()).with(outcome.getStoryTitle())
+                .with(outcome.getResult()).with(outcome.getStartTime()).with(outcome.getDuration())
+                .with(outcome.getTestCount()).with(outcome.getNestedStepCount())
+                .with(outcome.getSuccessCount()).with(outcome.getFailureCount()).with(outcome.getErrorCount())
+                .with(outcome.getPendingCount()).with(outcome.getSkippedCount()).with(outcome.getIgnoredCount())
+                .with(outcome.getTestFailureMessage()).with(outcome.getIssues()).with(sorted(outcome.getTags()));
+    }
+
+    private Set<String> sorted(Set<TestTag> tags) {
+        Set<String> sortedTags = new TreeSet<>();
+        for (TestTag tag : tags) {
+            sortedTags.add(tag.getType() + ":" + tag.getName());
+        }
+        return sortedTags;
+    }
+
+    /**
+     * @return the fingerprint as a hexadecimal string. No more values can be added once this has been called.
+     */
+    public String getValue() {
+        if (value == null) {
+            value = hasher.hash().toString();
+        }
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return getValue();
+    }
+}
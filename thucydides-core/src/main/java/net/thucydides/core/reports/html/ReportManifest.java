@@ -0,0 +1,124 @@
+package net.thucydides.core.reports.html;
+
+import com.google.common.collect.Lists;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records a fingerprint of the inputs used to generate each aggregate report file.
+ * On the next run, a report whose fingerprint has not changed does not need to be generated again,
+ * and reports that were generated last time but not this time can be deleted.
+ * Reports recorded without a fingerprint are always regenerated.
+ */
+public class ReportManifest {
+
+    public static final String MANIFEST_FILE = "report-manifest.properties";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReportManifest.class);
+
+    private static final String NO_FINGERPRINT = "";
+
+    private final File outputDirectory;
+    private final Properties previousFingerprints;
+    private final Map<String, String> currentFingerprints = new ConcurrentHashMap<>();
+
+    private ReportManifest(File outputDirectory, Properties previousFingerprints) {
+        this.outputDirectory = outputDirectory;
+        this.previousFingerprints = previousFingerprints;
+    }
+
+    /**
+     * A manifest that does not know about any previous reports, so every report will be generated.
+     */
+    public static ReportManifest empty(File outputDirectory) {
+        return new ReportManifest(outputDirectory, new Properties());
+    }
+
+    /**
+     * Load the manifest left by the previous run in the output directory, if there is one.
+     */
+    public static ReportManifest loadFrom(File outputDirectory) {
+        Properties previousFingerprints = new Properties();
+        File manifestFile = new File(outputDirectory, MANIFEST_FILE);
+        if (manifestFile.exists()) {
+            try (InputStream in = new FileInputStream(manifestFile)) {
+                previousFingerprints.load(in);
+            } catch (IOException e) {
+                LOGGER.warn("Could not read the report manifest - all the reports will be regenerated", e);
+                previousFingerprints.clear();
+            }
+        }
+        return new ReportManifest(outputDirectory, previousFingerprints);
+    }
+
+    /**
+     * A report is up to date if it was generated last time from inputs with the same fingerprint,
+     * and is still in the output directory.
+     */
+    public boolean isUpToDate(String reportName, String fingerprint) {
+        return StringUtils.isNotEmpty(fingerprint)
+                && fingerprint.equals(previousFingerprints.getProperty(reportName))
+                && new File(outputDirectory, reportName).exists();
+    }
+
+    public void record(String reportName, String fingerprint) {
+        currentFingerprints.put(reportName, fingerprint);
+    }
+
+    public void record(String reportName) {
+        record(reportName, NO_FINGERPRINT);
+    }
+
+    /**
+     * @return the reports generated last time that have not been generated this time.
+     */
+    public List<String> getObsoleteReports() {
+        List<String> obsoleteReports = Lists.newArrayList();
+        for (String reportName : previousFingerprints.stringPropertyNames()) {
+            if (!currentFingerprints.containsKey(reportName)) {
+                obsoleteReports.add(reportName);
+            }
+        }
+        return obsoleteReports;
+    }
+
+    public void deleteObsoleteReports() {
+        for (String reportName : getObsoleteReports()) {
+            File obsoleteReport = new File(outputDirectory, reportName);
+            if (obsoleteReport.exists() && !obsoleteReport.delete()) {
+                LOGGER.warn("Could not delete obsolete report " + obsoleteReport);
+            }
+        }
+    }
+
+    /**
+     * Remove the manifest from the output directory, so that an interrupted or failed run
+     * does not leave a manifest that no longer matches the reports.
+     */
+    public void invalidate() {
+        File manifestFile = new File(outputDirectory, MANIFEST_FILE);
+        if (manifestFile.exists() && !manifestFile.delete()) {
+            LOGGER.warn("Could not delete the report manifest " + manifestFile);
+        }
+    }
+
+    public void save() throws IOException {
+        Properties fingerprints = new Properties();
+        fingerprints.putAll(currentFingerprints);
+        try (OutputStream out = new FileOutputStream(new File(outputDirectory, MANIFEST_FILE))) {
+            fingerprints.store(out, "Inputs used to generate the aggregate reports");
+        }
+    }
+}
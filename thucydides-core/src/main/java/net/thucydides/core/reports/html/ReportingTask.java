@@ -0,0 +1,11 @@
+package net.thucydides.core.reports.html;
+
+import java.io.IOException;
+
+/**
+ * A self-contained unit of report generation, such as a single HTML page or CSV file.
+ * Reporting tasks do not depend on each other, so they can be run in any order and on any thread.
+ */
+public interface ReportingTask {
+    void generateReports() throws IOException;
+}
@@ -4,14 +4,18 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
+import static com.fasterxml.jackson.annotation.JsonInclude.Include.NON_DEFAULT;
 import static com.fasterxml.jackson.annotation.JsonInclude.Include.NON_NULL;
 
 @JsonInclude(NON_NULL)
 
-@JsonIgnoreProperties({"screenshotFile","sourcecode"})
+@JsonIgnoreProperties({"screenshotFile","sourcecode","thumbnailName"})
 public abstract class JSONScreenshotAndHtmlMixin {
     JSONScreenshotAndHtmlMixin(@JsonProperty("screenshot") String screenshot,
-                               @JsonProperty("sourcecode") String sourcecode) {};
+                               @JsonProperty("sourcecode") String sourcecode,
+                               @JsonProperty("width") int width,
+                               @JsonProperty("height") int height,
+                               @JsonProperty("evicted") boolean evicted) {};
 
     @JsonProperty("screenshot")
     public abstract String getScreenshotName();
@@ -19,4 +23,13 @@ public abstract class JSONScreenshotAndHtmlMixin {
     @JsonProperty("htmlSource")
     public abstract String getHtmlSourceName();
 
+    @JsonInclude(NON_DEFAULT)
+    public abstract int getWidth();
+
+    @JsonInclude(NON_DEFAULT)
+    public abstract int getHeight();
+
+    @JsonInclude(NON_DEFAULT)
+    public abstract boolean isEvicted();
+
 }
\ No newline at end of file
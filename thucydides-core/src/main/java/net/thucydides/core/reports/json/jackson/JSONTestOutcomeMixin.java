@@ -4,6 +4,7 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
+import static com.fasterxml.jackson.annotation.JsonInclude.Include.NON_DEFAULT;
 import static com.fasterxml.jackson.annotation.JsonInclude.Include.NON_EMPTY;
 
 
@@ -25,4 +26,10 @@ public abstract class JSONTestOutcomeMixin {
 
     @JsonProperty("name")
     public abstract String getMethodName();
+
+    @JsonInclude(NON_DEFAULT)
+    public abstract long getBrowserStartupTime();
+
+    @JsonInclude(NON_DEFAULT)
+    public abstract int getSkippedScreenshotCount();
 }
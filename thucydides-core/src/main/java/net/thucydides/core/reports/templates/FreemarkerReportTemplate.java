@@ -10,7 +10,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.io.StringWriter;
 import java.io.Writer;
 import java.util.Map;
 
@@ -28,7 +27,7 @@ public class FreemarkerReportTemplate implements ReportTemplate {
         }
     }
 
-    public void merge(Map<String, Object> context, StringWriter writer) throws TemplateMergeException {
+    public void merge(Map<String, Object> context, Writer writer) throws TemplateMergeException {
         try {
             template.process(context, writer);
             template.setTemplateExceptionHandler(new TemplateExceptionHandler() {
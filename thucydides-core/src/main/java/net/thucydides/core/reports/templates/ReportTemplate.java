@@ -1,8 +1,12 @@
 package net.thucydides.core.reports.templates;
 
-import java.io.StringWriter;
+import java.io.Writer;
 import java.util.Map;
 
 public interface ReportTemplate {
-    void merge(Map<String,Object> context, StringWriter sw) throws TemplateMergeException;
+    /**
+     * Merge the template with the context, writing the result as it is produced.
+     * Pass a file writer rather than a StringWriter for large reports, so that the whole page is never held in memory.
+     */
+    void merge(Map<String,Object> context, Writer writer) throws TemplateMergeException;
 }
@@ -61,10 +61,15 @@ public class TestOutcomeConverter implements Converter {
     private static final String SCREENSHOT_FIELD = "screenshot";
     private static final String SCREENSHOT_IMAGE = "image";
     private static final String SCREENSHOT_SOURCE = "source";
+    private static final String SCREENSHOT_WIDTH = "width";
+    private static final String SCREENSHOT_HEIGHT = "height";
+    private static final String SCREENSHOT_EVICTED = "evicted";
     private static final String DESCRIPTION = "description";
     private static final String DURATION = "duration";
     private static final String TIMESTAMP = "timestamp";
     private static final String SESSION_ID = "session-id";
+    private static final String BROWSER_STARTUP_TIME = "browser-startup-time";
+    private static final String SKIPPED_SCREENSHOTS = "skipped-screenshots";
     private static final String EXAMPLES = "examples";
     private static final String HEADERS = "headers";
     private static final String HEADER = "header";
@@ -127,6 +132,12 @@ public class TestOutcomeConverter implements Converter {
         if (isNotEmpty(testOutcome.getSessionId())) {
             writer.addAttribute(SESSION_ID, testOutcome.getSessionId());
         }
+        if (testOutcome.getBrowserStartupTime() > 0) {
+            writer.addAttribute(BROWSER_STARTUP_TIME, Long.toString(testOutcome.getBrowserStartupTime()));
+        }
+        if (testOutcome.getSkippedScreenshotCount() > 0) {
+            writer.addAttribute(SKIPPED_SCREENSHOTS, Integer.toString(testOutcome.getSkippedScreenshotCount()));
+        }
         addUserStoryTo(writer, testOutcome.getUserStory());
         addIssuesTo(writer, testOutcome.getIssues());
         addVersionsTo(writer, testOutcome.getVersions());
@@ -370,6 +381,13 @@ public class TestOutcomeConverter implements Converter {
                 if (screenshotAndHtmlSource.getHtmlSource().isPresent()) {
                     writer.addAttribute(SCREENSHOT_SOURCE, screenshotAndHtmlSource.getHtmlSource().get().getName());
                 }
+                if (screenshotAndHtmlSource.hasDimensions()) {
+                    writer.addAttribute(SCREENSHOT_WIDTH, Integer.toString(screenshotAndHtmlSource.getWidth()));
+                    writer.addAttribute(SCREENSHOT_HEIGHT, Integer.toString(screenshotAndHtmlSource.getHeight()));
+                }
+                if (screenshotAndHtmlSource.isEvicted()) {
+                    writer.addAttribute(SCREENSHOT_EVICTED, "true");
+                }
                 writer.endNode();
             }
             writer.endNode();
@@ -421,6 +439,8 @@ public class TestOutcomeConverter implements Converter {
         }
         String sessionId = readSessionId(reader);
         testOutcome.setSessionId(sessionId);
+        testOutcome.setBrowserStartupTime(readBrowserStartupTime(reader));
+        testOutcome.setSkippedScreenshotCount(readSkippedScreenshotCount(reader));
         readChildren(reader, testOutcome);
         if (savedAnnotatedResult != null) {
             testOutcome.setAnnotatedResult(savedAnnotatedResult);
@@ -664,6 +684,16 @@ public class TestOutcomeConverter implements Converter {
         return reader.getAttribute(SESSION_ID);
     }
 
+    private long readBrowserStartupTime(HierarchicalStreamReader reader) {
+        String browserStartupTime = reader.getAttribute(BROWSER_STARTUP_TIME);
+        return StringUtils.isNumeric(browserStartupTime) ? Long.parseLong(browserStartupTime) : 0;
+    }
+
+    private int readSkippedScreenshotCount(HierarchicalStreamReader reader) {
+        String skippedScreenshots = reader.getAttribute(SKIPPED_SCREENSHOTS);
+        return StringUtils.isNumeric(skippedScreenshots) ? Integer.parseInt(skippedScreenshots) : 0;
+    }
+
     private void readTestGroup(final HierarchicalStreamReader reader, final TestOutcome testOutcome) {
         String name = reader.getAttribute(NAME_FIELD);
         String testResultValue = reader.getAttribute(RESULT_FIELD);
@@ -696,14 +726,23 @@ public class TestOutcomeConverter implements Converter {
                 if (childNode.equals(SCREENSHOT_FIELD)) {
                     String screenshot = reader.getAttribute(SCREENSHOT_IMAGE);
                     String source = reader.getAttribute(SCREENSHOT_SOURCE);
-                    if (source != null) {
-                        step.addScreenshot(new ScreenshotAndHtmlSource(new File(screenshot), new File(source)));
-                    } else {
-                        step.addScreenshot(new ScreenshotAndHtmlSource(new File(screenshot)));
+                    File sourceFile = (source != null) ? new File(source) : null;
+                    ScreenshotAndHtmlSource screenshotAndHtmlSource
+                            = new ScreenshotAndHtmlSource(new File(screenshot), sourceFile,
+                                                          intAttribute(reader, SCREENSHOT_WIDTH),
+                                                          intAttribute(reader, SCREENSHOT_HEIGHT));
+                    if (Boolean.parseBoolean(reader.getAttribute(SCREENSHOT_EVICTED))) {
+                        screenshotAndHtmlSource = screenshotAndHtmlSource.asEvicted();
                     }
+                    step.addScreenshot(screenshotAndHtmlSource);
                 }
                 reader.moveUp();
             }
         }
     }
-}
\ No newline at end of file
+
+    private int intAttribute(HierarchicalStreamReader reader, String attribute) {
+        String value = reader.getAttribute(attribute);
+        return (value != null) ? Integer.parseInt(value) : 0;
+    }
+}
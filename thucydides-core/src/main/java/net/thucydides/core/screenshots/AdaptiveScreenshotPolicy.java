@@ -0,0 +1,106 @@
+package net.thucydides.core.screenshots;
+
+import net.thucydides.core.ThucydidesSystemProperty;
+import net.thucydides.core.util.EnvironmentVariables;
+
+/**
+ * Skips optional screenshots when taking them would slow the tests down, if thucydides.adaptive.screenshots is set.
+ * An optional screenshot is skipped when the screenshot processor is falling behind (as many screenshots are waiting
+ * to be processed as thucydides.screenshot.queue.size allows), or, at the end of a step or after an action,
+ * when the step has taken less time than thucydides.adaptive.screenshots.minimum.step.duration
+ * or when taking a screenshot costs more than thucydides.adaptive.screenshots.maximum.overhead percent of the
+ * time spent in the step. The cost of a screenshot is a running average of the time recent screenshots took.
+ * Screenshots of failing steps, and screenshots requested explicitly, are never skipped.
+ */
+public class AdaptiveScreenshotPolicy {
+
+    private static final int DEFAULT_MINIMUM_STEP_DURATION = 500;
+    private static final int DEFAULT_MAXIMUM_OVERHEAD = 50;
+    private static final int DEFAULT_MAXIMUM_QUEUE_DEPTH = 100;
+
+    /**
+     * How much weight the latest screenshot has in the average capture time.
+     */
+    private static final double SMOOTHING_FACTOR = 0.3;
+
+    private final boolean enabled;
+    private final long minimumStepDuration;
+    private final int maximumOverhead;
+    private final int maximumQueueDepth;
+    private final ScreenshotProcessor screenshotProcessor;
+
+    private double averageCaptureTime = -1;
+    private int skippedScreenshots = 0;
+
+    public AdaptiveScreenshotPolicy(EnvironmentVariables environmentVariables, ScreenshotProcessor screenshotProcessor) {
+        this.enabled = environmentVariables.getPropertyAsBoolean(ThucydidesSystemProperty.THUCYDIDES_ADAPTIVE_SCREENSHOTS, false);
+        this.minimumStepDuration = environmentVariables.getPropertyAsInteger(
+                ThucydidesSystemProperty.THUCYDIDES_ADAPTIVE_SCREENSHOTS_MINIMUM_STEP_DURATION, DEFAULT_MINIMUM_STEP_DURATION);
+        this.maximumOverhead = environmentVariables.getPropertyAsInteger(
+                ThucydidesSystemProperty.THUCYDIDES_ADAPTIVE_SCREENSHOTS_MAXIMUM_OVERHEAD, DEFAULT_MAXIMUM_OVERHEAD);
+        this.maximumQueueDepth = Math.max(1, environmentVariables.getPropertyAsInteger(
+                ThucydidesSystemProperty.THUCYDIDES_SCREENSHOT_QUEUE_SIZE, DEFAULT_MAXIMUM_QUEUE_DEPTH));
+        this.screenshotProcessor = screenshotProcessor;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Record how long it took to take and queue a screenshot.
+     */
+    public void recordCaptureTime(long milliseconds) {
+        if (averageCaptureTime < 0) {
+            averageCaptureTime = milliseconds;
+        } else {
+            averageCaptureTime = (SMOOTHING_FACTOR * milliseconds) + ((1 - SMOOTHING_FACTOR) * averageCaptureTime);
+        }
+    }
+
+    public long getAverageCaptureTime() {
+        return (averageCaptureTime < 0) ? 0 : Math.round(averageCaptureTime);
+    }
+
+    /**
+     * Should an optional screenshot be skipped at the start of a step?
+     */
+    public boolean shouldSkipOptionalScreenshot() {
+        return skipIf(enabled && screenshotQueueIsSaturated());
+    }
+
+    /**
+     * Should an optional screenshot be skipped in a step that has been running for the given time?
+     */
+    public boolean shouldSkipOptionalScreenshotAfter(long stepDuration) {
+        return skipIf(enabled && (screenshotQueueIsSaturated()
+                                  || stepDuration < minimumStepDuration
+                                  || captureTimeExceedsOverheadFor(stepDuration)));
+    }
+
+    private boolean skipIf(boolean shouldSkip) {
+        if (shouldSkip) {
+            skippedScreenshots++;
+        }
+        return shouldSkip;
+    }
+
+    private boolean screenshotQueueIsSaturated() {
+        return screenshotProcessor.getQueueDepth() >= maximumQueueDepth;
+    }
+
+    private boolean captureTimeExceedsOverheadFor(long stepDuration) {
+        return (averageCaptureTime > 0) && (averageCaptureTime * 100 > maximumOverhead * stepDuration);
+    }
+
+    /**
+     * @return the number of optional screenshots skipped since the count was last reset.
+     */
+    public int getSkippedScreenshotCount() {
+        return skippedScreenshots;
+    }
+
+    public void resetSkippedScreenshotCount() {
+        skippedScreenshots = 0;
+    }
+}
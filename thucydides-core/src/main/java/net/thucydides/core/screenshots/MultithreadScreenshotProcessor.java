@@ -0,0 +1,143 @@
+package net.thucydides.core.screenshots;
+
+import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.inject.Inject;
+import net.thucydides.core.ThucydidesSystemProperty;
+import net.thucydides.core.util.EnvironmentVariables;
+import org.apache.commons.io.FileUtils;
+
+import java.io.File;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Moves and resizes the screenshots on a pool of worker threads.
+ * The queue of screenshots waiting to be processed is bounded: when it is full, the test thread waits until
+ * there is room in the queue, so that no screenshot is lost.
+ * A screenshot counts as in progress from the moment it is queued until its file has been written,
+ * so waitUntilDone() only returns once every queued screenshot is on disk.
+ */
+public class MultithreadScreenshotProcessor implements ScreenshotProcessor {
+
+    private static final int DEFAULT_QUEUE_SIZE = 100;
+
+    private final ScreenshotFileProcessor screenshotFileProcessor;
+    private final ThreadPoolExecutor executor;
+
+    private final Set<File> destinationsInProgress = Sets.newSetFromMap(new ConcurrentHashMap<File, Boolean>());
+    private final AtomicInteger screenshotsInProgress = new AtomicInteger();
+    private final Lock lock = new ReentrantLock();
+    private final Condition allScreenshotsProcessed = lock.newCondition();
+
+    @Inject
+    public MultithreadScreenshotProcessor(EnvironmentVariables environmentVariables) {
+        this.screenshotFileProcessor = new ScreenshotFileProcessor(environmentVariables);
+        int threadCount = Math.max(1, environmentVariables.getPropertyAsInteger(ThucydidesSystemProperty.THUCYDIDES_SCREENSHOT_PROCESSOR_THREADS,
+                                                                                Runtime.getRuntime().availableProcessors()));
+        int queueSize = Math.max(1, environmentVariables.getPropertyAsInteger(ThucydidesSystemProperty.THUCYDIDES_SCREENSHOT_QUEUE_SIZE,
+                                                                              DEFAULT_QUEUE_SIZE));
+        this.executor = new ThreadPoolExecutor(threadCount, threadCount, 0L, TimeUnit.MILLISECONDS,
+                                               new ArrayBlockingQueue<Runnable>(queueSize),
+                                               new ThreadFactoryBuilder().setNameFormat("thucydides-screenshots-%d").setDaemon(true).build(),
+                                               new QueueFullPolicy());
+        this.executor.prestartAllCoreThreads();
+    }
+
+    public void queueScreenshot(QueuedScreenshot queuedScreenshot) {
+        if (!destinationsInProgress.add(queuedScreenshot.getDestinationFile())) {
+            // An identical screenshot is already being saved under the same name
+            FileUtils.deleteQuietly(queuedScreenshot.getSourceFile());
+            return;
+        }
+        screenshotsInProgress.incrementAndGet();
+        executor.execute(new ScreenshotTask(queuedScreenshot));
+    }
+
+    public void waitUntilDone() {
+        lock.lock();
+        try {
+            while (screenshotsInProgress.get() > 0) {
+                allScreenshotsProcessed.await();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void terminate() {
+        executor.shutdown();
+    }
+
+    public boolean isEmpty() {
+        return screenshotsInProgress.get() == 0;
+    }
+
+    public int getQueueDepth() {
+        return screenshotsInProgress.get();
+    }
+
+    private void finished(QueuedScreenshot queuedScreenshot) {
+        destinationsInProgress.remove(queuedScreenshot.getDestinationFile());
+        if (screenshotsInProgress.decrementAndGet() == 0) {
+            lock.lock();
+            try {
+                allScreenshotsProcessed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private class ScreenshotTask implements Runnable {
+
+        private final QueuedScreenshot queuedScreenshot;
+
+        private ScreenshotTask(QueuedScreenshot queuedScreenshot) {
+            this.queuedScreenshot = queuedScreenshot;
+        }
+
+        public void run() {
+            try {
+                screenshotFileProcessor.process(queuedScreenshot);
+            } finally {
+                finished(queuedScreenshot);
+            }
+        }
+    }
+
+    /**
+     * Called when the queue is full, or when the processor has been terminated.
+     * Screenshots queued after the processor has been terminated are processed on the calling thread.
+     */
+    private class QueueFullPolicy implements RejectedExecutionHandler {
+
+        public void rejectedExecution(Runnable task, ThreadPoolExecutor executor) {
+            ScreenshotTask screenshotTask = (ScreenshotTask) task;
+            if (executor.isShutdown()) {
+                screenshotTask.run();
+            } else {
+                waitForRoomInQueueFor(screenshotTask, executor);
+            }
+        }
+
+        private void waitForRoomInQueueFor(ScreenshotTask screenshotTask, ThreadPoolExecutor executor) {
+            try {
+                executor.getQueue().put(screenshotTask);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                screenshotTask.run();
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package net.thucydides.core.screenshots;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.ByteStreams;
+import org.apache.commons.codec.digest.DigestUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The HTML sources recorded with the screenshots are stored in gzipped files named after a digest of their contents,
+ * so each distinct page source is only stored once.
+ */
+public class PageSources {
+
+    public static final String COMPRESSED_SOURCE_EXTENSION = ".html.gz";
+
+    private PageSources() {}
+
+    public static String filenameFor(byte[] pageSourceData) {
+        return DigestUtils.md5Hex(pageSourceData) + COMPRESSED_SOURCE_EXTENSION;
+    }
+
+    static void writeCompressed(byte[] pageSourceData, File pageSourceFile) throws IOException {
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(pageSourceFile.toPath(),
+                                                                            StandardOpenOption.CREATE_NEW))) {
+            out.write(pageSourceData);
+        }
+    }
+
+    /**
+     * Read a recorded page source, decompressing it if need be.
+     * Page sources recorded by older versions are stored uncompressed.
+     */
+    public static String read(File pageSourceFile) throws IOException {
+        if (pageSourceFile.getName().endsWith(COMPRESSED_SOURCE_EXTENSION)) {
+            try (InputStream in = new GZIPInputStream(Files.newInputStream(pageSourceFile.toPath()))) {
+                return new String(ByteStreams.toByteArray(in), Charsets.UTF_8);
+            }
+        }
+        return new String(Files.readAllBytes(pageSourceFile.toPath()), Charsets.UTF_8);
+    }
+}
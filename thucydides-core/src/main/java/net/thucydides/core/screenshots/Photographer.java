@@ -2,7 +2,6 @@ package net.thucydides.core.screenshots;
 
 import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
-import com.jhlabs.image.BoxBlurFilter;
 import net.thucydides.core.guice.Injectors;
 import net.thucydides.core.util.EnvironmentVariables;
 import net.thucydides.core.webdriver.ProvidedDriverConfiguration;
@@ -10,18 +9,14 @@ import net.thucydides.core.webdriver.WebDriverFacade;
 import org.openqa.selenium.OutputType;
 import org.openqa.selenium.TakesScreenshot;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import javax.imageio.ImageIO;
-import java.awt.image.BufferedImage;
-import java.awt.image.ColorModel;
-import java.awt.image.WritableRaster;
-import java.io.ByteArrayOutputStream;
+import java.awt.*;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
-import java.nio.file.Path;
 
 /**
  * The photographer takes and stores screenshots during the test.
@@ -40,6 +35,7 @@ public class Photographer {
     private final Logger logger = LoggerFactory.getLogger(Photographer.class);
     private ScreenshotProcessor screenshotProcessor;
     private EnvironmentVariables environmentVariables;
+    private Optional<SimilarScreenshots> similarScreenshots = Optional.absent();
 
     protected Logger getLogger() {
         return logger;
@@ -87,24 +83,77 @@ public class Photographer {
 
     /**
      * Take a screenshot of the current browser and store it in the output directory.
+     * The screenshot is kept in memory until it is written to a file named after a digest of its contents,
+     * so a screenshot that has already been stored is not written again.
      */
     public Optional<File> takeScreenshot() {
+        return fileOf(recordScreenshot());
+    }
+
+    /**
+     * Take a screenshot that can be skipped if it looks the same as the previous one.
+     * If similar screenshots are being detected, and this screenshot looks similar enough to the previous one,
+     * the previous screenshot is returned and nothing is stored.
+     */
+    public Optional<File> takeOptionalScreenshot() {
+        return fileOf(recordOptionalScreenshot());
+    }
+
+    /**
+     * Take a screenshot, as for takeScreenshot(), and return it along with the size of the stored image.
+     */
+    public Optional<ScreenshotAndHtmlSource> recordScreenshot() {
+        return recordScreenshot(false);
+    }
+
+    /**
+     * Take an optional screenshot, as for takeOptionalScreenshot(), and return it along with the size of the stored image.
+     */
+    public Optional<ScreenshotAndHtmlSource> recordOptionalScreenshot() {
+        return recordScreenshot(true);
+    }
+
+    /**
+     * Take a screenshot showing only the given web element, cropped from the screenshot of the browser
+     * by the screenshot processor.
+     * Cropped screenshots are named after a digest of the screenshot and of the area of the element,
+     * so they are only stored once for as long as the page looks the same.
+     */
+    public Optional<ScreenshotAndHtmlSource> recordScreenshotOf(WebElement element) {
         if (driver != null && driverCanTakeSnapshots()) {
             try {
-                File screenshotTempFile = null;
-                Object capturedScreenshot = ((TakesScreenshot) driver).getScreenshotAs(OutputType.FILE);
-                if (isAFile(capturedScreenshot)) {
-                    screenshotTempFile = (File) capturedScreenshot;
-                } else if (isByteArray(capturedScreenshot)) {
-                    screenshotTempFile = saveScreenshotData((byte[]) capturedScreenshot);
+                ScreenshotArea elementArea = ScreenshotArea.of(driver, element);
+                byte[] screenshotData = captureScreenshotData();
+                if (screenshotData != null) {
+                    return Optional.of(store(screenshotData, Optional.of(elementArea)));
                 }
-                if (screenshotTempFile != null && blurLevel.isPresent()) {
-                    screenshotTempFile = blur(screenshotTempFile);
-                }
-                if (screenshotTempFile != null) {
-                    String storedFilename = getDigestScreenshotNameFor(screenshotTempFile);
-                    File savedScreenshot = targetScreenshot(storedFilename);
-                    screenshotProcessor.queueScreenshot(new QueuedScreenshot(screenshotTempFile, savedScreenshot));
+            } catch (Throwable e) {
+                getLogger().warn("Failed to write screenshot of " + element + ": " + e.getMessage());
+            }
+        }
+        return Optional.absent();
+    }
+
+    private Optional<File> fileOf(Optional<ScreenshotAndHtmlSource> screenshot) {
+        return (screenshot.isPresent()) ? Optional.of(screenshot.get().getScreenshotFile()) : Optional.<File>absent();
+    }
+
+    private Optional<ScreenshotAndHtmlSource> recordScreenshot(boolean reuseSimilarScreenshot) {
+        if (driver != null && driverCanTakeSnapshots()) {
+            try {
+                byte[] screenshotData = captureScreenshotData();
+                if (screenshotData != null) {
+                    Optional<ScreenshotFingerprint> fingerprint = fingerprintOf(screenshotData);
+                    if (reuseSimilarScreenshot && fingerprint.isPresent()) {
+                        Optional<ScreenshotAndHtmlSource> similarScreenshot = similarScreenshots.get().similarTo(fingerprint.get());
+                        if (similarScreenshot.isPresent()) {
+                            return similarScreenshot;
+                        }
+                    }
+                    ScreenshotAndHtmlSource savedScreenshot = store(screenshotData, Optional.<ScreenshotArea>absent());
+                    if (fingerprint.isPresent()) {
+                        similarScreenshots.get().recordScreenshot(savedScreenshot, fingerprint.get());
+                    }
                     return Optional.of(savedScreenshot);
                 }
             } catch (Throwable e) {
@@ -114,40 +163,55 @@ public class Photographer {
         return Optional.absent();
     }
 
-    public String getPageSource() {
-        return driver.getPageSource();
+    /**
+     * The stored filename is a digest of the screenshot as it was taken, along with the blur level and the
+     * cropped area, so the screenshot can be named before the screenshot processor has cropped or blurred it.
+     */
+    private ScreenshotAndHtmlSource store(byte[] screenshotData, Optional<ScreenshotArea> cropArea) {
+        String storedFilename = getDigestScreenshotNameFor(screenshotData, cropArea);
+        File savedScreenshot = targetScreenshot(storedFilename);
+        if (!savedScreenshot.exists()) {
+            QueuedScreenshot queuedScreenshot = new QueuedScreenshot(screenshotData, savedScreenshot).blurredAt(blurLevel.orNull());
+            screenshotProcessor.queueScreenshot(cropArea.isPresent() ? queuedScreenshot.croppedTo(cropArea.get()) : queuedScreenshot);
+        }
+        ScreenshotFileProcessor fileProcessor = new ScreenshotFileProcessor(environmentVariables);
+        Dimension storedSize = cropArea.isPresent() ? fileProcessor.storedSizeOf(screenshotData, cropArea.get())
+                                                    : fileProcessor.storedSizeOf(screenshotData);
+        return new ScreenshotAndHtmlSource(savedScreenshot, null, storedSize.width, storedSize.height);
     }
 
-    private String getDigestScreenshotNameFor(File screenshotTempFile) throws IOException {
-        ScreenshotDigest screenshotDigest = new ScreenshotDigest(environmentVariables, blurLevel.orNull());
-        return screenshotDigest.forScreenshot(screenshotTempFile);
+    private Optional<ScreenshotFingerprint> fingerprintOf(byte[] screenshotData) {
+        if (similarScreenshots.isPresent() && similarScreenshots.get().areDetected()) {
+            try {
+                return Optional.of(ScreenshotFingerprint.of(screenshotData));
+            } catch (IOException e) {
+                getLogger().warn("Could not compare the screenshot with the previous one: " + e.getMessage());
+            }
+        }
+        return Optional.absent();
     }
 
-    protected File blur(File srcFile) throws IOException {
-        BufferedImage srcImage = ImageIO.read(srcFile);
-        BufferedImage destImage = deepCopy(srcImage);
-        BoxBlurFilter boxBlurFilter = new BoxBlurFilter();
-        boxBlurFilter.setRadius(blurLevel.get().getRadius());
-        boxBlurFilter.setIterations(3);
-        destImage = boxBlurFilter.filter(srcImage, destImage);
-
-        ByteArrayOutputStream outStream = new ByteArrayOutputStream();
-        ImageIO.write(destImage, "png", outStream);
-
-        return saveScreenshotData(outStream.toByteArray());
+    /**
+     * Some drivers ignore the requested output type and return a file instead.
+     */
+    private byte[] captureScreenshotData() throws IOException {
+        Object capturedScreenshot = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+        if (isByteArray(capturedScreenshot)) {
+            return (byte[]) capturedScreenshot;
+        } else if (isAFile(capturedScreenshot)) {
+            return Files.readAllBytes(((File) capturedScreenshot).toPath());
+        }
+        return null;
     }
 
-    private BufferedImage deepCopy(BufferedImage srcImage) {
-        ColorModel cm = srcImage.getColorModel();
-        boolean isAlphaPremultiplied = cm.isAlphaPremultiplied();
-        WritableRaster raster = srcImage.copyData(null);
-        return new BufferedImage(cm, raster, isAlphaPremultiplied, null);
+    public String getPageSource() {
+        return driver.getPageSource();
     }
 
-    private File saveScreenshotData(byte[] capturedScreenshot) throws IOException {
-        Path temporaryScreenshotFile = Files.createTempFile("screenshot", "");
-        Files.write(temporaryScreenshotFile, capturedScreenshot);
-        return temporaryScreenshotFile.toFile();
+    private String getDigestScreenshotNameFor(byte[] screenshotData, Optional<ScreenshotArea> cropArea) {
+        ScreenshotDigest screenshotDigest = new ScreenshotDigest(environmentVariables, blurLevel.orNull());
+        return cropArea.isPresent() ? screenshotDigest.forScreenshot(screenshotData, cropArea.get())
+                                    : screenshotDigest.forScreenshot(screenshotData);
     }
 
     private boolean isAFile(Object screenshot) {
@@ -186,6 +250,13 @@ public class Photographer {
         this.screenshotProcessor = screenshotProcessor;
     }
 
+    /**
+     * Used to recognize optional screenshots that look the same as the previous screenshot taken in this test.
+     */
+    public void setSimilarScreenshots(SimilarScreenshots similarScreenshots) {
+        this.similarScreenshots = Optional.fromNullable(similarScreenshots);
+    }
+
     protected ScreenshotProcessor getScreenshotProcessor() {
         return screenshotProcessor;
     }
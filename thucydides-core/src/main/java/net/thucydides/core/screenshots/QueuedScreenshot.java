@@ -1,22 +1,91 @@
 package net.thucydides.core.screenshots;
 
+import com.google.common.base.Optional;
+
 import java.io.File;
 
 public class QueuedScreenshot {
 
     private final File destinationFilename;
     private final File sourceFilename;
+    private final byte[] screenshotData;
+    private final boolean pageSource;
+    private final BlurLevel blurLevel;
+    private final ScreenshotArea cropArea;
 
     public QueuedScreenshot(File sourceFilename, File destinationFilename) {
+        this(sourceFilename, null, destinationFilename, false, null, null);
+    }
+
+    /**
+     * A screenshot that is still in memory, and that will be written straight to its destination file.
+     */
+    public QueuedScreenshot(byte[] screenshotData, File destinationFilename) {
+        this(null, screenshotData, destinationFilename, false, null, null);
+    }
+
+    private QueuedScreenshot(File sourceFilename, byte[] screenshotData, File destinationFilename,
+                             boolean pageSource, BlurLevel blurLevel, ScreenshotArea cropArea) {
         this.sourceFilename = sourceFilename;
+        this.screenshotData = screenshotData;
         this.destinationFilename = destinationFilename;
+        this.pageSource = pageSource;
+        this.blurLevel = blurLevel;
+        this.cropArea = cropArea;
+    }
+
+    /**
+     * The HTML source of the page, which is compressed and written to the destination file
+     * along with the screenshots.
+     */
+    public static QueuedScreenshot forPageSource(byte[] pageSourceData, File destinationFilename) {
+        return new QueuedScreenshot(null, pageSourceData, destinationFilename, true, null, null);
+    }
+
+    /**
+     * Screenshots of sensitive pages are blurred by the screenshot processor before they are stored,
+     * rather than on the test thread.
+     */
+    public QueuedScreenshot blurredAt(BlurLevel blurLevel) {
+        return new QueuedScreenshot(sourceFilename, screenshotData, destinationFilename, pageSource,
+                                    (blurLevel == BlurLevel.NONE) ? null : blurLevel, cropArea);
+    }
+
+    /**
+     * Screenshots of a web element are cropped to the element by the screenshot processor too.
+     */
+    QueuedScreenshot croppedTo(ScreenshotArea cropArea) {
+        return new QueuedScreenshot(sourceFilename, screenshotData, destinationFilename, pageSource, blurLevel, cropArea);
     }
 
     public File getDestinationFile() {
         return destinationFilename;
     }
 
+    /**
+     * @return the temporary file containing the screenshot, or null if the screenshot is held in memory.
+     */
     public File getSourceFile() {
         return sourceFilename;
     }
+
+    public boolean isInMemory() {
+        return (screenshotData != null);
+    }
+
+    public byte[] getScreenshotData() {
+        return screenshotData;
+    }
+
+    public boolean isPageSource() {
+        return pageSource;
+    }
+
+    public Optional<BlurLevel> getBlurLevel() {
+        return Optional.fromNullable(blurLevel);
+    }
+
+    Optional<ScreenshotArea> getCropArea() {
+        return Optional.fromNullable(cropArea);
+    }
 }
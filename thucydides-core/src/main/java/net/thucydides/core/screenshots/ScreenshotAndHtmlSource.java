@@ -8,26 +8,71 @@ import java.io.IOException;
 
 /**
  * A screenshot image and the corresponding HTML source code.
+ * The width and height of the stored image are recorded when the screenshot is taken, so that the reports
+ * do not need to read the image files. They are 0 for screenshots recorded by older versions.
  */
 public class ScreenshotAndHtmlSource {
 
     private final File screenshotFile;
     private final File htmlSource;
+    private final int width;
+    private final int height;
+    private final boolean evicted;
 
     public ScreenshotAndHtmlSource(String screenshotName, String sourcecodeName) {
-        this.screenshotFile = new File(screenshotName);
-        this.htmlSource = (sourcecodeName != null) ? new File(sourcecodeName) : null;
+        this(screenshotName, sourcecodeName, 0, 0);
+    }
+
+    public ScreenshotAndHtmlSource(String screenshotName, String sourcecodeName, int width, int height) {
+        this(screenshotName, sourcecodeName, width, height, false);
+    }
+
+    public ScreenshotAndHtmlSource(String screenshotName, String sourcecodeName, int width, int height, boolean evicted) {
+        this(new File(screenshotName), (sourcecodeName != null) ? new File(sourcecodeName) : null, width, height, evicted);
     }
 
     public ScreenshotAndHtmlSource(File screenshotFile, File sourcecode) {
+        this(screenshotFile, sourcecode, 0, 0);
+    }
+
+    public ScreenshotAndHtmlSource(File screenshotFile, File sourcecode, int width, int height) {
+        this(screenshotFile, sourcecode, width, height, false);
+    }
+
+    private ScreenshotAndHtmlSource(File screenshotFile, File sourcecode, int width, int height, boolean evicted) {
         this.screenshotFile = screenshotFile;
         this.htmlSource = sourcecode;
+        this.width = width;
+        this.height = height;
+        this.evicted = evicted;
+    }
+
+    public ScreenshotAndHtmlSource withHtmlSource(File sourcecode) {
+        return new ScreenshotAndHtmlSource(screenshotFile, sourcecode, width, height, evicted);
+    }
+
+    /**
+     * A screenshot whose file has been deleted to save disk space (see ScreenshotStorageBudget).
+     */
+    public ScreenshotAndHtmlSource asEvicted() {
+        return new ScreenshotAndHtmlSource(screenshotFile, htmlSource, width, height, true);
+    }
+
+    public boolean isEvicted() {
+        return evicted;
     }
 
     public String getScreenshotName() {
         return screenshotFile.getName();
     }
 
+    /**
+     * The name of the thumbnail stored with this screenshot, if thumbnails are configured (see ScreenshotEncoding).
+     */
+    public String getThumbnailName() {
+        return ScreenshotEncoding.thumbnailNameFor(getScreenshotName());
+    }
+
     public String getHtmlSourceName() {
         if (htmlSource == null) {
             return null;
@@ -47,6 +92,18 @@ public class ScreenshotAndHtmlSource {
         return Optional.fromNullable(htmlSource);
     }
 
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public boolean hasDimensions() {
+        return (width > 0) && (height > 0);
+    }
+
     public boolean wasTaken() {
         return (screenshotFile != null);
     }
@@ -0,0 +1,107 @@
+package net.thucydides.core.screenshots;
+
+import com.google.common.base.Optional;
+import net.thucydides.core.webdriver.javascript.JavascriptExecutorFacade;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.awt.Dimension;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.List;
+
+/**
+ * The part of a screenshot showing a given web element.
+ * Element positions are measured from the top of the page, whereas some drivers only photograph the viewport,
+ * so the scroll position and pixel ratio of the browser are read (where Javascript is available) when the area is
+ * measured, just before the screenshot is taken.
+ * The screenshot is cropped by the screenshot processor, rather than on the test thread.
+ */
+class ScreenshotArea {
+
+    private static final String VIEWPORT_SCRIPT
+            = "return [window.pageXOffset, window.pageYOffset, window.innerWidth, window.innerHeight, "
+            + "window.devicePixelRatio || 1];";
+
+    private final Rectangle pageArea;
+    private final Rectangle viewport;
+    private final double pixelRatio;
+
+    private ScreenshotArea(Rectangle pageArea, Rectangle viewport, double pixelRatio) {
+        this.pageArea = pageArea;
+        this.viewport = viewport;
+        this.pixelRatio = pixelRatio;
+    }
+
+    public static ScreenshotArea of(WebDriver driver, WebElement element) {
+        Rectangle pageArea = new Rectangle(element.getLocation().getX(), element.getLocation().getY(),
+                                           element.getSize().getWidth(), element.getSize().getHeight());
+        Object viewportValues = new JavascriptExecutorFacade(driver).executeScript(VIEWPORT_SCRIPT);
+        if (viewportValues instanceof List && ((List) viewportValues).size() == 5) {
+            List values = (List) viewportValues;
+            Rectangle viewport = new Rectangle(intValueOf(values.get(0)), intValueOf(values.get(1)),
+                                               intValueOf(values.get(2)), intValueOf(values.get(3)));
+            return new ScreenshotArea(pageArea, viewport, ((Number) values.get(4)).doubleValue());
+        }
+        return new ScreenshotArea(pageArea, null, 1.0);
+    }
+
+    private static int intValueOf(Object value) {
+        return ((Number) value).intValue();
+    }
+
+    /**
+     * The size of the screenshot once it has been cropped to this area, given the size of the captured screenshot.
+     */
+    public Dimension croppedSizeOf(int width, int height) {
+        Optional<Rectangle> area = areaIn(width, height);
+        return area.isPresent() ? area.get().getSize() : new Dimension(width, height);
+    }
+
+    /**
+     * Crop the screenshot to this area.
+     * The screenshot is returned unchanged if the area cannot be found in it.
+     */
+    public BufferedImage cropFrom(BufferedImage screenshot) {
+        Optional<Rectangle> area = areaIn(screenshot.getWidth(), screenshot.getHeight());
+        if (!area.isPresent()) {
+            return screenshot;
+        }
+        return screenshot.getSubimage(area.get().x, area.get().y, area.get().width, area.get().height);
+    }
+
+    private Optional<Rectangle> areaIn(int width, int height) {
+        Rectangle area = elementAreaIn(height).intersection(new Rectangle(0, 0, width, height));
+        if (area.isEmpty() || (area.width == width && area.height == height)) {
+            return Optional.absent();
+        }
+        return Optional.of(area);
+    }
+
+    private Rectangle elementAreaIn(int screenshotHeight) {
+        if (viewport != null && isViewportScreenshot(screenshotHeight)) {
+            return scaled(new Rectangle(pageArea.x - viewport.x, pageArea.y - viewport.y, pageArea.width, pageArea.height));
+        }
+        return scaled(pageArea);
+    }
+
+    private boolean isViewportScreenshot(int screenshotHeight) {
+        return screenshotHeight <= Math.round(viewport.height * pixelRatio);
+    }
+
+    private Rectangle scaled(Rectangle area) {
+        return new Rectangle((int) Math.floor(area.x * pixelRatio), (int) Math.floor(area.y * pixelRatio),
+                             (int) Math.ceil(area.width * pixelRatio), (int) Math.ceil(area.height * pixelRatio));
+    }
+
+    /**
+     * The same screenshot cropped to the same area always gives the same image, so this is part of the digest
+     * the cropped screenshot is named after.
+     */
+    @Override
+    public String toString() {
+        return "element:" + pageArea.x + "," + pageArea.y + "," + pageArea.width + "x" + pageArea.height
+               + ((viewport == null) ? "" : ";viewport:" + viewport.x + "," + viewport.y + "," + viewport.width + "x" + viewport.height)
+               + ";ratio:" + pixelRatio;
+    }
+}
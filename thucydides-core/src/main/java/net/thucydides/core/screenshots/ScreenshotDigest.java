@@ -1,29 +1,57 @@
 package net.thucydides.core.screenshots;
 
+import com.google.common.base.Charsets;
 import com.google.common.base.Optional;
 import net.thucydides.core.ThucydidesSystemProperty;
 import net.thucydides.core.util.EnvironmentVariables;
+import org.apache.commons.codec.binary.Hex;
 import org.apache.commons.codec.digest.DigestUtils;
 
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
 
 public class ScreenshotDigest {
 
     public ScreenshotDigest(EnvironmentVariables environmentVariables, BlurLevel blurLevel) {
         this.environmentVariables = environmentVariables;
         this.blurLevel = Optional.fromNullable(blurLevel);
+        this.encoding = new ScreenshotEncoding(environmentVariables);
     }
 
     private final Optional<BlurLevel> blurLevel;
     private final EnvironmentVariables environmentVariables;
+    private final ScreenshotEncoding encoding;
 
     public String forScreenshot(File screenshotFile) throws IOException {
-        return DigestUtils.md5Hex(new FileInputStream(screenshotFile))
+        try (InputStream screenshot = new FileInputStream(screenshotFile)) {
+            return filenameFor(DigestUtils.md5Hex(screenshot));
+        }
+    }
+
+    public String forScreenshot(byte[] screenshotData) {
+        return filenameFor(DigestUtils.md5Hex(screenshotData));
+    }
+
+    /**
+     * The name of a screenshot cropped to an area, derived from the screenshot as it was taken, so that the
+     * screenshot can be named before the screenshot processor has cropped it.
+     */
+    String forScreenshot(byte[] screenshotData, ScreenshotArea cropArea) {
+        MessageDigest digest = DigestUtils.getMd5Digest();
+        digest.update(screenshotData);
+        digest.update(cropArea.toString().getBytes(Charsets.UTF_8));
+        return filenameFor(Hex.encodeHexString(digest.digest()));
+    }
+
+    private String filenameFor(String digest) {
+        return digest
                + "_" + blurLevel.or(BlurLevel.NONE).toString()
                + optionalWidth()
-               + ".png";
+               + encoding.getNameSuffix()
+               + "." + encoding.getExtension();
     }
 
     private String optionalWidth() {
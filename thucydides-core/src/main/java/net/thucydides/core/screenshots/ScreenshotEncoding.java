@@ -0,0 +1,272 @@
+package net.thucydides.core.screenshots;
+
+import com.google.common.base.Charsets;
+import net.thucydides.core.ThucydidesSystemProperty;
+import net.thucydides.core.util.EnvironmentVariables;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * How screenshots are encoded when they are stored.
+ * By default, screenshots are stored as the PNG images returned by the driver. They can also be stored as JPEG images
+ * (thucydides.screenshot.format=jpeg, with thucydides.screenshot.jpeg.quality), which are much smaller, or as PNG images
+ * recompressed at a given deflate level (thucydides.screenshot.png.compression, from 0 to 9).
+ * If thucydides.screenshot.thumbnail.width is set, a small thumbnail is also stored next to each screenshot,
+ * for the report pages that only display the screenshots as icons.
+ */
+public class ScreenshotEncoding {
+
+    public static final String THUMBNAIL_PREFIX = "thumbnail_";
+
+    private static final int DEFAULT_JPEG_QUALITY = 85;
+    private static final int ORIGINAL_COMPRESSION = -1;
+
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    private static final byte[] PNG_IMAGE_DATA = "IDAT".getBytes(Charsets.US_ASCII);
+    private static final int PNG_CHUNK_OVERHEAD = 12;
+
+    private final boolean jpeg;
+    private final int jpegQuality;
+    private final int pngCompressionLevel;
+    private final int thumbnailWidth;
+
+    public ScreenshotEncoding(EnvironmentVariables environmentVariables) {
+        String format = environmentVariables.getProperty(ThucydidesSystemProperty.THUCYDIDES_SCREENSHOT_FORMAT, "png");
+        this.jpeg = isJpeg(format);
+        this.jpegQuality = between(0, 100, environmentVariables.getPropertyAsInteger(ThucydidesSystemProperty.THUCYDIDES_SCREENSHOT_JPEG_QUALITY,
+                                                                                    DEFAULT_JPEG_QUALITY));
+        this.pngCompressionLevel = environmentVariables.getPropertyAsInteger(ThucydidesSystemProperty.THUCYDIDES_SCREENSHOT_PNG_COMPRESSION,
+                                                                             ORIGINAL_COMPRESSION);
+        this.thumbnailWidth = environmentVariables.getPropertyAsInteger(ThucydidesSystemProperty.THUCYDIDES_SCREENSHOT_THUMBNAIL_WIDTH, 0);
+    }
+
+    private boolean isJpeg(String format) {
+        String normalizedFormat = format.trim().toLowerCase(Locale.ENGLISH);
+        return normalizedFormat.equals("jpeg") || normalizedFormat.equals("jpg");
+    }
+
+    private int between(int min, int max, int value) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    public String getExtension() {
+        return jpeg ? "jpg" : "png";
+    }
+
+    /**
+     * Screenshots encoded differently are different files, so the encoding is part of the screenshot filename.
+     * The default encoding adds nothing, so that existing screenshot names do not change.
+     */
+    public String getNameSuffix() {
+        if (jpeg) {
+            return "_Q" + jpegQuality;
+        } else if (recompressesPng()) {
+            return "_Z" + pngCompressionLevel;
+        }
+        return "";
+    }
+
+    /**
+     * @return true if the screenshots are stored exactly as they were returned by the driver.
+     */
+    public boolean keepsOriginalEncoding() {
+        return !jpeg && !recompressesPng();
+    }
+
+    private boolean recompressesPng() {
+        return (pngCompressionLevel >= Deflater.NO_COMPRESSION) && (pngCompressionLevel <= Deflater.BEST_COMPRESSION);
+    }
+
+    public boolean producesThumbnails() {
+        return thumbnailWidth > 0;
+    }
+
+    public int getThumbnailWidth() {
+        return thumbnailWidth;
+    }
+
+    public static String thumbnailNameFor(String screenshotName) {
+        return THUMBNAIL_PREFIX + screenshotName;
+    }
+
+    public byte[] encode(BufferedImage image) throws IOException {
+        if (jpeg) {
+            return asJpeg(image);
+        }
+        ByteArrayOutputStream imageData = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", imageData);
+        return recompressesPng() ? recompressed(imageData.toByteArray()) : imageData.toByteArray();
+    }
+
+    /**
+     * Encode a screenshot returned by the driver. PNG screenshots are recompressed without decoding the image.
+     */
+    public byte[] encode(byte[] screenshotData) throws IOException {
+        if (jpeg) {
+            return asJpeg(ImageIO.read(new ByteArrayInputStream(screenshotData)));
+        } else if (recompressesPng() && isPng(screenshotData)) {
+            return recompressed(screenshotData);
+        }
+        return screenshotData;
+    }
+
+    private byte[] asJpeg(BufferedImage image) throws IOException {
+        if (image == null) {
+            throw new IOException("Unsupported screenshot image format");
+        }
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream imageData = new ByteArrayOutputStream();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(imageData)) {
+            ImageWriteParam parameters = writer.getDefaultWriteParam();
+            parameters.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            parameters.setCompressionQuality(jpegQuality / 100.0f);
+            writer.setOutput(output);
+            writer.write(null, new IIOImage(withoutTransparency(image), null, null), parameters);
+        } finally {
+            writer.dispose();
+        }
+        return imageData.toByteArray();
+    }
+
+    /**
+     * JPEG images have no alpha channel, so transparent areas are painted white.
+     */
+    private BufferedImage withoutTransparency(BufferedImage image) {
+        if (image.getType() == BufferedImage.TYPE_INT_RGB) {
+            return image;
+        }
+        BufferedImage opaqueImage = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = opaqueImage.createGraphics();
+        graphics.drawImage(image, 0, 0, Color.WHITE, null);
+        graphics.dispose();
+        return opaqueImage;
+    }
+
+    /**
+     * @return true if the screenshots need to be decoded to be stored in this encoding (e.g. as JPEG images).
+     */
+    public boolean decodesScreenshots() {
+        return jpeg;
+    }
+
+    private boolean isPng(byte[] imageData) {
+        return (imageData.length > PNG_SIGNATURE.length)
+                && Arrays.equals(PNG_SIGNATURE, Arrays.copyOf(imageData, PNG_SIGNATURE.length));
+    }
+
+    /**
+     * The pixels of a PNG image are stored in one or more consecutive IDAT chunks as a single deflated stream.
+     * The stream is inflated and deflated again at the requested level, and written back as a single IDAT chunk
+     * in place of the original ones. The other chunks are copied unchanged.
+     * Images that do not have the expected structure are stored as they are.
+     */
+    private byte[] recompressed(byte[] pngData) {
+        if (!isPng(pngData)) {
+            return pngData;
+        }
+        try {
+            return recompressedChunksOf(pngData);
+        } catch (IOException unexpectedImageStructure) {
+            return pngData;
+        }
+    }
+
+    private byte[] recompressedChunksOf(byte[] pngData) throws IOException {
+        ByteBuffer input = ByteBuffer.wrap(pngData);
+        input.position(PNG_SIGNATURE.length);
+        ByteArrayOutputStream compressedImage = new ByteArrayOutputStream(pngData.length);
+        DataOutputStream output = new DataOutputStream(compressedImage);
+        output.write(PNG_SIGNATURE);
+
+        ByteArrayOutputStream imageData = new ByteArrayOutputStream(pngData.length);
+        boolean imageDataWritten = false;
+        while (input.hasRemaining()) {
+            if (input.remaining() < PNG_CHUNK_OVERHEAD) {
+                throw new IOException("Truncated PNG chunk");
+            }
+            int length = input.getInt();
+            // The chunk type and CRC take up 8 of the remaining bytes
+            if ((length < 0) || (length > input.remaining() - 8)) {
+                throw new IOException("Invalid PNG chunk length: " + length);
+            }
+            byte[] type = new byte[4];
+            input.get(type);
+            byte[] data = new byte[length];
+            input.get(data);
+            int crc = input.getInt();
+            if (Arrays.equals(PNG_IMAGE_DATA, type)) {
+                if (imageDataWritten) {
+                    throw new IOException("The PNG image data chunks are not consecutive");
+                }
+                imageData.write(data);
+            } else {
+                if (imageData.size() > 0 && !imageDataWritten) {
+                    writeChunk(output, PNG_IMAGE_DATA, deflated(inflated(imageData.toByteArray())));
+                    imageDataWritten = true;
+                }
+                output.writeInt(length);
+                output.write(type);
+                output.write(data);
+                output.writeInt(crc);
+            }
+        }
+        if (imageData.size() == 0) {
+            throw new IOException("No PNG image data");
+        }
+        if (!imageDataWritten) {
+            writeChunk(output, PNG_IMAGE_DATA, deflated(inflated(imageData.toByteArray())));
+        }
+        output.flush();
+        return compressedImage.toByteArray();
+    }
+
+    private byte[] inflated(byte[] compressedData) throws IOException {
+        ByteArrayOutputStream inflatedData = new ByteArrayOutputStream(compressedData.length * 4);
+        try (InflaterInputStream input = new InflaterInputStream(new ByteArrayInputStream(compressedData))) {
+            byte[] buffer = new byte[8192];
+            int bytesRead;
+            while ((bytesRead = input.read(buffer)) != -1) {
+                inflatedData.write(buffer, 0, bytesRead);
+            }
+        }
+        return inflatedData.toByteArray();
+    }
+
+    private byte[] deflated(byte[] data) throws IOException {
+        Deflater deflater = new Deflater(pngCompressionLevel);
+        ByteArrayOutputStream deflatedData = new ByteArrayOutputStream(data.length / 4);
+        try (DeflaterOutputStream output = new DeflaterOutputStream(deflatedData, deflater)) {
+            output.write(data);
+        } finally {
+            deflater.end();
+        }
+        return deflatedData.toByteArray();
+    }
+
+    private void writeChunk(DataOutputStream output, byte[] type, byte[] data) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(type);
+        crc.update(data);
+        output.writeInt(data.length);
+        output.write(type);
+        output.write(data);
+        output.writeInt((int) crc.getValue());
+    }
+}
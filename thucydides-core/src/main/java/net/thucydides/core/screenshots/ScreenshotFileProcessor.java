@@ -0,0 +1,369 @@
+package net.thucydides.core.screenshots;
+
+import com.google.common.base.Optional;
+import com.jhlabs.image.BoxBlurFilter;
+import net.thucydides.core.ThucydidesSystemProperty;
+import net.thucydides.core.images.SimpleImageInfo;
+import net.thucydides.core.util.EnvironmentVariables;
+import org.apache.commons.io.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.WritableRaster;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.CopyOption;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Moves a queued screenshot to its destination (or writes it there, if it is held in memory),
+ * blurring it if it was taken on a sensitive page, resizing it if thucydides.resized.image.width is set,
+ * and encoding it as configured (see ScreenshotEncoding).
+ * Page sources are compressed and written to their destination.
+ * Used by the screenshot processors, which decide on which thread this work is done.
+ */
+class ScreenshotFileProcessor {
+
+    private final EnvironmentVariables environmentVariables;
+    private final ScreenshotEncoding encoding;
+
+    private final Logger logger = LoggerFactory.getLogger(ScreenshotFileProcessor.class);
+
+    ScreenshotFileProcessor(EnvironmentVariables environmentVariables) {
+        this.environmentVariables = environmentVariables;
+        this.encoding = new ScreenshotEncoding(environmentVariables);
+    }
+
+    public void process(QueuedScreenshot queuedScreenshot) {
+        if (queuedScreenshot.getDestinationFile().exists()) {
+            FileUtils.deleteQuietly(queuedScreenshot.getSourceFile());
+        } else if (queuedScreenshot.isPageSource()) {
+            writePageSource(queuedScreenshot);
+        } else {
+            resizeOrMoveScreenshot(queuedScreenshot);
+        }
+    }
+
+    private void resizeOrMoveScreenshot(QueuedScreenshot queuedScreenshot) {
+        if (queuedScreenshot.getBlurLevel().isPresent() || queuedScreenshot.getCropArea().isPresent()) {
+            cropOrBlurScreenshot(queuedScreenshot);
+            return;
+        }
+        boolean resize = shouldResize(queuedScreenshot);
+        if (resize || encoding.producesThumbnails()) {
+            processDecodedScreenshot(queuedScreenshot, resize);
+        } else {
+            storeScreenshot(queuedScreenshot, Optional.<BufferedImage>absent());
+        }
+    }
+
+    /**
+     * Screenshots that need a thumbnail or resizing are only decoded once.
+     */
+    private void processDecodedScreenshot(QueuedScreenshot queuedScreenshot, boolean resize) {
+        BufferedImage image = readImage(queuedScreenshot);
+        if (image == null) {
+            storeOriginalScreenshot(queuedScreenshot);
+            return;
+        }
+        if (encoding.producesThumbnails()) {
+            writeThumbnailFor(image, queuedScreenshot.getDestinationFile());
+        }
+        if (resize) {
+            resizeScreenshot(queuedScreenshot, image);
+        } else {
+            storeScreenshot(queuedScreenshot, Optional.of(image));
+        }
+    }
+
+    private void storeScreenshot(QueuedScreenshot queuedScreenshot, Optional<BufferedImage> decodedImage) {
+        if (!encoding.keepsOriginalEncoding()) {
+            encodeScreenshot(queuedScreenshot, decodedImage);
+        } else if (queuedScreenshot.isInMemory()) {
+            writeScreenshot(queuedScreenshot);
+        } else {
+            moveScreenshot(queuedScreenshot);
+        }
+    }
+
+    /**
+     * The size the screenshot will have once it has been stored, read from the image header.
+     */
+    Dimension storedSizeOf(byte[] screenshotData) {
+        try {
+            return storedSizeOf(new SimpleImageInfo(screenshotData));
+        } catch (IOException unsupportedImageType) {
+            return new Dimension(0, 0);
+        }
+    }
+
+    /**
+     * The size a screenshot cropped to the given area will have once it has been stored.
+     */
+    Dimension storedSizeOf(byte[] screenshotData, ScreenshotArea cropArea) {
+        try {
+            SimpleImageInfo imageInfo = new SimpleImageInfo(screenshotData);
+            return storedSizeOf(cropArea.croppedSizeOf(imageInfo.getWidth(), imageInfo.getHeight()));
+        } catch (IOException unsupportedImageType) {
+            return new Dimension(0, 0);
+        }
+    }
+
+    private Dimension storedSizeOf(SimpleImageInfo imageInfo) {
+        return storedSizeOf(new Dimension(imageInfo.getWidth(), imageInfo.getHeight()));
+    }
+
+    private Dimension storedSizeOf(Dimension capturedSize) {
+        int width = capturedSize.width;
+        int height = capturedSize.height;
+        int resizedWidth = getResizedWidth();
+        if (resizedWidth > 0 && width > 0 && width != resizedWidth) {
+            return new Dimension(resizedWidth, resizedHeightFor(width, height, resizedWidth));
+        }
+        return new Dimension(width, height);
+    }
+
+    private int resizedHeightFor(int width, int height, int targetWidth) {
+        return (int) (((double) targetWidth / (double) width) * (double) height);
+    }
+
+    private int getResizedWidth() {
+        return environmentVariables.getPropertyAsInteger(ThucydidesSystemProperty.THUCYDIDES_RESIZED_IMAGE_WIDTH, 0);
+    }
+
+    /**
+     * Only the image header is read to decide whether the screenshot needs resizing.
+     */
+    private boolean shouldResize(QueuedScreenshot queuedScreenshot) {
+        if (getResizedWidth() > 0) {
+            try {
+                SimpleImageInfo imageInfo = queuedScreenshot.isInMemory()
+                        ? new SimpleImageInfo(queuedScreenshot.getScreenshotData())
+                        : new SimpleImageInfo(queuedScreenshot.getSourceFile());
+                return (imageInfo.getWidth() != storedSizeOf(imageInfo).width);
+            } catch (IOException unsupportedImageType) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private BufferedImage readImage(QueuedScreenshot queuedScreenshot) {
+        BufferedImage image = null;
+        try {
+            image = imageFrom(queuedScreenshot);
+        } catch (IOException e) {
+            logger.warn("Failed to read the stored screenshot (possibly an out of memory error): " + e.getMessage());
+        }
+        return image;
+    }
+
+    private BufferedImage imageFrom(QueuedScreenshot queuedScreenshot) throws IOException {
+        if (queuedScreenshot.isInMemory()) {
+            return ImageIO.read(new ByteArrayInputStream(queuedScreenshot.getScreenshotData()));
+        }
+        return ImageIO.read(queuedScreenshot.getSourceFile());
+    }
+
+    private void writeScreenshot(QueuedScreenshot queuedScreenshot) {
+        try {
+            createDestinationDirectoryFor(queuedScreenshot);
+            Files.write(queuedScreenshot.getDestinationFile().toPath(), queuedScreenshot.getScreenshotData(),
+                        StandardOpenOption.CREATE_NEW);
+        } catch (FileAlreadyExistsException alreadySavedByAnotherThread) {
+            // The destination name is a digest of the screenshot, so the file has the same contents
+        } catch (Throwable e) {
+            logger.warn("Failed to write the screenshot to the destination directory: " + e.getMessage());
+        }
+    }
+
+    private void encodeScreenshot(QueuedScreenshot queuedScreenshot, Optional<BufferedImage> decodedImage) {
+        try {
+            if (decodedImage.isPresent() && encoding.decodesScreenshots()) {
+                writeImage(encoding.encode(decodedImage.get()), queuedScreenshot.getDestinationFile());
+            } else {
+                byte[] screenshotData = queuedScreenshot.isInMemory() ? queuedScreenshot.getScreenshotData()
+                                                                      : Files.readAllBytes(queuedScreenshot.getSourceFile().toPath());
+                writeImage(encoding.encode(screenshotData), queuedScreenshot.getDestinationFile());
+            }
+            FileUtils.deleteQuietly(queuedScreenshot.getSourceFile());
+        } catch (Throwable e) {
+            logger.warn("Failed to encode screenshot: using original format " + e.getMessage());
+            storeOriginalScreenshot(queuedScreenshot);
+        }
+    }
+
+    /**
+     * Thumbnails are made from the original screenshot, before it is moved to its destination.
+     */
+    private void writeThumbnailFor(BufferedImage image, File destination) {
+        File thumbnail = thumbnailFor(destination);
+        if (thumbnail.exists()) {
+            return;
+        }
+        try {
+            writeThumbnail(image, thumbnail);
+        } catch (Throwable e) {
+            logger.warn("Failed to write a thumbnail for the screenshot: " + e.getMessage());
+        }
+    }
+
+    private File thumbnailFor(File destination) {
+        return new File(destination.getParentFile(), ScreenshotEncoding.thumbnailNameFor(destination.getName()));
+    }
+
+    private void writeThumbnail(BufferedImage image, File thumbnail) throws IOException {
+        int targetWidth = encoding.getThumbnailWidth();
+        int targetHeight = Math.max(1, resizedHeightFor(image.getWidth(), image.getHeight(), targetWidth));
+        writeImage(encoding.encode(resize(image, targetWidth, targetHeight)), thumbnail);
+    }
+
+    /**
+     * Cropped and blurred screenshots are decoded once, then cropped, blurred, resized and stored in the configured encoding.
+     * If the screenshot cannot be cropped or blurred, nothing is stored, as the original screenshot may show sensitive data.
+     */
+    private void cropOrBlurScreenshot(QueuedScreenshot queuedScreenshot) {
+        try {
+            BufferedImage image = imageFrom(queuedScreenshot);
+            if (image == null) {
+                throw new IOException("Unsupported screenshot image format");
+            }
+            if (queuedScreenshot.getCropArea().isPresent()) {
+                image = queuedScreenshot.getCropArea().get().cropFrom(image);
+            }
+            if (queuedScreenshot.getBlurLevel().isPresent()) {
+                image = blurred(image, queuedScreenshot.getBlurLevel().get());
+            }
+            File thumbnail = thumbnailFor(queuedScreenshot.getDestinationFile());
+            if (encoding.producesThumbnails() && !thumbnail.exists()) {
+                writeThumbnail(image, thumbnail);
+            }
+            int targetWidth = getResizedWidth();
+            if ((targetWidth > 0) && (image.getWidth() != targetWidth)) {
+                image = resize(image, targetWidth, resizedHeightFor(image.getWidth(), image.getHeight(), targetWidth));
+            }
+            writeImage(encoding.encode(image), queuedScreenshot.getDestinationFile());
+        } catch (Throwable e) {
+            logger.warn("Failed to crop or blur screenshot: the screenshot will not be stored " + e.getMessage());
+        } finally {
+            FileUtils.deleteQuietly(queuedScreenshot.getSourceFile());
+        }
+    }
+
+    private BufferedImage blurred(BufferedImage image, BlurLevel blurLevel) {
+        BoxBlurFilter boxBlurFilter = new BoxBlurFilter();
+        boxBlurFilter.setRadius(blurLevel.getRadius());
+        boxBlurFilter.setIterations(3);
+        return boxBlurFilter.filter(image, deepCopy(image));
+    }
+
+    private BufferedImage deepCopy(BufferedImage srcImage) {
+        ColorModel cm = srcImage.getColorModel();
+        boolean isAlphaPremultiplied = cm.isAlphaPremultiplied();
+        WritableRaster raster = srcImage.copyData(null);
+        return new BufferedImage(cm, raster, isAlphaPremultiplied, null);
+    }
+
+    private void writeImage(byte[] imageData, File destination) throws IOException {
+        Path destinationDir = destination.toPath().getParent();
+        if (Files.notExists(destinationDir)) {
+            Files.createDirectories(destinationDir);
+        }
+        try {
+            Files.write(destination.toPath(), imageData, StandardOpenOption.CREATE_NEW);
+        } catch (FileAlreadyExistsException alreadySavedByAnotherThread) {
+            // The destination name is a digest of the screenshot, so the file has the same contents
+        }
+    }
+
+    private void storeOriginalScreenshot(QueuedScreenshot queuedScreenshot) {
+        if (queuedScreenshot.isInMemory()) {
+            writeScreenshot(queuedScreenshot);
+        } else {
+            moveScreenshot(queuedScreenshot);
+        }
+    }
+
+    private void writePageSource(QueuedScreenshot queuedScreenshot) {
+        try {
+            createDestinationDirectoryFor(queuedScreenshot);
+            PageSources.writeCompressed(queuedScreenshot.getScreenshotData(), queuedScreenshot.getDestinationFile());
+        } catch (FileAlreadyExistsException alreadySavedByAnotherThread) {
+            // The destination name is a digest of the page source, so the file has the same contents
+        } catch (Throwable e) {
+            logger.warn("Failed to write the page source: " + e.getMessage());
+        }
+    }
+
+    private void moveScreenshot(QueuedScreenshot queuedScreenshot) {
+        try {
+            CopyOption[] options = new CopyOption[]{ StandardCopyOption.COPY_ATTRIBUTES };
+
+            Path sourcePath = queuedScreenshot.getSourceFile().toPath();
+            Path destinationPath = queuedScreenshot.getDestinationFile().toPath();
+            createDestinationDirectoryFor(queuedScreenshot);
+            if (Files.notExists(destinationPath)) {
+                Files.copy(sourcePath, destinationPath, options);
+            }
+            try {
+                Files.deleteIfExists(sourcePath);
+            } catch (IOException e) {
+                queuedScreenshot.getSourceFile().deleteOnExit();
+            }
+        } catch (Throwable e) {
+            logger.warn("Failed to copy the screenshot to the destination directory: " + e.getMessage());
+        }
+    }
+
+    private void createDestinationDirectoryFor(QueuedScreenshot queuedScreenshot) throws IOException {
+        Path destinationDir = queuedScreenshot.getDestinationFile().toPath().getParent();
+        if (Files.notExists(destinationDir)) {
+            Files.createDirectories(destinationDir);
+        }
+    }
+
+    private void resizeScreenshot(QueuedScreenshot queuedScreenshot, BufferedImage image) {
+        try {
+            int width = image.getData().getWidth();
+            int height = image.getData().getHeight();
+            int targetWidth = getResizedWidth();
+            int targetHeight = resizedHeightFor(width, height, targetWidth);
+
+            BufferedImage resizedImage = resize(image, targetWidth, targetHeight);
+            writeImage(encoding.encode(resizedImage), queuedScreenshot.getDestinationFile());
+            FileUtils.deleteQuietly(queuedScreenshot.getSourceFile());
+        } catch (Throwable e) {
+            logger.warn("Failed to resize screenshot: using original size " + e.getMessage());
+            storeOriginalScreenshot(queuedScreenshot);
+        }
+    }
+
+    private BufferedImage resize(BufferedImage image, int width, int height) {
+        int type = image.getType() == 0? BufferedImage.TYPE_INT_ARGB : image.getType();
+        BufferedImage resizedImage = new BufferedImage(width, height, type);
+        Graphics2D g = resizedImage.createGraphics();
+        g.setComposite(AlphaComposite.Src);
+
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+                RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+
+        g.setRenderingHint(RenderingHints.KEY_RENDERING,
+                RenderingHints.VALUE_RENDER_QUALITY);
+
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
+                RenderingHints.VALUE_ANTIALIAS_ON);
+
+        g.drawImage(image, 0, 0, width, height, null);
+        g.dispose();
+        return resizedImage;
+    }
+}
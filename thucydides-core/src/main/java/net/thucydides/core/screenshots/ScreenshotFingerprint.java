@@ -0,0 +1,113 @@
+package net.thucydides.core.screenshots;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * A perceptual hash of a screenshot, used to recognize screenshots that look the same even though their files differ,
+ * for example because of a blinking cursor or a spinner.
+ * The image is reduced to a small grid of average brightness values, and each bit of the fingerprint records
+ * whether a cell of the grid is brighter than its right-hand neighbour (a "difference hash").
+ */
+public class ScreenshotFingerprint {
+
+    static final int GRID_SIZE = 16;
+    static final int BIT_COUNT = GRID_SIZE * GRID_SIZE;
+
+    private final long[] bits;
+
+    private ScreenshotFingerprint(long[] bits) {
+        this.bits = bits;
+    }
+
+    public static ScreenshotFingerprint of(byte[] screenshotData) throws IOException {
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(screenshotData));
+        if (image == null) {
+            throw new IOException("Screenshot data is not a supported image format");
+        }
+        return of(image);
+    }
+
+    public static ScreenshotFingerprint of(BufferedImage image) {
+        double[][] brightness = averageBrightnessOf(image, GRID_SIZE + 1, GRID_SIZE);
+        long[] bits = new long[BIT_COUNT / 64];
+        int bit = 0;
+        for (int row = 0; row < GRID_SIZE; row++) {
+            for (int column = 0; column < GRID_SIZE; column++) {
+                if (brightness[row][column] > brightness[row][column + 1]) {
+                    bits[bit / 64] |= 1L << (bit % 64);
+                }
+                bit++;
+            }
+        }
+        return new ScreenshotFingerprint(bits);
+    }
+
+    /**
+     * The average brightness of each cell of the grid, reading the image one row of pixels at a time.
+     */
+    private static double[][] averageBrightnessOf(BufferedImage image, int columns, int rows) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        double[][] totals = new double[rows][columns];
+        int[][] pixelCounts = new int[rows][columns];
+        int[] pixels = new int[width];
+        for (int y = 0; y < height; y++) {
+            int row = (int) ((long) y * rows / height);
+            image.getRGB(0, y, width, 1, pixels, 0, width);
+            for (int x = 0; x < width; x++) {
+                int column = (int) ((long) x * columns / width);
+                totals[row][column] += brightnessOf(pixels[x]);
+                pixelCounts[row][column]++;
+            }
+        }
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                if (pixelCounts[row][column] > 0) {
+                    totals[row][column] /= pixelCounts[row][column];
+                }
+            }
+        }
+        return totals;
+    }
+
+    private static int brightnessOf(int rgb) {
+        int red = (rgb >> 16) & 0xFF;
+        int green = (rgb >> 8) & 0xFF;
+        int blue = rgb & 0xFF;
+        return (red * 299 + green * 587 + blue * 114) / 1000;
+    }
+
+    /**
+     * @return the number of bits that differ between the two fingerprints.
+     */
+    public int distanceFrom(ScreenshotFingerprint otherFingerprint) {
+        int distance = 0;
+        for (int i = 0; i < bits.length; i++) {
+            distance += Long.bitCount(bits[i] ^ otherFingerprint.bits[i]);
+        }
+        return distance;
+    }
+
+    /**
+     * @return how similar the two screenshots look, as a percentage: 100 means that the fingerprints are identical.
+     */
+    public int similarityTo(ScreenshotFingerprint otherFingerprint) {
+        return 100 * (BIT_COUNT - distanceFrom(otherFingerprint)) / BIT_COUNT;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ScreenshotFingerprint)) return false;
+        return Arrays.equals(bits, ((ScreenshotFingerprint) o).bits);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(bits);
+    }
+}
@@ -8,4 +8,9 @@ public interface ScreenshotProcessor {
     void queueScreenshot(QueuedScreenshot queuedScreenshot);
 
     boolean isEmpty();
+
+    /**
+     * @return the number of screenshots that are waiting to be processed, or are being processed.
+     */
+    int getQueueDepth();
 }
@@ -0,0 +1,335 @@
+package net.thucydides.core.screenshots;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.HashMultiset;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Multiset;
+import com.google.common.collect.Sets;
+import net.thucydides.core.ThucydidesSystemProperty;
+import net.thucydides.core.model.TestOutcome;
+import net.thucydides.core.model.TestResult;
+import net.thucydides.core.model.TestStep;
+import net.thucydides.core.util.EnvironmentVariables;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps the screenshots and page sources stored in an output directory within the disk space set by
+ * thucydides.screenshot.storage.budget (e.g. "500m" or "2g").
+ * When the stored files take up more space than this, they are deleted in the following order until they fit:
+ * files that no test outcome refers to (oldest first), then the screenshots of passing tests, then those of other tests,
+ * oldest test runs first. A file is only deleted once every outcome that refers to it has been evicted.
+ * Screenshots whose files have been deleted are marked as evicted in the outcomes, so that the reports
+ * can show a placeholder instead: the stored outcomes and the reports of the outcomes returned by getUpdatedOutcomes()
+ * need to be written again for the placeholder to appear.
+ * The report directory holds links to or copies of the same files, so it is included in the budget: a file that is
+ * linked into both directories is only counted once, and evicted files are deleted from both directories.
+ */
+public class ScreenshotStorageBudget {
+
+    private static final Pattern STORED_FILE = Pattern.compile("(" + ScreenshotEncoding.THUMBNAIL_PREFIX + ")?"
+                                                               + "[0-9a-f]{32}(_.*\\.(png|jpg)|\\.html(\\.gz)?)");
+
+    private static final long NO_BUDGET = -1;
+
+    private final long budget;
+
+    private final List<TestOutcome> updatedOutcomes = Lists.newArrayList();
+
+    private final Logger logger = LoggerFactory.getLogger(ScreenshotStorageBudget.class);
+
+    public ScreenshotStorageBudget(EnvironmentVariables environmentVariables) {
+        this.budget = budgetFrom(environmentVariables.getProperty(ThucydidesSystemProperty.THUCYDIDES_SCREENSHOT_STORAGE_BUDGET));
+    }
+
+    private long budgetFrom(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return NO_BUDGET;
+        }
+        String size = value.trim().toLowerCase(Locale.ENGLISH);
+        if (size.endsWith("b")) {
+            size = size.substring(0, size.length() - 1);
+        }
+        long unit = 1;
+        if (size.endsWith("k")) {
+            unit = 1024;
+        } else if (size.endsWith("m")) {
+            unit = 1024 * 1024;
+        } else if (size.endsWith("g")) {
+            unit = 1024 * 1024 * 1024;
+        }
+        if (unit > 1) {
+            size = size.substring(0, size.length() - 1);
+        }
+        try {
+            return Long.parseLong(size.trim()) * unit;
+        } catch (NumberFormatException e) {
+            logger.warn("Ignoring invalid screenshot storage budget: " + value);
+            return NO_BUDGET;
+        }
+    }
+
+    public boolean isDefined() {
+        return budget != NO_BUDGET;
+    }
+
+    public long getMaximumSize() {
+        return budget;
+    }
+
+    /**
+     * @return the outcomes in which screenshots were marked as evicted by the last call to enforceOn().
+     */
+    public List<TestOutcome> getUpdatedOutcomes() {
+        return ImmutableList.copyOf(updatedOutcomes);
+    }
+
+    /**
+     * Screenshots, thumbnails and page sources are named after a digest of their contents, and never change
+     * once they are written.
+     */
+    public static boolean isStoredScreenshotOrPageSource(String filename) {
+        return STORED_FILE.matcher(filename).matches();
+    }
+
+    /**
+     * Delete stored screenshots and page sources from the directory until they fit in the budget,
+     * and mark the screenshots that are no longer available in the outcomes.
+     *
+     * @return the names of the deleted files.
+     */
+    public Set<String> enforceOn(File directory, List<? extends TestOutcome> outcomes) {
+        return enforceOn(directory, Collections.<File>emptyList(), outcomes);
+    }
+
+    /**
+     * Delete stored screenshots and page sources from the directory and from the report directory that the files
+     * were linked or copied into, until they fit in the budget together.
+     * Copies of files that are no longer in the directory are deleted from the report directory too.
+     *
+     * @return the names of the deleted files.
+     */
+    public Set<String> enforceOn(File directory, File reportDirectory, List<? extends TestOutcome> outcomes) {
+        return enforceOn(directory, Collections.singletonList(reportDirectory), outcomes);
+    }
+
+    private Set<String> enforceOn(File directory, List<File> reportDirectories, List<? extends TestOutcome> outcomes) {
+        Set<String> evictedFiles = Sets.newHashSet();
+        updatedOutcomes.clear();
+        if (!isDefined()) {
+            return evictedFiles;
+        }
+        ListMultimap<String, File> storedFiles = ArrayListMultimap.create();
+        storedFiles.putAll(storedFilesIn(directory));
+        for (File reportDirectory : reportDirectories) {
+            storedFiles.putAll(storedFilesIn(reportDirectory));
+        }
+        long totalSize = diskSpaceUsedBy(storedFiles.values());
+
+        Multiset<String> references = HashMultiset.create();
+        for (TestOutcome outcome : outcomes) {
+            references.addAll(filesReferencedBy(outcome));
+        }
+
+        for (String orphan : oldestFirst(orphansIn(storedFiles, references), storedFiles)) {
+            if (totalSize <= budget) {
+                break;
+            }
+            totalSize -= evict(orphan, storedFiles, evictedFiles);
+        }
+        for (TestOutcome outcome : inEvictionOrder(outcomes)) {
+            if (totalSize <= budget) {
+                break;
+            }
+            for (String filename : filesReferencedBy(outcome)) {
+                references.remove(filename);
+                if (!references.contains(filename) && storedFiles.containsKey(filename)) {
+                    totalSize -= evict(filename, storedFiles, evictedFiles);
+                }
+            }
+        }
+        if (!evictedFiles.isEmpty()) {
+            logger.info("Deleted " + evictedFiles.size() + " stored screenshots and page sources to stay within the "
+                        + "screenshot storage budget of " + budget + " bytes");
+        }
+        markEvictedScreenshotsIn(outcomes, directory, evictedFiles);
+        deleteStaleCopiesIn(reportDirectories, directory, storedFiles);
+        return evictedFiles;
+    }
+
+    private ListMultimap<String, File> storedFilesIn(File directory) {
+        ListMultimap<String, File> storedFiles = ArrayListMultimap.create();
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                if (file.isFile() && isStoredScreenshotOrPageSource(file.getName())) {
+                    storedFiles.put(file.getName(), file);
+                }
+            }
+        }
+        return storedFiles;
+    }
+
+    /**
+     * Hard links to the same file only take up disk space once.
+     */
+    private long diskSpaceUsedBy(Collection<File> files) {
+        Set<Object> countedFiles = Sets.newHashSet();
+        long size = 0;
+        for (File file : files) {
+            if (countedFiles.add(fileKeyOf(file))) {
+                size += file.length();
+            }
+        }
+        return size;
+    }
+
+    private Object fileKeyOf(File file) {
+        try {
+            Object fileKey = Files.readAttributes(file.toPath(), BasicFileAttributes.class).fileKey();
+            return (fileKey != null) ? fileKey : file.getAbsoluteFile();
+        } catch (IOException e) {
+            return file.getAbsoluteFile();
+        }
+    }
+
+    private Set<String> filesReferencedBy(TestOutcome outcome) {
+        Set<String> filenames = Sets.newHashSet();
+        for (TestStep step : outcome.getFlattenedTestSteps()) {
+            for (ScreenshotAndHtmlSource screenshot : step.getScreenshots()) {
+                filenames.add(screenshot.getScreenshotName());
+                filenames.add(screenshot.getThumbnailName());
+                if (screenshot.getHtmlSourceName() != null) {
+                    filenames.add(screenshot.getHtmlSourceName());
+                }
+            }
+        }
+        return filenames;
+    }
+
+    private List<String> orphansIn(ListMultimap<String, File> storedFiles, Multiset<String> references) {
+        List<String> orphans = Lists.newArrayList();
+        for (String filename : storedFiles.keySet()) {
+            if (!references.contains(filename)) {
+                orphans.add(filename);
+            }
+        }
+        return orphans;
+    }
+
+    private List<String> oldestFirst(List<String> filenames, final ListMultimap<String, File> storedFiles) {
+        Collections.sort(filenames, new Comparator<String>() {
+            @Override
+            public int compare(String filename1, String filename2) {
+                return Long.compare(lastModified(storedFiles.get(filename1)), lastModified(storedFiles.get(filename2)));
+            }
+        });
+        return filenames;
+    }
+
+    private long lastModified(List<File> files) {
+        long lastModified = 0;
+        for (File file : files) {
+            lastModified = Math.max(lastModified, file.lastModified());
+        }
+        return lastModified;
+    }
+
+    private List<TestOutcome> inEvictionOrder(List<? extends TestOutcome> outcomes) {
+        List<TestOutcome> orderedOutcomes = Lists.newArrayList(outcomes);
+        Collections.sort(orderedOutcomes, new Comparator<TestOutcome>() {
+            @Override
+            public int compare(TestOutcome outcome1, TestOutcome outcome2) {
+                int passingFirst = Boolean.compare(!isPassing(outcome1), !isPassing(outcome2));
+                if (passingFirst != 0) {
+                    return passingFirst;
+                }
+                return Long.compare(startTimeOf(outcome1), startTimeOf(outcome2));
+            }
+        });
+        return orderedOutcomes;
+    }
+
+    private boolean isPassing(TestOutcome outcome) {
+        return outcome.getResult() == TestResult.SUCCESS;
+    }
+
+    private long startTimeOf(TestOutcome outcome) {
+        return (outcome.getStartTime() != null) ? outcome.getStartTime().getMillis() : 0;
+    }
+
+    /**
+     * The space is only freed once every link to the file has been deleted.
+     */
+    private long evict(String filename, ListMultimap<String, File> storedFiles, Set<String> evictedFiles) {
+        List<File> copies = storedFiles.get(filename);
+        long size = diskSpaceUsedBy(copies);
+        boolean deleted = true;
+        for (File copy : copies) {
+            if (!copy.delete()) {
+                logger.warn("Could not delete stored screenshot " + copy);
+                deleted = false;
+            }
+        }
+        if (deleted) {
+            evictedFiles.add(filename);
+            return size;
+        }
+        return 0;
+    }
+
+    /**
+     * Files evicted during earlier runs may still have been linked or copied into the report directory.
+     */
+    private void deleteStaleCopiesIn(List<File> reportDirectories, File directory, ListMultimap<String, File> storedFiles) {
+        for (File reportDirectory : reportDirectories) {
+            for (File storedFile : storedFiles.values()) {
+                if (storedFile.getParentFile().equals(reportDirectory)
+                        && !new File(directory, storedFile.getName()).exists()
+                        && storedFile.exists() && !storedFile.delete()) {
+                    logger.warn("Could not delete stale screenshot " + storedFile);
+                }
+            }
+        }
+    }
+
+    /**
+     * Screenshots deleted during earlier runs are marked too, unless the stored outcome already records them as evicted.
+     */
+    private void markEvictedScreenshotsIn(List<? extends TestOutcome> outcomes, File directory, Set<String> evictedFiles) {
+        for (TestOutcome outcome : outcomes) {
+            boolean updated = false;
+            for (TestStep step : outcome.getFlattenedTestSteps()) {
+                List<ScreenshotAndHtmlSource> screenshots = step.getScreenshots();
+                for (int i = 0; i < screenshots.size(); i++) {
+                    ScreenshotAndHtmlSource screenshot = screenshots.get(i);
+                    if (!screenshot.isEvicted() && isEvicted(screenshot.getScreenshotName(), directory, evictedFiles)) {
+                        step.replaceScreenshot(i, screenshot.asEvicted());
+                        updated = true;
+                    }
+                }
+            }
+            if (updated) {
+                updatedOutcomes.add(outcome);
+            }
+        }
+    }
+
+    private boolean isEvicted(String screenshotName, File directory, Set<String> evictedFiles) {
+        return evictedFiles.contains(screenshotName) || !new File(directory, screenshotName).exists();
+    }
+}
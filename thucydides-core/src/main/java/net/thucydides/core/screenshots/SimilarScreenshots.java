@@ -0,0 +1,47 @@
+package net.thucydides.core.screenshots;
+
+import com.google.common.base.Optional;
+import net.thucydides.core.ThucydidesSystemProperty;
+import net.thucydides.core.util.EnvironmentVariables;
+
+/**
+ * Keeps track of the last screenshot stored during a test, so that optional screenshots that look the same
+ * can reuse it rather than being stored again.
+ * This check is only done if thucydides.screenshot.similarity.threshold is set.
+ */
+public class SimilarScreenshots {
+
+    private final int similarityThreshold;
+
+    private ScreenshotAndHtmlSource lastScreenshot;
+    private ScreenshotFingerprint lastFingerprint;
+
+    public SimilarScreenshots(EnvironmentVariables environmentVariables) {
+        this.similarityThreshold
+                = environmentVariables.getPropertyAsInteger(ThucydidesSystemProperty.THUCYDIDES_SCREENSHOT_SIMILARITY_THRESHOLD, 0);
+    }
+
+    public boolean areDetected() {
+        return similarityThreshold > 0;
+    }
+
+    /**
+     * @return the last screenshot stored, if it looks similar enough to a screenshot with this fingerprint.
+     */
+    public synchronized Optional<ScreenshotAndHtmlSource> similarTo(ScreenshotFingerprint fingerprint) {
+        if (lastFingerprint != null && fingerprint.similarityTo(lastFingerprint) >= similarityThreshold) {
+            return Optional.of(lastScreenshot);
+        }
+        return Optional.absent();
+    }
+
+    public synchronized void recordScreenshot(ScreenshotAndHtmlSource screenshot, ScreenshotFingerprint fingerprint) {
+        this.lastScreenshot = screenshot;
+        this.lastFingerprint = fingerprint;
+    }
+
+    public synchronized void reset() {
+        this.lastScreenshot = null;
+        this.lastFingerprint = null;
+    }
+}
@@ -1,5 +1,6 @@
 package net.thucydides.core.steps;
 
+import com.google.common.base.Charsets;
 import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
@@ -18,14 +19,14 @@ import net.thucydides.core.webdriver.WebdriverManager;
 import net.thucydides.core.webdriver.WebdriverProxyFactory;
 import org.apache.commons.lang3.StringUtils;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
 import org.openqa.selenium.remote.SessionId;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
-import java.io.IOException;
-import java.nio.file.Files;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 
 import static net.thucydides.core.model.Stories.findStoryFrom;
 import static net.thucydides.core.model.TestResult.*;
@@ -62,6 +63,11 @@ public class BaseStepListener implements StepListener, StepPublisher {
     private final SystemClock clock;
 
     private ScreenshotPermission screenshots;
+
+    private SimilarScreenshots similarScreenshots;
+
+    private AdaptiveScreenshotPolicy adaptiveScreenshots;
+
     /**
      * The Java class (if any) containing the tests.
      */
@@ -181,6 +187,20 @@ public class BaseStepListener implements StepListener, StepPublisher {
         return screenshots;
     }
 
+    protected AdaptiveScreenshotPolicy adaptiveScreenshots() {
+        if (adaptiveScreenshots == null) {
+            adaptiveScreenshots = new AdaptiveScreenshotPolicy(configuration.getEnvironmentVariables(), screenshotProcessor);
+        }
+        return adaptiveScreenshots;
+    }
+
+    protected SimilarScreenshots similarScreenshots() {
+        if (similarScreenshots == null) {
+            similarScreenshots = new SimilarScreenshots(configuration.getEnvironmentVariables());
+        }
+        return similarScreenshots;
+    }
+
     private void createNewDriver() {
         setDriver(getProxyFactory().proxyDriver());
     }
@@ -259,6 +279,8 @@ public class BaseStepListener implements StepListener, StepPublisher {
     public void testStarted(final String testMethod) {
         TestOutcome newTestOutcome = TestOutcome.forTestInStory(testMethod, testSuite, testedStory);
         testOutcomes.add(newTestOutcome);
+        similarScreenshots().reset();
+        adaptiveScreenshots().resetSkippedScreenshotCount();
         updateSessionIdIfKnown();
         setAnnotatedResult(testMethod);
     }
@@ -270,6 +292,12 @@ public class BaseStepListener implements StepListener, StepPublisher {
         }
     }
 
+    public void recordBrowserStartupTime(long startupTime) {
+        if (!testOutcomes.isEmpty()) {
+            getCurrentTestOutcome().recordBrowserStartupTime(startupTime);
+        }
+    }
+
     public void updateCurrentStepTitle(String updatedStepTitle) {
         if (currentStepExists()) {
             getCurrentStep().setDescription(updatedStepTitle);
@@ -294,6 +322,7 @@ public class BaseStepListener implements StepListener, StepPublisher {
      */
     public void testFinished(final TestOutcome outcome) {
         recordTestDuration();
+        reportSkippedScreenshots();
         getCurrentTestOutcome().addIssues(storywideIssues);
         // TODO: Disable when run from an IDE
         getCurrentTestOutcome().addTags(storywideTags);
@@ -305,6 +334,15 @@ public class BaseStepListener implements StepListener, StepPublisher {
         testOutcomes.remove(getCurrentTestOutcome());
     }
 
+    private void reportSkippedScreenshots() {
+        int skippedScreenshots = adaptiveScreenshots().getSkippedScreenshotCount();
+        if (skippedScreenshots > 0 && !testOutcomes.isEmpty()) {
+            getCurrentTestOutcome().setSkippedScreenshotCount(skippedScreenshots);
+            LOGGER.info("Skipped " + skippedScreenshots + " optional screenshots in " + getCurrentTestOutcome().getTitle()
+                        + " (average screenshot time " + adaptiveScreenshots().getAverageCaptureTime() + " ms)");
+        }
+    }
+
     private void recordTestDuration() {
         if (!testOutcomes.isEmpty()) {
             getCurrentTestOutcome().recordDuration();
@@ -527,14 +565,31 @@ public class BaseStepListener implements StepListener, StepPublisher {
 
     private void takeEndOfStepScreenshotFor(final TestResult result) {
         if (shouldTakeEndOfStepScreenshotFor(result)) {
-            take(OPTIONAL_SCREENSHOT);
+            if (result == FAILURE || !adaptiveScreenshotsSkipScreenshotsInCurrentStep()) {
+                take(OPTIONAL_SCREENSHOT);
+            }
         }
     }
 
+    private boolean adaptiveScreenshotsSkipScreenshotsInCurrentStep() {
+        return adaptiveScreenshots().isEnabled() && currentStepExists()
+               && adaptiveScreenshots().shouldSkipOptionalScreenshotAfter(timeSpentInCurrentStep());
+    }
+
+    private long timeSpentInCurrentStep() {
+        return getClock().getCurrentTime().getMillis() - getCurrentStep().getStartTime();
+    }
+
     private void take(final ScreenshotType screenshotType) {
+        take(screenshotType, Optional.<WebElement>absent());
+    }
+
+    private void take(final ScreenshotType screenshotType, final Optional<WebElement> element) {
         if (currentStepExists() && browserIsOpen()) {
             try {
-                Optional<ScreenshotAndHtmlSource> screenshotAndHtmlSource = grabScreenshot();
+                long captureStart = System.nanoTime();
+                Optional<ScreenshotAndHtmlSource> screenshotAndHtmlSource = grabScreenshot(screenshotType, element);
+                adaptiveScreenshots().recordCaptureTime(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - captureStart));
                 if (screenshotAndHtmlSource.isPresent()) {
                     takeScreenshotIfRequired(screenshotType, screenshotAndHtmlSource.get());
                 }
@@ -611,35 +666,41 @@ public class BaseStepListener implements StepListener, StepPublisher {
     }
 
     private void takeInitialScreenshot() {
-        if ((currentStepExists()) && (screenshots().areAllowed(TakeScreenshots.BEFORE_AND_AFTER_EACH_STEP))) {
+        if ((currentStepExists()) && (screenshots().areAllowed(TakeScreenshots.BEFORE_AND_AFTER_EACH_STEP))
+                && !adaptiveScreenshots().shouldSkipOptionalScreenshot()) {
             take(OPTIONAL_SCREENSHOT);
         }
     }
 
-    private Optional<ScreenshotAndHtmlSource> grabScreenshot() {
-        Optional<File> screenshot = getPhotographer().takeScreenshot();
-        if (screenshot.isPresent()) {
-            if (shouldStoreSourcecode()) {
-                File sourcecodeFile = sourcecodeForScreenshot(screenshot.get(), getPageSource());
-                return Optional.of(new ScreenshotAndHtmlSource(screenshot.get(), sourcecodeFile));
-            } else {
-                return Optional.of(new ScreenshotAndHtmlSource(screenshot.get()));
-            }
+    private Optional<ScreenshotAndHtmlSource> grabScreenshot(final ScreenshotType screenshotType,
+                                                             final Optional<WebElement> element) {
+        Optional<ScreenshotAndHtmlSource> screenshot;
+        if (element.isPresent()) {
+            screenshot = getPhotographer().recordScreenshotOf(element.get());
+        } else {
+            screenshot = (screenshotType == OPTIONAL_SCREENSHOT)
+                    ? getPhotographer().recordOptionalScreenshot() : getPhotographer().recordScreenshot();
         }
-        return Optional.absent();
+        if (screenshot.isPresent() && shouldStoreSourcecode()) {
+            File sourcecodeFile = sourcecodeForScreenshot(screenshot.get().getScreenshotFile(), getPageSource());
+            return Optional.of(screenshot.get().withHtmlSource(sourcecodeFile));
+        }
+        return screenshot;
     }
 
     public String getPageSource() {
         return getPhotographer().getPageSource();
     }
 
+    /**
+     * Page sources are named after a digest of their contents, and compressed and written by the screenshot processor,
+     * so identical pages are only stored once and the test thread does not wait for the file to be written.
+     */
     private File sourcecodeForScreenshot(File screenshotFile, String pageSource) {
-        File pageSourceFile = new File(screenshotFile.getAbsolutePath() + ".html");
-
-        try {
-            Files.write(pageSourceFile.toPath(), pageSource.getBytes());
-        } catch (IOException e) {
-            LOGGER.warn("Failed to write screen source code",e);
+        byte[] pageSourceData = pageSource.getBytes(Charsets.UTF_8);
+        File pageSourceFile = new File(screenshotFile.getParentFile(), PageSources.filenameFor(pageSourceData));
+        if (!pageSourceFile.exists()) {
+            screenshotProcessor.queueScreenshot(QueuedScreenshot.forPageSource(pageSourceData, pageSourceFile));
         }
         return pageSourceFile;
     }
@@ -650,11 +711,14 @@ public class BaseStepListener implements StepListener, StepPublisher {
 
     public Photographer getPhotographer() {
         ScreenshotBlurCheck blurCheck = new ScreenshotBlurCheck();
+        Photographer photographer;
         if (blurCheck.blurLevel().isPresent()) {
-            return new Photographer(driver, outputDirectory, blurCheck.blurLevel().get());
+            photographer = new Photographer(driver, outputDirectory, blurCheck.blurLevel().get());
         } else {
-            return new Photographer(driver, outputDirectory);
+            photographer = new Photographer(driver, outputDirectory);
         }
+        photographer.setSimilarScreenshots(similarScreenshots());
+        return photographer;
     }
 
     private boolean shouldTakeEndOfStepScreenshotFor(final TestResult result) {
@@ -717,7 +781,7 @@ public class BaseStepListener implements StepListener, StepPublisher {
     }
 
     public void notifyScreenChange() {
-        if (screenshots().areAllowed(TakeScreenshots.FOR_EACH_ACTION)) {
+        if (screenshots().areAllowed(TakeScreenshots.FOR_EACH_ACTION) && !adaptiveScreenshotsSkipScreenshotsInCurrentStep()) {
             take(OPTIONAL_SCREENSHOT);
         }
     }
@@ -729,6 +793,13 @@ public class BaseStepListener implements StepListener, StepPublisher {
         take(MANDATORY_SCREENSHOT);
     }
 
+    /**
+     * Take a screenshot now, showing only the given web element.
+     */
+    public void takeScreenshotOf(final WebElement element) {
+        take(MANDATORY_SCREENSHOT, Optional.of(element));
+    }
+
     int currentExample = 0;
 
     /**
@@ -9,6 +9,7 @@ import net.thucydides.core.guice.Injectors;
 import net.thucydides.core.model.*;
 import net.thucydides.core.screenshots.ScreenshotProcessor;
 import net.thucydides.core.webdriver.ThucydidesWebDriverSupport;
+import org.openqa.selenium.WebElement;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -459,6 +460,15 @@ public class StepEventBus {
         getBaseStepListener().updateCurrentStepTitle(stepTitle);
     }
 
+    /**
+     * Record how long the current test's browser took to start, separately from the test duration.
+     */
+    public void recordBrowserStartupTime(long startupTime) {
+        if (baseStepListener != null) {
+            baseStepListener.recordBrowserStartupTime(startupTime);
+        }
+    }
+
     public void addIssuesToCurrentStory(List<String> issues) {
         getBaseStepListener().addIssuesToCurrentStory(issues);
     }
@@ -507,6 +517,13 @@ public class StepEventBus {
         getBaseStepListener().takeScreenshot();
     }
 
+    /**
+     * Forces Thucydides to take a screenshot of the given web element now.
+     */
+    public void takeScreenshotOf(final WebElement element) {
+        getBaseStepListener().takeScreenshotOf(element);
+    }
+
     public boolean testSuiteHasStarted() {
         return getBaseStepListener().testSuiteRunning();
     }
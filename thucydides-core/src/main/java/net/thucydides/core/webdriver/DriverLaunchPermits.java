@@ -0,0 +1,66 @@
+package net.thucydides.core.webdriver;
+
+import com.google.inject.Inject;
+import net.thucydides.core.ThucydidesSystemProperty;
+import net.thucydides.core.util.EnvironmentVariables;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Limits how many browsers of a given type can be started at the same time.
+ * Browsers are started in parallel without any limit unless thucydides.driver.launch.permits
+ * (or thucydides.driver.launch.permits.&lt;driver&gt; for a particular type of browser) is set to a positive value.
+ */
+public class DriverLaunchPermits {
+
+    private final EnvironmentVariables environmentVariables;
+    private final ConcurrentMap<String, Semaphore> permits = new ConcurrentHashMap<>();
+
+    @Inject
+    public DriverLaunchPermits(EnvironmentVariables environmentVariables) {
+        this.environmentVariables = environmentVariables;
+    }
+
+    /**
+     * Wait until a browser of the given type can be started.
+     * Each call must be matched by a call to release() once the browser has started.
+     */
+    public void acquire(String driverType) {
+        Semaphore launchPermits = permitsFor(driverType);
+        if (launchPermits != null) {
+            launchPermits.acquireUninterruptibly();
+        }
+    }
+
+    public void release(String driverType) {
+        Semaphore launchPermits = permitsFor(driverType);
+        if (launchPermits != null) {
+            launchPermits.release();
+        }
+    }
+
+    /**
+     * @return the maximum number of browsers of this type that can be started at the same time, or 0 if there is no limit.
+     */
+    public int getMaximumLaunchesFor(String driverType) {
+        int defaultPermits = environmentVariables.getPropertyAsInteger(ThucydidesSystemProperty.THUCYDIDES_DRIVER_LAUNCH_PERMITS, 0);
+        return Math.max(0, environmentVariables.getPropertyAsInteger(
+                ThucydidesSystemProperty.THUCYDIDES_DRIVER_LAUNCH_PERMITS.getPropertyName() + "." + driverType,
+                defaultPermits));
+    }
+
+    private Semaphore permitsFor(String driverType) {
+        Semaphore launchPermits = permits.get(driverType);
+        if (launchPermits == null) {
+            int maximumLaunches = getMaximumLaunchesFor(driverType);
+            if (maximumLaunches == 0) {
+                return null;
+            }
+            permits.putIfAbsent(driverType, new Semaphore(maximumLaunches, true));
+            launchPermits = permits.get(driverType);
+        }
+        return launchPermits;
+    }
+}
@@ -53,6 +53,11 @@ public class ThucydidesWebdriverManager implements WebdriverManager {
         return WebdriverProxyFactory.getFactory().proxyFor(webDriverType, webDriverFactory);
     }
 
+    public void prewarmWebdriver(final String driver) {
+        SupportedWebDriver supportedDriverType = getConfiguredWebDriverWithOverride(configuration, driver);
+        webDriverFactory.prewarmWebdriverInstance(webDriverFactory.getClassFor(supportedDriverType));
+    }
+
     private static SupportedWebDriver getConfiguredWebDriverWithOverride(final Configuration configuration,
                                                                          final String driver) {
         if (StringUtils.isEmpty(driver)) {
@@ -1,6 +1,7 @@
 package net.thucydides.core.webdriver;
 
 import com.gargoylesoftware.htmlunit.ScriptException;
+import com.google.common.base.Optional;
 import net.thucydides.core.steps.StepEventBus;
 import net.thucydides.core.webdriver.stubs.NavigationStub;
 import net.thucydides.core.webdriver.stubs.OptionsStub;
@@ -18,6 +19,7 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * A proxy class for webdriver instances, designed to prevent the browser being opened unnecessarily.
@@ -30,6 +32,8 @@ public class WebDriverFacade implements WebDriver, TakesScreenshot, HasInputDevi
 
     protected WebDriver proxiedWebDriver;
 
+    private final AtomicLong navigationCount = new AtomicLong();
+
     private static final Logger LOGGER = LoggerFactory.getLogger(WebDriverFacade.class);
 
     public WebDriverFacade(final Class<? extends WebDriver> driverClass,
@@ -55,6 +59,7 @@ public class WebDriverFacade implements WebDriver, TakesScreenshot, HasInputDevi
     }
 
     public void reset() {
+        navigationCount.incrementAndGet();
         if (proxiedWebDriver != null) {
             forcedQuit();
         }
@@ -78,7 +83,15 @@ public class WebDriverFacade implements WebDriver, TakesScreenshot, HasInputDevi
     private WebDriver newDriverInstance() {
         try {
             webDriverFactory.setupFixtureServices();
-            return webDriverFactory.newWebdriverInstance(driverClass);
+            Optional<WebDriverPrewarmer.StartedDriver> warmDriver = webDriverFactory.takeWarmWebdriverInstance(driverClass);
+            if (warmDriver.isPresent()) {
+                StepEventBus.getEventBus().recordBrowserStartupTime(warmDriver.get().getStartupTime());
+                return warmDriver.get().getDriver();
+            }
+            long startTime = System.currentTimeMillis();
+            WebDriver driver = webDriverFactory.newWebdriverInstance(driverClass);
+            StepEventBus.getEventBus().recordBrowserStartupTime(System.currentTimeMillis() - startTime);
+            return driver;
         } catch (UnsupportedDriverException e) {
             LOGGER.error("FAILED TO CREATE NEW WEBDRIVER_DRIVER INSTANCE " + driverClass + ": " + e.getMessage(), e);
             throw new UnsupportedDriverException("Could not instantiate " + driverClass, e);
@@ -105,6 +118,7 @@ public class WebDriverFacade implements WebDriver, TakesScreenshot, HasInputDevi
     }
 
     public void get(final String url) {
+        navigationCount.incrementAndGet();
         if (!isEnabled()) {
             return;
         }
@@ -186,10 +200,15 @@ public class WebDriverFacade implements WebDriver, TakesScreenshot, HasInputDevi
         }
     }
 
+    /**
+     * The driver is handed back to the driver factory, which closes it, or keeps it for another test
+     * if driver pooling is active.
+     */
     public void quit() {
+        navigationCount.incrementAndGet();
         if (proxyInstanciated()) {
             try {
-                getDriverInstance().quit();
+                webDriverFactory.releaseWebdriverInstance(driverClass, getDriverInstance());
             } catch (WebDriverException e) {
                 LOGGER.warn("Error while quitting the driver (" + e.getMessage() + ")");
             }
@@ -197,6 +216,14 @@ public class WebDriverFacade implements WebDriver, TakesScreenshot, HasInputDevi
         }
     }
 
+    /**
+     * Incremented whenever the browser may have moved to another page, window or frame through this driver,
+     * so that elements found on the previous page are not reused.
+     */
+    public long getNavigationCount() {
+        return navigationCount.get();
+    }
+
     protected boolean proxyInstanciated() {
         return (getDriverInstance() != null);
     }
@@ -218,6 +245,7 @@ public class WebDriverFacade implements WebDriver, TakesScreenshot, HasInputDevi
     }
 
     public TargetLocator switchTo() {
+        navigationCount.incrementAndGet();
         if (!isEnabled()) {
             return new TargetLocatorStub(this);
         }
@@ -226,6 +254,7 @@ public class WebDriverFacade implements WebDriver, TakesScreenshot, HasInputDevi
     }
 
     public Navigation navigate() {
+        navigationCount.incrementAndGet();
         if (!isEnabled()) {
             return new NavigationStub();
         }
@@ -1,6 +1,12 @@
 package net.thucydides.core.webdriver;
 
+import com.google.common.base.Joiner;
+import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import net.thucydides.core.Thucydides;
 import net.thucydides.core.ThucydidesSystemProperty;
 import net.thucydides.core.fixtureservices.FixtureException;
@@ -60,7 +66,6 @@ public class WebDriverFactory {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(WebDriverFactory.class);
 
-    private ProfilesIni allProfiles;
     private static final int DEFAULT_HEIGHT = ThucydidesSystemProperty.DEFAULT_HEIGHT;
     private static final int DEFAULT_WIDTH = ThucydidesSystemProperty.DEFAULT_WIDTH;
 
@@ -70,6 +75,11 @@ public class WebDriverFactory {
     private final ElementProxyCreator proxyCreator;
     private final BrowserStackRemoteDriverCapabilities browserStackRemoteDriverCapabilities;
     private final SauceRemoteDriverCapabilities sauceRemoteDriverCapabilities;
+    private final WebDriverPool driverPool;
+    private final DriverLaunchPermits launchPermits;
+    private final WebDriverPrewarmer prewarmer;
+    private final Supplier<Map<String, Object>> extraCapabilities;
+    private final Supplier<List<String>> chromeArguments;
 
     private final Integer EXTRA_TIME_TO_TAKE_SCREENSHOTS = 180;
 
@@ -109,6 +119,39 @@ public class WebDriverFactory {
                             FirefoxProfileEnhancer firefoxProfileEnhancer,
                             FixtureProviderService fixtureProviderService,
                             ElementProxyCreator proxyCreator) {
+        this(webdriverInstanceFactory, environmentVariables, firefoxProfileEnhancer, fixtureProviderService, proxyCreator,
+             Injectors.getInjector().getInstance(WebDriverPool.class));
+    }
+
+    public WebDriverFactory(WebdriverInstanceFactory webdriverInstanceFactory,
+                            EnvironmentVariables environmentVariables,
+                            FirefoxProfileEnhancer firefoxProfileEnhancer,
+                            FixtureProviderService fixtureProviderService,
+                            ElementProxyCreator proxyCreator,
+                            WebDriverPool driverPool) {
+        this(webdriverInstanceFactory, environmentVariables, firefoxProfileEnhancer, fixtureProviderService, proxyCreator,
+             driverPool, Injectors.getInjector().getInstance(DriverLaunchPermits.class));
+    }
+
+    public WebDriverFactory(WebdriverInstanceFactory webdriverInstanceFactory,
+                            EnvironmentVariables environmentVariables,
+                            FirefoxProfileEnhancer firefoxProfileEnhancer,
+                            FixtureProviderService fixtureProviderService,
+                            ElementProxyCreator proxyCreator,
+                            WebDriverPool driverPool,
+                            DriverLaunchPermits launchPermits) {
+        this(webdriverInstanceFactory, environmentVariables, firefoxProfileEnhancer, fixtureProviderService, proxyCreator,
+             driverPool, launchPermits, Injectors.getInjector().getInstance(WebDriverPrewarmer.class));
+    }
+
+    public WebDriverFactory(WebdriverInstanceFactory webdriverInstanceFactory,
+                            EnvironmentVariables environmentVariables,
+                            FirefoxProfileEnhancer firefoxProfileEnhancer,
+                            FixtureProviderService fixtureProviderService,
+                            ElementProxyCreator proxyCreator,
+                            WebDriverPool driverPool,
+                            DriverLaunchPermits launchPermits,
+                            WebDriverPrewarmer prewarmer) {
         this.webdriverInstanceFactory = webdriverInstanceFactory;
         this.environmentVariables = environmentVariables;
         this.firefoxProfileEnhancer = firefoxProfileEnhancer;
@@ -116,13 +159,33 @@ public class WebDriverFactory {
         this.proxyCreator = proxyCreator;
         this.browserStackRemoteDriverCapabilities = new BrowserStackRemoteDriverCapabilities(environmentVariables);
         this.sauceRemoteDriverCapabilities = new SauceRemoteDriverCapabilities(environmentVariables);
+        this.driverPool = driverPool;
+        this.launchPermits = launchPermits;
+        this.prewarmer = prewarmer;
+        this.extraCapabilities = Suppliers.memoize(new Supplier<Map<String, Object>>() {
+            @Override
+            public Map<String, Object> get() {
+                return ImmutableMap.copyOf(new CapabilitySet(WebDriverFactory.this.environmentVariables).getCapabilities());
+            }
+        });
+        this.chromeArguments = Suppliers.memoize(new Supplier<List<String>>() {
+            @Override
+            public List<String> get() {
+                return chromeArgumentsFrom(WebDriverFactory.this.environmentVariables.getProperty(ThucydidesSystemProperty.CHROME_SWITCHES));
+            }
+        });
+    }
+
+    /**
+     * Reading the Firefox profiles.ini file means scanning the user's Firefox profile directories,
+     * so it is only done once, and shared by all the drivers that are created.
+     */
+    private static class AllProfiles {
+        private static final ProfilesIni INSTANCE = new ProfilesIni();
     }
 
     protected ProfilesIni getAllProfiles() {
-        if (allProfiles == null) {
-            allProfiles = new ProfilesIni();
-        }
-        return allProfiles;
+        return AllProfiles.INSTANCE;
     }
 
     /**
@@ -152,45 +215,135 @@ public class WebDriverFactory {
     }
     
     /**
-     * This method is synchronized because multiple webdriver instances can be created in parallel.
-     * However, they may use common system resources such as ports, so may potentially interfere
-     * with each other.
+     * Drivers can be created in parallel. Browsers of the same type may compete for common system resources
+     * such as ports, so the number of browsers of each type that start at the same time can be limited
+     * using the thucydides.driver.launch.permits properties.
      *
      * @param driverClass
      */
-    protected synchronized WebDriver newWebdriverInstance(final Class<? extends WebDriver> driverClass) {
+    protected WebDriver newWebdriverInstance(final Class<? extends WebDriver> driverClass) {
+        if (canBePooled(driverClass)) {
+            Optional<WebDriver> pooledDriver = driverPool.borrowDriverFor(driverPoolKeyFor(driverClass));
+            if (pooledDriver.isPresent()) {
+                return pooledDriver.get();
+            }
+        }
         try {
-            WebDriver driver;
-            if (isARemoteDriver(driverClass) || shouldUseARemoteDriver() || saucelabsUrlIsDefined() || browserStackUrlIsDefined()) {
-            	driver = newRemoteDriver();
+            WebDriver driver = launchDriverFor(driverClass);
+            setImplicitTimeoutsIfSpecified(driver);
+            redimensionBrowser(driver);
+
+            activateJavascriptSupportFor(driver);
+            return driver;
+        } catch (Exception cause) {
+            throw new UnsupportedDriverException("Could not instantiate " + driverClass, cause);
+        }
+    }
+
+    /**
+     * Start a driver of this type in the background, if pre-warming is active, so that it is ready when a test needs it.
+     * Drivers are not pre-warmed when fixture services are used, as the fixture services need to be set up
+     * before the driver is created.
+     */
+    public void prewarmWebdriverInstance(final Class<? extends WebDriver> driverClass) {
+        if (fixtureProviderService.getFixtureServices().isEmpty()) {
+            prewarmer.prewarm(this, driverClass);
+        }
+    }
+
+    /**
+     * Take a pre-warmed driver of this type, waiting for it to start if need be.
+     */
+    public Optional<WebDriverPrewarmer.StartedDriver> takeWarmWebdriverInstance(final Class<? extends WebDriver> driverClass) {
+        return prewarmer.takeWarmDriverFor(this, driverClass);
+    }
+
+    private WebDriver launchDriverFor(final Class<? extends WebDriver> driverClass) throws Exception {
+        String driverType = driverTypeNameFor(driverClass);
+        launchPermits.acquire(driverType);
+        try {
+            if (usesARemoteDriverFor(driverClass)) {
+                return newRemoteDriver();
             } else if (isAFirefoxDriver(driverClass)) {
-                driver = firefoxDriver();
+                return firefoxDriver();
             } else if (isAnHtmlUnitDriver(driverClass)) {
-                driver = htmlunitDriver();
+                return htmlunitDriver();
             } else if (isAPhantomJSDriver(driverClass)) {
                 setPhantomJSPathIfNotSet();
-                driver = phantomJSDriver();
+                return phantomJSDriver();
             } else if (isAChromeDriver(driverClass)) {
-                driver = chromeDriver();
+                return chromeDriver();
             } else if (isASafariDriver(driverClass)) {
-                driver = safariDriver();
+                return safariDriver();
             } else if (isAnInternetExplorerDriver(driverClass)) {
-                driver = internetExplorerDriver();
+                return internetExplorerDriver();
             } else if (isAProvidedDriver(driverClass)) {
-                driver = providedDriver();
+                return providedDriver();
             } else {
-                driver = newDriverInstanceFrom(driverClass);
+                return newDriverInstanceFrom(driverClass);
             }
-            setImplicitTimeoutsIfSpecified(driver);
-            redimensionBrowser(driver);
+        } finally {
+            launchPermits.release(driverType);
+        }
+    }
 
-            activateJavascriptSupportFor(driver);
-            return driver;
-        } catch (Exception cause) {
-            throw new UnsupportedDriverException("Could not instantiate " + driverClass, cause);
+    private boolean usesARemoteDriverFor(Class<? extends WebDriver> driverClass) {
+        return isARemoteDriver(driverClass) || shouldUseARemoteDriver() || saucelabsUrlIsDefined() || browserStackUrlIsDefined();
+    }
+
+    /**
+     * The name used to limit how many browsers of this type can start at the same time, e.g. "firefox" or "remote".
+     */
+    protected String driverTypeNameFor(Class<? extends WebDriver> driverClass) {
+        if (usesARemoteDriverFor(driverClass)) {
+            return SupportedWebDriver.REMOTE.name().toLowerCase();
+        }
+        for (SupportedWebDriver supportedDriver : SupportedWebDriver.values()) {
+            if (supportedDriver.getWebdriverClass().isAssignableFrom(driverClass)) {
+                return supportedDriver.name().toLowerCase();
+            }
+        }
+        return driverClass.getSimpleName().toLowerCase();
+    }
+
+    /**
+     * Close a driver that a test has finished with, or keep it in the driver pool if driver pooling is active.
+     */
+    public void releaseWebdriverInstance(final Class<? extends WebDriver> driverClass, final WebDriver driver) {
+        if (canBePooled(driverClass)) {
+            driverPool.release(driverPoolKeyFor(driverClass), driver);
+        } else {
+            driver.quit();
         }
     }
 
+    /**
+     * Provided drivers are created and managed by the project's own driver source, so they are never pooled.
+     */
+    private boolean canBePooled(Class<? extends WebDriver> driverClass) {
+        return driverPool.isEnabled() && !isAProvidedDriver(driverClass);
+    }
+
+    /**
+     * Pooled drivers can only be reused by tests that would have created the same type of driver
+     * with the same capabilities.
+     */
+    protected String driverPoolKeyFor(Class<? extends WebDriver> driverClass) {
+        return Joiner.on("|").useForNull("").join(driverClass.getName(),
+                ThucydidesSystemProperty.WEBDRIVER_REMOTE_URL.from(environmentVariables),
+                ThucydidesSystemProperty.WEBDRIVER_REMOTE_DRIVER.from(environmentVariables),
+                ThucydidesSystemProperty.WEBDRIVER_REMOTE_OS.from(environmentVariables),
+                ThucydidesSystemProperty.WEBDRIVER_REMOTE_BROWSER_VERSION.from(environmentVariables),
+                sauceRemoteDriverCapabilities.getUrl(),
+                browserStackRemoteDriverCapabilities.getUrl(),
+                extraCapabilities.get(),
+                ThucydidesSystemProperty.CHROME_SWITCHES.from(environmentVariables),
+                ThucydidesSystemProperty.WEBDRIVER_FIREFOX_PROFILE.from(environmentVariables),
+                ThucydidesSystemProperty.THUCYDIDES_BROWSER_WIDTH.from(environmentVariables),
+                ThucydidesSystemProperty.THUCYDIDES_BROWSER_HEIGHT.from(environmentVariables),
+                ThucydidesSystemProperty.THUCYDIDES_PROXY_HTTP.from(environmentVariables));
+    }
+
     // IntelliJ in Mac OS X does not pick up environment variables. So to get PhantomJS working in IDE mode for the
     // Thucydides tests, add the 'phantomjs.binary.path' property into a thucydides.properties file in your home directory.
     private void setPhantomJSPathIfNotSet() {
@@ -425,10 +578,8 @@ public class WebDriverFactory {
     }
 
     private DesiredCapabilities addExtraCatabilitiesTo(DesiredCapabilities capabilities) {
-        CapabilitySet capabilitySet = new CapabilitySet(environmentVariables);
-        Map<String, Object> extraCapabilities = capabilitySet.getCapabilities();
-        for(String capabilityName : extraCapabilities.keySet()) {
-            capabilities.setCapability(capabilityName, extraCapabilities.get(capabilityName));
+        for(Map.Entry<String, Object> extraCapability : extraCapabilities.get().entrySet()) {
+            capabilities.setCapability(extraCapability.getKey(), extraCapability.getValue());
         }
         addCapabilitiesFromFixtureServicesTo(capabilities);
         return capabilities;
@@ -489,19 +640,24 @@ public class WebDriverFactory {
     private DesiredCapabilities chromeCapabilities() {
         DesiredCapabilities capabilities = DesiredCapabilities.chrome();
         String chromeSwitches = environmentVariables.getProperty(ThucydidesSystemProperty.CHROME_SWITCHES);
-        capabilities.setCapability(ChromeOptions.CAPABILITY, optionsFromSwitches(chromeSwitches));
+        capabilities.setCapability(ChromeOptions.CAPABILITY, chromeOptions());
         capabilities.setCapability("chrome.switches", chromeSwitches);
         return capabilities;
     }
 
-    private ChromeOptions optionsFromSwitches(String chromeSwitches) {
+    private ChromeOptions chromeOptions() {
         ChromeOptions options = new ChromeOptions();
-        options.addArguments("test-type");
+        options.addArguments(chromeArguments.get());
+        return options;
+    }
+
+    private static List<String> chromeArgumentsFrom(String chromeSwitches) {
+        ImmutableList.Builder<String> arguments = ImmutableList.builder();
+        arguments.add("test-type");
         if (StringUtils.isNotEmpty(chromeSwitches)) {
-            List<String> arguments = new OptionsSplitter().split(chromeSwitches);
-            options.addArguments(arguments);
+            arguments.addAll(new OptionsSplitter().split(chromeSwitches));
         }
-        return options;
+        return arguments.build();
     }
 
     private WebDriver safariDriver() throws InvocationTargetException, NoSuchMethodException, InstantiationException, IllegalAccessException {
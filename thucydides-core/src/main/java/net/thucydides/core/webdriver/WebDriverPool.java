@@ -0,0 +1,233 @@
+package net.thucydides.core.webdriver;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.inject.Inject;
+import net.thucydides.core.ThucydidesSystemProperty;
+import net.thucydides.core.util.EnvironmentVariables;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps browsers open once a test class has finished with them, so that the next test class that needs the same
+ * type of browser (with the same capabilities) does not have to wait for a new one to start.
+ * Activated by setting thucydides.driver.pool to true.
+ * A browser is reset when it is returned to the pool: extra windows are closed, the cookies and web storage of the
+ * page that is open are cleared, and it is left on a blank page. WebDriver can only reach the cookies and storage of
+ * the current origin, so those set by other sites visited during the test class, along with the browser cache,
+ * history and IndexedDB data, are kept: only pool browsers for test classes that do not depend on a clean profile.
+ * Browsers that cannot be reset, that no longer respond when they are next needed,
+ * that have been used thucydides.driver.pool.max.reuse times, or that have been idle for longer than
+ * thucydides.driver.pool.idle.timeout seconds are closed rather than reused.
+ * Idle browsers are closed when the JVM shuts down.
+ */
+public class WebDriverPool {
+
+    private static final int DEFAULT_MAXIMUM_REUSE = 50;
+    private static final int DEFAULT_IDLE_TIMEOUT_IN_SECONDS = 300;
+
+    private static final String CLEAR_WEB_STORAGE
+            = "try { window.localStorage.clear(); window.sessionStorage.clear(); } catch (e) {}";
+
+    private final boolean enabled;
+    private final int maximumReuse;
+    private final long idleTimeoutInMilliseconds;
+
+    private final Map<String, Deque<IdleDriver>> idleDrivers = Maps.newHashMap();
+    private final Map<WebDriver, Integer> useCounts = new IdentityHashMap<>();
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(WebDriverPool.class);
+
+    @Inject
+    public WebDriverPool(EnvironmentVariables environmentVariables) {
+        this.enabled = environmentVariables.getPropertyAsBoolean(ThucydidesSystemProperty.THUCYDIDES_DRIVER_POOL, false);
+        this.maximumReuse = environmentVariables.getPropertyAsInteger(ThucydidesSystemProperty.THUCYDIDES_DRIVER_POOL_MAX_REUSE,
+                                                                      DEFAULT_MAXIMUM_REUSE);
+        this.idleTimeoutInMilliseconds = 1000L * environmentVariables.getPropertyAsInteger(
+                ThucydidesSystemProperty.THUCYDIDES_DRIVER_POOL_IDLE_TIMEOUT, DEFAULT_IDLE_TIMEOUT_IN_SECONDS);
+        if (enabled) {
+            Runtime.getRuntime().addShutdownHook(new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    closeIdleDrivers();
+                }
+            }, "thucydides-driver-pool-shutdown"));
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Find an idle browser of the given type that still responds.
+     *
+     * @param driverKey identifies the type of browser and the capabilities it was created with.
+     */
+    public Optional<WebDriver> borrowDriverFor(String driverKey) {
+        if (!enabled) {
+            return Optional.absent();
+        }
+        closeExpiredDrivers();
+        Optional<WebDriver> idleDriver = takeIdleDriverFor(driverKey);
+        while (idleDriver.isPresent()) {
+            if (isHealthy(idleDriver.get())) {
+                return idleDriver;
+            }
+            LOGGER.debug("Discarding a pooled browser that no longer responds");
+            forget(idleDriver.get());
+            quitQuietly(idleDriver.get());
+            idleDriver = takeIdleDriverFor(driverKey);
+        }
+        return Optional.absent();
+    }
+
+    /**
+     * Reset a browser that a test has finished with, and keep it for the next test that needs the same type of browser.
+     * The browser is closed instead if it cannot be reused.
+     */
+    public void release(String driverKey, WebDriver driver) {
+        int useCount = recordUseOf(driver);
+        if (!enabled || useCount >= maximumReuse || !reset(driver)) {
+            forget(driver);
+            quitQuietly(driver);
+        } else {
+            synchronized (this) {
+                if (!idleDrivers.containsKey(driverKey)) {
+                    idleDrivers.put(driverKey, new ArrayDeque<IdleDriver>());
+                }
+                idleDrivers.get(driverKey).push(new IdleDriver(driver, currentTime()));
+            }
+        }
+        closeExpiredDrivers();
+    }
+
+    public synchronized int getIdleDriverCount() {
+        int idleDriverCount = 0;
+        for (Deque<IdleDriver> drivers : idleDrivers.values()) {
+            idleDriverCount += drivers.size();
+        }
+        return idleDriverCount;
+    }
+
+    public void closeIdleDrivers() {
+        for (WebDriver driver : removeIdleDrivers(0)) {
+            forget(driver);
+            quitQuietly(driver);
+        }
+    }
+
+    protected long currentTime() {
+        return System.currentTimeMillis();
+    }
+
+    private synchronized Optional<WebDriver> takeIdleDriverFor(String driverKey) {
+        Deque<IdleDriver> drivers = idleDrivers.get(driverKey);
+        if (drivers == null || drivers.isEmpty()) {
+            return Optional.absent();
+        }
+        return Optional.of(drivers.pop().driver);
+    }
+
+    private synchronized int recordUseOf(WebDriver driver) {
+        int useCount = (useCounts.containsKey(driver) ? useCounts.get(driver) : 0) + 1;
+        useCounts.put(driver, useCount);
+        return useCount;
+    }
+
+    private synchronized void forget(WebDriver driver) {
+        useCounts.remove(driver);
+    }
+
+    private void closeExpiredDrivers() {
+        for (WebDriver expiredDriver : removeIdleDrivers(idleTimeoutInMilliseconds)) {
+            LOGGER.debug("Closing a pooled browser that has been idle for too long");
+            forget(expiredDriver);
+            quitQuietly(expiredDriver);
+        }
+    }
+
+    private synchronized List<WebDriver> removeIdleDrivers(long idleForAtLeast) {
+        List<WebDriver> removedDrivers = Lists.newArrayList();
+        long now = currentTime();
+        for (Deque<IdleDriver> drivers : idleDrivers.values()) {
+            Iterator<IdleDriver> iterator = drivers.iterator();
+            while (iterator.hasNext()) {
+                IdleDriver idleDriver = iterator.next();
+                if (now - idleDriver.idleSince >= idleForAtLeast) {
+                    removedDrivers.add(idleDriver.driver);
+                    iterator.remove();
+                }
+            }
+        }
+        return removedDrivers;
+    }
+
+    private boolean isHealthy(WebDriver driver) {
+        try {
+            return !driver.getWindowHandles().isEmpty();
+        } catch (Throwable unresponsiveBrowser) {
+            return false;
+        }
+    }
+
+    /**
+     * Cookies and web storage are only cleared for the origin of the page that is open, so storage is cleared
+     * before leaving the page.
+     */
+    private boolean reset(WebDriver driver) {
+        try {
+            closeExtraWindowsOf(driver);
+            if (driver instanceof JavascriptExecutor) {
+                ((JavascriptExecutor) driver).executeScript(CLEAR_WEB_STORAGE);
+            }
+            driver.manage().deleteAllCookies();
+            driver.get("about:blank");
+            return true;
+        } catch (Throwable e) {
+            LOGGER.debug("Could not reset the browser for reuse: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private void closeExtraWindowsOf(WebDriver driver) {
+        List<String> windowHandles = Lists.newArrayList(driver.getWindowHandles());
+        if (windowHandles.size() > 1) {
+            for (String extraWindow : windowHandles.subList(1, windowHandles.size())) {
+                driver.switchTo().window(extraWindow);
+                driver.close();
+            }
+        }
+        if (!windowHandles.isEmpty()) {
+            driver.switchTo().window(windowHandles.get(0));
+        }
+    }
+
+    private void quitQuietly(WebDriver driver) {
+        try {
+            driver.quit();
+        } catch (Throwable e) {
+            LOGGER.debug("Error while closing a pooled browser: " + e.getMessage());
+        }
+    }
+
+    private static class IdleDriver {
+        private final WebDriver driver;
+        private final long idleSince;
+
+        private IdleDriver(WebDriver driver, long idleSince) {
+            this.driver = driver;
+            this.idleSince = idleSince;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package net.thucydides.core.webdriver;
+
+import com.google.common.base.Optional;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.inject.Inject;
+import net.thucydides.core.ThucydidesSystemProperty;
+import net.thucydides.core.util.EnvironmentVariables;
+import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.collect.Lists.newArrayList;
+
+/**
+ * Starts browsers in the background before the tests need them, if thucydides.driver.prewarm is set.
+ * A test runner asks for its browser to be pre-warmed when it is created, and the browser is handed over
+ * the first time the test uses its driver, so that the test does not have to wait for the browser to start.
+ * Only one browser is pre-warmed at a time for each type of browser (with the same capabilities).
+ * Browsers that were pre-warmed but never used are closed when the JVM shuts down.
+ */
+public class WebDriverPrewarmer {
+
+    private static final int SHUTDOWN_TIMEOUT_IN_SECONDS = 30;
+
+    private final boolean enabled;
+    private final ConcurrentMap<String, Future<StartedDriver>> warmDrivers = new ConcurrentHashMap<>();
+    private final ExecutorService executorService;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(WebDriverPrewarmer.class);
+
+    @Inject
+    public WebDriverPrewarmer(EnvironmentVariables environmentVariables) {
+        this.enabled = environmentVariables.getPropertyAsBoolean(ThucydidesSystemProperty.THUCYDIDES_DRIVER_PREWARM, false);
+        this.executorService = Executors.newCachedThreadPool(
+                new ThreadFactoryBuilder().setNameFormat("thucydides-driver-prewarm-%d").setDaemon(true).build());
+        if (enabled) {
+            Runtime.getRuntime().addShutdownHook(new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    closeWarmDrivers();
+                }
+            }, "thucydides-driver-prewarm-shutdown"));
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Start a browser of the given type in the background, unless one is already starting or waiting to be used.
+     * Provided drivers are never pre-warmed, as they are created by the project's own driver source.
+     */
+    public void prewarm(final WebDriverFactory webDriverFactory, final Class<? extends WebDriver> driverClass) {
+        if (!enabled || ProvidedDriver.class.isAssignableFrom(driverClass)) {
+            return;
+        }
+        FutureTask<StartedDriver> warmDriver = new FutureTask<>(new Callable<StartedDriver>() {
+            @Override
+            public StartedDriver call() throws Exception {
+                long startTime = System.currentTimeMillis();
+                WebDriver driver = webDriverFactory.newWebdriverInstance(driverClass);
+                return new StartedDriver(driver, System.currentTimeMillis() - startTime);
+            }
+        });
+        if (warmDrivers.putIfAbsent(webDriverFactory.driverPoolKeyFor(driverClass), warmDriver) == null) {
+            executorService.execute(warmDriver);
+        }
+    }
+
+    /**
+     * Take the pre-warmed browser of the given type, waiting for it to finish starting if need be.
+     * Absent if no browser of this type was pre-warmed, or if the browser could not be started.
+     */
+    public Optional<StartedDriver> takeWarmDriverFor(WebDriverFactory webDriverFactory,
+                                                     Class<? extends WebDriver> driverClass) {
+        if (!enabled) {
+            return Optional.absent();
+        }
+        Future<StartedDriver> warmDriver = warmDrivers.remove(webDriverFactory.driverPoolKeyFor(driverClass));
+        if (warmDriver == null) {
+            return Optional.absent();
+        }
+        try {
+            return Optional.of(warmDriver.get());
+        } catch (ExecutionException e) {
+            LOGGER.warn("Could not pre-warm a browser for " + driverClass + ": " + e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            closeInTheBackground(warmDriver);
+        }
+        return Optional.absent();
+    }
+
+    public void closeWarmDrivers() {
+        List<Future<StartedDriver>> unusedDrivers = newArrayList(warmDrivers.values());
+        warmDrivers.clear();
+        for (Future<StartedDriver> unusedDriver : unusedDrivers) {
+            closeWhenStarted(unusedDriver);
+        }
+    }
+
+    private void closeInTheBackground(final Future<StartedDriver> warmDriver) {
+        executorService.submit(new Runnable() {
+            @Override
+            public void run() {
+                closeWhenStarted(warmDriver);
+            }
+        });
+    }
+
+    private void closeWhenStarted(final Future<StartedDriver> warmDriver) {
+        try {
+            warmDriver.get(SHUTDOWN_TIMEOUT_IN_SECONDS, TimeUnit.SECONDS).getDriver().quit();
+        } catch (Throwable e) {
+            LOGGER.debug("Error while closing a pre-warmed browser: " + e.getMessage());
+        }
+    }
+
+    /**
+     * A browser, and the time (in milliseconds) it took to start.
+     */
+    public static class StartedDriver {
+        private final WebDriver driver;
+        private final long startupTime;
+
+        public StartedDriver(WebDriver driver, long startupTime) {
+            this.driver = driver;
+            this.startupTime = startupTime;
+        }
+
+        public WebDriver getDriver() {
+            return driver;
+        }
+
+        public long getStartupTime() {
+            return startupTime;
+        }
+    }
+}
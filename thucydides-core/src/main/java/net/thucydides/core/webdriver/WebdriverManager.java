@@ -17,6 +17,11 @@ public interface WebdriverManager {
 
     WebDriver getWebdriver(final String driver);
 
+    /**
+     * Start the named driver (or the default driver) in the background, if browser pre-warming is active.
+     */
+    void prewarmWebdriver(final String driver);
+
     SessionId getSessionId();
 
     void closeDriver();
@@ -0,0 +1,126 @@
+package net.thucydides.core.model
+
+import spock.lang.Specification
+
+import static net.thucydides.core.model.TestResult.*
+
+class WhenDerivingTestOutcomeResults extends Specification {
+
+    class SomeTest {}
+
+    def outcome = TestOutcome.forTest("someTest", SomeTest)
+
+    def "should only work out the step lists once if the steps have not changed"() {
+        given:
+            outcome.recordStep(TestStep.forStepCalled("step 1").withResult(SUCCESS))
+            outcome.recordStep(TestStep.forStepCalled("step 2").withResult(SUCCESS))
+        expect:
+            outcome.flattenedTestSteps.is(outcome.flattenedTestSteps)
+            outcome.leafTestSteps.is(outcome.leafTestSteps)
+            outcome.testSteps.is(outcome.testSteps)
+    }
+
+    def "should take new steps into account"() {
+        given:
+            outcome.recordStep(TestStep.forStepCalled("step 1").withResult(SUCCESS))
+            assert outcome.result == SUCCESS && outcome.successCount == 1
+        when:
+            outcome.recordStep(TestStep.forStepCalled("step 2").withResult(FAILURE))
+        then:
+            outcome.result == FAILURE
+            outcome.successCount == 1
+            outcome.failureCount == 1
+            outcome.nestedStepCount == 2
+    }
+
+    def "should take changes to the results of existing steps into account"() {
+        given:
+            def step = TestStep.forStepCalled("step 1").withResult(SUCCESS)
+            outcome.recordStep(step)
+            assert outcome.result == SUCCESS
+        when:
+            step.setResult(ERROR)
+        then:
+            outcome.result == ERROR
+            outcome.errorCount == 1
+            outcome.successCount == 0
+    }
+
+    def "should take steps added to step groups into account"() {
+        given:
+            outcome.recordStep(TestStep.forStepCalled("group").withResult(SUCCESS))
+            outcome.startGroup()
+            outcome.recordStep(TestStep.forStepCalled("child 1").withResult(SUCCESS))
+            assert outcome.leafTestSteps.size() == 1
+        when:
+            outcome.recordStep(TestStep.forStepCalled("child 2").withResult(PENDING))
+            outcome.endGroup()
+        then:
+            outcome.leafTestSteps*.description == ["child 1", "child 2"]
+            outcome.flattenedTestSteps*.description == ["group", "child 1", "child 2"]
+            outcome.pendingCount == 1
+    }
+
+    def "should take failing steps added to nested step groups into account"() {
+        given:
+            def group = TestStep.forStepCalled("group").withResult(SUCCESS)
+            group.addChildStep(TestStep.forStepCalled("child").withResult(SUCCESS))
+            outcome.recordStep(group)
+            assert outcome.result == SUCCESS
+        when:
+            outcome.addFailingExternalStep(new AssertionError("oops"))
+        then:
+            outcome.flattenedTestSteps*.description == ["group", "child", "Failure"]
+            outcome.result == FAILURE
+    }
+
+    def "should not count reading the child steps of a step as a change"() {
+        given:
+            def group = TestStep.forStepCalled("group").withResult(SUCCESS)
+            group.addChildStep(TestStep.forStepCalled("child").withResult(SUCCESS))
+            outcome.recordStep(group)
+            def leafTestSteps = outcome.leafTestSteps
+        when:
+            group.children()
+        then:
+            outcome.leafTestSteps.is(leafTestSteps)
+    }
+
+    def "should keep the step lists when the steps of another outcome change"() {
+        given:
+            outcome.recordStep(TestStep.forStepCalled("step 1").withResult(SUCCESS))
+            def otherOutcome = TestOutcome.forTest("someOtherTest", SomeTest)
+            def otherStep = TestStep.forStepCalled("other step").withResult(SUCCESS)
+            otherOutcome.recordStep(otherStep)
+            def leafTestSteps = outcome.leafTestSteps
+        when:
+            otherStep.setResult(FAILURE)
+            otherOutcome.recordStep(TestStep.forStepCalled("another step").withResult(SUCCESS))
+        then:
+            outcome.leafTestSteps.is(leafTestSteps)
+            otherOutcome.result == FAILURE
+    }
+
+    def "should take changes to nested steps that were not added as child steps into account"() {
+        given:
+            def group = TestStep.forStepCalled("group").withResult(SUCCESS)
+            def child = TestStep.forStepCalled("child").withResult(SUCCESS)
+            group.@children << child
+            outcome.recordStep(group)
+            assert outcome.result == SUCCESS
+        when:
+            child.setResult(ERROR)
+        then:
+            outcome.result == ERROR
+    }
+
+    def "should take the failure class into account"() {
+        given:
+            outcome.recordStep(TestStep.forStepCalled("step 1").withResult(SUCCESS))
+            assert outcome.result == SUCCESS
+        when:
+            outcome.setTestFailureClassname(AssertionError.name)
+        then:
+            outcome.result == FAILURE
+    }
+}
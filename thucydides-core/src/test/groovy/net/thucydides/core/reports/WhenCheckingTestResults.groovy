@@ -0,0 +1,33 @@
+package net.thucydides.core.reports
+
+import spock.lang.Specification
+
+import static net.thucydides.core.util.TestResources.directoryInClasspathCalled
+
+class WhenCheckingTestResults extends Specification {
+
+    def "should report errors in the test outcomes"() {
+        when:
+            new ResultChecker(directoryInClasspathCalled("/test-outcomes/containing-errors")).checkTestResults()
+        then:
+            def error = thrown(TestOutcomesError)
+            error.message.contains("ERROR COUNT: ")
+    }
+
+    def "should report failures in the test outcomes"() {
+        when:
+            new ResultChecker(directoryInClasspathCalled("/test-outcomes/containing-failure")).checkTestResults()
+        then:
+            def failure = thrown(TestOutcomesFailures)
+            failure.message.contains("FAILURE COUNT: ")
+    }
+
+    def "should accept successful test outcomes in XML or JSON"() {
+        when:
+            new ResultChecker(directoryInClasspathCalled(outcomeDirectory)).checkTestResults()
+        then:
+            noExceptionThrown()
+        where:
+            outcomeDirectory << ["/test-outcomes/all-successful", "/test-outcomes/full-json"]
+    }
+}
@@ -0,0 +1,148 @@
+package net.thucydides.core.reports
+
+import net.thucydides.core.model.TestOutcome
+import net.thucydides.core.model.TestTag
+import spock.lang.Specification
+
+import static net.thucydides.core.util.TestResources.directoryInClasspathCalled
+
+class WhenIndexingTestOutcomeTags extends Specification {
+
+    def epic = TestTag.withName("An epic").andType("epic")
+    def feature = TestTag.withName("A feature").andType("feature")
+    def story = TestTag.withName("A story").andType("story")
+    def otherStory = TestTag.withName("Another story").andType("story")
+
+    def outcomeTaggedWith(String name, TestTag... tags) {
+        def outcome = new TestOutcome(name)
+        outcome.setTags(tags as Set)
+        return outcome
+    }
+
+    def "should find the outcomes with a given tag, name or type"() {
+        given:
+            def first = outcomeTaggedWith("first", epic, feature, story)
+            def second = outcomeTaggedWith("second", epic, otherStory)
+            def third = outcomeTaggedWith("third", feature)
+            def testOutcomes = TestOutcomes.of([first, second, third])
+        expect:
+            testOutcomes.withTag(story).outcomes == [first]
+            testOutcomes.withTag("AN EPIC").outcomes == [first, second]
+            testOutcomes.withTagType("feature").outcomes == [first, third]
+            testOutcomes.withTag("unknown tag").outcomes == []
+    }
+
+    def "should combine tag filters on derived outcomes"() {
+        given:
+            def first = outcomeTaggedWith("first", epic, feature, story)
+            def second = outcomeTaggedWith("second", epic, otherStory)
+            def third = outcomeTaggedWith("third", feature, otherStory)
+            def testOutcomes = TestOutcomes.of([first, second, third])
+        when:
+            def storiesInTheFeature = testOutcomes.withTag(feature).withTagType("story")
+        then:
+            storiesInTheFeature.outcomes == [first, third]
+            storiesInTheFeature.tags as Set == [epic, feature, story, otherStory] as Set
+            storiesInTheFeature.withTag(epic).outcomes == [first]
+            storiesInTheFeature.rootOutcomes == testOutcomes
+    }
+
+    def "should list the tags, tag names and tag types of a subset"() {
+        given:
+            def first = outcomeTaggedWith("first", epic, feature)
+            def second = outcomeTaggedWith("second", otherStory)
+            def testOutcomes = TestOutcomes.of([first, second])
+        when:
+            def epicOutcomes = testOutcomes.withTag(epic)
+        then:
+            epicOutcomes.tags as Set == [epic, feature] as Set
+            epicOutcomes.tagNames == ["a feature", "an epic"]
+            epicOutcomes.tagTypes == ["epic", "feature"]
+            epicOutcomes.containsTag(feature)
+            !epicOutcomes.containsTag(otherStory)
+    }
+
+    def "should find outcomes by issue number using an issue tag"() {
+        given:
+            def first = outcomeTaggedWith("first", feature)
+            first.addIssues(["ISSUE-1"])
+            def second = outcomeTaggedWith("second", feature, TestTag.withName("ISSUE-1").andType("issue"))
+            second.addIssues(["ISSUE-1"])
+            def third = outcomeTaggedWith("third", feature)
+            def testOutcomes = TestOutcomes.of([first, second, third])
+        when:
+            def outcomesForIssue = testOutcomes.withTag(TestTag.withValue("issue:ISSUE-1"))
+        then:
+            outcomesForIssue.outcomes == [first, second]
+    }
+
+    def "should see tags added to the outcomes after they were indexed"() {
+        given:
+            def first = outcomeTaggedWith("first", epic)
+            def second = outcomeTaggedWith("second", epic)
+            def testOutcomes = TestOutcomes.of([first, second])
+            def epicOutcomes = testOutcomes.withTag(epic)
+        when:
+            def release = TestTag.withName("Release 1").andType("version")
+            second.addTags([release])
+        then:
+            testOutcomes.withTag(release).outcomes == [second]
+            epicOutcomes.withTag(release).outcomes == [second]
+            epicOutcomes.tags as Set == [epic, release] as Set
+    }
+
+    def "should keep sharing the root index while no tags are actually added"() {
+        given:
+            def first = outcomeTaggedWith("first", epic, story)
+            def second = outcomeTaggedWith("second", epic)
+            def testOutcomes = TestOutcomes.of([first, second])
+            def rootIndex = testOutcomes.withTag(epic).@indexedOutcomes.index
+        when:
+            second.addTags([epic])
+            second.addIssues([])
+        then:
+            testOutcomes.withTag(epic).withTag(story).@indexedOutcomes.index.is(rootIndex)
+            rootIndex.isUpToDate()
+    }
+
+    def "should keep the index when tags are added to outcomes that are not indexed"() {
+        given:
+            def first = outcomeTaggedWith("first", epic, story)
+            def testOutcomes = TestOutcomes.of([first])
+            def rootIndex = testOutcomes.withTag(epic).@indexedOutcomes.index
+        when:
+            outcomeTaggedWith("other", epic).addTags([otherStory])
+        then:
+            rootIndex.isUpToDate()
+            testOutcomes.withTag(epic).withTag(story).@indexedOutcomes.index.is(rootIndex)
+    }
+
+    def "should index subsets that appear in the same order as the indexed outcomes"() {
+        given:
+            def first = outcomeTaggedWith("first", epic)
+            def second = outcomeTaggedWith("second", epic)
+            def third = outcomeTaggedWith("third", epic)
+            def index = new TestOutcomeTagIndex([first, second, third])
+        expect:
+            index.positionsOf([first, third]).isPresent()
+            !index.positionsOf([third, first]).isPresent()
+            !index.positionsOf([first, first]).isPresent()
+            !index.positionsOf([first, outcomeTaggedWith("unknown", epic)]).isPresent()
+    }
+
+    def "should filter loaded outcomes in the same way as scanning them"() {
+        given:
+            TestOutcomes testOutcomes = TestOutcomeLoader.loadTestOutcomes().inFormat(OutcomeFormat.XML)
+                                                         .from(directoryInClasspathCalled("/test-outcomes/containing-features-and-stories"))
+        when:
+            def indexedOutcomesByTag = testOutcomes.tags.collectEntries { [it, testOutcomes.withTag(it).outcomes] }
+            def scannedOutcomesByTag = testOutcomes.tags.collectEntries { tag -> [tag, testOutcomes.outcomes.findAll { it.hasTag(tag) }] }
+        and:
+            def indexedOutcomesByType = testOutcomes.tagTypes.collectEntries { [it, testOutcomes.withTagType(it).outcomes] }
+            def scannedOutcomesByType = testOutcomes.tagTypes.collectEntries { type -> [type, testOutcomes.outcomes.findAll { it.tags*.type.contains(type) }] }
+        then:
+            !indexedOutcomesByTag.isEmpty()
+            indexedOutcomesByTag == scannedOutcomesByTag
+            indexedOutcomesByType == scannedOutcomesByType
+    }
+}
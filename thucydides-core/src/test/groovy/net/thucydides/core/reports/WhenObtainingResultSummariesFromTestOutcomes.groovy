@@ -407,5 +407,23 @@ class WhenObtainingResultSummariesFromTestOutcomes extends Specification {
         successfulOutcomes.testCount == 2
     }
 
-
-}
\ No newline at end of file
+    def "should work out the test and step counts once for each set of test outcomes"() {
+        given:
+            def testOutcomes = TestOutcomeLoader.loadTestOutcomes().inFormat(OutcomeFormat.XML).from(directoryInClasspathCalled(directory));
+        when:
+            def summary = testOutcomes.summary
+        then:
+            testOutcomes.summary.is(summary)
+        and:
+            TestType.values().each { testType ->
+                TestResult.values().each { result ->
+                    assert summary.countTestsWithResult(result, testType) == testOutcomes.outcomes.sum(0) { it.countResults(result, testType) }
+                    assert summary.countStepsWithResult(result, testType) == testOutcomes.outcomes.sum(0) { it.countNestedStepsWithResult(result, testType) }
+                }
+            }
+            summary.stepCount == testOutcomes.outcomes.sum(0) { it.nestedStepCount }
+            summary.duration == testOutcomes.outcomes.sum(0) { it.duration }
+        where:
+            directory << ["/test-outcomes/containing-nostep-errors", "/test-outcomes/containing-pending", "/test-outcomes/datadriven"]
+    }
+}
@@ -1,5 +1,6 @@
 package net.thucydides.core.reports
 
+import com.github.goldin.spock.extensions.tempdir.TempDir
 import net.thucydides.core.model.TestOutcome
 import net.thucydides.core.model.TestResult
 import net.thucydides.core.model.TestTag
@@ -13,6 +14,8 @@ import static org.junit.matchers.JUnitMatchers.everyItem
 
 class WhenProcessingTestOutcomes extends Specification {
 
+    @TempDir File temporaryDirectory
+
     def loader = new TestOutcomeLoader()
 
     def "should load test outcomes from a given directory"() {
@@ -41,6 +44,40 @@ class WhenProcessingTestOutcomes extends Specification {
             testOutcomes.size() == 11
     }
 
+    def "should read test outcomes one at a time in file name order"() {
+        when:
+            def outcomes = loader.forFormat(OutcomeFormat.JSON).iteratorFor(directoryInClasspathCalled("/test-outcomes/lots-of-tests")).collect()
+        then:
+            outcomes.size() == 220
+            outcomes as Set == loader.forFormat(OutcomeFormat.JSON).loadFrom(directoryInClasspathCalled("/test-outcomes/lots-of-tests")) as Set
+    }
+
+    def "should load the same test outcomes in the same order whatever the number of threads"() {
+        given:
+            environmentVariables.setProperty("thucydides.report.loader.threads", "$threads")
+            def loader = new TestOutcomeLoader(environmentVariables).forFormat(OutcomeFormat.JSON)
+        when:
+            List<TestOutcome> testOutcomes = loader.loadFrom(directoryInClasspathCalled("/test-outcomes/lots-of-tests"))
+        then:
+            testOutcomes*.title == new TestOutcomeLoader().forFormat(OutcomeFormat.JSON).loadFrom(directoryInClasspathCalled("/test-outcomes/lots-of-tests"))*.title
+            testOutcomes*.title == testOutcomes*.title.sort(false)
+        where:
+            threads << [1, 3, 16]
+    }
+
+    def "should skip outcome files that cannot be read"() {
+        given:
+            def outcomeDirectory = temporaryDirectory
+            directoryInClasspathCalled("/json-test-outcomes").eachFile { file ->
+                new File(outcomeDirectory, file.name).bytes = file.bytes
+            }
+            new File(outcomeDirectory, "corrupt.json").text = "{ not a test outcome"
+        when:
+            List<TestOutcome> testOutcomes = loader.forFormat(OutcomeFormat.JSON).loadFrom(outcomeDirectory)
+        then:
+            testOutcomes.size() == 11
+    }
+
     def "should not load test outcome from an invalid directory"() {
         when:
             loader.loadFrom(new File("/does-not-exist"))
@@ -0,0 +1,155 @@
+package net.thucydides.core.reports.binary
+
+import com.github.goldin.spock.extensions.tempdir.TempDir
+import net.thucydides.core.model.Story
+import net.thucydides.core.model.TestOutcome
+import net.thucydides.core.model.TestResult
+import net.thucydides.core.model.TestStep
+import net.thucydides.core.reports.OutcomeFormat
+import net.thucydides.core.reports.TestOutcomeLoader
+import net.thucydides.core.reports.TestOutcomes
+import net.thucydides.core.reports.json.JSONTestOutcomeReporter
+import net.thucydides.core.screenshots.ScreenshotAndHtmlSource
+import org.skyscreamer.jsonassert.JSONCompare
+import org.skyscreamer.jsonassert.JSONCompareMode
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import static net.thucydides.core.util.TestResources.directoryInClasspathCalled
+
+class WhenStoringTestOutcomesInBinaryFormat extends Specification {
+
+    @TempDir File outputDirectory
+
+    def reporter = new BinaryTestOutcomeReporter()
+
+    def setup() {
+        reporter.outputDirectory = outputDirectory
+    }
+
+    @Unroll
+    def "should load the same test outcomes that were stored (#sourceDirectory in #format)"() {
+        given:
+            def originalOutcomes = TestOutcomeLoader.loadTestOutcomes().inFormat(format)
+                                                    .from(directoryInClasspathCalled(sourceDirectory))
+        when:
+            def reloadedOutcomes = originalOutcomes.outcomes.collect {
+                reporter.loadReportFrom(reporter.generateReportFor(it, originalOutcomes)).get()
+            }
+        then:
+            [originalOutcomes.outcomes, reloadedOutcomes].transpose().each { original, reloaded ->
+                assert JSONCompare.compareJSON(original.toJson(), reloaded.toJson(), JSONCompareMode.NON_EXTENSIBLE).passed()
+                assert reloaded.result == original.result
+            }
+        where:
+            sourceDirectory                                   | format
+            "/test-outcomes/full-json"                        | OutcomeFormat.JSON
+            "/test-outcomes/containing-errors"                | OutcomeFormat.XML
+            "/test-outcomes/containing-features-and-stories"  | OutcomeFormat.XML
+            "/test-outcomes/containing-nostep-errors"         | OutcomeFormat.XML
+            "/test-outcomes/datadriven"                       | OutcomeFormat.XML
+    }
+
+    def "should store test outcomes in much smaller files than JSON"() {
+        given:
+            def outcomes = TestOutcomeLoader.loadTestOutcomes().inFormat(OutcomeFormat.JSON)
+                                            .from(directoryInClasspathCalled("/test-outcomes/full-json"))
+            def jsonDirectory = new File(outputDirectory, "json")
+            jsonDirectory.mkdirs()
+            def jsonReporter = new JSONTestOutcomeReporter()
+            jsonReporter.outputDirectory = jsonDirectory
+        when:
+            def binaryReports = outcomes.outcomes.collect { reporter.generateReportFor(it, outcomes) }
+            def jsonReports = outcomes.outcomes.collect { jsonReporter.generateReportFor(it, outcomes) }
+        then:
+            binaryReports.every { it.name.endsWith(".outcome") }
+            totalSizeOf(binaryReports) < totalSizeOf(jsonReports)
+    }
+
+    def "should store test outcomes created for a story"() {
+        given:
+            def outcome = TestOutcome.forTestInStory("a_simple_test", Story.withId("a.story", "A story"))
+            outcome.recordStep(TestStep.forStepCalled("a step").withResult(TestResult.SUCCESS))
+        when:
+            def reloaded = reporter.loadReportFrom(reporter.generateReportFor(outcome, TestOutcomes.of([outcome]))).get()
+        then:
+            reloaded.methodName == "a_simple_test"
+            !reloaded.qualifier.isPresent()
+            reloaded.userStory.name == "A story"
+            reloaded.result == TestResult.SUCCESS
+    }
+
+    def "should store the size of each screenshot"() {
+        given:
+            def outcome = TestOutcome.forTestInStory("a_simple_test", Story.withId("a.story", "A story"))
+            def step1 = TestStep.forStepCalled("step 1").withResult(TestResult.SUCCESS)
+            step1.addScreenshot(new ScreenshotAndHtmlSource("screenshot1.png", "screenshot1.html", 800, 600))
+            def step2 = TestStep.forStepCalled("step 2").withResult(TestResult.SUCCESS)
+            step2.addScreenshot(new ScreenshotAndHtmlSource("screenshot2.png", null))
+            outcome.recordStep(step1)
+            outcome.recordStep(step2)
+        when:
+            def reloaded = reporter.loadReportFrom(reporter.generateReportFor(outcome, TestOutcomes.of([outcome]))).get()
+            def screenshots = reloaded.testSteps.collect { it.screenshots[0] }
+        then:
+            screenshots[0].width == 800
+            screenshots[0].height == 600
+            screenshots[0].htmlSourceName == "screenshot1.html"
+            !screenshots[1].hasDimensions()
+    }
+
+    def "should store screenshots that have been evicted"() {
+        given:
+            def outcome = TestOutcome.forTestInStory("a_simple_test", Story.withId("a.story", "A story"))
+            def step1 = TestStep.forStepCalled("step 1").withResult(TestResult.SUCCESS)
+            step1.addScreenshot(new ScreenshotAndHtmlSource("screenshot1.png", null).asEvicted())
+            def step2 = TestStep.forStepCalled("step 2").withResult(TestResult.SUCCESS)
+            step2.addScreenshot(new ScreenshotAndHtmlSource("screenshot2.png", null))
+            outcome.recordStep(step1)
+            outcome.recordStep(step2)
+        when:
+            def reloaded = reporter.loadReportFrom(reporter.generateReportFor(outcome, TestOutcomes.of([outcome]))).get()
+        then:
+            reloaded.testSteps[0].screenshots[0].evicted
+            !reloaded.testSteps[1].screenshots[0].evicted
+    }
+
+    def "should store the time spent starting the browser"() {
+        given:
+            def outcome = TestOutcome.forTestInStory("a_simple_test", Story.withId("a.story", "A story"))
+            outcome.recordStep(TestStep.forStepCalled("a step").withResult(TestResult.SUCCESS))
+            outcome.recordBrowserStartupTime(1500)
+        when:
+            def reloaded = reporter.loadReportFrom(reporter.generateReportFor(outcome, TestOutcomes.of([outcome]))).get()
+        then:
+            reloaded.browserStartupTime == 1500
+    }
+
+    def "should store the number of skipped screenshots"() {
+        given:
+            def outcome = TestOutcome.forTestInStory("a_simple_test", Story.withId("a.story", "A story"))
+            outcome.recordStep(TestStep.forStepCalled("a step").withResult(TestResult.SUCCESS))
+            outcome.skippedScreenshotCount = 3
+        when:
+            def reloaded = reporter.loadReportFrom(reporter.generateReportFor(outcome, TestOutcomes.of([outcome]))).get()
+        then:
+            reloaded.skippedScreenshotCount == 3
+    }
+
+    def "should ignore files that are not binary test outcomes"() {
+        given:
+            def invalidReport = new File(outputDirectory, "invalid.outcome")
+            invalidReport.text = "{}"
+        expect:
+            !reporter.loadReportFrom(invalidReport).isPresent()
+    }
+
+    def "should be registered as an outcome format"() {
+        expect:
+            new TestOutcomeLoader().forFormat(OutcomeFormat.BINARY).outcomeReporter instanceof BinaryTestOutcomeReporter
+    }
+
+    def totalSizeOf(List<File> files) {
+        files.sum { it.length() }
+    }
+}
@@ -0,0 +1,134 @@
+package net.thucydides.core.reports.html
+
+import com.github.goldin.spock.extensions.tempdir.TempDir
+import net.thucydides.core.issues.IssueTracking
+import net.thucydides.core.model.ReportType
+import net.thucydides.core.model.Story
+import net.thucydides.core.model.TestOutcome
+import net.thucydides.core.model.TestResult
+import net.thucydides.core.model.TestStep
+import net.thucydides.core.reports.TestOutcomes
+import net.thucydides.core.reports.xml.XMLTestOutcomeReporter
+import net.thucydides.core.requirements.RequirementsService
+import net.thucydides.core.screenshots.ScreenshotAndHtmlSource
+import net.thucydides.core.screenshots.ScreenshotStorageBudget
+import net.thucydides.core.util.MockEnvironmentVariables
+import org.apache.commons.io.FileUtils
+import spock.lang.Specification
+
+import java.nio.file.Files
+import java.nio.file.attribute.BasicFileAttributes
+
+import static net.thucydides.core.util.TestResources.directoryInClasspathCalled
+
+class WhenCopyingScreenshotsToTheReportDirectory extends Specification {
+
+    @TempDir File temporaryDirectory
+
+    def environmentVariables = new MockEnvironmentVariables()
+
+    File sourceDirectory
+    File reportDirectory
+
+    def setup() {
+        environmentVariables.setProperty("output.formats", "xml")
+        sourceDirectory = new File(temporaryDirectory, "source")
+        FileUtils.copyDirectory(directoryInClasspathCalled("/test-outcomes/containing-nostep-errors"), sourceDirectory)
+        reportDirectory = new File(temporaryDirectory, "site")
+    }
+
+    def "should link stored screenshots into the report directory rather than copying them"() {
+        given:
+            def screenshot = new File(sourceDirectory, "6a0bceeab7f4fe24b6add7e76b1ff833_NONE.png")
+            screenshot.bytes = new byte[1000]
+        when:
+            aggregateReporter().generateReportsForTestResultsFrom(sourceDirectory)
+            def reportScreenshot = new File(reportDirectory, screenshot.name)
+        then:
+            Files.isSameFile(screenshot.toPath(), reportScreenshot.toPath())
+    }
+
+    def "should copy the other files into the report directory"() {
+        when:
+            aggregateReporter().generateReportsForTestResultsFrom(sourceDirectory)
+            def testOutcome = new File(sourceDirectory, "sample-report-1.xml")
+            def reportTestOutcome = new File(reportDirectory, testOutcome.name)
+        then:
+            reportTestOutcome.text == testOutcome.text
+            !Files.isSameFile(testOutcome.toPath(), reportTestOutcome.toPath())
+    }
+
+    def "should delete stored screenshots that do not fit in the storage budget"() {
+        given:
+            environmentVariables.setProperty("thucydides.screenshot.storage.budget", "1k")
+            def screenshot = new File(sourceDirectory, "6a0bceeab7f4fe24b6add7e76b1ff833_NONE.png")
+            screenshot.bytes = new byte[2000]
+        when:
+            aggregateReporter().generateReportsForTestResultsFrom(sourceDirectory)
+        then:
+            !screenshot.exists()
+            !new File(reportDirectory, screenshot.name).exists()
+    }
+
+    def "should record evicted screenshots in the stored outcome and show a placeholder in the test report"() {
+        given:
+            environmentVariables.setProperty("output.formats", "xml,html")
+            environmentVariables.setProperty("thucydides.screenshot.storage.budget", "1k")
+            def screenshot = new File(sourceDirectory, "6a0bceeab7f4fe24b6add7e76b1ff833_NONE.png")
+            screenshot.bytes = new byte[2000]
+            def outcome = TestOutcome.forTestInStory("a_test_with_a_screenshot", Story.withId("a.story", "A story"))
+            def step = TestStep.forStepCalled("a step").withResult(TestResult.SUCCESS)
+            step.addScreenshot(new ScreenshotAndHtmlSource(screenshot, null))
+            outcome.recordStep(step)
+            def xmlReporter = new XMLTestOutcomeReporter()
+            xmlReporter.outputDirectory = sourceDirectory
+            def storedOutcome = xmlReporter.generateReportFor(outcome, TestOutcomes.of([outcome]))
+        when:
+            aggregateReporter().generateReportsForTestResultsFrom(sourceDirectory)
+        then:
+            xmlReporter.loadReportFrom(storedOutcome).get().testSteps[0].screenshots[0].evicted
+            new File(reportDirectory, outcome.getReportName(ReportType.HTML)).text.contains("deleted to save disk space")
+    }
+
+    def "should free the space used by linked screenshots when they no longer fit in the storage budget"() {
+        given:
+            def screenshot = new File(sourceDirectory, "6a0bceeab7f4fe24b6add7e76b1ff833_NONE.png")
+            screenshot.bytes = new byte[2000]
+            aggregateReporter().generateReportsForTestResultsFrom(sourceDirectory)
+        when:
+            environmentVariables.setProperty("thucydides.screenshot.storage.budget", "1k")
+            aggregateReporter().generateReportsForTestResultsFrom(sourceDirectory)
+        then:
+            storedFileSpaceUsedBy(sourceDirectory, reportDirectory) <= 1024
+    }
+
+    def "should count screenshots linked into the report directory once in the storage budget"() {
+        given:
+            environmentVariables.setProperty("thucydides.screenshot.storage.budget", "3k")
+            def screenshot = new File(sourceDirectory, "6a0bceeab7f4fe24b6add7e76b1ff833_NONE.png")
+            screenshot.bytes = new byte[2000]
+        when:
+            aggregateReporter().generateReportsForTestResultsFrom(sourceDirectory)
+            aggregateReporter().generateReportsForTestResultsFrom(sourceDirectory)
+        then:
+            screenshot.exists()
+            storedFileSpaceUsedBy(sourceDirectory, reportDirectory) == 2000
+    }
+
+    /**
+     * Hard links to the same file only take up disk space once.
+     */
+    def storedFileSpaceUsedBy(File... directories) {
+        def storedFiles = directories.collectMany { directory ->
+            directory.listFiles().findAll { ScreenshotStorageBudget.isStoredScreenshotOrPageSource(it.name) }
+        }
+        storedFiles.unique { Files.readAttributes(it.toPath(), BasicFileAttributes).fileKey() }.sum(0) { it.length() }
+    }
+
+    def aggregateReporter() {
+        def reporter = new HtmlAggregateStoryReporter("project", "", Stub(IssueTracking), Stub(RequirementsService),
+                                                      environmentVariables)
+        reporter.outputDirectory = reportDirectory
+        return reporter
+    }
+}
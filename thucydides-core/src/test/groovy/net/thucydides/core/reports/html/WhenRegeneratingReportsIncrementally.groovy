@@ -0,0 +1,132 @@
+package net.thucydides.core.reports.html
+
+import com.github.goldin.spock.extensions.tempdir.TempDir
+import net.thucydides.core.issues.IssueTracking
+import net.thucydides.core.requirements.RequirementsService
+import net.thucydides.core.util.MockEnvironmentVariables
+import org.apache.commons.io.FileUtils
+import spock.lang.Specification
+
+import static net.thucydides.core.util.TestResources.directoryInClasspathCalled
+
+class WhenRegeneratingReportsIncrementally extends Specification {
+
+    @TempDir File outputDirectory
+
+    def environmentVariables = new MockEnvironmentVariables()
+
+    def setup() {
+        environmentVariables.setProperty("output.formats", "xml")
+        environmentVariables.setProperty("thucydides.report.incremental", "true")
+    }
+
+    def "should know which reports were generated from the same inputs last time"() {
+        given:
+            new File(outputDirectory, "index.html").text = "<html/>"
+            new File(outputDirectory, "tag.html").text = "<html/>"
+            def previousManifest = ReportManifest.loadFrom(outputDirectory)
+            previousManifest.record("index.html", "1234")
+            previousManifest.record("tag.html", "5678")
+            previousManifest.record("requirements.html")
+            previousManifest.save()
+        when:
+            def manifest = ReportManifest.loadFrom(outputDirectory)
+        then:
+            manifest.isUpToDate("index.html", "1234")
+            !manifest.isUpToDate("tag.html", "9999")
+            !manifest.isUpToDate("requirements.html", "")
+            !manifest.isUpToDate("new-tag.html", "1234")
+    }
+
+    def "should not trust the manifest for reports that have been deleted"() {
+        given:
+            def previousManifest = ReportManifest.loadFrom(outputDirectory)
+            previousManifest.record("index.html", "1234")
+            previousManifest.save()
+        when:
+            def manifest = ReportManifest.loadFrom(outputDirectory)
+        then:
+            !manifest.isUpToDate("index.html", "1234")
+    }
+
+    def "should delete the reports that are no longer generated"() {
+        given:
+            def obsoleteReport = new File(outputDirectory, "old-tag.html")
+            obsoleteReport.text = "<html/>"
+            def previousManifest = ReportManifest.loadFrom(outputDirectory)
+            previousManifest.record("index.html", "1234")
+            previousManifest.record("old-tag.html", "5678")
+            previousManifest.save()
+        and:
+            def manifest = ReportManifest.loadFrom(outputDirectory)
+            manifest.record("index.html", "1234")
+        when:
+            manifest.deleteObsoleteReports()
+        then:
+            manifest.obsoleteReports == ["old-tag.html"]
+            !obsoleteReport.exists()
+    }
+
+    def "should only regenerate the reports whose test outcomes have changed"() {
+        given:
+            def sourceDirectory = directoryInClasspathCalled("/test-outcomes/containing-nostep-errors")
+            aggregateReporter().generateReportsForTestResultsFrom(sourceDirectory)
+            def indexPage = new File(outputDirectory, "index.html")
+            indexPage.text = "previously generated"
+        when:
+            aggregateReporter().generateReportsForTestResultsFrom(sourceDirectory)
+        then:
+            indexPage.text == "previously generated"
+            new File(outputDirectory, ReportManifest.MANIFEST_FILE).exists()
+    }
+
+    def "should regenerate the reports for test outcomes that have been run again"() {
+        given:
+            def sourceDirectory = new File(outputDirectory, "source")
+            FileUtils.copyDirectory(directoryInClasspathCalled("/test-outcomes/containing-nostep-errors"), sourceDirectory)
+            def reportOutputDirectory = new File(outputDirectory, "site")
+            aggregateReporter(reportOutputDirectory).generateReportsForTestResultsFrom(sourceDirectory)
+            def indexPage = new File(reportOutputDirectory, "index.html")
+            indexPage.text = "previously generated"
+        when:
+            def rerunOutcome = new File(sourceDirectory, "sample-report-1.xml")
+            rerunOutcome.text = rerunOutcome.text.replace("2013-01-01T00:00:00.000-05:00", "2013-01-02T00:00:00.000-05:00")
+            aggregateReporter(reportOutputDirectory).generateReportsForTestResultsFrom(sourceDirectory)
+        then:
+            indexPage.text != "previously generated"
+    }
+
+    def "should regenerate every report if incremental reporting is disabled"() {
+        given:
+            def sourceDirectory = directoryInClasspathCalled("/test-outcomes/containing-nostep-errors")
+            aggregateReporter().generateReportsForTestResultsFrom(sourceDirectory)
+            def indexPage = new File(outputDirectory, "index.html")
+            indexPage.text = "previously generated"
+        when:
+            environmentVariables.setProperty("thucydides.report.incremental", "false")
+            aggregateReporter().generateReportsForTestResultsFrom(sourceDirectory)
+        then:
+            indexPage.text != "previously generated"
+            !new File(outputDirectory, ReportManifest.MANIFEST_FILE).exists()
+    }
+
+    def "should regenerate every report by default"() {
+        given:
+            environmentVariables.clearProperty("thucydides.report.incremental")
+            def sourceDirectory = directoryInClasspathCalled("/test-outcomes/containing-nostep-errors")
+            aggregateReporter().generateReportsForTestResultsFrom(sourceDirectory)
+            def indexPage = new File(outputDirectory, "index.html")
+            indexPage.text = "previously generated"
+        when:
+            aggregateReporter().generateReportsForTestResultsFrom(sourceDirectory)
+        then:
+            indexPage.text != "previously generated"
+    }
+
+    def aggregateReporter(File reportOutputDirectory = outputDirectory) {
+        def reporter = new HtmlAggregateStoryReporter("project", "", Stub(IssueTracking), Stub(RequirementsService),
+                                                      environmentVariables)
+        reporter.outputDirectory = reportOutputDirectory
+        return reporter
+    }
+}
@@ -0,0 +1,108 @@
+package net.thucydides.core.reports.html
+
+import net.thucydides.core.reports.ReportGenerationFailedError
+import net.thucydides.core.util.MockEnvironmentVariables
+import spock.lang.Specification
+
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.Executors
+
+class WhenRunningReportingTasks extends Specification {
+
+    def environmentVariables = new MockEnvironmentVariables()
+
+    class RecordingTask implements ReportingTask {
+        final String name
+        final Set<String> generatedReports
+
+        RecordingTask(String name, Set<String> generatedReports) {
+            this.name = name
+            this.generatedReports = generatedReports
+        }
+
+        @Override
+        void generateReports() throws IOException {
+            generatedReports.add(name)
+        }
+
+        @Override
+        String toString() { name }
+    }
+
+    class FailingTask implements ReportingTask {
+        final String name
+
+        FailingTask(String name) { this.name = name }
+
+        @Override
+        void generateReports() throws IOException {
+            throw new IOException("Could not write " + name)
+        }
+
+        @Override
+        String toString() { name }
+    }
+
+    def "should use the number of available processors by default"() {
+        when:
+            def executor = new ReportExecutor(environmentVariables)
+        then:
+            executor.threadCount == Runtime.runtime.availableProcessors()
+    }
+
+    def "should use the configured number of threads"() {
+        given:
+            environmentVariables.setProperty("thucydides.report.threads", "3")
+        when:
+            def executor = new ReportExecutor(environmentVariables)
+        then:
+            executor.threadCount == 3
+    }
+
+    def "should run every reporting task"() {
+        given:
+            Set<String> generatedReports = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>())
+            def tasks = (1..100).collect { new RecordingTask("report-$it", generatedReports) }
+        when:
+            new ReportExecutor(threadCount).generateReports(tasks)
+        then:
+            generatedReports.size() == 100
+        where:
+            threadCount << [1, 4]
+    }
+
+    def "should run the remaining tasks and report failures at the end"() {
+        given:
+            Set<String> generatedReports = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>())
+            def tasks = [new RecordingTask("index.html", generatedReports),
+                         new FailingTask("broken.html"),
+                         new RecordingTask("tag.html", generatedReports),
+                         new FailingTask("also-broken.html")]
+        when:
+            new ReportExecutor(threadCount).generateReports(tasks)
+        then:
+            def error = thrown(ReportGenerationFailedError)
+            error.message.contains("2 of 4 reports could not be generated")
+            error.message.contains("broken.html")
+            error.message.contains("also-broken.html")
+            error.cause instanceof IOException
+        and:
+            generatedReports == ["index.html", "tag.html"] as Set
+        where:
+            threadCount << [1, 4]
+    }
+
+    def "should leave a shared executor service running once the tasks are done"() {
+        given:
+            def sharedExecutorService = Executors.newFixedThreadPool(2)
+            Set<String> generatedReports = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>())
+            def tasks = (1..10).collect { new RecordingTask("report-$it", generatedReports) }
+        when:
+            new ReportExecutor(sharedExecutorService, 2).generateReports(tasks)
+        then:
+            generatedReports.size() == 10
+            !sharedExecutorService.isShutdown()
+        cleanup:
+            sharedExecutorService.shutdownNow()
+    }
+}
@@ -0,0 +1,54 @@
+package net.thucydides.core.reports.html
+
+import com.github.goldin.spock.extensions.tempdir.TempDir
+import net.thucydides.core.util.MockEnvironmentVariables
+import spock.lang.Specification
+
+class WhenWritingHtmlReports extends Specification {
+
+    @TempDir File outputDirectory
+
+    class SampleReporter extends HtmlReporter {
+        SampleReporter() {
+            super(new MockEnvironmentVariables())
+        }
+
+        File writeReport(String reportName, Map<String, Object> context, String template = "templates/test.ftl") {
+            writeReportToOutputDirectory(reportName, mergeTemplate(template), context)
+        }
+    }
+
+    def reporter = new SampleReporter()
+
+    def setup() {
+        reporter.outputDirectory = outputDirectory
+    }
+
+    def "should merge the template straight into the report file"() {
+        when:
+            def report = reporter.writeReport("report.html", [name: "Joe", age: 20])
+        then:
+            report == new File(outputDirectory, "report.html")
+            report.getText("UTF-8") == "Hi Joe, aged 20. Next year you will be 21"
+        and: "no temporary files should be left behind"
+            outputDirectory.list() as List == ["report.html"]
+    }
+
+    def "should write reports in UTF-8"() {
+        when:
+            def report = reporter.writeReport("report.html", [name: "Zoë", age: 20])
+        then:
+            report.getText("UTF-8") == "Hi Zoë, aged 20. Next year you will be 21"
+    }
+
+    def "should leave the previous report in place if the template cannot be merged"() {
+        given:
+            def report = reporter.writeReport("report.html", [name: "Joe", age: 20])
+        when:
+            reporter.writeReport("report.html", [name: "Joe", age: 20], "templates/does-not-exist.ftl")
+        then:
+            thrown(RuntimeException)
+            report.getText("UTF-8") == "Hi Joe, aged 20. Next year you will be 21"
+            outputDirectory.list() as List == ["report.html"]
+    }
+}
@@ -95,4 +95,35 @@ class WhenStoringScreenshotsAsJSON extends Specification {
         screenshot.screenshotFile.absolutePath == screenshotFile.absolutePath
         !screenshot.htmlSource.isPresent()
     }
-}
\ No newline at end of file
+
+    def "should store the size of a screenshot when it is known"() {
+        given:
+        def screenshot = new ScreenshotAndHtmlSource(new File("screenshot.png"), new File("screenshot.html"), 800, 600)
+
+        when:
+        StringWriter writer = new StringWriter();
+        def converter = new JacksonJSONConverter(environmentVars)
+        converter.mapper.writeValue(writer, screenshot);
+        def reloadedScreenshot = converter.mapper.readValue(new StringReader(writer.toString()), ScreenshotAndHtmlSource)
+
+        then:
+        writer.toString().contains('"width":800')
+        reloadedScreenshot.width == 800
+        reloadedScreenshot.height == 600
+    }
+
+    def "should not store the size of a screenshot when it is not known"() {
+        given:
+        def screenshot = new ScreenshotAndHtmlSource(new File("screenshot.png"))
+
+        when:
+        StringWriter writer = new StringWriter();
+        def converter = new JacksonJSONConverter(environmentVars)
+        converter.mapper.writeValue(writer, screenshot);
+        def reloadedScreenshot = converter.mapper.readValue(new StringReader(writer.toString()), ScreenshotAndHtmlSource)
+
+        then:
+        !writer.toString().contains("width")
+        !reloadedScreenshot.hasDimensions()
+    }
+}
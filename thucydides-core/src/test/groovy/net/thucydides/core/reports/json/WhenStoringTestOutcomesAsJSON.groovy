@@ -347,6 +347,76 @@ class WhenStoringTestOutcomesAsJSON extends Specification {
         reloadedOutcome.sessionId == "1234"
     }
 
+    def "should include the browser startup time if recorded"() {
+        given:
+        def testOutcome = TestOutcome.forTest("should_do_this", SomeTestScenarioWithTags.class);
+        testOutcome.startTime = FIRST_OF_JANUARY
+        testOutcome.recordBrowserStartupTime(2500)
+        testOutcome.recordStep(TestStepFactory.successfulTestStepCalled("step 1").startingAt(FIRST_OF_JANUARY))
+        when:
+        def jsonReport = reporter.generateReportFor(testOutcome, allTestOutcomes)
+        TestOutcome reloadedOutcome = loader.loadReportFrom(jsonReport).get()
+        then:
+        reloadedOutcome.browserStartupTime == 2500
+    }
+
+    def "should keep the browser startup time in qualified test outcomes"() {
+        given:
+        def testOutcome = TestOutcome.forTest("should_do_this", SomeTestScenarioWithTags.class);
+        testOutcome.startTime = FIRST_OF_JANUARY
+        testOutcome.recordBrowserStartupTime(2500)
+        testOutcome.recordStep(TestStepFactory.successfulTestStepCalled("step 1").startingAt(FIRST_OF_JANUARY))
+        and:
+        reporter.setQualifier("a qualifier")
+        when:
+        def jsonReport = reporter.generateReportFor(testOutcome, allTestOutcomes)
+        TestOutcome reloadedOutcome = loader.loadReportFrom(jsonReport).get()
+        then:
+        reloadedOutcome.qualifier.get() == "a qualifier"
+        reloadedOutcome.browserStartupTime == 2500
+    }
+
+    def "should include the number of skipped screenshots if any"() {
+        given:
+        def testOutcome = TestOutcome.forTest("should_do_this", SomeTestScenarioWithTags.class);
+        testOutcome.startTime = FIRST_OF_JANUARY
+        testOutcome.skippedScreenshotCount = 4
+        testOutcome.recordStep(TestStepFactory.successfulTestStepCalled("step 1").startingAt(FIRST_OF_JANUARY))
+        when:
+        def jsonReport = reporter.generateReportFor(testOutcome, allTestOutcomes)
+        TestOutcome reloadedOutcome = loader.loadReportFrom(jsonReport).get()
+        then:
+        reloadedOutcome.skippedScreenshotCount == 4
+        jsonReport.text.contains('"skippedScreenshotCount"')
+    }
+
+    def "should keep the number of skipped screenshots in qualified test outcomes"() {
+        given:
+        def testOutcome = TestOutcome.forTest("should_do_this", SomeTestScenarioWithTags.class);
+        testOutcome.startTime = FIRST_OF_JANUARY
+        testOutcome.skippedScreenshotCount = 4
+        testOutcome.recordStep(TestStepFactory.successfulTestStepCalled("step 1").startingAt(FIRST_OF_JANUARY))
+        and:
+        reporter.setQualifier("a qualifier")
+        when:
+        def jsonReport = reporter.generateReportFor(testOutcome, allTestOutcomes)
+        TestOutcome reloadedOutcome = loader.loadReportFrom(jsonReport).get()
+        then:
+        reloadedOutcome.qualifier.get() == "a qualifier"
+        reloadedOutcome.skippedScreenshotCount == 4
+    }
+
+    def "should not include the number of skipped screenshots if none were skipped"() {
+        given:
+        def testOutcome = TestOutcome.forTest("should_do_this", SomeTestScenarioWithTags.class);
+        testOutcome.startTime = FIRST_OF_JANUARY
+        testOutcome.recordStep(TestStepFactory.successfulTestStepCalled("step 1").startingAt(FIRST_OF_JANUARY))
+        when:
+        def jsonReport = reporter.generateReportFor(testOutcome, allTestOutcomes)
+        then:
+        !jsonReport.text.contains('"skippedScreenshotCount"')
+    }
+
     def "should include annotated results if provided"() {
         given:
         def testOutcome = TestOutcome.forTest("should_do_this", SomeTestScenarioWithTags.class);
@@ -615,6 +685,25 @@ class WhenStoringTestOutcomesAsJSON extends Specification {
         !reloadedOutcome.testSteps[0].screenshots[0].htmlSource.isPresent()
     }
 
+    def "should record screenshots that have been evicted"() {
+        given:
+        def testOutcome = TestOutcome.forTest("a_simple_test_case", SomeTestScenario.class);
+        testOutcome.setStartTime(FIRST_OF_JANUARY);
+        and:
+        TestStep step1 = TestStepFactory.successfulTestStepCalled("step 1").startingAt(FIRST_OF_JANUARY);
+        step1.addScreenshot(new ScreenshotAndHtmlSource(new File(outputDirectory, "step_1.png")).asEvicted());
+        TestStep step2 = TestStepFactory.successfulTestStepCalled("step 2").startingAt(FIRST_OF_JANUARY);
+        step2.addScreenshot(new ScreenshotAndHtmlSource(new File(outputDirectory, "step_2.png")));
+        testOutcome.recordStep(step1);
+        testOutcome.recordStep(step2);
+        when:
+        def jsonReport = reporter.generateReportFor(testOutcome, allTestOutcomes)
+        then:
+        TestOutcome reloadedOutcome = loader.loadReportFrom(jsonReport).get()
+        reloadedOutcome.testSteps[0].screenshots[0].evicted
+        !reloadedOutcome.testSteps[1].screenshots[0].evicted
+    }
+
     @Unroll
     def "should record test results for #result"() {
         given:
@@ -0,0 +1,93 @@
+package net.thucydides.core.screenshots
+
+import net.thucydides.core.util.MockEnvironmentVariables
+import spock.lang.Specification
+
+class WhenAdaptingScreenshotsToTheLoad extends Specification {
+
+    def environmentVariables = new MockEnvironmentVariables()
+    def screenshotProcessor = Mock(ScreenshotProcessor)
+
+    def setup() {
+        environmentVariables.setProperty("thucydides.adaptive.screenshots", "true")
+    }
+
+    def "should not skip any screenshots unless adaptive screenshots are enabled"() {
+        given:
+            def environmentVariables = new MockEnvironmentVariables()
+            def policy = new AdaptiveScreenshotPolicy(environmentVariables, screenshotProcessor)
+            screenshotProcessor.getQueueDepth() >> 1000
+        expect:
+            !policy.enabled
+            !policy.shouldSkipOptionalScreenshot()
+            !policy.shouldSkipOptionalScreenshotAfter(1)
+            policy.skippedScreenshotCount == 0
+    }
+
+    def "should skip optional screenshots when the screenshot queue is full"() {
+        given:
+            environmentVariables.setProperty("thucydides.screenshot.queue.size", "10")
+            def policy = new AdaptiveScreenshotPolicy(environmentVariables, screenshotProcessor)
+            screenshotProcessor.getQueueDepth() >> queueDepth
+        expect:
+            policy.shouldSkipOptionalScreenshot() == shouldSkip
+            policy.shouldSkipOptionalScreenshotAfter(10000) == shouldSkip
+        where:
+            queueDepth | shouldSkip
+            0          | false
+            9          | false
+            10         | true
+            50         | true
+    }
+
+    def "should skip optional screenshots at the end of short steps"() {
+        given:
+            environmentVariables.setProperty("thucydides.adaptive.screenshots.minimum.step.duration", "200")
+            def policy = new AdaptiveScreenshotPolicy(environmentVariables, screenshotProcessor)
+        expect:
+            policy.shouldSkipOptionalScreenshotAfter(stepDuration) == shouldSkip
+        where:
+            stepDuration | shouldSkip
+            50           | true
+            199          | true
+            200          | false
+            5000         | false
+    }
+
+    def "should skip optional screenshots that take too long compared to the step"() {
+        given:
+            environmentVariables.setProperty("thucydides.adaptive.screenshots.minimum.step.duration", "0")
+            environmentVariables.setProperty("thucydides.adaptive.screenshots.maximum.overhead", "20")
+            def policy = new AdaptiveScreenshotPolicy(environmentVariables, screenshotProcessor)
+        when:
+            policy.recordCaptureTime(300)
+        then:
+            policy.shouldSkipOptionalScreenshotAfter(1000)
+            !policy.shouldSkipOptionalScreenshotAfter(2000)
+    }
+
+    def "should average the time taken by recent screenshots"() {
+        given:
+            def policy = new AdaptiveScreenshotPolicy(environmentVariables, screenshotProcessor)
+        when:
+            policy.recordCaptureTime(100)
+            policy.recordCaptureTime(200)
+        then:
+            policy.averageCaptureTime == 130
+    }
+
+    def "should count the skipped screenshots"() {
+        given:
+            def policy = new AdaptiveScreenshotPolicy(environmentVariables, screenshotProcessor)
+        when:
+            policy.shouldSkipOptionalScreenshotAfter(10)
+            policy.shouldSkipOptionalScreenshotAfter(20)
+            policy.shouldSkipOptionalScreenshotAfter(10000)
+        then:
+            policy.skippedScreenshotCount == 2
+        when:
+            policy.resetSkippedScreenshotCount()
+        then:
+            policy.skippedScreenshotCount == 0
+    }
+}
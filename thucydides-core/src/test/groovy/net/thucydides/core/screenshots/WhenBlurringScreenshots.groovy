@@ -0,0 +1,59 @@
+package net.thucydides.core.screenshots
+
+import com.github.goldin.spock.extensions.tempdir.TempDir
+import net.thucydides.core.util.FileSystemUtils
+import net.thucydides.core.util.MockEnvironmentVariables
+import spock.lang.Specification
+
+import javax.imageio.ImageIO
+
+class WhenBlurringScreenshots extends Specification {
+
+    @TempDir File targetDirectory
+
+    def environmentVariables = new MockEnvironmentVariables()
+    def screenshotData = FileSystemUtils.getResourceAsFile("screenshots/google_page_1.png").bytes
+    def originalImage = ImageIO.read(new ByteArrayInputStream(screenshotData))
+
+    def "should blur screenshots when they are processed"() {
+        given:
+            def destination = new File(targetDirectory, "screenshot.png")
+        when:
+            new ScreenshotFileProcessor(environmentVariables).process(new QueuedScreenshot(screenshotData, destination).blurredAt(BlurLevel.HEAVY))
+            def storedImage = ImageIO.read(destination)
+        then:
+            storedImage.width == originalImage.width
+            storedImage.height == originalImage.height
+            destination.bytes != screenshotData
+    }
+
+    def "should not blur screenshots if the blur level is NONE"() {
+        given:
+            def destination = new File(targetDirectory, "screenshot.png")
+        when:
+            new ScreenshotFileProcessor(environmentVariables).process(new QueuedScreenshot(screenshotData, destination).blurredAt(BlurLevel.NONE))
+        then:
+            destination.bytes == screenshotData
+    }
+
+    def "should blur and resize screenshots in one go"() {
+        given:
+            environmentVariables.setProperty("thucydides.resized.image.width", "400")
+            environmentVariables.setProperty("thucydides.screenshot.thumbnail.width", "40")
+            def destination = new File(targetDirectory, "screenshot.png")
+        when:
+            new ScreenshotFileProcessor(environmentVariables).process(new QueuedScreenshot(screenshotData, destination).blurredAt(BlurLevel.LIGHT))
+        then:
+            ImageIO.read(destination).width == 400
+            ImageIO.read(new File(targetDirectory, "thumbnail_screenshot.png")).width == 40
+    }
+
+    def "should not store a screenshot that could not be blurred"() {
+        given:
+            def destination = new File(targetDirectory, "screenshot.png")
+        when:
+            new ScreenshotFileProcessor(environmentVariables).process(new QueuedScreenshot("not an image".bytes, destination).blurredAt(BlurLevel.HEAVY))
+        then:
+            !destination.exists()
+    }
+}
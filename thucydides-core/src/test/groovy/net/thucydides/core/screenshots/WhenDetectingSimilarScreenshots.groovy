@@ -0,0 +1,92 @@
+package net.thucydides.core.screenshots
+
+import net.thucydides.core.util.FileSystemUtils
+import net.thucydides.core.util.MockEnvironmentVariables
+import spock.lang.Specification
+
+import javax.imageio.ImageIO
+import java.awt.Color
+import java.awt.image.BufferedImage
+
+class WhenDetectingSimilarScreenshots extends Specification {
+
+    def environmentVariables = new MockEnvironmentVariables()
+
+    def screenshot(String name) {
+        ImageIO.read(new File(FileSystemUtils.getResourceAsFile("screenshots"), name))
+    }
+
+    def copyOf(BufferedImage image) {
+        def copy = new BufferedImage(image.width, image.height, BufferedImage.TYPE_INT_RGB)
+        def graphics = copy.createGraphics()
+        graphics.drawImage(image, 0, 0, null)
+        graphics.dispose()
+        return copy
+    }
+
+    def withBlinkingCursor(BufferedImage image) {
+        def imageWithCursor = copyOf(image)
+        def graphics = imageWithCursor.createGraphics()
+        graphics.color = Color.BLACK
+        graphics.fillRect(200, 300, 2, 18)
+        graphics.dispose()
+        return imageWithCursor
+    }
+
+    def "identical screenshots should have the same fingerprint"() {
+        given:
+            def image = screenshot("google_page_1.png")
+        expect:
+            ScreenshotFingerprint.of(image) == ScreenshotFingerprint.of(copyOf(image))
+            ScreenshotFingerprint.of(image).similarityTo(ScreenshotFingerprint.of(copyOf(image))) == 100
+    }
+
+    def "screenshots that only differ by a blinking cursor should look very similar"() {
+        given:
+            def image = screenshot("google_page_1.png")
+        expect:
+            ScreenshotFingerprint.of(image).similarityTo(ScreenshotFingerprint.of(withBlinkingCursor(image))) >= 97
+    }
+
+    def "different pages should not look similar"() {
+        expect:
+            ScreenshotFingerprint.of(screenshot("google_page_1.png")).similarityTo(ScreenshotFingerprint.of(screenshot("amazon.png"))) < 90
+    }
+
+    def "should compute the fingerprint from the screenshot data"() {
+        given:
+            def screenshotFile = new File(FileSystemUtils.getResourceAsFile("screenshots"), "google_page_1.png")
+        expect:
+            ScreenshotFingerprint.of(screenshotFile.bytes) == ScreenshotFingerprint.of(ImageIO.read(screenshotFile))
+    }
+
+    def "similar screenshots should not be detected by default"() {
+        expect:
+            !new SimilarScreenshots(environmentVariables).areDetected()
+    }
+
+    def "should return the previous screenshot if a new screenshot looks similar enough"() {
+        given:
+            environmentVariables.setProperty("thucydides.screenshot.similarity.threshold", "97")
+            def similarScreenshots = new SimilarScreenshots(environmentVariables)
+            def image = screenshot("google_page_1.png")
+            def previousScreenshot = new ScreenshotAndHtmlSource(new File("previous.png"))
+        when:
+            similarScreenshots.recordScreenshot(previousScreenshot, ScreenshotFingerprint.of(image))
+        then:
+            similarScreenshots.similarTo(ScreenshotFingerprint.of(withBlinkingCursor(image))).get() == previousScreenshot
+            !similarScreenshots.similarTo(ScreenshotFingerprint.of(screenshot("amazon.png"))).isPresent()
+    }
+
+    def "should forget the previous screenshot when reset"() {
+        given:
+            environmentVariables.setProperty("thucydides.screenshot.similarity.threshold", "97")
+            def similarScreenshots = new SimilarScreenshots(environmentVariables)
+            def fingerprint = ScreenshotFingerprint.of(screenshot("google_page_1.png"))
+            similarScreenshots.recordScreenshot(new ScreenshotAndHtmlSource(new File("previous.png")), fingerprint)
+        when:
+            similarScreenshots.reset()
+        then:
+            !similarScreenshots.similarTo(fingerprint).isPresent()
+    }
+}
@@ -0,0 +1,168 @@
+package net.thucydides.core.screenshots
+
+import com.github.goldin.spock.extensions.tempdir.TempDir
+import net.thucydides.core.util.FileSystemUtils
+import net.thucydides.core.util.MockEnvironmentVariables
+import spock.lang.Specification
+
+import javax.imageio.ImageIO
+
+class WhenEncodingScreenshots extends Specification {
+
+    @TempDir File targetDirectory
+
+    def environmentVariables = new MockEnvironmentVariables()
+    def screenshotData = FileSystemUtils.getResourceAsFile("screenshots/google_page_1.png").bytes
+
+    def "should store screenshots as returned by the driver by default"() {
+        given:
+            def encoding = new ScreenshotEncoding(environmentVariables)
+        expect:
+            encoding.keepsOriginalEncoding()
+            encoding.encode(screenshotData) == screenshotData
+            encoding.extension == "png"
+            encoding.nameSuffix == ""
+            !encoding.producesThumbnails()
+    }
+
+    def "should include the encoding in the screenshot filename"() {
+        given:
+            environmentVariables.setProperty("thucydides.screenshot.format", "jpeg")
+            environmentVariables.setProperty("thucydides.screenshot.jpeg.quality", "70")
+        when:
+            def screenshotName = new ScreenshotDigest(environmentVariables, null).forScreenshot(screenshotData)
+        then:
+            screenshotName.endsWith("_NONE_Q70.jpg")
+    }
+
+    def "should not change the filename of screenshots stored in the default encoding"() {
+        when:
+            def screenshotName = new ScreenshotDigest(environmentVariables, null).forScreenshot(screenshotData)
+        then:
+            screenshotName == "6a0bceeab7f4fe24b6add7e76b1ff833_NONE.png"
+    }
+
+    def "should encode screenshots as JPEG images if requested"() {
+        given:
+            environmentVariables.setProperty("thucydides.screenshot.format", "jpeg")
+            def encoding = new ScreenshotEncoding(environmentVariables)
+        when:
+            def jpegData = encoding.encode(screenshotData)
+            def image = ImageIO.read(new ByteArrayInputStream(jpegData))
+            def originalImage = ImageIO.read(new ByteArrayInputStream(screenshotData))
+        then:
+            jpegData[0] == (byte) 0xFF && jpegData[1] == (byte) 0xD8
+            jpegData.length < screenshotData.length
+            image.width == originalImage.width
+            image.height == originalImage.height
+    }
+
+    def "should recompress PNG screenshots without changing the image"() {
+        given:
+            environmentVariables.setProperty("thucydides.screenshot.png.compression", "$level")
+            def encoding = new ScreenshotEncoding(environmentVariables)
+        when:
+            def recompressedData = encoding.encode(screenshotData)
+            def image = ImageIO.read(new ByteArrayInputStream(recompressedData))
+            def originalImage = ImageIO.read(new ByteArrayInputStream(screenshotData))
+        then:
+            encoding.nameSuffix == "_Z$level"
+            samePixels(image, originalImage)
+        where:
+            level << [0, 1, 9]
+    }
+
+    def "should store smaller PNG screenshots at higher compression levels"() {
+        given:
+            def uncompressed = new MockEnvironmentVariables()
+            uncompressed.setProperty("thucydides.screenshot.png.compression", "0")
+            def compressed = new MockEnvironmentVariables()
+            compressed.setProperty("thucydides.screenshot.png.compression", "9")
+        expect:
+            new ScreenshotEncoding(compressed).encode(screenshotData).length <
+                new ScreenshotEncoding(uncompressed).encode(screenshotData).length
+    }
+
+    def "should keep the image data of PNG screenshots that have no end chunk"() {
+        given:
+            environmentVariables.setProperty("thucydides.screenshot.png.compression", "9")
+            def encoding = new ScreenshotEncoding(environmentVariables)
+            def withoutEndChunk = Arrays.copyOf(screenshotData, screenshotData.length - 12)
+        when:
+            def image = ImageIO.read(new ByteArrayInputStream(encoding.encode(withoutEndChunk)))
+            def originalImage = ImageIO.read(new ByteArrayInputStream(screenshotData))
+        then:
+            samePixels(image, originalImage)
+    }
+
+    def "should store PNG screenshots with an invalid chunk length as they are"() {
+        given:
+            environmentVariables.setProperty("thucydides.screenshot.png.compression", "9")
+            def encoding = new ScreenshotEncoding(environmentVariables)
+            def corruptedData = Arrays.copyOf(screenshotData, screenshotData.length)
+            corruptedData[8] = (byte) 0x7F
+        expect:
+            encoding.encode(corruptedData) == corruptedData
+    }
+
+    def "should store truncated PNG screenshots as they are"() {
+        given:
+            environmentVariables.setProperty("thucydides.screenshot.png.compression", "9")
+            def encoding = new ScreenshotEncoding(environmentVariables)
+            def truncatedData = Arrays.copyOf(screenshotData, 40)
+        expect:
+            encoding.encode(truncatedData) == truncatedData
+    }
+
+    def "should store screenshots in the configured format"() {
+        given:
+            environmentVariables.setProperty("thucydides.screenshot.format", "jpeg")
+            def destination = new File(targetDirectory, "screenshot.jpg")
+        when:
+            new ScreenshotFileProcessor(environmentVariables).process(new QueuedScreenshot(screenshotData, destination))
+        then:
+            destination.bytes[0] == (byte) 0xFF && destination.bytes[1] == (byte) 0xD8
+    }
+
+    def "should store a thumbnail with each screenshot if requested"() {
+        given:
+            environmentVariables.setProperty("thucydides.screenshot.thumbnail.width", "64")
+            def destination = new File(targetDirectory, "screenshot.png")
+        when:
+            new ScreenshotFileProcessor(environmentVariables).process(new QueuedScreenshot(screenshotData, destination))
+            def thumbnail = ImageIO.read(new File(targetDirectory, "thumbnail_screenshot.png"))
+        then:
+            destination.bytes == screenshotData
+            thumbnail.width == 64
+    }
+
+    def "should resize and encode a screenshot that has a thumbnail"() {
+        given:
+            environmentVariables.setProperty("thucydides.screenshot.format", "jpeg")
+            environmentVariables.setProperty("thucydides.resized.image.width", "400")
+            environmentVariables.setProperty("thucydides.screenshot.thumbnail.width", "64")
+            def destination = new File(targetDirectory, "screenshot.jpg")
+        when:
+            new ScreenshotFileProcessor(environmentVariables).process(new QueuedScreenshot(screenshotData, destination))
+            def storedImage = ImageIO.read(destination)
+            def thumbnail = ImageIO.read(new File(targetDirectory, "thumbnail_screenshot.jpg"))
+        then:
+            destination.bytes[0] == (byte) 0xFF && destination.bytes[1] == (byte) 0xD8
+            storedImage.width == 400
+            thumbnail.width == 64
+    }
+
+    def samePixels(image1, image2) {
+        if (image1.width != image2.width || image1.height != image2.height) {
+            return false
+        }
+        for (int x = 0; x < image1.width; x += 7) {
+            for (int y = 0; y < image1.height; y += 7) {
+                if (image1.getRGB(x, y) != image2.getRGB(x, y)) {
+                    return false
+                }
+            }
+        }
+        return true
+    }
+}
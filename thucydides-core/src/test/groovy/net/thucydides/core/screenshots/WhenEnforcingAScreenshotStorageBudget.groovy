@@ -0,0 +1,254 @@
+package net.thucydides.core.screenshots
+
+import com.github.goldin.spock.extensions.tempdir.TempDir
+import net.thucydides.core.model.Story
+import net.thucydides.core.model.TestOutcome
+import net.thucydides.core.model.TestResult
+import net.thucydides.core.model.TestStep
+import net.thucydides.core.util.MockEnvironmentVariables
+import org.joda.time.DateTime
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import java.nio.file.Files
+import java.nio.file.attribute.BasicFileAttributes
+
+class WhenEnforcingAScreenshotStorageBudget extends Specification {
+
+    @TempDir File outputDirectory
+    @TempDir File reportDirectory
+
+    def environmentVariables = new MockEnvironmentVariables()
+
+    @Unroll
+    def "should read the storage budget from #budget"() {
+        given:
+            environmentVariables.setProperty("thucydides.screenshot.storage.budget", budget)
+        expect:
+            new ScreenshotStorageBudget(environmentVariables).maximumSize == maximumSize
+        where:
+            budget  | maximumSize
+            "5000"  | 5000
+            "2k"    | 2048
+            "500m"  | 500L * 1024 * 1024
+            "2GB"   | 2L * 1024 * 1024 * 1024
+    }
+
+    def "should not delete anything if no budget is defined"() {
+        given:
+            def outcome = outcomeWithScreenshot("a_test", TestResult.SUCCESS, 1, storedFile(1, 1000))
+        when:
+            def evictedFiles = new ScreenshotStorageBudget(environmentVariables).enforceOn(outputDirectory, [outcome])
+        then:
+            evictedFiles.isEmpty()
+            outputDirectory.list().size() == 1
+    }
+
+    def "should recognize stored screenshots and page sources"() {
+        expect:
+            ScreenshotStorageBudget.isStoredScreenshotOrPageSource(filename) == isStored
+        where:
+            filename                                                        | isStored
+            "6a0bceeab7f4fe24b6add7e76b1ff833_NONE.png"                     | true
+            "6a0bceeab7f4fe24b6add7e76b1ff833_HEAVY800_Q85.jpg"             | true
+            "thumbnail_6a0bceeab7f4fe24b6add7e76b1ff833_NONE.png"           | true
+            "6a0bceeab7f4fe24b6add7e76b1ff833.html.gz"                      | true
+            "6a0bceeab7f4fe24b6add7e76b1ff833.html"                         | true
+            "6a0bceeab7f4fe24b6add7e76b1ff833.xml"                          | false
+            "index.html"                                                    | false
+            "logo.png"                                                      | false
+    }
+
+    def "should delete screenshots that no test refers to first"() {
+        given:
+            environmentVariables.setProperty("thucydides.screenshot.storage.budget", "2500")
+            def outcome = outcomeWithScreenshot("a_test", TestResult.SUCCESS, 1, storedFile(1, 1000))
+            def orphan = storedFile(2, 2000)
+        when:
+            def evictedFiles = new ScreenshotStorageBudget(environmentVariables).enforceOn(outputDirectory, [outcome])
+        then:
+            evictedFiles == [orphan.name] as Set
+            !screenshotOf(outcome).evicted
+    }
+
+    def "should delete the screenshots of passing tests before those of failing tests"() {
+        given:
+            environmentVariables.setProperty("thucydides.screenshot.storage.budget", "2500")
+            def failingTest = outcomeWithScreenshot("a_failing_test", TestResult.FAILURE, 1, storedFile(1, 1000))
+            def passingTest = outcomeWithScreenshot("a_passing_test", TestResult.SUCCESS, 2, storedFile(2, 1000))
+            def anotherPassingTest = outcomeWithScreenshot("another_passing_test", TestResult.SUCCESS, 3, storedFile(3, 1000))
+        when:
+            def evictedFiles = new ScreenshotStorageBudget(environmentVariables).enforceOn(outputDirectory,
+                                                                                        [failingTest, anotherPassingTest, passingTest])
+        then:
+            evictedFiles == [screenshotOf(passingTest).screenshotName] as Set
+            screenshotOf(passingTest).evicted
+            !screenshotOf(anotherPassingTest).evicted
+            !screenshotOf(failingTest).evicted
+    }
+
+    def "should delete the screenshots of the oldest test runs first"() {
+        given:
+            environmentVariables.setProperty("thucydides.screenshot.storage.budget", "1500")
+            def recentTest = outcomeWithScreenshot("a_recent_test", TestResult.FAILURE, 5, storedFile(1, 1000))
+            def oldTest = outcomeWithScreenshot("an_old_test", TestResult.ERROR, 1, storedFile(2, 1000))
+        when:
+            new ScreenshotStorageBudget(environmentVariables).enforceOn(outputDirectory, [recentTest, oldTest])
+        then:
+            screenshotOf(oldTest).evicted
+            !screenshotOf(recentTest).evicted
+            outputDirectory.list() as Set == [screenshotOf(recentTest).screenshotName] as Set
+    }
+
+    def "should keep screenshots that are shared with tests that are not evicted"() {
+        given:
+            environmentVariables.setProperty("thucydides.screenshot.storage.budget", "1500")
+            def sharedScreenshot = storedFile(1, 1000)
+            def passingTest = outcomeWithScreenshot("a_passing_test", TestResult.SUCCESS, 1, sharedScreenshot)
+            def failingTest = outcomeWithScreenshot("a_failing_test", TestResult.FAILURE, 2, sharedScreenshot)
+            def otherScreenshot = storedFile(2, 1000)
+            def anotherFailingTest = outcomeWithScreenshot("another_failing_test", TestResult.FAILURE, 3, otherScreenshot)
+        when:
+            def evictedFiles = new ScreenshotStorageBudget(environmentVariables).enforceOn(outputDirectory,
+                                                                                        [passingTest, failingTest, anotherFailingTest])
+        then:
+            evictedFiles == [sharedScreenshot.name] as Set
+            screenshotOf(passingTest).evicted
+            screenshotOf(failingTest).evicted
+            !screenshotOf(anotherFailingTest).evicted
+    }
+
+    def "should mark screenshots deleted during earlier runs as evicted"() {
+        given:
+            environmentVariables.setProperty("thucydides.screenshot.storage.budget", "1m")
+            def screenshot = storedFile(1, 1000)
+            def outcome = outcomeWithScreenshot("a_test", TestResult.SUCCESS, 1, screenshot)
+            screenshot.delete()
+        when:
+            new ScreenshotStorageBudget(environmentVariables).enforceOn(outputDirectory, [outcome])
+        then:
+            screenshotOf(outcome).evicted
+            outcome.screenshots[0].evicted
+    }
+
+    def "should report the outcomes whose screenshots were marked as evicted"() {
+        given:
+            environmentVariables.setProperty("thucydides.screenshot.storage.budget", "1500")
+            def recentTest = outcomeWithScreenshot("a_recent_test", TestResult.FAILURE, 5, storedFile(1, 1000))
+            def oldTest = outcomeWithScreenshot("an_old_test", TestResult.ERROR, 1, storedFile(2, 1000))
+            def storageBudget = new ScreenshotStorageBudget(environmentVariables)
+        when:
+            storageBudget.enforceOn(outputDirectory, [recentTest, oldTest])
+        then:
+            storageBudget.updatedOutcomes == [oldTest]
+    }
+
+    def "should not report outcomes whose screenshots are already recorded as evicted"() {
+        given:
+            environmentVariables.setProperty("thucydides.screenshot.storage.budget", "1m")
+            def screenshot = storedFile(1, 1000)
+            def outcome = outcomeWithScreenshot("a_test", TestResult.SUCCESS, 1, screenshot)
+            outcome.testSteps[0].replaceScreenshot(0, screenshotOf(outcome).asEvicted())
+            screenshot.delete()
+            def storageBudget = new ScreenshotStorageBudget(environmentVariables)
+        when:
+            storageBudget.enforceOn(outputDirectory, [outcome])
+        then:
+            storageBudget.updatedOutcomes.isEmpty()
+            screenshotOf(outcome).evicted
+    }
+
+    def "should only count the files linked into the report directory once"() {
+        given:
+            environmentVariables.setProperty("thucydides.screenshot.storage.budget", "1500")
+            def screenshot = storedFile(1, 1000)
+            def outcome = outcomeWithScreenshot("a_test", TestResult.SUCCESS, 1, screenshot)
+            linkIntoReportDirectory(screenshot)
+        when:
+            def evictedFiles = new ScreenshotStorageBudget(environmentVariables).enforceOn(outputDirectory, reportDirectory, [outcome])
+        then:
+            evictedFiles.isEmpty()
+            new File(reportDirectory, screenshot.name).exists()
+    }
+
+    def "should free the disk space used by evicted files in the report directory"() {
+        given:
+            environmentVariables.setProperty("thucydides.screenshot.storage.budget", "2500")
+            def passingTest = outcomeWithScreenshot("a_passing_test", TestResult.SUCCESS, 1, storedFile(1, 1000))
+            def failingTest = outcomeWithScreenshot("a_failing_test", TestResult.FAILURE, 2, storedFile(2, 1000))
+            linkIntoReportDirectory(new File(outputDirectory, screenshotOf(passingTest).screenshotName))
+            copyIntoReportDirectory(new File(outputDirectory, screenshotOf(failingTest).screenshotName))
+        when:
+            def evictedFiles = new ScreenshotStorageBudget(environmentVariables).enforceOn(outputDirectory, reportDirectory,
+                                                                                        [passingTest, failingTest])
+        then:
+            evictedFiles == [screenshotOf(passingTest).screenshotName] as Set
+            reportDirectory.list() as Set == [screenshotOf(failingTest).screenshotName] as Set
+        and: "the copy in the report directory counts towards the budget"
+            diskSpaceUsedBy(outputDirectory, reportDirectory) == 2000
+    }
+
+    def "should count copies in the report directory towards the budget"() {
+        given:
+            environmentVariables.setProperty("thucydides.screenshot.storage.budget", "1500")
+            def screenshot = storedFile(1, 1000)
+            def outcome = outcomeWithScreenshot("a_test", TestResult.SUCCESS, 1, screenshot)
+            copyIntoReportDirectory(screenshot)
+        when:
+            def evictedFiles = new ScreenshotStorageBudget(environmentVariables).enforceOn(outputDirectory, reportDirectory, [outcome])
+        then:
+            evictedFiles == [screenshot.name] as Set
+            diskSpaceUsedBy(outputDirectory, reportDirectory) == 0
+            screenshotOf(outcome).evicted
+    }
+
+    def "should delete report copies of screenshots evicted during earlier runs"() {
+        given:
+            environmentVariables.setProperty("thucydides.screenshot.storage.budget", "1m")
+            def screenshot = storedFile(1, 1000)
+            def outcome = outcomeWithScreenshot("a_test", TestResult.SUCCESS, 1, screenshot)
+            copyIntoReportDirectory(screenshot)
+            screenshot.delete()
+        when:
+            new ScreenshotStorageBudget(environmentVariables).enforceOn(outputDirectory, reportDirectory, [outcome])
+        then:
+            screenshotOf(outcome).evicted
+            reportDirectory.list().size() == 0
+    }
+
+    def linkIntoReportDirectory(File storedFile) {
+        Files.createLink(new File(reportDirectory, storedFile.name).toPath(), storedFile.toPath())
+    }
+
+    def copyIntoReportDirectory(File storedFile) {
+        Files.copy(storedFile.toPath(), new File(reportDirectory, storedFile.name).toPath())
+    }
+
+    /**
+     * Hard links to the same file only take up disk space once.
+     */
+    def diskSpaceUsedBy(File... directories) {
+        def files = directories.collectMany { it.listFiles() as List }
+        files.unique { Files.readAttributes(it.toPath(), BasicFileAttributes).fileKey() }.sum(0) { it.length() }
+    }
+
+    def storedFile(int number, int size) {
+        def file = new File(outputDirectory, String.format("%032x_NONE.png", number))
+        file.bytes = new byte[size]
+        file.lastModified = 1000L * number
+        return file
+    }
+
+    def outcomeWithScreenshot(String name, TestResult result, int startHour, File screenshot) {
+        def outcome = TestOutcome.forTestInStory(name, Story.withId("a.story", "A story"))
+        outcome.setStartTime(new DateTime(2014, 1, 1, startHour, 0, 0, 0))
+        def step = TestStep.forStepCalled("a step").withResult(result)
+        step.addScreenshot(new ScreenshotAndHtmlSource(screenshot, null))
+        outcome.recordStep(step)
+        return outcome
+    }
+
+    def screenshotOf(TestOutcome outcome) {
+        outcome.testSteps[0].screenshots[0]
+    }
+}
@@ -0,0 +1,105 @@
+package net.thucydides.core.screenshots.integration
+
+import com.github.goldin.spock.extensions.tempdir.TempDir
+import com.google.common.io.Files
+import net.thucydides.core.screenshots.MultithreadScreenshotProcessor
+import net.thucydides.core.screenshots.QueuedScreenshot
+import net.thucydides.core.util.FileSystemUtils
+import net.thucydides.core.util.MockEnvironmentVariables
+import spock.lang.Specification
+
+class WhenProcessingScreenshotsInParallel extends Specification {
+
+    @TempDir File sourceDirectory
+    @TempDir File targetDirectory
+
+    def environmentVariables = new MockEnvironmentVariables()
+
+    private File copySourceScreenshot(int number) {
+        def sampleScreenshot = new File(FileSystemUtils.getResourceAsFile("screenshots"), "amazon.png")
+        def screenshot = new File(sourceDirectory, "amazon-${number}.png")
+        Files.copy(sampleScreenshot, screenshot)
+        return screenshot
+    }
+
+    def "should process all of the queued screenshots using several worker threads"() {
+        given:
+            environmentVariables.setProperty("thucydides.screenshot.processor.threads", "4")
+            def screenshotProcessor = new MultithreadScreenshotProcessor(environmentVariables)
+        when:
+            (1..20).each {
+                screenshotProcessor.queueScreenshot(new QueuedScreenshot(copySourceScreenshot(it),
+                                                                         new File(targetDirectory, "screenshot-${it}.png")))
+            }
+            screenshotProcessor.waitUntilDone()
+            screenshotProcessor.terminate()
+        then:
+            screenshotProcessor.isEmpty()
+            targetDirectory.list().size() == 20
+            sourceDirectory.list().size() == 0
+    }
+
+    def "should wait until the last screenshot has been written"() {
+        given:
+            environmentVariables.setProperty("thucydides.resized.image.width", "400")
+            def screenshotProcessor = new MultithreadScreenshotProcessor(environmentVariables)
+            def targetFile = new File(targetDirectory, "resized/screenshot.png")
+        when:
+            screenshotProcessor.queueScreenshot(new QueuedScreenshot(copySourceScreenshot(1), targetFile))
+            screenshotProcessor.waitUntilDone()
+        then:
+            targetFile.exists()
+            javax.imageio.ImageIO.read(targetFile).width == 400
+        cleanup:
+            screenshotProcessor.terminate()
+    }
+
+    def "should keep the test threads waiting rather than losing screenshots when the queue is full"() {
+        given:
+            environmentVariables.setProperty("thucydides.screenshot.processor.threads", "1")
+            environmentVariables.setProperty("thucydides.screenshot.queue.size", "1")
+            def screenshotProcessor = new MultithreadScreenshotProcessor(environmentVariables)
+        when:
+            (1..10).each {
+                screenshotProcessor.queueScreenshot(new QueuedScreenshot(copySourceScreenshot(it),
+                                                                         new File(targetDirectory, "screenshot-${it}.png")))
+            }
+            screenshotProcessor.waitUntilDone()
+            screenshotProcessor.terminate()
+        then:
+            targetDirectory.list().size() == 10
+    }
+
+    def "should write screenshots held in memory straight to their destination"() {
+        given:
+            environmentVariables.setProperty("thucydides.resized.image.width", resizedWidth)
+            def screenshotProcessor = new MultithreadScreenshotProcessor(environmentVariables)
+            def screenshotData = copySourceScreenshot(1).bytes
+            def targetFile = new File(targetDirectory, "screenshot.png")
+        when:
+            screenshotProcessor.queueScreenshot(new QueuedScreenshot(screenshotData, targetFile))
+            screenshotProcessor.waitUntilDone()
+            screenshotProcessor.terminate()
+        then:
+            targetFile.exists()
+            javax.imageio.ImageIO.read(targetFile).width == expectedWidth
+        where:
+            resizedWidth | expectedWidth
+            ""           | javax.imageio.ImageIO.read(new File(FileSystemUtils.getResourceAsFile("screenshots"), "amazon.png")).width
+            "400"        | 400
+    }
+
+    def "should only save a screenshot once if it is queued twice under the same name"() {
+        given:
+            def screenshotProcessor = new MultithreadScreenshotProcessor(environmentVariables)
+            def targetFile = new File(targetDirectory, "screenshot.png")
+        when:
+            screenshotProcessor.queueScreenshot(new QueuedScreenshot(copySourceScreenshot(1), targetFile))
+            screenshotProcessor.queueScreenshot(new QueuedScreenshot(copySourceScreenshot(2), targetFile))
+            screenshotProcessor.waitUntilDone()
+            screenshotProcessor.terminate()
+        then:
+            targetDirectory.list() as List == ["screenshot.png"]
+            sourceDirectory.list().size() == 0
+    }
+}
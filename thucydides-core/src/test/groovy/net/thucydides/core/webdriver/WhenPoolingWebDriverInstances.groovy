@@ -0,0 +1,170 @@
+package net.thucydides.core.webdriver
+
+import net.thucydides.core.fixtureservices.FixtureProviderService
+import net.thucydides.core.guice.Injectors
+import net.thucydides.core.steps.StepEventBus
+import net.thucydides.core.util.MockEnvironmentVariables
+import net.thucydides.core.webdriver.firefox.FirefoxProfileEnhancer
+import org.openqa.selenium.Capabilities
+import org.openqa.selenium.WebDriver
+import org.openqa.selenium.WebDriverException
+import org.openqa.selenium.htmlunit.HtmlUnitDriver
+import spock.lang.Specification
+
+class WhenPoolingWebDriverInstances extends Specification {
+
+    def environmentVariables = new MockEnvironmentVariables()
+    def options = Mock(WebDriver.Options)
+    def targetLocator = Mock(WebDriver.TargetLocator)
+
+    def setup() {
+        environmentVariables.setProperty("thucydides.driver.pool", "true")
+    }
+
+    def "should close released browsers if driver pooling is not active"() {
+        given:
+            def pool = new WebDriverPool(new MockEnvironmentVariables())
+            def browser = aBrowser()
+        when:
+            pool.release("firefox", browser)
+        then:
+            1 * browser.quit()
+            pool.idleDriverCount == 0
+            !pool.borrowDriverFor("firefox").isPresent()
+    }
+
+    def "should reset released browsers and hand them to the next test"() {
+        given:
+            def pool = new WebDriverPool(environmentVariables)
+            def browser = aBrowser()
+        when:
+            pool.release("firefox", browser)
+        then:
+            1 * options.deleteAllCookies()
+            1 * browser.get("about:blank")
+            0 * browser.quit()
+        and:
+            pool.borrowDriverFor("firefox").get() == browser
+            pool.idleDriverCount == 0
+    }
+
+    def "should only hand browsers to tests that need the same type of browser"() {
+        given:
+            def pool = new WebDriverPool(environmentVariables)
+            pool.release("firefox", aBrowser())
+        expect:
+            !pool.borrowDriverFor("chrome").isPresent()
+            pool.borrowDriverFor("firefox").isPresent()
+    }
+
+    def "should close any extra windows before reusing a browser"() {
+        given:
+            def pool = new WebDriverPool(environmentVariables)
+            def browser = aBrowser(["main", "popup"])
+        when:
+            pool.release("firefox", browser)
+        then:
+            1 * targetLocator.window("popup")
+        then:
+            1 * browser.close()
+        then:
+            1 * targetLocator.window("main")
+    }
+
+    def "should close browsers that cannot be reset"() {
+        given:
+            def pool = new WebDriverPool(environmentVariables)
+            def browser = aBrowser()
+            browser.get("about:blank") >> { throw new WebDriverException("browser crashed") }
+        when:
+            pool.release("firefox", browser)
+        then:
+            1 * browser.quit()
+            pool.idleDriverCount == 0
+    }
+
+    def "should not hand out browsers that no longer respond"() {
+        given:
+            def pool = new WebDriverPool(environmentVariables)
+            def deadBrowser = Mock(WebDriver)
+            deadBrowser.manage() >> options
+            deadBrowser.switchTo() >> targetLocator
+            deadBrowser.getWindowHandles() >> (["main"] as Set) >> { throw new WebDriverException("browser crashed") }
+            pool.release("firefox", deadBrowser)
+        when:
+            def borrowedDriver = pool.borrowDriverFor("firefox")
+        then:
+            !borrowedDriver.isPresent()
+            1 * deadBrowser.quit()
+    }
+
+    def "should close browsers that have been reused the maximum number of times"() {
+        given:
+            environmentVariables.setProperty("thucydides.driver.pool.max.reuse", "2")
+            def pool = new WebDriverPool(environmentVariables)
+            def browser = aBrowser()
+        when:
+            pool.release("firefox", browser)
+            pool.borrowDriverFor("firefox")
+            pool.release("firefox", browser)
+        then:
+            1 * browser.quit()
+            pool.idleDriverCount == 0
+    }
+
+    def "should close browsers that have been idle for too long"() {
+        given:
+            environmentVariables.setProperty("thucydides.driver.pool.idle.timeout", "60")
+            def now = 0L
+            def pool = new WebDriverPool(environmentVariables) {
+                @Override
+                protected long currentTime() { return now }
+            }
+            def browser = aBrowser()
+            pool.release("firefox", browser)
+        when:
+            now = 61000L
+            def borrowedDriver = pool.borrowDriverFor("firefox")
+        then:
+            !borrowedDriver.isPresent()
+            1 * browser.quit()
+    }
+
+    def "should reuse a pooled browser rather than start a new one"() {
+        given:
+            def htmlunit = Mock(HtmlUnitDriver)
+            htmlunit.getWindowHandles() >> (["main"] as Set)
+            htmlunit.manage() >> options
+            htmlunit.switchTo() >> targetLocator
+            def startedBrowsers = 0
+            def webdriverInstanceFactory = new WebdriverInstanceFactory() {
+                @Override
+                WebDriver newHtmlUnitDriver(Capabilities capabilities) {
+                    startedBrowsers++
+                    return htmlunit
+                }
+            }
+            def webDriverFactory = new WebDriverFactory(webdriverInstanceFactory, environmentVariables,
+                                                        new FirefoxProfileEnhancer(environmentVariables),
+                                                        Injectors.getInjector().getInstance(FixtureProviderService),
+                                                        Injectors.getInjector().getInstance(ElementProxyCreator),
+                                                        new WebDriverPool(environmentVariables))
+            def webdriverManager = new ThucydidesWebdriverManager(webDriverFactory, new SystemPropertiesConfiguration(environmentVariables))
+            StepEventBus.eventBus.clear()
+        when:
+            webdriverManager.getWebdriver("htmlunit").get("http://www.google.com")
+            webdriverManager.closeAllCurrentDrivers()
+            webdriverManager.getWebdriver("htmlunit").get("http://www.google.com")
+        then:
+            startedBrowsers == 1
+            0 * htmlunit.quit()
+    }
+
+    def aBrowser(List<String> windows = ["main"]) {
+        def browser = Mock(WebDriver)
+        browser.getWindowHandles() >> (windows as LinkedHashSet)
+        browser.manage() >> options
+        browser.switchTo() >> targetLocator
+        return browser
+    }
+}
@@ -0,0 +1,132 @@
+package net.thucydides.core.webdriver
+
+import net.thucydides.core.fixtureservices.FixtureProviderService
+import net.thucydides.core.guice.Injectors
+import net.thucydides.core.model.TestOutcome
+import net.thucydides.core.util.MockEnvironmentVariables
+import net.thucydides.core.webdriver.firefox.FirefoxProfileEnhancer
+import org.openqa.selenium.Capabilities
+import org.openqa.selenium.WebDriver
+import org.openqa.selenium.WebDriverException
+import org.openqa.selenium.htmlunit.HtmlUnitDriver
+import spock.lang.Specification
+
+class WhenPrewarmingBrowsers extends Specification {
+
+    def environmentVariables = new MockEnvironmentVariables()
+    def htmlunit = Mock(HtmlUnitDriver)
+    def fixtureProviderService = Mock(FixtureProviderService)
+    def startedBrowsers = 0
+    def failedStarts = 0
+
+    def webdriverInstanceFactory = new WebdriverInstanceFactory() {
+        @Override
+        WebDriver newHtmlUnitDriver(Capabilities capabilities) {
+            if (failedStarts > 0) {
+                failedStarts--
+                throw new WebDriverException("browser crashed")
+            }
+            startedBrowsers++
+            return htmlunit
+        }
+    }
+
+    def setup() {
+        environmentVariables.setProperty("thucydides.driver.prewarm", "true")
+        fixtureProviderService.getFixtureServices() >> []
+    }
+
+    def "should not start browsers in the background unless pre-warming is active"() {
+        given:
+            def webDriverFactory = factoryUsing(new MockEnvironmentVariables())
+        when:
+            webDriverFactory.prewarmWebdriverInstance(HtmlUnitDriver)
+        then:
+            !webDriverFactory.takeWarmWebdriverInstance(HtmlUnitDriver).isPresent()
+            startedBrowsers == 0
+    }
+
+    def "should hand the pre-warmed browser to the test that needs it"() {
+        given:
+            def webDriverFactory = factoryUsing(environmentVariables)
+            webDriverFactory.prewarmWebdriverInstance(HtmlUnitDriver)
+        when:
+            def driver = new WebDriverFacade(HtmlUnitDriver, webDriverFactory).getProxiedDriver()
+        then:
+            driver == htmlunit
+            startedBrowsers == 1
+    }
+
+    def "should only pre-warm one browser of each type at a time"() {
+        given:
+            def webDriverFactory = factoryUsing(environmentVariables)
+        when:
+            webDriverFactory.prewarmWebdriverInstance(HtmlUnitDriver)
+            webDriverFactory.prewarmWebdriverInstance(HtmlUnitDriver)
+        then:
+            webDriverFactory.takeWarmWebdriverInstance(HtmlUnitDriver).isPresent()
+            !webDriverFactory.takeWarmWebdriverInstance(HtmlUnitDriver).isPresent()
+            startedBrowsers == 1
+    }
+
+    def "should start a new browser if the pre-warmed browser could not be started"() {
+        given:
+            failedStarts = 1
+            def webDriverFactory = factoryUsing(environmentVariables)
+            webDriverFactory.prewarmWebdriverInstance(HtmlUnitDriver)
+        when:
+            def driver = new WebDriverFacade(HtmlUnitDriver, webDriverFactory).getProxiedDriver()
+        then:
+            driver == htmlunit
+            startedBrowsers == 1
+    }
+
+    def "should close pre-warmed browsers that were never used"() {
+        given:
+            def prewarmer = new WebDriverPrewarmer(environmentVariables)
+            def webDriverFactory = factoryUsing(environmentVariables, prewarmer)
+            webDriverFactory.prewarmWebdriverInstance(HtmlUnitDriver)
+        when:
+            prewarmer.closeWarmDrivers()
+        then:
+            1 * htmlunit.quit()
+            !webDriverFactory.takeWarmWebdriverInstance(HtmlUnitDriver).isPresent()
+    }
+
+    def "should not pre-warm browsers when fixture services are used"() {
+        given:
+            def webDriverFactory = new WebDriverFactory(webdriverInstanceFactory, environmentVariables,
+                                                        new FirefoxProfileEnhancer(environmentVariables),
+                                                        Injectors.getInjector().getInstance(FixtureProviderService),
+                                                        Injectors.getInjector().getInstance(ElementProxyCreator),
+                                                        new WebDriverPool(environmentVariables),
+                                                        new DriverLaunchPermits(environmentVariables),
+                                                        new WebDriverPrewarmer(environmentVariables))
+        when:
+            webDriverFactory.prewarmWebdriverInstance(HtmlUnitDriver)
+        then:
+            !webDriverFactory.takeWarmWebdriverInstance(HtmlUnitDriver).isPresent()
+            startedBrowsers == 0
+    }
+
+    def "should record the time taken to start the browser"() {
+        given:
+            def testOutcome = new TestOutcome("a_test")
+        when:
+            testOutcome.recordBrowserStartupTime(1200)
+            testOutcome.recordBrowserStartupTime(300)
+        then:
+            testOutcome.browserStartupTime == 1500
+    }
+
+    def factoryUsing(MockEnvironmentVariables environmentVariables,
+                     WebDriverPrewarmer prewarmer = new WebDriverPrewarmer(environmentVariables)) {
+        new WebDriverFactory(webdriverInstanceFactory, environmentVariables,
+                             new FirefoxProfileEnhancer(environmentVariables),
+                             fixtureProviderService,
+                             Injectors.getInjector().getInstance(ElementProxyCreator),
+                             new WebDriverPool(environmentVariables),
+                             new DriverLaunchPermits(environmentVariables),
+                             prewarmer)
+    }
+}
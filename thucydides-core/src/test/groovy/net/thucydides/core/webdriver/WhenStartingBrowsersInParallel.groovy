@@ -0,0 +1,94 @@
+package net.thucydides.core.webdriver
+
+import net.thucydides.core.fixtureservices.FixtureProviderService
+import net.thucydides.core.guice.Injectors
+import net.thucydides.core.util.MockEnvironmentVariables
+import net.thucydides.core.webdriver.firefox.FirefoxProfileEnhancer
+import org.openqa.selenium.Capabilities
+import org.openqa.selenium.WebDriver
+import org.openqa.selenium.htmlunit.HtmlUnitDriver
+import spock.lang.Specification
+
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+class WhenStartingBrowsersInParallel extends Specification {
+
+    def environmentVariables = new MockEnvironmentVariables()
+    def htmlunit = Mock(HtmlUnitDriver)
+
+    def "should start several browsers at the same time"() {
+        given:
+            def browsersStarting = new CountDownLatch(3)
+            def webDriverFactory = factoryUsing(new WebdriverInstanceFactory() {
+                @Override
+                WebDriver newHtmlUnitDriver(Capabilities capabilities) {
+                    browsersStarting.countDown()
+                    browsersStarting.await(10, TimeUnit.SECONDS)
+                    return htmlunit
+                }
+            })
+        when:
+            def startedBrowsers = startBrowsersInParallel(webDriverFactory, 3)
+        then:
+            startedBrowsers.size() == 3
+            browsersStarting.count == 0
+    }
+
+    def "should limit how many browsers of the same type start at the same time"() {
+        given:
+            environmentVariables.setProperty("thucydides.driver.launch.permits.htmlunit", "1")
+            def browsersStarting = new AtomicInteger()
+            def mostBrowsersStarting = new AtomicInteger()
+            def webDriverFactory = factoryUsing(new WebdriverInstanceFactory() {
+                @Override
+                WebDriver newHtmlUnitDriver(Capabilities capabilities) {
+                    def startingNow = browsersStarting.incrementAndGet()
+                    mostBrowsersStarting.set(Math.max(mostBrowsersStarting.get(), startingNow))
+                    Thread.sleep(50)
+                    browsersStarting.decrementAndGet()
+                    return htmlunit
+                }
+            })
+        when:
+            def startedBrowsers = startBrowsersInParallel(webDriverFactory, 3)
+        then:
+            startedBrowsers.size() == 3
+            mostBrowsersStarting.get() == 1
+    }
+
+    def "should use the launch limit for a type of browser in preference to the general limit"() {
+        given:
+            environmentVariables.setProperty("thucydides.driver.launch.permits", "4")
+            environmentVariables.setProperty("thucydides.driver.launch.permits.firefox", "2")
+            def launchPermits = new DriverLaunchPermits(environmentVariables)
+        expect:
+            launchPermits.getMaximumLaunchesFor("firefox") == 2
+            launchPermits.getMaximumLaunchesFor("chrome") == 4
+            new DriverLaunchPermits(new MockEnvironmentVariables()).getMaximumLaunchesFor("firefox") == 0
+    }
+
+    def "should share the Firefox profile list between driver factories"() {
+        expect:
+            new WebDriverFactory(environmentVariables).allProfiles.is(new WebDriverFactory(environmentVariables).allProfiles)
+    }
+
+    def factoryUsing(WebdriverInstanceFactory webdriverInstanceFactory) {
+        new WebDriverFactory(webdriverInstanceFactory, environmentVariables,
+                             new FirefoxProfileEnhancer(environmentVariables),
+                             Injectors.getInjector().getInstance(FixtureProviderService),
+                             Injectors.getInjector().getInstance(ElementProxyCreator),
+                             new WebDriverPool(environmentVariables),
+                             new DriverLaunchPermits(environmentVariables))
+    }
+
+    def startBrowsersInParallel(WebDriverFactory webDriverFactory, int browserCount) {
+        def startedBrowsers = Collections.synchronizedList([])
+        def threads = (1..browserCount).collect {
+            Thread.start { startedBrowsers << webDriverFactory.newWebdriverInstance(HtmlUnitDriver) }
+        }
+        threads*.join()
+        return startedBrowsers
+    }
+}
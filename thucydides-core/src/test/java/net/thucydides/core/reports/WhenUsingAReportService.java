@@ -10,12 +10,15 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.fail;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -82,6 +85,27 @@ public class WhenUsingAReportService {
         verify(reporter).setOutputDirectory(outputDirectory);
     }
 
+    @Test
+    public void a_report_service_should_report_failed_reports_once_the_other_reports_are_generated() throws Exception {
+        List<TestOutcome> testOutcomeResults = new ArrayList<>();
+        for(int i = 0; i < 10; i++) {
+            testOutcomeResults.add(TestOutcome.forTestInStory("test" + i, Story.withId("s1", "Story 1")));
+        }
+        TestOutcome brokenOutcome = testOutcomeResults.get(3);
+        doThrow(new IOException("Disk full")).when(reporter).generateReportFor(eq(brokenOutcome), Matchers.any(TestOutcomes.class));
+
+        ReportService reportService = new ReportService(outputDirectory, new ArrayList<AcceptanceTestReporter>());
+        reportService.subscribe(reporter);
+
+        try {
+            reportService.generateReportsFor(testOutcomeResults);
+            fail("Expected a ReportGenerationFailedError");
+        } catch (ReportGenerationFailedError expected) {
+            assertThat(expected.getCause(), instanceOf(IOException.class));
+        }
+        verify(reporter, times(10)).generateReportFor(Matchers.any(TestOutcome.class), Matchers.any(TestOutcomes.class));
+    }
+
     @Test
     public void default_reporters_should_include_xml_html_and_json() {
         List reporters = ReportService.getDefaultReporters();
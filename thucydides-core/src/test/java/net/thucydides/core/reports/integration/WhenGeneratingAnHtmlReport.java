@@ -184,6 +184,31 @@ public class WhenGeneratingAnHtmlReport extends AbstractReportGenerationTest {
                                         containsString("src=\"google_page_3.png\"")));
     }
 
+    @Test
+    public void generating_the_screenshots_report_should_not_modify_the_screenshot_images()  throws Exception {
+        TestOutcome testOutcome = TestOutcome.forTest("search_for_cats", SomeTestScenario.class);
+
+        recordStepWithScreenshot(testOutcome, "Search cats on Google", "google_page_1.png");
+        recordStepWithScreenshot(testOutcome, "View the results", "amazon.png");
+        File screenshot = new File(outputDirectory, "amazon.png");
+        byte[] originalScreenshot = FileUtils.readFileToByteArray(screenshot);
+
+        reporter.generateReportFor(testOutcome, allTestOutcomes);
+
+        assertThat(FileUtils.readFileToByteArray(screenshot), is(originalScreenshot));
+    }
+
+    @Test
+    public void the_test_report_should_use_screenshot_thumbnails_if_they_are_configured()  throws Exception {
+        TestOutcome testOutcome = TestOutcome.forTest("search_for_cats", SomeTestScenario.class);
+        recordStepWithScreenshot(testOutcome, "Search cats on Google", "google_page_1.png");
+
+        environmentVariables.setProperty("thucydides.screenshot.thumbnail.width", "48");
+        File report = reporter.generateReportFor(testOutcome, allTestOutcomes);
+
+        assertThat(FileUtils.readFileToString(report), containsString("src=\"thumbnail_google_page_1.png\""));
+    }
+
     @Test
     public void the_screenshots_report_should_contain_captions_with_the_step_descriptions()  throws Exception {
         TestOutcome testOutcome = TestOutcome.forTest("should_do_this", SomeTestScenario.class);
@@ -899,6 +899,28 @@ public class WhenGeneratingAnXMLReport {
         assertThat(generatedReportText, isSimilarTo(expectedReport,"timestamp"));
     }
 
+    @Test
+    public void should_include_the_size_of_any_screenshots_where_known() throws Exception {
+        TestOutcome testOutcome = TestOutcome.forTest("a_simple_test_case", SomeTestScenario.class);
+
+        File screenshot = temporaryDirectory.newFile("step_1.png");
+        File source = temporaryDirectory.newFile("step_1.html");
+
+        TestStep step1 = TestStepFactory.successfulTestStepCalled("step 1");
+        step1.addScreenshot(new ScreenshotAndHtmlSource(screenshot, source, 800, 600));
+        testOutcome.recordStep(step1);
+
+        File xmlReport = reporter.generateReportFor(testOutcome, allTestOutcomes);
+        String generatedReportText = getStringFrom(xmlReport);
+
+        assertThat(generatedReportText, containsString("<screenshot image=\"step_1.png\" source=\"step_1.html\" width=\"800\" height=\"600\"/>"));
+
+        ScreenshotAndHtmlSource reloadedScreenshot = new XMLTestOutcomeReporter().loadReportFrom(xmlReport).get()
+                                                                                 .getTestSteps().get(0).getScreenshots().get(0);
+        assertThat(reloadedScreenshot.getWidth(), is(800));
+        assertThat(reloadedScreenshot.getHeight(), is(600));
+    }
+
     @Test
     public void should_have_a_qualified_filename_if_qualifier_present() throws Exception {
         TestOutcome testOutcome = TestOutcome.forTest("a_simple_test_case", SomeTestScenario.class);
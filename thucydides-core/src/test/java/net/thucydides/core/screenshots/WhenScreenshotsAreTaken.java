@@ -9,19 +9,29 @@ import org.apache.commons.io.FileUtils;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.openqa.selenium.OutputType;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
 import org.openqa.selenium.firefox.FirefoxDriver;
 import org.openqa.selenium.htmlunit.HtmlUnitDriver;
 
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.endsWith;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyObject;
 import static org.mockito.Mockito.*;
@@ -33,6 +43,7 @@ public class WhenScreenshotsAreTaken {
 
     private File screenshotDirectory;
     private File screenshotTaken;
+    private byte[] screenshotData;
     private File originalScreenshot;
     private File expectedResizedScreenshot;
 
@@ -59,11 +70,6 @@ public class WhenScreenshotsAreTaken {
         protected boolean driverCanTakeSnapshots() {
             return (driver != null);
         }
-
-        @Override
-        protected File blur(File srcFile) throws IOException {
-            return srcFile;
-        }
     }
 
     EnvironmentVariables environmentVariables = new MockEnvironmentVariables();
@@ -82,13 +88,14 @@ public class WhenScreenshotsAreTaken {
         expectedResizedScreenshot = FileSystemUtils.getResourceAsFile("screenshots/resized_google_page_1.png");
         screenshotTaken = temporaryDirectory.newFile("google_page_1.png");
         FileUtils.copyFile(originalScreenshot, screenshotTaken);
+        screenshotData = FileUtils.readFileToByteArray(screenshotTaken);
     }
 
     @Test
     public void the_driver_should_not_take_screenshots_if_the_driver_is_not_available() throws Exception {
 
         Photographer photographer = new MockPhotographer(null, screenshotDirectory);
-        when(driver.getScreenshotAs(OutputType.FILE)).thenReturn(screenshotTaken);
+        when(driver.getScreenshotAs(OutputType.BYTES)).thenReturn(screenshotData);
         photographer.takeScreenshot();
         waitUntilScreenshotsProcessed();
 
@@ -98,7 +105,7 @@ public class WhenScreenshotsAreTaken {
     @Test
     public void the_driver_should_capture_the_image() throws Exception {
 
-        when(driver.getScreenshotAs(OutputType.FILE)).thenReturn(screenshotTaken);
+        when(driver.getScreenshotAs(OutputType.BYTES)).thenReturn(screenshotData);
         photographer.takeScreenshot();
         waitUntilScreenshotsProcessed();
 
@@ -109,7 +116,7 @@ public class WhenScreenshotsAreTaken {
     public void should_blur_screenshot_if_requested() throws Exception {
 
         Photographer outOfFocusPhotographer = new Photographer(driver, screenshotDirectory, BlurLevel.HEAVY);
-        when(driver.getScreenshotAs(OutputType.FILE)).thenReturn(screenshotTaken);
+        when(driver.getScreenshotAs(OutputType.BYTES)).thenReturn(screenshotData);
         Optional<File> blurredScreenshot = outOfFocusPhotographer.takeScreenshot();
         waitUntilScreenshotsProcessed();
 
@@ -120,7 +127,7 @@ public class WhenScreenshotsAreTaken {
     public void should_not_blur_screenshot_by_default() throws Exception {
 
         Photographer outOfFocusPhotographer = new Photographer(driver, screenshotDirectory);
-        when(driver.getScreenshotAs(OutputType.FILE)).thenReturn(screenshotTaken);
+        when(driver.getScreenshotAs(OutputType.BYTES)).thenReturn(screenshotData);
         Optional<File> blurredScreenshot = outOfFocusPhotographer.takeScreenshot();
         waitUntilScreenshotsProcessed();
 
@@ -130,7 +137,7 @@ public class WhenScreenshotsAreTaken {
     @Test
     public void should_not_take_a_snapshot_if_unsupported_by_the_driver() throws Exception {
 
-        when(driver.getScreenshotAs(OutputType.FILE)).thenReturn(screenshotTaken);
+        when(driver.getScreenshotAs(OutputType.BYTES)).thenReturn(screenshotData);
         Photographer photographer = new Photographer(htmlDriver, screenshotDirectory);
         photographer.takeScreenshot();
         waitUntilScreenshotsProcessed();
@@ -141,7 +148,7 @@ public class WhenScreenshotsAreTaken {
     @Test
     public void the_screenshot_should_be_stored_in_the_target_directory() throws IOException, InterruptedException{
 
-        when(driver.getScreenshotAs(OutputType.FILE)).thenReturn(screenshotTaken);
+        when(driver.getScreenshotAs(OutputType.BYTES)).thenReturn(screenshotData);
 
         String screenshotFile = photographer.takeScreenshot().get().getName();
         waitUntilScreenshotsProcessed();
@@ -159,7 +166,7 @@ public class WhenScreenshotsAreTaken {
     @Test
     public void the_photographer_should_return_the_stored_screenshot_filename() throws IOException, InterruptedException {
 
-        when(driver.getScreenshotAs(OutputType.FILE)).thenReturn(screenshotTaken);
+        when(driver.getScreenshotAs(OutputType.BYTES)).thenReturn(screenshotData);
         
         String savedFileName = photographer.takeScreenshot().get().getName();
         waitUntilScreenshotsProcessed();
@@ -178,7 +185,7 @@ public class WhenScreenshotsAreTaken {
 //                                                     null,
 //                                                     environmentVariables);
 //
-//        when(driver.getScreenshotAs(OutputType.FILE)).thenReturn(screenshotTaken);
+//        when(driver.getScreenshotAs(OutputType.BYTES)).thenReturn(screenshotData);
 //        when(driver.getPageSource()).thenReturn("<html/>");
 //
 //        File screenshotFile = photographer.takeScreenshot().get();
@@ -192,7 +199,7 @@ public class WhenScreenshotsAreTaken {
 
     @Test
     public void calling_api_generates_a_filename_safe_hashed_name_for_the_screenshot() throws Exception {
-        when(driver.getScreenshotAs(OutputType.FILE)).thenReturn(screenshotTaken);
+        when(driver.getScreenshotAs(OutputType.BYTES)).thenReturn(screenshotData);
 
         String screenshotFile = photographer.takeScreenshot().get().getName();
         waitUntilScreenshotsProcessed();
@@ -202,7 +209,7 @@ public class WhenScreenshotsAreTaken {
     
     @Test
     public void by_default_screenshot_files_start_with_Screenshot() throws Exception {
-        when(driver.getScreenshotAs(OutputType.FILE)).thenReturn(screenshotTaken);
+        when(driver.getScreenshotAs(OutputType.BYTES)).thenReturn(screenshotData);
 
         String screenshotFile = photographer.takeScreenshot().get().getName();
         waitUntilScreenshotsProcessed();
@@ -216,7 +223,7 @@ public class WhenScreenshotsAreTaken {
     @Test
     public void should_send_screenshots_to_screenshot_processor() {
 
-        when(driver.getScreenshotAs(OutputType.FILE)).thenReturn(screenshotTaken);
+        when(driver.getScreenshotAs(OutputType.BYTES)).thenReturn(screenshotData);
         photographer.setScreenshotProcessor(screenshotProcessor);
 
         photographer.takeScreenshot();
@@ -225,26 +232,220 @@ public class WhenScreenshotsAreTaken {
     }
 
     @Test
-    public void should_blur_screenshots_if_blurScreenshots_option_is_present() throws Exception {
-        Photographer photographer = new MockPhotographer(driver, screenshotDirectory, BlurLevel.HEAVY);
-        photographer = spy(photographer);
-        when(driver.getScreenshotAs(OutputType.FILE)).thenReturn(screenshotTaken);
-        photographer.takeScreenshot();
+    public void should_send_the_screenshot_data_to_the_screenshot_processor_without_using_a_temporary_file() {
+
+        when(driver.getScreenshotAs(OutputType.BYTES)).thenReturn(screenshotData);
+        photographer.setScreenshotProcessor(screenshotProcessor);
+
+        File savedScreenshot = photographer.takeScreenshot().get();
+
+        ArgumentCaptor<QueuedScreenshot> queuedScreenshot = ArgumentCaptor.forClass(QueuedScreenshot.class);
+        verify(screenshotProcessor).queueScreenshot(queuedScreenshot.capture());
+        assertThat(queuedScreenshot.getValue().isInMemory(), is(true));
+        assertThat(queuedScreenshot.getValue().getSourceFile(), is(nullValue()));
+        assertThat(queuedScreenshot.getValue().getDestinationFile(), is(savedScreenshot));
+    }
+
+    @Test
+    public void should_not_write_a_screenshot_that_has_already_been_stored() throws IOException {
+
+        when(driver.getScreenshotAs(OutputType.BYTES)).thenReturn(screenshotData);
+        FileUtils.copyFile(originalScreenshot, new File(screenshotDirectory, "6a0bceeab7f4fe24b6add7e76b1ff833_NONE.png"));
+        photographer.setScreenshotProcessor(screenshotProcessor);
+
+        String screenshotFile = photographer.takeScreenshot().get().getName();
+
+        assertThat(screenshotFile, equalTo("6a0bceeab7f4fe24b6add7e76b1ff833_NONE.png"));
+        verify(screenshotProcessor, never()).queueScreenshot((QueuedScreenshot) anyObject());
+    }
+
+    @Test
+    public void should_accept_screenshots_returned_as_files_by_the_driver() throws Exception {
+        doReturn(screenshotTaken).when(driver).getScreenshotAs(OutputType.BYTES);
+
+        String screenshotFile = photographer.takeScreenshot().get().getName();
         waitUntilScreenshotsProcessed();
 
-        verify(photographer, times(1)).blur(any(File.class));
+        assertThat(screenshotFile, equalTo("6a0bceeab7f4fe24b6add7e76b1ff833_NONE.png"));
+        assertThat(new File(screenshotDirectory, screenshotFile).isFile(), is(true));
+    }
+
+    @Test
+    public void should_record_the_size_of_the_stored_screenshot() throws IOException {
+
+        when(driver.getScreenshotAs(OutputType.BYTES)).thenReturn(screenshotData);
+        photographer.setScreenshotProcessor(screenshotProcessor);
+        BufferedImage image = ImageIO.read(originalScreenshot);
+
+        ScreenshotAndHtmlSource screenshot = photographer.recordScreenshot().get();
+
+        assertThat(screenshot.getWidth(), is(image.getWidth()));
+        assertThat(screenshot.getHeight(), is(image.getHeight()));
+    }
+
+    @Test
+    public void should_record_the_size_of_the_screenshot_after_it_is_resized() throws IOException {
+
+        environmentVariables.setProperty("thucydides.resized.image.width", "400");
+        when(driver.getScreenshotAs(OutputType.BYTES)).thenReturn(screenshotData);
+        Photographer photographer = new Photographer(driver, screenshotDirectory, screenshotProcessor, null, environmentVariables);
+        BufferedImage image = ImageIO.read(originalScreenshot);
+
+        ScreenshotAndHtmlSource screenshot = photographer.recordScreenshot().get();
+
+        assertThat(screenshot.getWidth(), is(400));
+        assertThat(screenshot.getHeight(), is(image.getHeight() * 400 / image.getWidth()));
+    }
+
+    @Test
+    public void should_reuse_the_previous_screenshot_for_an_optional_screenshot_that_looks_the_same() throws IOException {
+
+        environmentVariables.setProperty("thucydides.screenshot.similarity.threshold", "97");
+        byte[] screenshotWithCursor = withBlinkingCursor(originalScreenshot);
+        when(driver.getScreenshotAs(OutputType.BYTES)).thenReturn(screenshotData).thenReturn(screenshotWithCursor);
+        Photographer photographer = new Photographer(driver, screenshotDirectory, screenshotProcessor, null, environmentVariables);
+        photographer.setSimilarScreenshots(new SimilarScreenshots(environmentVariables));
+
+        File firstScreenshot = photographer.takeOptionalScreenshot().get();
+        File secondScreenshot = photographer.takeOptionalScreenshot().get();
+
+        assertThat(secondScreenshot, is(firstScreenshot));
+        verify(screenshotProcessor, times(1)).queueScreenshot((QueuedScreenshot) anyObject());
+    }
+
+    @Test
+    public void should_store_mandatory_screenshots_even_if_they_look_the_same_as_the_previous_one() throws IOException {
+
+        environmentVariables.setProperty("thucydides.screenshot.similarity.threshold", "97");
+        byte[] screenshotWithCursor = withBlinkingCursor(originalScreenshot);
+        when(driver.getScreenshotAs(OutputType.BYTES)).thenReturn(screenshotData).thenReturn(screenshotWithCursor);
+        Photographer photographer = new Photographer(driver, screenshotDirectory, screenshotProcessor, null, environmentVariables);
+        photographer.setSimilarScreenshots(new SimilarScreenshots(environmentVariables));
+
+        File firstScreenshot = photographer.takeOptionalScreenshot().get();
+        File secondScreenshot = photographer.takeScreenshot().get();
+
+        assertThat(secondScreenshot, is(not(firstScreenshot)));
+        verify(screenshotProcessor, times(2)).queueScreenshot((QueuedScreenshot) anyObject());
+    }
+
+    @Test
+    public void should_crop_screenshots_of_an_element_to_the_area_of_the_element() throws IOException {
+
+        when(driver.getScreenshotAs(OutputType.BYTES)).thenReturn(screenshotData);
+        Photographer photographer = new Photographer(driver, screenshotDirectory, screenshotProcessor, null, environmentVariables);
+
+        ScreenshotAndHtmlSource screenshot = photographer.recordScreenshotOf(elementAt(10, 20, 100, 50)).get();
+
+        BufferedImage croppedImage = ImageIO.read(processed(queuedScreenshot()));
+        BufferedImage image = ImageIO.read(originalScreenshot);
+        assertThat(croppedImage.getWidth(), is(100));
+        assertThat(croppedImage.getHeight(), is(50));
+        assertThat(croppedImage.getRGB(0, 0), is(image.getRGB(10, 20)));
+        assertThat(screenshot.getWidth(), is(100));
+        assertThat(screenshot.getHeight(), is(50));
+    }
+
+    @Test
+    public void should_leave_cropping_screenshots_to_the_screenshot_processor() throws IOException {
+
+        when(driver.getScreenshotAs(OutputType.BYTES)).thenReturn(screenshotData);
+        Photographer photographer = new Photographer(driver, screenshotDirectory, screenshotProcessor, null, environmentVariables);
+
+        photographer.recordScreenshotOf(elementAt(10, 20, 100, 50));
+
+        QueuedScreenshot queuedScreenshot = queuedScreenshot();
+        assertThat(queuedScreenshot.getScreenshotData(), is(screenshotData));
+        assertThat(queuedScreenshot.getCropArea().isPresent(), is(true));
+    }
+
+    @Test
+    public void should_name_screenshots_of_different_elements_differently() throws IOException {
+
+        when(driver.getScreenshotAs(OutputType.BYTES)).thenReturn(screenshotData);
+        Photographer photographer = new Photographer(driver, screenshotDirectory, screenshotProcessor, null, environmentVariables);
+
+        ScreenshotAndHtmlSource screenshot = photographer.recordScreenshotOf(elementAt(10, 20, 100, 50)).get();
+        ScreenshotAndHtmlSource sameScreenshot = photographer.recordScreenshotOf(elementAt(10, 20, 100, 50)).get();
+        ScreenshotAndHtmlSource otherScreenshot = photographer.recordScreenshotOf(elementAt(10, 80, 100, 50)).get();
+        ScreenshotAndHtmlSource wholeScreenshot = photographer.recordScreenshot().get();
+
+        assertThat(sameScreenshot.getScreenshotName(), is(screenshot.getScreenshotName()));
+        assertThat(otherScreenshot.getScreenshotName(), is(not(screenshot.getScreenshotName())));
+        assertThat(wholeScreenshot.getScreenshotName(), is(not(screenshot.getScreenshotName())));
+    }
+
+    @Test
+    public void should_store_the_whole_screenshot_if_the_element_is_not_on_the_screenshot() throws IOException {
+
+        when(driver.getScreenshotAs(OutputType.BYTES)).thenReturn(screenshotData);
+        Photographer photographer = new Photographer(driver, screenshotDirectory, screenshotProcessor, null, environmentVariables);
+
+        ScreenshotAndHtmlSource screenshot = photographer.recordScreenshotOf(elementAt(100000, 100000, 100, 50)).get();
+
+        BufferedImage storedImage = ImageIO.read(processed(queuedScreenshot()));
+        BufferedImage image = ImageIO.read(originalScreenshot);
+        assertThat(storedImage.getWidth(), is(image.getWidth()));
+        assertThat(storedImage.getHeight(), is(image.getHeight()));
+        assertThat(screenshot.getWidth(), is(image.getWidth()));
+    }
+
+    private QueuedScreenshot queuedScreenshot() {
+        ArgumentCaptor<QueuedScreenshot> queuedScreenshot = ArgumentCaptor.forClass(QueuedScreenshot.class);
+        verify(screenshotProcessor, atLeastOnce()).queueScreenshot(queuedScreenshot.capture());
+        return queuedScreenshot.getValue();
+    }
+
+    private File processed(QueuedScreenshot queuedScreenshot) {
+        new ScreenshotFileProcessor(environmentVariables).process(queuedScreenshot);
+        return queuedScreenshot.getDestinationFile();
+    }
+
+    private WebElement elementAt(int x, int y, int width, int height) {
+        WebElement element = mock(WebElement.class);
+        when(element.getLocation()).thenReturn(new org.openqa.selenium.Point(x, y));
+        when(element.getSize()).thenReturn(new org.openqa.selenium.Dimension(width, height));
+        return element;
+    }
+
+    private byte[] withBlinkingCursor(File screenshot) throws IOException {
+        BufferedImage image = ImageIO.read(screenshot);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(Color.BLACK);
+        graphics.fillRect(200, 300, 2, 18);
+        graphics.dispose();
+        ByteArrayOutputStream imageData = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", imageData);
+        return imageData.toByteArray();
+    }
+
+    @Test
+    public void should_leave_blurring_screenshots_to_the_screenshot_processor() throws Exception {
+        Photographer photographer = new MockPhotographer(driver, screenshotDirectory, BlurLevel.HEAVY);
+        photographer.setScreenshotProcessor(screenshotProcessor);
+        when(driver.getScreenshotAs(OutputType.BYTES)).thenReturn(screenshotData);
+
+        File savedScreenshot = photographer.takeScreenshot().get();
+
+        ArgumentCaptor<QueuedScreenshot> queuedScreenshot = ArgumentCaptor.forClass(QueuedScreenshot.class);
+        verify(screenshotProcessor).queueScreenshot(queuedScreenshot.capture());
+        assertThat(queuedScreenshot.getValue().getBlurLevel().get(), is(BlurLevel.HEAVY));
+        assertThat(queuedScreenshot.getValue().getScreenshotData(), is(screenshotData));
+        assertThat(savedScreenshot.getName(), endsWith("_HEAVY.png"));
         verify(driver,times(1)).getScreenshotAs((OutputType<?>) anyObject());
     }
 
     @Test
     public void should_not_blur_screenshots_if_blurScreenshots_option_is_absent() throws Exception {
         Photographer photographer = new MockPhotographer(driver, screenshotDirectory, null);
-        photographer = spy(photographer);
-        when(driver.getScreenshotAs(OutputType.FILE)).thenReturn(screenshotTaken);
+        photographer.setScreenshotProcessor(screenshotProcessor);
+        when(driver.getScreenshotAs(OutputType.BYTES)).thenReturn(screenshotData);
+
         photographer.takeScreenshot();
-        waitUntilScreenshotsProcessed();
 
-        verify(photographer, times(0)).blur(any(File.class));
+        ArgumentCaptor<QueuedScreenshot> queuedScreenshot = ArgumentCaptor.forClass(QueuedScreenshot.class);
+        verify(screenshotProcessor).queueScreenshot(queuedScreenshot.capture());
+        assertThat(queuedScreenshot.getValue().getBlurLevel().isPresent(), is(false));
         verify(driver,times(1)).getScreenshotAs((OutputType<?>) anyObject());
     }
 }
@@ -11,6 +11,7 @@ import net.thucydides.core.model.TestStep;
 import net.thucydides.core.model.TestTag;
 import net.thucydides.core.model.features.ApplicationFeature;
 import net.thucydides.core.pages.Pages;
+import net.thucydides.core.screenshots.PageSources;
 import net.thucydides.core.screenshots.ScreenshotAndHtmlSource;
 import net.thucydides.core.screenshots.ScreenshotException;
 import net.thucydides.core.steps.samples.FlatScenarioSteps;
@@ -23,6 +24,7 @@ import net.thucydides.core.util.MockEnvironmentVariables;
 import net.thucydides.core.webdriver.Configuration;
 import net.thucydides.core.webdriver.SystemPropertiesConfiguration;
 import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.filefilter.SuffixFileFilter;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Rule;
@@ -1372,6 +1374,54 @@ public class WhenRecordingStepExecutionResults {
         verify(driver, times(1)).getScreenshotAs((OutputType<?>) anyObject());
     }
 
+    @Test
+    public void adaptive_screenshots_should_skip_screenshots_at_the_end_of_short_steps() {
+
+        configureEventBus("thucydides.adaptive.screenshots", "true");
+
+        StepEventBus.getEventBus().testSuiteStarted(MyTestCase.class);
+        StepEventBus.getEventBus().testStarted("app_should_work");
+
+        FlatScenarioSteps steps = stepFactory.getStepLibraryFor(FlatScenarioSteps.class);
+        steps.step_one();
+        steps.step_two();
+        StepEventBus.getEventBus().testFinished(testOutcome);
+
+        verify(driver, times(2)).getScreenshotAs((OutputType<?>) anyObject());
+    }
+
+    @Test
+    public void adaptive_screenshots_should_record_the_number_of_skipped_screenshots_in_the_test_outcome() {
+
+        BaseStepListener adaptiveStepListener = configureEventBus("thucydides.adaptive.screenshots", "true");
+
+        StepEventBus.getEventBus().testSuiteStarted(MyTestCase.class);
+        StepEventBus.getEventBus().testStarted("app_should_work");
+
+        FlatScenarioSteps steps = stepFactory.getStepLibraryFor(FlatScenarioSteps.class);
+        steps.step_one();
+        steps.step_two();
+        StepEventBus.getEventBus().testFinished(testOutcome);
+
+        assertThat(adaptiveStepListener.getTestOutcomes().get(0).getSkippedScreenshotCount(), is(2));
+    }
+
+    @Test
+    public void adaptive_screenshots_should_always_keep_the_screenshots_of_failing_steps() {
+
+        configureEventBus("thucydides.adaptive.screenshots", "true");
+
+        StepEventBus.getEventBus().testSuiteStarted(MyTestCase.class);
+        StepEventBus.getEventBus().testStarted("app_should_work");
+
+        FlatScenarioSteps steps = stepFactory.getStepLibraryFor(FlatScenarioSteps.class);
+        steps.step_one();
+        steps.failingStep();
+        StepEventBus.getEventBus().testFinished(testOutcome);
+
+        verify(driver, times(3)).getScreenshotAs((OutputType<?>) anyObject());
+    }
+
     @Test
     public void html_source_should_not_be_recorded_by_default() {
 
@@ -1387,8 +1437,33 @@ public class WhenRecordingStepExecutionResults {
         verify(driver, never()).getPageSource();
     }
 
+    @Test
+    public void html_source_should_be_stored_once_in_compressed_form_if_requested() throws IOException {
+
+        environmentVariables.setProperty("thucydides.store.html.source", "true");
+        BaseStepListener stepListener = configureEventBus("thucydides.take.screenshots","FOR_EACH_ACTION");
+        when(driver.getPageSource()).thenReturn("<html><body>Hello</body></html>");
+
+        StepEventBus.getEventBus().testSuiteStarted(MyTestCase.class);
+        StepEventBus.getEventBus().testStarted("app_should_work");
+
+        FlatScenarioSteps steps = stepFactory.getStepLibraryFor(FlatScenarioSteps.class);
+        steps.step_with_screen_changes();
+        StepEventBus.getEventBus().testFinished(testOutcome);
+        StepEventBus.getEventBus().testSuiteFinished();
+
+        List<ScreenshotAndHtmlSource> screenshots = stepListener.getTestOutcomes().get(0).getScreenshotAndHtmlSources();
+        assertThat(screenshots.size(), greaterThan(1));
+        for (ScreenshotAndHtmlSource screenshot : screenshots) {
+            assertThat(screenshot.getHtmlSourceName(), org.hamcrest.Matchers.endsWith(".html.gz"));
+            File pageSource = new File(outputDirectory, screenshot.getHtmlSourceName());
+            assertThat(PageSources.read(pageSource), is("<html><body>Hello</body></html>"));
+        }
+        File[] pageSources = outputDirectory.listFiles((java.io.FilenameFilter) new SuffixFileFilter(".html.gz"));
+        assertThat(pageSources.length, is(1));
+    }
 
-    private void configureEventBus(String property, String value) {
+    private BaseStepListener configureEventBus(String property, String value) {
         environmentVariables.setProperty(property, value);
         SystemPropertiesConfiguration configuration = new SystemPropertiesConfiguration(environmentVariables);
 
@@ -1397,6 +1472,7 @@ public class WhenRecordingStepExecutionResults {
         StepEventBus.getEventBus().clear();
         StepEventBus.getEventBus().dropAllListeners();
         StepEventBus.getEventBus().registerListener(stepListener);
+        return stepListener;
     }
 
     @Test
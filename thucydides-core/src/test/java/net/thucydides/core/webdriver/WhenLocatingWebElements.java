@@ -1,24 +1,43 @@
 package net.thucydides.core.webdriver;
 
 import com.google.common.collect.ImmutableList;
+import net.thucydides.core.annotations.locators.FieldLocator;
 import net.thucydides.core.annotations.locators.SmartAjaxElementLocator;
+import net.thucydides.core.guice.Injectors;
+import net.thucydides.core.pages.WebElementFacadeImpl;
 import net.thucydides.core.steps.StepEventBus;
 import net.thucydides.core.steps.StepFailure;
+import net.thucydides.core.util.EnvironmentVariables;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.openqa.selenium.By;
+import org.openqa.selenium.ElementNotVisibleException;
 import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.StaleElementReferenceException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
 
 import java.lang.reflect.Field;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Queue;
 
+import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class WhenLocatingWebElements {
@@ -53,6 +72,15 @@ public class WhenLocatingWebElements {
         when(driver.findElements(By.id("someId"))).thenReturn(ImmutableList.of(webElement));
     }
 
+    @After
+    public void disableTheElementCache() {
+        Injectors.getInjector().getProvider(EnvironmentVariables.class).get().clearProperty("thucydides.element.cache");
+    }
+
+    private void enableTheElementCache() {
+        Injectors.getInjector().getProvider(EnvironmentVariables.class).get().setProperty("thucydides.element.cache", "true");
+    }
+
     @Test(timeout = 5000)
     public void should_find_element_immediately_if_a_previous_step_has_failed() {
 
@@ -74,4 +102,175 @@ public class WhenLocatingWebElements {
         locator.findElement();
     }
 
+    @Test(timeout = 5000)
+    public void should_find_element_immediately_when_checking_the_current_state_of_an_element() {
+        when(webElement.isDisplayed()).thenReturn(false);
+
+        SmartAjaxElementLocator locator = new SmartAjaxElementLocator(driver, field, 10);
+        WebElementFacadeImpl elementFacade = new WebElementFacadeImpl(driver, locator, 10000);
+
+        assertThat(elementFacade.isCurrentlyVisible(), is(false));
+    }
+
+    @Test
+    public void should_read_the_field_annotations_only_once_for_all_page_objects() throws NoSuchFieldException {
+        FieldLocator fieldLocator = FieldLocator.forField(field);
+
+        assertThat(FieldLocator.forField(SomePageObject.class.getField("someField")), is(sameInstance(fieldLocator)));
+        assertThat(fieldLocator.getBy(), is(By.id("someId")));
+    }
+
+    @Test
+    public void should_reuse_the_element_found_for_a_field_if_the_element_cache_is_enabled() {
+        enableTheElementCache();
+        when(webElement.isDisplayed()).thenReturn(true);
+        when(webElement.getAttribute("value")).thenReturn("some value");
+
+        SmartAjaxElementLocator locator = new SmartAjaxElementLocator(driver, field, 1);
+
+        assertThat(new WebElementFacadeImpl(driver, locator, 1000).getAttribute("value"), is("some value"));
+        assertThat(new WebElementFacadeImpl(driver, locator, 1000).getAttribute("value"), is("some value"));
+        verify(driver, times(1)).findElement(By.id("someId"));
+    }
+
+    @Test
+    public void should_look_up_the_element_for_a_field_each_time_by_default() {
+        when(webElement.isDisplayed()).thenReturn(true);
+        when(webElement.getAttribute("value")).thenReturn("some value");
+
+        SmartAjaxElementLocator locator = new SmartAjaxElementLocator(driver, field, 1);
+
+        assertThat(new WebElementFacadeImpl(driver, locator, 1000).getAttribute("value"), is("some value"));
+        assertThat(new WebElementFacadeImpl(driver, locator, 1000).getAttribute("value"), is("some value"));
+        verify(driver, times(2)).findElement(By.id("someId"));
+    }
+
+    @Test
+    public void should_find_the_element_again_after_an_action_on_the_cached_element() {
+        when(webElement.isDisplayed()).thenReturn(true);
+
+        SmartAjaxElementLocator locator = new SmartAjaxElementLocator(driver, field, 1);
+        locator.findCachedElement().click();
+        locator.findCachedElement().getAttribute("class");
+
+        verify(driver, times(2)).findElement(By.id("someId"));
+    }
+
+    @Test
+    public void should_find_the_element_again_if_the_cached_element_has_gone_stale() {
+        enableTheElementCache();
+        WebElement refreshedElement = mock(WebElement.class);
+        when(driver.findElement(By.id("someId"))).thenReturn(webElement, refreshedElement);
+        when(webElement.isDisplayed()).thenReturn(true);
+        when(webElement.getAttribute("value")).thenThrow(new StaleElementReferenceException("stale"));
+        when(refreshedElement.isDisplayed()).thenReturn(true);
+        when(refreshedElement.getAttribute("value")).thenReturn("new value");
+
+        SmartAjaxElementLocator locator = new SmartAjaxElementLocator(driver, field, 1);
+
+        assertThat(new WebElementFacadeImpl(driver, locator, 1000).getAttribute("value"), is("new value"));
+    }
+
+    @Test
+    public void should_find_the_element_again_after_navigating_to_another_page() {
+        WebDriverFacade driverFacade = new WebDriverFacade(driver.getClass(), null) {
+            @Override
+            protected WebDriver newProxyDriver() {
+                return driver;
+            }
+        };
+        when(webElement.isDisplayed()).thenReturn(true);
+
+        SmartAjaxElementLocator locator = new SmartAjaxElementLocator(driverFacade, field, 1);
+        locator.findCachedElement();
+        driverFacade.get("http://www.google.com");
+        locator.findCachedElement();
+
+        verify(driver, times(2)).findElement(By.id("someId"));
+    }
+
+    @Test(timeout = 5000)
+    public void should_wait_for_an_element_that_was_hidden_when_its_state_was_checked_before_clicking_on_it() {
+        enableTheElementCache();
+        ElementDisplayedInTurn displayedStates = elementDisplayedInTurn(false, false, true);
+        when(webElement.getTagName()).thenReturn("button");
+        when(webElement.isEnabled()).thenReturn(true);
+
+        SmartAjaxElementLocator locator = new SmartAjaxElementLocator(driver, field, 5);
+        WebElementFacadeImpl elementFacade = new WebElementFacadeImpl(driver, locator, 5000);
+
+        assertThat(elementFacade.isCurrentlyVisible(), is(false));
+        elementFacade.click();
+
+        verify(webElement).click();
+        assertThat(displayedStates.allUsed(), is(true));
+    }
+
+    @Test(timeout = 5000)
+    public void should_wait_for_a_cached_element_that_has_been_hidden_before_clicking_on_it() {
+        ElementDisplayedInTurn displayedStates = elementDisplayedInTurn(true, false, false, true);
+
+        SmartAjaxElementLocator locator = new SmartAjaxElementLocator(driver, field, 5);
+        WebElement cachedElement = locator.findCachedElement();
+        cachedElement.click();
+
+        verify(webElement).click();
+        assertThat(displayedStates.allUsed(), is(true));
+    }
+
+    @Test
+    public void should_find_the_element_again_once_the_cached_element_is_forgotten() {
+        when(webElement.isDisplayed()).thenReturn(true);
+
+        SmartAjaxElementLocator locator = new SmartAjaxElementLocator(driver, field, 1);
+        locator.findCachedElement();
+        locator.forgetCachedElement();
+        locator.findCachedElement();
+
+        verify(driver, times(2)).findElement(By.id("someId"));
+    }
+
+    /**
+     * The element is displayed or hidden in turn each time isDisplayed() is called,
+     * and clicking on it fails while it is hidden.
+     */
+    private ElementDisplayedInTurn elementDisplayedInTurn(Boolean... displayedStates) {
+        final ElementDisplayedInTurn displayed = new ElementDisplayedInTurn(displayedStates);
+        when(webElement.isDisplayed()).thenAnswer(displayed);
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) {
+                if (!displayed.isDisplayed()) {
+                    throw new ElementNotVisibleException("Element is not currently visible");
+                }
+                return null;
+            }
+        }).when(webElement).click();
+        return displayed;
+    }
+
+    private static class ElementDisplayedInTurn implements Answer<Boolean> {
+        private final Queue<Boolean> displayedStates;
+        private boolean displayed;
+
+        ElementDisplayedInTurn(Boolean... displayedStates) {
+            this.displayedStates = new ArrayDeque<>(Arrays.asList(displayedStates));
+        }
+
+        @Override
+        public Boolean answer(InvocationOnMock invocation) {
+            if (!displayedStates.isEmpty()) {
+                displayed = displayedStates.remove();
+            }
+            return displayed;
+        }
+
+        boolean isDisplayed() {
+            return displayed;
+        }
+
+        boolean allUsed() {
+            return displayedStates.isEmpty();
+        }
+    }
 }
@@ -162,6 +162,16 @@ public class ThucydidesRunner extends BlockJUnit4ClassRunner {
 
         batchManager.registerTestCase(klass);
 
+        prewarmBrowserIfRequired();
+    }
+
+    /**
+     * Start the browser for the @Managed driver in the background, so that it is ready when the tests need it.
+     */
+    private void prewarmBrowserIfRequired() {
+        if (TestCaseAnnotations.supportsWebTests(getTestClass().getJavaClass()) && !skipThisTest()) {
+            webdriverManager.prewarmWebdriver(requestedDriver);
+        }
     }
 
 
@@ -234,6 +244,7 @@ public class ThucydidesRunner extends BlockJUnit4ClassRunner {
         if (!skipThisTest()) {
             try {
                 setupFixtureServices();
+                prewarmBrowserIfRequired();
                 localNotifier = initializeRunNotifier(notifier);
                 super.run(localNotifier);
             } catch (Throwable someFailure) {
@@ -273,9 +273,21 @@
                             <td width="100" class="${step.result}-text">
                                 <#if !step.isAGroup() && step.firstScreenshot??>
                                     <a href="${relativeLink!}${testOutcome.screenshotReportName}.html#screenshots?screenshot=${screenshotCount}">
+                                        <#if step.firstScreenshot.evicted>
+                                        <img src="images/screen.png"
+                                             title="This screenshot has been deleted to save disk space"
+                                             class="screenshot"
+                                             width="48" height="48"/>
+                                        <#elseif reportOptions.showScreenshotThumbnails>
+                                        <img src="${step.firstScreenshot.thumbnailName}"
+                                             onerror="this.onerror=null;this.src='${step.firstScreenshot.screenshotFile.name}'"
+                                             class="screenshot"
+                                             width="48" height="48"/>
+                                        <#else>
                                         <img src="${step.firstScreenshot.screenshotFile.name}"
                                              class="screenshot"
                                              width="48" height="48"/>
+                                        </#if>
                                         <#assign screenshotCount = screenshotCount + step.screenshotCount />
                                     </a>
                                 </#if>
@@ -161,7 +161,11 @@
 	 <div class="slider-wrapper theme-default">
 		<div id="slider">
             <#foreach screenshot in screenshots>
+                <#if screenshot.evicted>
+                <img src="images/screen.png" alt="This screenshot has been deleted to save disk space" title="${screenshot.html.description}" width="${screenshot.width?string.computer}"/>
+                <#else>
                 <img src="${screenshot.filename}" alt="${screenshot.shortErrorMessage}" title="${screenshot.html.description}" width="${screenshot.width?string.computer}"/>
+                </#if>
             </#foreach>
         </div>
 	  </div>